@@ -0,0 +1,59 @@
+package com.chhotu.Learning_Management_System.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Clock;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Background executors used to move bulk work off the HTTP request threads,
+ * plus scheduling for periodic housekeeping jobs.
+ */
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    /**
+     * Time source of the scheduled jobs, replaced in tests to step through time without sleeping.
+     */
+    @Bean
+    public Clock clock() {
+        return Clock.systemUTC();
+    }
+
+    /**
+     * Bounded pool that writes notification fan-outs (course-wide announcements, quiz publication).
+     * When the queue is full the submitting thread runs the batch itself, which throttles producers
+     * instead of dropping notifications.
+     */
+    @Bean(name = "notificationExecutor")
+    public ThreadPoolTaskExecutor notificationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("notify-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs the quiz submission workers on virtual threads. Each worker is a long-lived loop that
+     * drains the submission queue, so the concurrency limit is exactly the number of workers.
+     */
+    @Bean(name = "quizGradingExecutor")
+    public SimpleAsyncTaskExecutor quizGradingExecutor(@Value("${lms.quiz.submissions.workers:4}") int workers) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("quiz-grade-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(workers);
+        return executor;
+    }
+}
@@ -1,6 +1,8 @@
 
 package com.chhotu.Learning_Management_System.config;
 
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.web.servlet.filter.OrderedFormContentFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -35,6 +37,7 @@ public class WebSecurityConfig {
                                 "/api/lesson/**",
                                 "/api/quiz/**",
                                 "/api/assignment/**",
+                                "/api/admin/**",
 
                                 // ✅ Swagger and API documentation endpoints
                                 "/swagger-ui/**",
@@ -76,6 +79,22 @@ public class WebSecurityConfig {
         return new BCryptPasswordEncoder();
     }
 
+    /**
+     * Replaces Boot's form content filter so it never reads the body of the raw media upload, which
+     * it would otherwise buffer whole when a client sends it as {@code application/x-www-form-urlencoded}.
+     * The endpoint itself only consumes {@code application/octet-stream} and rejects such requests.
+     */
+    @Bean
+    public OrderedFormContentFilter formContentFilter() {
+        return new OrderedFormContentFilter() {
+            @Override
+            protected boolean shouldNotFilter(HttpServletRequest request) {
+                String path = request.getRequestURI();
+                return path.startsWith(request.getContextPath() + "/api/course/upload_media/") && path.endsWith("/stream");
+            }
+        };
+    }
+
     // ✅ Temporary method — only for generating a hashed password for admin
 //    public static void main(String[] args) {
 //        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
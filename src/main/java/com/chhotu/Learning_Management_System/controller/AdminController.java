@@ -0,0 +1,93 @@
+package com.chhotu.Learning_Management_System.controller;
+
+import com.chhotu.Learning_Management_System.dto.EmailOutboxStatsDto;
+import com.chhotu.Learning_Management_System.dto.NotificationCleanupReportDto;
+import com.chhotu.Learning_Management_System.service.EmailOutboxService;
+import com.chhotu.Learning_Management_System.service.NotificationCleanupService;
+import com.chhotu.Learning_Management_System.service.ReferenceDataService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controller for admin-only operational endpoints.
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
+
+    private final EmailOutboxService emailOutboxService;
+    private final NotificationCleanupService notificationCleanupService;
+    private final ReferenceDataService referenceDataService;
+
+    public AdminController(EmailOutboxService emailOutboxService,
+                           NotificationCleanupService notificationCleanupService,
+                           ReferenceDataService referenceDataService) {
+        this.emailOutboxService = emailOutboxService;
+        this.notificationCleanupService = notificationCleanupService;
+        this.referenceDataService = referenceDataService;
+    }
+
+    /**
+     * Returns the email outbox queue depth and delivery counters.
+     *
+     * @param request the HTTP request for context
+     * @return outbox metrics
+     */
+    @GetMapping("/email_outbox/stats")
+    public ResponseEntity<?> getEmailOutboxStats(HttpServletRequest request) {
+        try {
+            EmailOutboxStatsDto stats = emailOutboxService.getQueueStats(request);
+            return ResponseEntity.ok(stats);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Failed to fetch email outbox stats: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error while fetching email outbox stats", e);
+            return ResponseEntity.internalServerError().body("An unexpected error occurred while fetching outbox stats.");
+        }
+    }
+
+    /**
+     * Runs the notification retention and digest job immediately instead of waiting for its schedule.
+     *
+     * @param request the HTTP request for context
+     * @return rows coalesced and purged by the run
+     */
+    @PostMapping("/notifications/cleanup")
+    public ResponseEntity<?> runNotificationCleanup(HttpServletRequest request) {
+        try {
+            NotificationCleanupReportDto report = notificationCleanupService.runCleanup(request);
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Failed to run notification cleanup: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error while running notification cleanup", e);
+            return ResponseEntity.internalServerError().body("An unexpected error occurred while cleaning up notifications.");
+        }
+    }
+
+    /**
+     * Re-reads the user type and question type tables into the in-memory reference data.
+     *
+     * @param request the HTTP request for context
+     * @return how many rows of each table were loaded
+     */
+    @PostMapping("/reference_data/reload")
+    public ResponseEntity<?> reloadReferenceData(HttpServletRequest request) {
+        try {
+            return ResponseEntity.ok(referenceDataService.reload(request));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Failed to reload reference data: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error while reloading reference data", e);
+            return ResponseEntity.internalServerError().body("An unexpected error occurred while reloading reference data.");
+        }
+    }
+}
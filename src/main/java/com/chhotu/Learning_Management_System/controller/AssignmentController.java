@@ -2,15 +2,27 @@
 package com.chhotu.Learning_Management_System.controller;
 
 import com.chhotu.Learning_Management_System.dto.AssignmentDto;
+import com.chhotu.Learning_Management_System.dto.BulkGradeDto;
+import com.chhotu.Learning_Management_System.dto.BulkGradeReportDto;
 import com.chhotu.Learning_Management_System.dto.GetFeedbackDto;
 import com.chhotu.Learning_Management_System.dto.GradeAssignmentDto;
 import com.chhotu.Learning_Management_System.dto.SaveAssignmentDto;
+import com.chhotu.Learning_Management_System.dto.StartUploadDto;
+import com.chhotu.Learning_Management_System.dto.UploadStatusDto;
+import com.chhotu.Learning_Management_System.entity.NotificationTemplate;
 import com.chhotu.Learning_Management_System.service.AssignmentService;
+import com.chhotu.Learning_Management_System.service.GradeExportService;
 import com.chhotu.Learning_Management_System.service.NotificationsService;
+import com.chhotu.Learning_Management_System.service.SubmissionFileService;
+import com.chhotu.Learning_Management_System.util.StreamingResponses;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.Collections;
 import java.util.List;
@@ -22,13 +34,18 @@ public class AssignmentController {
 
     private final AssignmentService assignmentService;
     private final NotificationsService notificationsService;
+    private final GradeExportService gradeExportService;
+    private final SubmissionFileService submissionFileService;
 
     /**
      * Constructor-based dependency injection for Assignment and Notification services.
      */
-    public AssignmentController(AssignmentService assignmentService, NotificationsService notificationsService) {
+    public AssignmentController(AssignmentService assignmentService, NotificationsService notificationsService,
+                                GradeExportService gradeExportService, SubmissionFileService submissionFileService) {
         this.assignmentService = assignmentService;
         this.notificationsService = notificationsService;
+        this.gradeExportService = gradeExportService;
+        this.submissionFileService = submissionFileService;
         log.info("AssignmentController initialized successfully.");
     }
 
@@ -74,6 +91,76 @@ public class AssignmentController {
         }
     }
 
+    /**
+     * Starts a chunked upload of the file for the student's submission. Starting again with the same
+     * file name and size returns the unfinished upload, so an interrupted client can resume it.
+     */
+    @PostMapping("/file_upload")
+    public ResponseEntity<?> startFileUpload(@RequestBody StartUploadDto startUploadDto, HttpServletRequest request) {
+        log.info("Received file upload request for assignmentId: {}", startUploadDto.getAssignmentId());
+        try {
+            return ResponseEntity.ok(submissionFileService.startUpload(startUploadDto, request));
+        } catch (IllegalArgumentException e) {
+            log.warn("File upload start failed: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Unexpected error while starting file upload: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().body("An unexpected error occurred while starting file upload.");
+        }
+    }
+
+    /**
+     * Returns how many bytes of an upload are stored, i.e. where the next chunk must start.
+     */
+    @GetMapping("/file_upload/{uploadId}")
+    public ResponseEntity<?> getFileUploadStatus(@PathVariable String uploadId, HttpServletRequest request) {
+        try {
+            return ResponseEntity.ok(submissionFileService.getUploadStatus(uploadId, request));
+        } catch (IllegalArgumentException e) {
+            log.warn("File upload status failed: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Stores one chunk sent as the raw request body, starting at the given offset.
+     */
+    @PutMapping(value = "/file_upload/{uploadId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<?> uploadFileChunk(@PathVariable String uploadId, @RequestParam("offset") long offset,
+                                             HttpServletRequest request) {
+        try {
+            UploadStatusDto status = submissionFileService.writeChunk(uploadId, offset, request.getInputStream(), request);
+            log.debug("Upload {} at {} of {} bytes", uploadId, status.getReceivedBytes(), status.getTotalSize());
+            return ResponseEntity.ok(status);
+        } catch (IllegalArgumentException e) {
+            log.warn("File chunk rejected: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Unexpected error while storing file chunk: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().body("An unexpected error occurred while storing file chunk.");
+        }
+    }
+
+    /**
+     * Finishes an upload once every byte is received and attaches the stored file to the submission.
+     */
+    @PostMapping("/file_upload/{uploadId}/complete")
+    public ResponseEntity<?> completeFileUpload(@PathVariable String uploadId,
+                                                @RequestParam(value = "sha256", required = false) String sha256,
+                                                HttpServletRequest request) {
+        try {
+            UploadStatusDto status = submissionFileService.completeUpload(uploadId, sha256, request);
+            log.info("Upload {} completed as {}", uploadId, status.getFilePath());
+            return ResponseEntity.ok(status);
+        } catch (IllegalArgumentException e) {
+            log.warn("File upload completion failed: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Unexpected error while completing file upload: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().body("An unexpected error occurred while completing file upload.");
+        }
+    }
+
     /**
      * Grades a student's assignment and sends a notification.
      */
@@ -104,6 +191,27 @@ public class AssignmentController {
         }
     }
 
+    /**
+     * Grades many submissions of one assignment in a single transaction and notifies the graded students.
+     */
+    @PutMapping("/grade_bulk")
+    public ResponseEntity<?> bulkGrade(@RequestBody BulkGradeDto bulkGradeDto, HttpServletRequest request) {
+        log.info("Received bulk grading request for assignmentId: {}", bulkGradeDto.getAssignmentId());
+        try {
+            BulkGradeReportDto report = assignmentService.bulkGrade(bulkGradeDto, request);
+            notificationsService.fanOutNotification(NotificationTemplate.ASSIGNMENT_GRADED,
+                    report.getGradedStudentIds(), report.getAssignmentId());
+            log.info("Bulk graded {} submissions of assignmentId: {}", report.getUpdated(), report.getAssignmentId());
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            log.warn("Bulk grading failed: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Unexpected error while bulk grading assignment: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().body("An unexpected error occurred while grading assignment.");
+        }
+    }
+
     /**
      * Saves instructor feedback for a student's assignment.
      */
@@ -166,4 +274,24 @@ public class AssignmentController {
                     .body(Collections.singletonList("An unexpected error occurred while fetching submissions."));
         }
     }
+
+    /**
+     * Streams an assignment's submissions for the course instructor as CSV (default) or JSONL,
+     * straight from the database without building the whole list.
+     */
+    @GetMapping("/export_submissions/{assignmentId}")
+    public ResponseEntity<StreamingResponseBody> exportSubmissions(@PathVariable int assignmentId,
+                                                                   @RequestParam(value = "format", required = false) String format,
+                                                                   HttpServletRequest request) {
+        try {
+            GradeExportService.GradeExport export = gradeExportService.exportAssignmentSubmissions(assignmentId, format, request);
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + export.fileName() + "\"")
+                    .contentType(MediaType.parseMediaType(export.contentType()))
+                    .body(export.body());
+        } catch (IllegalArgumentException e) {
+            log.warn("Export refused: {}", e.getMessage());
+            return StreamingResponses.text(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
 }
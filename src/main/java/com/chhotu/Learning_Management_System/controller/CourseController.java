@@ -1,17 +1,36 @@
 
 package com.chhotu.Learning_Management_System.controller;
 
+import com.chhotu.Learning_Management_System.dto.CourseCatalogPageDto;
 import com.chhotu.Learning_Management_System.dto.CourseDto;
+import com.chhotu.Learning_Management_System.dto.SearchHitDto;
 import com.chhotu.Learning_Management_System.entity.Course;
+import com.chhotu.Learning_Management_System.service.CourseMediaService;
 import com.chhotu.Learning_Management_System.service.CourseService;
+import com.chhotu.Learning_Management_System.service.SearchIndexService;
+import com.chhotu.Learning_Management_System.util.StreamingResponses;
+import com.chhotu.Learning_Management_System.util.VersionStamp;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Controller class for handling Course-related operations.
@@ -23,11 +42,19 @@ public class CourseController {
 
     private static final Logger logger = LoggerFactory.getLogger(CourseController.class);
 
+    // Media URLs name a file that is never overwritten, so caches may keep it as long as they like
+    private static final CacheControl MEDIA_CACHE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable();
+
     private final CourseService courseService;
+    private final CourseMediaService courseMediaService;
+    private final SearchIndexService searchIndexService;
 
     // Constructor-based dependency injection
-    public CourseController(CourseService courseService) {
+    public CourseController(CourseService courseService, CourseMediaService courseMediaService,
+                            SearchIndexService searchIndexService) {
         this.courseService = courseService;
+        this.courseMediaService = courseMediaService;
+        this.searchIndexService = searchIndexService;
         logger.info("CourseController initialized successfully.");
     }
 
@@ -52,15 +79,20 @@ public class CourseController {
     }
 
     /**
-     * Retrieve course details by ID.
+     * Retrieve course details by ID. Answers 304 when the client's ETag or Last-Modified is still current.
      */
     @GetMapping("/course_id/{id}")
     public ResponseEntity<?> getCourseById(@PathVariable int id, HttpServletRequest request) {
         try {
             logger.info("Fetching course details for ID: {}", id);
+            VersionStamp version = courseService.getCourseVersion(id, request);
+            if (version.isNotModified(request)) {
+                logger.info("Course ID {} not modified.", id);
+                return version.notModified();
+            }
             CourseDto courseDTO = courseService.getCourseById(id, request);
             logger.info("Course details retrieved successfully for ID: {}", id);
-            return ResponseEntity.ok(courseDTO);
+            return version.ok(courseDTO);
         } catch (IllegalArgumentException e) {
             logger.error("Error fetching course ID {}: {}", id, e.getMessage());
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -83,6 +115,48 @@ public class CourseController {
         }
     }
 
+    /**
+     * Retrieve one page of the course catalog. Pass the returned nextCursor, with the same filters and
+     * sort, to get the following page.
+     */
+    @GetMapping("/catalog")
+    public ResponseEntity<?> getCatalog(@RequestParam(required = false) Integer instructorId,
+                                        @RequestParam(required = false) String namePrefix,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdFrom,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdTo,
+                                        @RequestParam(required = false) String sort,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(required = false) Integer limit,
+                                        HttpServletRequest request) {
+        try {
+            CourseCatalogPageDto page = courseService.getCatalog(instructorId, namePrefix, createdFrom, createdTo,
+                    sort, cursor, limit, request);
+            logger.info("Retrieved catalog page of {} courses.", page.getCourses().size());
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            logger.error("Error fetching course catalog: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Search course and lesson names, descriptions and lesson content. Every word of the query must
+     * match, either exactly or as the start of a longer word; best matches come first.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> search(@RequestParam("q") String query,
+                                    @RequestParam(required = false) Integer limit,
+                                    HttpServletRequest request) {
+        try {
+            List<SearchHitDto> hits = searchIndexService.search(query, limit, request);
+            logger.info("Search returned {} hits.", hits.size());
+            return ResponseEntity.ok(hits);
+        } catch (IllegalArgumentException e) {
+            logger.error("Error searching courses: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     /**
      * Update course details and notify enrolled students.
      */
@@ -93,9 +167,9 @@ public class CourseController {
             HttpServletRequest request) {
         try {
             logger.info("Request received to update course ID: {}", courseId);
-            courseService.sendNotificationsToEnrolledStudents(courseId, request);
             courseService.updateCourse(courseId, updatedCourse, request);
-            logger.info("Course ID {} updated successfully.", courseId);
+            int notified = courseService.sendNotificationsToEnrolledStudents(courseId, request);
+            logger.info("Course ID {} updated successfully. {} students notified.", courseId, notified);
             return ResponseEntity.ok("Course updated successfully.");
         } catch (IllegalArgumentException e) {
             logger.error("Failed to update course ID {}: {}", courseId, e.getMessage());
@@ -139,4 +213,112 @@ public class CourseController {
             return ResponseEntity.internalServerError().body("Internal server error: " + e.getMessage());
         }
     }
+
+    /**
+     * Upload media file for a course as the raw request body, streamed straight to storage.
+     * Suited to large recordings, which the multipart endpoint would first spool to a temp file.
+     * Only {@code application/octet-stream} is accepted, so a form-encoded body is never parsed into memory.
+     */
+    @PutMapping(value = "/upload_media/{courseId}/stream", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<String> uploadMediaStream(@PathVariable int courseId,
+                                                    @RequestParam("fileName") String fileName,
+                                                    HttpServletRequest request) {
+        try {
+            logger.info("Streaming media upload for course ID: {} | File: {} | Size: {}", courseId, fileName, request.getContentLengthLong());
+            String stored = courseService.uploadMediaStream(courseId, fileName, request.getContentLengthLong(),
+                    request.getInputStream(), request);
+            logger.info("File '{}' stored as '{}' for course ID: {}", fileName, stored, courseId);
+            return ResponseEntity.ok("File uploaded successfully.");
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid media upload for course ID {}: {}", courseId, e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            logger.error("Unexpected error while uploading media for course ID {}: {}", courseId, e.getMessage());
+            return ResponseEntity.internalServerError().body("Internal server error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Redirect to the current media file of a course, whose URL can then be cached for good.
+     */
+    @GetMapping("/media/{courseId}")
+    public ResponseEntity<?> currentMedia(@PathVariable int courseId, HttpServletRequest request) {
+        try {
+            CourseMediaService.MediaFile media = courseMediaService.getMedia(courseId, null, request);
+            return ResponseEntity.status(HttpStatus.FOUND)
+                    .location(URI.create(request.getRequestURI() + "/" + media.fileName()))
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        } catch (IllegalArgumentException e) {
+            logger.warn("Media lookup refused for course ID {}: {}", courseId, e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Download a course media file, honouring single byte-range requests so video players can seek.
+     */
+    @GetMapping("/media/{courseId}/{fileName:.+}")
+    public ResponseEntity<StreamingResponseBody> downloadMedia(@PathVariable int courseId, @PathVariable String fileName,
+                                                               @RequestHeader HttpHeaders headers, HttpServletRequest request) {
+        CourseMediaService.MediaFile media;
+        try {
+            media = courseMediaService.getMedia(courseId, fileName, request);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Media download refused for course ID {}: {}", courseId, e.getMessage());
+            return StreamingResponses.text(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        if (matchesEtag(headers.getIfNoneMatch(), media.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(media.etag()).cacheControl(MEDIA_CACHE).build();
+        }
+
+        long start = 0;
+        long length = media.size();
+        boolean partial = false;
+        String ifRange = headers.getFirst(HttpHeaders.IF_RANGE);
+        if (headers.containsKey(HttpHeaders.RANGE) && (ifRange == null || ifRange.equals(media.etag()))) {
+            try {
+                List<HttpRange> ranges = headers.getRange();
+                // Several ranges at once are rare for media; answering with the whole file is allowed
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(media.size());
+                    if (start >= media.size()) {
+                        throw new IllegalArgumentException("Range starts past the end of the file");
+                    }
+                    length = ranges.get(0).getRangeEnd(media.size()) - start + 1;
+                    partial = true;
+                }
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header(HttpHeaders.CONTENT_RANGE, "bytes */" + media.size())
+                        .build();
+            }
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(partial ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK)
+                .eTag(media.etag())
+                .cacheControl(MEDIA_CACHE)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .contentType(media.contentType())
+                .contentLength(length);
+        if (partial) {
+            response.header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (start + length - 1) + "/" + media.size());
+        }
+        if (HttpMethod.HEAD.matches(request.getMethod())) {
+            return response.build();
+        }
+        Optional<StreamingResponseBody> body = courseMediaService.openRange(media, start, length, request);
+        return body.isPresent() ? response.body(body.get()) : response.build();
+    }
+
+    private static boolean matchesEtag(List<String> ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch) {
+            // Weak comparison, as If-None-Match requires
+            if (candidate.equals("*") || candidate.replaceFirst("^W/", "").equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -1,14 +1,19 @@
 
 package com.chhotu.Learning_Management_System.controller;
 
+import com.chhotu.Learning_Management_System.dto.NotificationPageDto;
 import com.chhotu.Learning_Management_System.entity.Instructor;
 import com.chhotu.Learning_Management_System.service.InstructorService;
 import com.chhotu.Learning_Management_System.service.NotificationsService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -107,4 +112,115 @@ public class InstructorController {
             return ResponseEntity.internalServerError().body("An unexpected error occurred while fetching unread notifications.");
         }
     }
+
+    /**
+     * Retrieves one keyset page of an instructor's inbox without marking anything as read.
+     *
+     * @param userId     the instructor's user ID
+     * @param unreadOnly whether to return unread notifications only
+     * @param cursor     cursor returned by the previous page (omit for the first page)
+     * @param limit      page size
+     * @param request    the HTTP request for context
+     * @return page of notifications
+     */
+    @GetMapping("/notifications/inbox/{userId}")
+    public ResponseEntity<?> getInbox(@PathVariable int userId,
+                                      @RequestParam(defaultValue = "false") boolean unreadOnly,
+                                      @RequestParam(required = false) String cursor,
+                                      @RequestParam(required = false) Integer limit,
+                                      HttpServletRequest request) {
+        logger.info("Fetching inbox page for userId: {}", userId);
+        try {
+            NotificationPageDto page = notificationsService.getInbox(userId, unreadOnly, cursor, limit, request);
+            logger.info("Fetched {} notifications for userId: {}", page.getNotifications().size(), userId);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Failed to fetch inbox for userId {}: {}", userId, e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error while fetching inbox for userId {}", userId, e);
+            return ResponseEntity.internalServerError().body("An unexpected error occurred while fetching notifications.");
+        }
+    }
+
+    /**
+     * Returns the number of unread notifications for the UI badge. The count doubles as the ETag,
+     * so clients polling with If-None-Match get an empty 304 until it changes.
+     *
+     * @param userId      User ID
+     * @param ifNoneMatch ETag of the count the client already has
+     * @param request     HTTP request for context
+     * @return Unread count, or 304 when unchanged
+     */
+    @GetMapping("/notifications/unread_count/{userId}")
+    public ResponseEntity<?> getUnreadCount(@PathVariable int userId,
+                                            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch,
+                                            HttpServletRequest request) {
+        try {
+            int count = notificationsService.getUnreadCount(userId, request);
+            String eTag = "\"" + count + "\"";
+            if (eTag.equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+            return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(count);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Failed to fetch unread count for userId {}: {}", userId, e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error fetching unread count for userId {}", userId, e);
+            return ResponseEntity.internalServerError().body("Failed to retrieve unread count.");
+        }
+    }
+
+    /**
+     * Opens a Server-Sent Events stream that pushes new notifications as they are created.
+     * Reconnecting clients send the standard Last-Event-ID header to receive what they missed.
+     *
+     * @param userId      User ID
+     * @param lastEventId ID of the last notification the client received
+     * @param request     HTTP request for context
+     * @return Event stream of notifications
+     */
+    @GetMapping(value = "/notifications/stream/{userId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> streamNotifications(@PathVariable int userId,
+                                                 @RequestHeader(value = "Last-Event-ID", required = false) Integer lastEventId,
+                                                 HttpServletRequest request) {
+        try {
+            logger.info("Opening notification stream for userId: {}", userId);
+            SseEmitter emitter = notificationsService.streamNotifications(userId, lastEventId, request);
+            return ResponseEntity.ok(emitter);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Failed to open notification stream for userId {}: {}", userId, e.getMessage());
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error opening notification stream for userId {}", userId, e);
+            return ResponseEntity.internalServerError().contentType(MediaType.TEXT_PLAIN)
+                    .body("Failed to open notification stream.");
+        }
+    }
+
+    /**
+     * Marks all unread notifications of an instructor up to the given ID as read.
+     *
+     * @param userId  the instructor's user ID
+     * @param upTo    newest notification ID the client has seen
+     * @param request the HTTP request for context
+     * @return number of notifications marked as read
+     */
+    @PutMapping("/notifications/mark_read/{userId}")
+    public ResponseEntity<?> markNotificationsRead(@PathVariable int userId,
+                                                   @RequestParam int upTo,
+                                                   HttpServletRequest request) {
+        logger.info("Marking notifications read for userId: {} up to ID: {}", userId, upTo);
+        try {
+            int updated = notificationsService.markReadUpTo(userId, upTo, request);
+            return ResponseEntity.ok(updated);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Failed to mark notifications read for userId {}: {}", userId, e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error while marking notifications read for userId {}", userId, e);
+            return ResponseEntity.internalServerError().body("An unexpected error occurred while updating notifications.");
+        }
+    }
 }
@@ -4,6 +4,7 @@ package com.chhotu.Learning_Management_System.controller;
 import com.chhotu.Learning_Management_System.dto.LessonDto;
 import com.chhotu.Learning_Management_System.entity.Lesson;
 import com.chhotu.Learning_Management_System.service.LessonService;
+import com.chhotu.Learning_Management_System.util.VersionStamp;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,15 +52,20 @@ public class LessonController {
     }
 
     /**
-     * Retrieves all lessons for a given course.
+     * Retrieves all lessons for a given course, or 304 when the client's copy is still current.
      */
     @GetMapping("/get_all_lessons/{courseId}")
     public ResponseEntity<?> getAllLessons(@PathVariable int courseId, HttpServletRequest request) {
         logger.info("Fetching all lessons for courseId: {}", courseId);
         try {
+            VersionStamp version = lessonService.getLessonsVersion(courseId, request);
+            if (version.isNotModified(request)) {
+                logger.info("Lessons of courseId {} not modified", courseId);
+                return version.notModified();
+            }
             List<LessonDto> lessons = lessonService.getLessonsByCourseId(courseId, request);
             logger.info("Retrieved {} lessons for courseId {}", lessons.size(), courseId);
-            return ResponseEntity.ok(lessons);
+            return version.ok(lessons);
         } catch (IllegalArgumentException e) {
             logger.warn("Failed to fetch lessons for courseId {}: {}", courseId, e.getMessage());
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -70,15 +76,20 @@ public class LessonController {
     }
 
     /**
-     * Retrieves a lesson by its ID.
+     * Retrieves a lesson by its ID, or 304 when the client's copy is still current.
      */
     @GetMapping("/lesson_id/{lessonId}")
     public ResponseEntity<?> getLessonById(@PathVariable int lessonId, HttpServletRequest request) {
         logger.info("Fetching lesson by ID: {}", lessonId);
         try {
+            VersionStamp version = lessonService.getLessonVersion(lessonId, request);
+            if (version.isNotModified(request)) {
+                logger.info("Lesson {} not modified", lessonId);
+                return version.notModified();
+            }
             LessonDto lesson = lessonService.getLessonById(lessonId, request);
             logger.info("Lesson fetched successfully for lessonId: {}", lessonId);
-            return ResponseEntity.ok(lesson);
+            return version.ok(lesson);
         } catch (IllegalArgumentException e) {
             logger.warn("Lesson fetch failed for lessonId {}: {}", lessonId, e.getMessage());
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -3,13 +3,29 @@ package com.chhotu.Learning_Management_System.controller;
 
 import com.chhotu.Learning_Management_System.dto.GradingDto;
 import com.chhotu.Learning_Management_System.dto.QuestionDto;
+import com.chhotu.Learning_Management_System.dto.QuestionImportReportDto;
 import com.chhotu.Learning_Management_System.dto.QuizDto;
+import com.chhotu.Learning_Management_System.dto.QuizSubmissionDto;
+import com.chhotu.Learning_Management_System.service.GradeExportService;
+import com.chhotu.Learning_Management_System.service.ItemAnalysisService;
+import com.chhotu.Learning_Management_System.service.QuestionImportService;
+import com.chhotu.Learning_Management_System.service.QuizGradeStatsService;
 import com.chhotu.Learning_Management_System.service.QuizService;
+import com.chhotu.Learning_Management_System.service.QuizSubmissionService;
+import com.chhotu.Learning_Management_System.util.StreamingResponses;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 
@@ -23,9 +39,21 @@ import java.util.List;
 public class QuizController {
 
     private final QuizService quizService;
+    private final QuestionImportService questionImportService;
+    private final QuizSubmissionService quizSubmissionService;
+    private final QuizGradeStatsService quizGradeStatsService;
+    private final ItemAnalysisService itemAnalysisService;
+    private final GradeExportService gradeExportService;
 
-    public QuizController(QuizService quizService) {
+    public QuizController(QuizService quizService, QuestionImportService questionImportService,
+                          QuizSubmissionService quizSubmissionService, QuizGradeStatsService quizGradeStatsService,
+                          ItemAnalysisService itemAnalysisService, GradeExportService gradeExportService) {
         this.quizService = quizService;
+        this.questionImportService = questionImportService;
+        this.quizSubmissionService = quizSubmissionService;
+        this.quizGradeStatsService = quizGradeStatsService;
+        this.itemAnalysisService = itemAnalysisService;
+        this.gradeExportService = gradeExportService;
     }
 
     /**
@@ -59,13 +87,15 @@ public class QuizController {
     }
 
     /**
-     * Create a new quiz for a course.
+     * Create a new quiz for a course, optionally with its own opening and closing times.
      */
     @PostMapping("/add_quiz")
     public ResponseEntity<?> addQuiz(@RequestBody QuizDto quizDto, HttpServletRequest request) {
         try {
             log.info("Creating quiz for course ID: {}", quizDto.getCourseId());
-            int quizId = quizService.Create(quizDto.getCourseId(), quizDto.getType(), request);
+            int quizId = quizDto.getOpensAt() == null && quizDto.getClosesAt() == null
+                    ? quizService.Create(quizDto.getCourseId(), quizDto.getType(), request)
+                    : quizService.Create(quizDto.getCourseId(), quizDto.getType(), quizDto.getOpensAt(), quizDto.getClosesAt(), request);
             return ResponseEntity.ok("Quiz created successfully. Use this ID: " + quizId + " to enter the quiz");
         } catch (Exception e) {
             log.error("Error creating quiz: {}", e.getMessage());
@@ -88,6 +118,28 @@ public class QuizController {
         }
     }
 
+    /**
+     * Import a question bank for a course from a JSONL or CSV upload, one question per line.
+     * The body is read as a stream; the format comes from the format parameter or the content type.
+     */
+    @PostMapping("/import_questions/{courseId}")
+    public ResponseEntity<?> importQuestions(@PathVariable int courseId,
+                                             @RequestParam(value = "format", required = false) String format,
+                                             HttpServletRequest request) {
+        try {
+            String resolvedFormat = format != null ? format
+                    : request.getContentType() != null && request.getContentType().startsWith("text/csv") ? "csv" : "jsonl";
+            log.info("Importing {} question bank for course ID: {}", resolvedFormat, courseId);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
+                QuestionImportReportDto report = questionImportService.importQuestionBank(courseId, resolvedFormat, reader, request);
+                return ResponseEntity.ok(report);
+            }
+        } catch (Exception e) {
+            log.error("Error importing question bank: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     /**
      * Add a new question to a quiz.
      */
@@ -133,6 +185,40 @@ public class QuizController {
         }
     }
 
+    /**
+     * Accept a quiz submission for background grading. Answers 202 at once with the submission to poll;
+     * the grade also arrives as a notification. Resending with the same Idempotency-Key returns the
+     * original submission instead of creating another.
+     */
+    @PostMapping("/submit_quiz")
+    public ResponseEntity<?> submitQuiz(@RequestBody GradingDto gradingDto,
+                                        @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                        HttpServletRequest request) {
+        try {
+            log.info("Accepting submission for quiz ID: {}", gradingDto.getQuizId());
+            QuizSubmissionDto submission = quizSubmissionService.submit(gradingDto, idempotencyKey, request);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .location(URI.create("/api/quiz/submission/" + submission.getSubmissionId()))
+                    .body(submission);
+        } catch (Exception e) {
+            log.error("Error accepting quiz submission: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Get the state of a submission accepted by submit_quiz, including the grade once it is graded.
+     */
+    @GetMapping("/submission/{submissionId}")
+    public ResponseEntity<?> getSubmission(@PathVariable int submissionId, HttpServletRequest request) {
+        try {
+            return ResponseEntity.ok(quizSubmissionService.getSubmission(submissionId, request));
+        } catch (Exception e) {
+            log.error("Error fetching quiz submission {}: {}", submissionId, e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     /**
      * Get a student's grade for a quiz.
      */
@@ -149,19 +235,36 @@ public class QuizController {
     }
 
     /**
-     * Get all questions in a quiz.
+     * Get the question paper of a quiz: every question with its options, but no correct answers.
+     * The JSON is pre-rendered once per quiz and served as is.
      */
     @GetMapping("/get_quiz_questions/{id}")
     public ResponseEntity<?> getQuizQuestions(@PathVariable int id, HttpServletRequest request) {
         try {
             log.info("Fetching quiz questions for quiz ID: {}", id);
-            return ResponseEntity.ok(quizService.getQuizQuestions(id, request));
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(quizService.getQuizPaper(id, request));
         } catch (Exception e) {
             log.error("Error fetching quiz questions: {}", e.getMessage());
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
+    /**
+     * Get every question of a quiz with its correct answer, for the course instructor.
+     */
+    @GetMapping("/get_quiz_questions_with_answers/{id}")
+    public ResponseEntity<?> getQuizQuestionsWithAnswers(@PathVariable int id, HttpServletRequest request) {
+        try {
+            log.info("Fetching quiz questions with answers for quiz ID: {}", id);
+            return ResponseEntity.ok(quizService.getQuizQuestions(id, request));
+        } catch (Exception e) {
+            log.error("Error fetching quiz questions with answers: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     /**
      * Track quiz grades for a given quiz.
      */
@@ -176,4 +279,53 @@ public class QuizController {
             return ResponseEntity.badRequest().body(Collections.singletonList(e.getMessage()));
         }
     }
+
+    /**
+     * Summary statistics of a quiz's grades for its instructor: count, mean, spread, histogram and percentiles.
+     */
+    @GetMapping("/grade_stats/{quizId}")
+    public ResponseEntity<?> getGradeStats(@PathVariable int quizId, HttpServletRequest request) {
+        try {
+            log.info("Fetching grade statistics for quiz ID: {}", quizId);
+            return ResponseEntity.ok(quizGradeStatsService.getStats(quizId, request));
+        } catch (Exception e) {
+            log.error("Error fetching grade statistics: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Per-question item analysis of a quiz for its instructor: percent correct, discrimination index
+     * and, for multiple choice questions, how often each option was picked.
+     */
+    @GetMapping("/item_analysis/{quizId}")
+    public ResponseEntity<?> getItemAnalysis(@PathVariable int quizId, HttpServletRequest request) {
+        try {
+            log.info("Fetching item analysis for quiz ID: {}", quizId);
+            return ResponseEntity.ok(itemAnalysisService.getItemAnalysis(quizId, request));
+        } catch (Exception e) {
+            log.error("Error fetching item analysis: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Streams a quiz's grades for its instructor as CSV (default) or JSONL,
+     * straight from the database without building the whole list.
+     */
+    @GetMapping("/export_grades/{quizId}")
+    public ResponseEntity<StreamingResponseBody> exportQuizGrades(@PathVariable int quizId,
+                                                                  @RequestParam(value = "format", required = false) String format,
+                                                                  HttpServletRequest request) {
+        try {
+            GradeExportService.GradeExport export = gradeExportService.exportQuizGrades(quizId, format, request);
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + export.fileName() + "\"")
+                    .contentType(MediaType.parseMediaType(export.contentType()))
+                    .body(export.body());
+        } catch (IllegalArgumentException e) {
+            log.warn("Export refused: {}", e.getMessage());
+            return StreamingResponses.text(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
 }
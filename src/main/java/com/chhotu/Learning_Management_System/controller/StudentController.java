@@ -1,13 +1,18 @@
 
 package com.chhotu.Learning_Management_System.controller;
 
+import com.chhotu.Learning_Management_System.dto.NotificationPageDto;
 import com.chhotu.Learning_Management_System.entity.Student;
 import com.chhotu.Learning_Management_System.service.NotificationsService;
 import com.chhotu.Learning_Management_System.service.StudentService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -91,4 +96,114 @@ public class StudentController {
             return ResponseEntity.internalServerError().body("Failed to retrieve unread notifications.");
         }
     }
+
+    /**
+     * Retrieves one keyset page of a user's inbox without marking anything as read.
+     *
+     * @param userId     User ID
+     * @param unreadOnly Whether to return unread notifications only
+     * @param cursor     Cursor returned by the previous page (omit for the first page)
+     * @param limit      Page size
+     * @param request    HTTP request for context
+     * @return Page of notifications
+     */
+    @GetMapping("/notifications/inbox/{userId}")
+    public ResponseEntity<?> getInbox(@PathVariable int userId,
+                                      @RequestParam(defaultValue = "false") boolean unreadOnly,
+                                      @RequestParam(required = false) String cursor,
+                                      @RequestParam(required = false) Integer limit,
+                                      HttpServletRequest request) {
+        try {
+            log.info("Fetching inbox page for user ID: {}", userId);
+            NotificationPageDto page = notificationsService.getInbox(userId, unreadOnly, cursor, limit, request);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            log.warn("Failed to fetch inbox for user {}: {}", userId, e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error fetching inbox for user {}: {}", userId, e.getMessage(), e);
+            return ResponseEntity.internalServerError().body("Failed to retrieve notifications.");
+        }
+    }
+
+    /**
+     * Returns the number of unread notifications for the UI badge. The count doubles as the ETag,
+     * so clients polling with If-None-Match get an empty 304 until it changes.
+     *
+     * @param userId      User ID
+     * @param ifNoneMatch ETag of the count the client already has
+     * @param request     HTTP request for context
+     * @return Unread count, or 304 when unchanged
+     */
+    @GetMapping("/notifications/unread_count/{userId}")
+    public ResponseEntity<?> getUnreadCount(@PathVariable int userId,
+                                            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch,
+                                            HttpServletRequest request) {
+        try {
+            int count = notificationsService.getUnreadCount(userId, request);
+            String eTag = "\"" + count + "\"";
+            if (eTag.equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+            return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(count);
+        } catch (IllegalArgumentException e) {
+            log.warn("Failed to fetch unread count for user ID {}: {}", userId, e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error fetching unread count for user ID {}", userId, e);
+            return ResponseEntity.internalServerError().body("Failed to retrieve unread count.");
+        }
+    }
+
+    /**
+     * Opens a Server-Sent Events stream that pushes new notifications as they are created.
+     * Reconnecting clients send the standard Last-Event-ID header to receive what they missed.
+     *
+     * @param userId      User ID
+     * @param lastEventId ID of the last notification the client received
+     * @param request     HTTP request for context
+     * @return Event stream of notifications
+     */
+    @GetMapping(value = "/notifications/stream/{userId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> streamNotifications(@PathVariable int userId,
+                                                 @RequestHeader(value = "Last-Event-ID", required = false) Integer lastEventId,
+                                                 HttpServletRequest request) {
+        try {
+            log.info("Opening notification stream for user ID: {}", userId);
+            SseEmitter emitter = notificationsService.streamNotifications(userId, lastEventId, request);
+            return ResponseEntity.ok(emitter);
+        } catch (IllegalArgumentException e) {
+            log.warn("Failed to open notification stream for user ID {}: {}", userId, e.getMessage());
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error opening notification stream for user ID {}", userId, e);
+            return ResponseEntity.internalServerError().contentType(MediaType.TEXT_PLAIN)
+                    .body("Failed to open notification stream.");
+        }
+    }
+
+    /**
+     * Marks all unread notifications up to the given ID as read.
+     *
+     * @param userId  User ID
+     * @param upTo    Newest notification ID the client has seen
+     * @param request HTTP request for context
+     * @return Number of notifications marked as read
+     */
+    @PutMapping("/notifications/mark_read/{userId}")
+    public ResponseEntity<?> markNotificationsRead(@PathVariable int userId,
+                                                   @RequestParam int upTo,
+                                                   HttpServletRequest request) {
+        try {
+            log.info("Marking notifications read for user ID: {} up to ID: {}", userId, upTo);
+            int updated = notificationsService.markReadUpTo(userId, upTo, request);
+            return ResponseEntity.ok(updated);
+        } catch (IllegalArgumentException e) {
+            log.warn("Failed to mark notifications read for user {}: {}", userId, e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error marking notifications read for user {}: {}", userId, e.getMessage(), e);
+            return ResponseEntity.internalServerError().body("Failed to mark notifications as read.");
+        }
+    }
 }
@@ -0,0 +1,40 @@
+package com.chhotu.Learning_Management_System.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object carrying grades and feedback for many submissions of one assignment.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO for grading many submissions of an assignment in one request")
+public class BulkGradeDto {
+
+    @Schema(description = "Assignment being graded", example = "12")
+    private int assignmentId;
+
+    @Schema(description = "One entry per student; at most 1000")
+    private List<Entry> grades;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Grade and feedback for one student's submission")
+    public static class Entry {
+
+        @Schema(description = "Student whose submission is graded", example = "20")
+        private int studentId;
+
+        @Schema(description = "Grade to set; omit to keep the current grade", example = "8.5")
+        private Float grade;
+
+        @Schema(description = "Feedback to set; omit to keep the current feedback", example = "Well structured answer")
+        private String feedback;
+    }
+}
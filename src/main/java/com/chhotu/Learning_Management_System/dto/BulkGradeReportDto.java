@@ -0,0 +1,30 @@
+package com.chhotu.Learning_Management_System.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object describing the outcome of a bulk grading request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO reporting what a bulk grading request changed")
+public class BulkGradeReportDto {
+
+    @Schema(description = "Assignment that was graded", example = "12")
+    private int assignmentId;
+
+    @Schema(description = "Number of submissions updated", example = "298")
+    private int updated;
+
+    @Schema(description = "Students whose grade was set", example = "[20, 21]")
+    private List<Integer> gradedStudentIds;
+
+    @Schema(description = "Students in the request without a submission for the assignment", example = "[57, 88]")
+    private List<Integer> notSubmitted;
+}
@@ -0,0 +1,28 @@
+package com.chhotu.Learning_Management_System.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset page of the course catalog.
+ * Pass {@code nextCursor} back as the cursor, with the same filters and sort, to fetch the following page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Keyset-paginated page of the course catalog")
+public class CourseCatalogPageDto {
+
+    @Schema(description = "Courses on this page, in the requested order")
+    private List<CourseDto> courses;
+
+    @Schema(description = "Opaque cursor for the next page, or null when there are no more courses", example = "TkFNRTo0MjpKYXZhIEJhc2ljcw")
+    private String nextCursor;
+
+    @Schema(description = "Whether more courses exist after this page", example = "true")
+    private boolean hasMore;
+}
@@ -0,0 +1,34 @@
+package com.chhotu.Learning_Management_System.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for the email outbox queue metrics.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO representing the current state of the email outbox")
+public class EmailOutboxStatsDto {
+
+    @Schema(description = "Emails waiting to be sent, including ones waiting for a retry", example = "1840")
+    private long pending;
+
+    @Schema(description = "Emails that exhausted their retries", example = "3")
+    private long failed;
+
+    @Schema(description = "Age in seconds of the oldest pending email", example = "12")
+    private long oldestPendingAgeSeconds;
+
+    @Schema(description = "Emails sent since the application started", example = "20512")
+    private long sentSinceStartup;
+
+    @Schema(description = "Delivery attempts that failed since the application started", example = "7")
+    private long failedAttemptsSinceStartup;
+
+    @Schema(description = "Size of the last batch handed to the SMTP server", example = "50")
+    private int lastBatchSize;
+}
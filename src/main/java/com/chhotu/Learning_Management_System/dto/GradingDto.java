@@ -68,6 +68,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * DTO for handling grading-related data such as quiz submissions,
@@ -82,9 +83,13 @@ public class GradingDto {
     @Schema(description = "Unique ID of the quiz", example = "101")
     private int quizId;
 
-    @Schema(description = "List of answers submitted by the student")
+    @Schema(description = "List of answers submitted by the student, in question order")
     private List<String> answers;
 
+    @Schema(description = "Answers keyed by question ID; takes precedence over the positional answers list",
+            example = "{\"12\": \"B\", \"15\": \"true\"}")
+    private Map<Integer, String> answersByQuestion;
+
     @Schema(description = "Unique ID of the student", example = "501")
     private int studentId;
 
@@ -0,0 +1,28 @@
+package com.chhotu.Learning_Management_System.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object describing the outcome of one notification cleanup run.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO reporting what a notification cleanup run removed")
+public class NotificationCleanupReportDto {
+
+    @Schema(description = "Groups of repeated unread notifications folded into a digest row", example = "120")
+    private int digestsCreated;
+
+    @Schema(description = "Duplicate unread rows removed while building digests", example = "860")
+    private int duplicatesRemoved;
+
+    @Schema(description = "Read notifications removed for being older than the retention period", example = "15230")
+    private int readPurged;
+
+    @Schema(description = "Time the run took in milliseconds", example = "840")
+    private long durationMs;
+}
@@ -0,0 +1,30 @@
+package com.chhotu.Learning_Management_System.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Data Transfer Object for a single inbox notification.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO representing a single notification in a user's inbox")
+public class NotificationDto {
+
+    @Schema(description = "Unique identifier of the notification", example = "1024")
+    private int notificationId;
+
+    @Schema(description = "Notification message", example = "A new quiz (ID: 42) is available for course: Java Basics")
+    private String message;
+
+    @Schema(description = "Timestamp when the notification was created", example = "2025-10-31T12:30:00Z")
+    private Date createdTime;
+
+    @Schema(description = "Whether the notification has been read", example = "false")
+    private boolean read;
+}
@@ -0,0 +1,28 @@
+package com.chhotu.Learning_Management_System.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset page of a user's notification inbox.
+ * Pass {@code nextCursor} back as the cursor to fetch the following (older) page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Keyset-paginated page of notifications")
+public class NotificationPageDto {
+
+    @Schema(description = "Notifications on this page, newest first")
+    private List<NotificationDto> notifications;
+
+    @Schema(description = "Opaque cursor for the next page, or null when there are no more notifications", example = "MTcwMDAwMDAwMDAwMDoxMDAx")
+    private String nextCursor;
+
+    @Schema(description = "Whether more notifications exist after this page", example = "true")
+    private boolean hasMore;
+}
@@ -0,0 +1,47 @@
+package com.chhotu.Learning_Management_System.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object describing the outcome of a streaming question bank import.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO reporting how many questions an import stored and which lines were rejected")
+public class QuestionImportReportDto {
+
+    @Schema(description = "Data lines read from the upload, excluding blank lines and the CSV header", example = "10000")
+    private int linesRead;
+
+    @Schema(description = "Questions stored in the question bank", example = "9987")
+    private int imported;
+
+    @Schema(description = "Lines rejected because they could not be parsed or validated", example = "13")
+    private int rejected;
+
+    @Schema(description = "Per-line errors, capped so a bad file cannot produce an unbounded report")
+    private List<LineError> errors = new ArrayList<>();
+
+    @Schema(description = "True when more lines were rejected than the report lists", example = "false")
+    private boolean errorsTruncated;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "A rejected line of the upload")
+    public static class LineError {
+
+        @Schema(description = "1-based line number in the uploaded file", example = "42")
+        private int line;
+
+        @Schema(description = "Why the line was rejected", example = "Unknown question type: ESSAY")
+        private String message;
+    }
+}
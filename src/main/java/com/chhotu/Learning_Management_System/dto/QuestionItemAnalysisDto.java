@@ -0,0 +1,38 @@
+package com.chhotu.Learning_Management_System.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Data Transfer Object with the item analysis of one quiz question.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO with item-analysis figures of a quiz question")
+public class QuestionItemAnalysisDto {
+
+    @Schema(description = "Question the figures describe", example = "12")
+    private int questionId;
+
+    @Schema(description = "Text of the question", example = "What does JVM stand for?")
+    private String questionText;
+
+    @Schema(description = "Number of graded answers, blank ones included", example = "180")
+    private long responses;
+
+    @Schema(description = "Share of answers that were correct, from 0 to 100", example = "62.5")
+    private double percentCorrect;
+
+    @Schema(description = "Correlation between answering correctly and the rest of the quiz score, from -1 to 1; " +
+            "absent while everyone scored the same", example = "0.41")
+    private Double discriminationIndex;
+
+    @Schema(description = "How often each option was picked, for multiple choice questions",
+            example = "{\"b\": 112, \"a\": 40, \"c\": 28}")
+    private Map<String, Long> optionCounts;
+}
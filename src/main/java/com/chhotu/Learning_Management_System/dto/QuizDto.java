@@ -120,4 +120,10 @@ public class QuizDto {
 
     @Schema(description = "Course ID to which this quiz belongs", example = "5")
     private int courseId;
+
+    @Schema(description = "When students may start the quiz; defaults to the creation time", example = "2025-11-03T09:00:00Z")
+    private Date opensAt;
+
+    @Schema(description = "When the quiz stops accepting submissions; defaults to the configured duration after it opens", example = "2025-11-03T09:15:00Z")
+    private Date closesAt;
 }
@@ -0,0 +1,51 @@
+package com.chhotu.Learning_Management_System.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Data Transfer Object summarising the grades of one quiz.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO with summary statistics of a quiz's grades")
+public class QuizGradeStatsDto {
+
+    @Schema(description = "Quiz the statistics describe", example = "42")
+    private int quizId;
+
+    @Schema(description = "Number of graded submissions", example = "180")
+    private long count;
+
+    @Schema(description = "Mean grade, or 0 when nothing has been graded", example = "3.4")
+    private double mean;
+
+    @Schema(description = "Population standard deviation of the grades", example = "1.1")
+    private double standardDeviation;
+
+    @Schema(description = "Lowest grade, absent when nothing has been graded", example = "0")
+    private Integer min;
+
+    @Schema(description = "Highest grade, absent when nothing has been graded", example = "5")
+    private Integer max;
+
+    @Schema(description = "Number of submissions per grade", example = "{\"3\": 40, \"4\": 70, \"5\": 30}")
+    private Map<Integer, Long> histogram;
+
+    @Schema(description = "Grade at or below which a quarter of submissions fall", example = "3")
+    private Integer p25;
+
+    @Schema(description = "Median grade", example = "4")
+    private Integer median;
+
+    @Schema(description = "Grade at or below which three quarters of submissions fall", example = "4")
+    private Integer p75;
+
+    @Schema(description = "Grade at or below which 90% of submissions fall", example = "5")
+    private Integer p90;
+}
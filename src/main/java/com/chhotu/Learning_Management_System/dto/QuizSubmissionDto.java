@@ -0,0 +1,39 @@
+package com.chhotu.Learning_Management_System.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Data Transfer Object for the state of an asynchronously graded quiz submission.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO representing a quiz submission and, once graded, its result")
+public class QuizSubmissionDto {
+
+    @Schema(description = "Unique identifier of the submission; poll it for the result", example = "3051")
+    private int submissionId;
+
+    @Schema(description = "Quiz the submission belongs to", example = "42")
+    private int quizId;
+
+    @Schema(description = "PENDING until graded, then GRADED or REJECTED", example = "PENDING")
+    private String status;
+
+    @Schema(description = "Grade, present once the submission is GRADED", example = "4")
+    private Integer grade;
+
+    @Schema(description = "Why the submission was rejected, present once it is REJECTED", example = "You are not enrolled in this course.")
+    private String error;
+
+    @Schema(description = "When the submission was accepted", example = "2025-11-03T09:14:58Z")
+    private Date submittedAt;
+
+    @Schema(description = "When the submission was graded or rejected", example = "2025-11-03T09:15:01Z")
+    private Date gradedAt;
+}
@@ -0,0 +1,34 @@
+package com.chhotu.Learning_Management_System.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One ranked match of a course or lesson search.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Course or lesson matching a search query")
+public class SearchHitDto {
+
+    @Schema(description = "What matched", example = "LESSON", allowableValues = {"COURSE", "LESSON"})
+    private String type;
+
+    @Schema(description = "Course ID for a course, lesson ID for a lesson", example = "12")
+    private int id;
+
+    @Schema(description = "Course the hit belongs to", example = "3")
+    private int courseId;
+
+    @Schema(description = "Course or lesson name", example = "Generics and wildcards")
+    private String title;
+
+    @Schema(description = "Course or lesson description", example = "Bounded types, PECS and type erasure")
+    private String description;
+
+    @Schema(description = "Relevance score; higher is better", example = "4.81")
+    private double score;
+}
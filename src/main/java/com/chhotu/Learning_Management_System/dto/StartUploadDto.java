@@ -0,0 +1,25 @@
+package com.chhotu.Learning_Management_System.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object announcing an assignment file before its chunks are sent.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO for starting a chunked assignment file upload")
+public class StartUploadDto {
+
+    @Schema(description = "Assignment the file belongs to", example = "12")
+    private int assignmentId;
+
+    @Schema(description = "Original file name", example = "project.zip")
+    private String fileName;
+
+    @Schema(description = "Exact size of the file in bytes", example = "734003200")
+    private long totalSize;
+}
@@ -0,0 +1,35 @@
+package com.chhotu.Learning_Management_System.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object describing how far an assignment file upload has got.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO with the progress of a chunked assignment file upload")
+public class UploadStatusDto {
+
+    @Schema(description = "Id to send chunks to", example = "3f2c9a4e-8d61-4c1b-9f0e-2b7d5a1c6e90")
+    private String uploadId;
+
+    @Schema(description = "Original file name", example = "project.zip")
+    private String fileName;
+
+    @Schema(description = "Declared size of the file in bytes", example = "734003200")
+    private long totalSize;
+
+    @Schema(description = "Bytes stored so far; the next chunk must start at this offset", example = "268435456")
+    private long receivedBytes;
+
+    @Schema(description = "SHA-256 of the stored file, set once the upload is complete",
+            example = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08")
+    private String sha256;
+
+    @Schema(description = "Stored file the submission now points at, set once the upload is complete")
+    private String filePath;
+}
@@ -3,7 +3,8 @@ package com.chhotu.Learning_Management_System.entity;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "answers")
+@Table(name = "answers",
+        uniqueConstraints = @UniqueConstraint(name = "uk_answers_question_student", columnNames = {"question_id", "student_id"}))
 public class Answer {
 
     @Id
@@ -7,7 +7,11 @@ import java.util.Date;
 import java.util.List;
 
 @Entity
-@Table(name = "course")
+@Table(name = "course", indexes = {
+        @Index(name = "idx_course_name", columnList = "course_name"),
+        @Index(name = "idx_course_instructor_name", columnList = "instructor_id, course_name"),
+        @Index(name = "idx_course_creation_date", columnList = "creation_date")
+})
 public class Course {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,6 +30,10 @@ public class Course {
     @Column(name = "media", nullable = true, length = 64)
     private String media;
 
+    // SHA-256 of the media file; serves as its ETag
+    @Column(name = "media_sha256", length = 64)
+    private String mediaSha256;
+
     private int duration;
 
     @Temporal(TemporalType.TIMESTAMP)
@@ -34,6 +42,20 @@ public class Course {
 
     @OneToMany(mappedBy = "courseId")
     private List<Lesson> lessons;
+
+    // Number in the title of the course's latest quiz; only ever changed by CourseRepository.incrementQuizSequence
+    @Column(name = "quiz_sequence", insertable = false, updatable = false)
+    private Integer quizSequence;
+
+    // Bumped on every update; with last_modified it versions the course details for conditional GETs
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
+    @Column(name = "last_modified")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date lastModified;
+
     public Course() {
 
     }
@@ -89,6 +111,14 @@ public class Course {
         this.media = media;
     }
 
+    public String getMediaSha256() {
+        return mediaSha256;
+    }
+
+    public void setMediaSha256(String mediaSha256) {
+        this.mediaSha256 = mediaSha256;
+    }
+
     public int getDuration() {
         return duration;
     }
@@ -105,6 +135,24 @@ public class Course {
         this.creationDate = creationDate;
     }
 
+    public Integer getQuizSequence() {
+        return quizSequence;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Date getLastModified() {
+        return lastModified;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        lastModified = new Date();
+    }
+
     public List<Lesson> getLessons() {
         return lessons;
     }
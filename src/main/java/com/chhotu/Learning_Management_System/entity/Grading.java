@@ -3,7 +3,8 @@ package com.chhotu.Learning_Management_System.entity;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "grading")
+@Table(name = "grading",
+        uniqueConstraints = @UniqueConstraint(name = "uk_grading_quiz_student", columnNames = {"quiz_id", "student_id"}))
 public class Grading {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -31,6 +31,15 @@ public class Lesson {
     @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private Date creationTime;
 
+    // Bumped on every update; with last_modified it versions the lesson for conditional GETs
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
+    @Column(name = "last_modified")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date lastModified;
+
     public Lesson() {}
 
     public Lesson(int lessonId, Course courseId, String lessonName, String lessonDescription, int lessonOrder, String OTP, String content, Date creationTime) {
@@ -108,6 +117,20 @@ public class Lesson {
         this.creationTime = creationTime;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public Date getLastModified() {
+        return lastModified;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        lastModified = new Date();
+    }
+
     @Override
     public String toString() {
         return "Lesson{" +
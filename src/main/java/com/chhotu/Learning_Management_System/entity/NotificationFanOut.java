@@ -0,0 +1,136 @@
+package com.chhotu.Learning_Management_System.entity;
+
+import jakarta.persistence.*;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A templated notification still to be written for many recipients. Stored in the transaction of the
+ * change it announces and deleted in the transaction that writes the notifications, so a fan-out that
+ * fails or is lost with its executor is retried until it is delivered.
+ */
+@Entity
+@Table(name = "notification_fanout",
+        indexes = @Index(name = "idx_notification_fanout_next_attempt", columnList = "next_attempt_at"))
+public class NotificationFanOut {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "fanout_id")
+    private long fanOutId;
+
+    @Column(name = "template_id", nullable = false)
+    private int templateId;
+
+    @Column(name = "params", columnDefinition = "TEXT")
+    private String params;
+
+    // Comma-separated user ids, de-duplicated
+    @Column(name = "recipients", nullable = false, columnDefinition = "MEDIUMTEXT")
+    private String recipients;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "next_attempt_at", nullable = false)
+    private Date nextAttemptAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt;
+
+    @Column(name = "last_error", length = 512)
+    private String lastError;
+
+    public NotificationFanOut() {}
+
+    public NotificationFanOut(int templateId, String params, List<Integer> recipientIds, Date createdAt, Date nextAttemptAt) {
+        this.templateId = templateId;
+        this.params = params;
+        StringBuilder joined = new StringBuilder();
+        for (Integer recipientId : recipientIds) {
+            if (!joined.isEmpty()) {
+                joined.append(',');
+            }
+            joined.append(recipientId);
+        }
+        this.recipients = joined.toString();
+        this.createdAt = createdAt;
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public List<Integer> getRecipientIds() {
+        List<Integer> ids = new ArrayList<>();
+        for (String id : recipients.split(",")) {
+            ids.add(Integer.parseInt(id));
+        }
+        return ids;
+    }
+
+    public long getFanOutId() {
+        return fanOutId;
+    }
+
+    public void setFanOutId(long fanOutId) {
+        this.fanOutId = fanOutId;
+    }
+
+    public int getTemplateId() {
+        return templateId;
+    }
+
+    public void setTemplateId(int templateId) {
+        this.templateId = templateId;
+    }
+
+    public String getParams() {
+        return params;
+    }
+
+    public void setParams(String params) {
+        this.params = params;
+    }
+
+    public String getRecipients() {
+        return recipients;
+    }
+
+    public void setRecipients(String recipients) {
+        this.recipients = recipients;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Date getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(Date nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
@@ -0,0 +1,104 @@
+package com.chhotu.Learning_Management_System.entity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Message templates for notifications. A templated {@link Notifications} row stores only the
+ * template id and its parameters; the text is rendered when the notification is read.
+ * Ids are persisted, so existing ones must never be renumbered or reused.
+ */
+public enum NotificationTemplate {
+
+    QUIZ_AVAILABLE(1, "A new quiz (ID: {0}) is available for course: {1}"),
+    COURSE_UPDATED(2, "{0} course is updated"),
+    STUDENT_ENROLLED(3, "Student with ID {0} enrolled in course {1}"),
+    QUIZ_GRADED(4, "Quiz {0} has been graded"),
+    ASSIGNMENT_GRADED(5, "Your assignment (ID: {0}) has been graded.");
+
+    // Separates parameters in the stored payload; stripped from parameter values
+    private static final char PARAM_SEPARATOR = '\u001F';
+    private static final NotificationTemplate[] BY_ID;
+
+    static {
+        int maxId = 0;
+        for (NotificationTemplate template : values()) {
+            maxId = Math.max(maxId, template.id);
+        }
+        BY_ID = new NotificationTemplate[maxId + 1];
+        for (NotificationTemplate template : values()) {
+            BY_ID[template.id] = template;
+        }
+    }
+
+    private final int id;
+    private final String pattern;
+    // Pattern split around its placeholders: literal, param index, literal, param index, ..., literal
+    private final List<String> literals = new ArrayList<>();
+    private final List<Integer> paramIndexes = new ArrayList<>();
+
+    NotificationTemplate(int id, String pattern) {
+        this.id = id;
+        this.pattern = pattern;
+
+        int start = 0;
+        int open;
+        while ((open = pattern.indexOf('{', start)) >= 0) {
+            int close = pattern.indexOf('}', open);
+            literals.add(pattern.substring(start, open));
+            paramIndexes.add(Integer.parseInt(pattern.substring(open + 1, close)));
+            start = close + 1;
+        }
+        literals.add(pattern.substring(start));
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * @return the template with the given id, or null if it is unknown
+     */
+    public static NotificationTemplate fromId(int id) {
+        return id >= 0 && id < BY_ID.length ? BY_ID[id] : null;
+    }
+
+    /**
+     * Packs parameters into the compact form stored in the notifications table.
+     */
+    public static String encodeParams(Object... params) {
+        StringBuilder encoded = new StringBuilder();
+        for (int i = 0; i < params.length; i++) {
+            if (i > 0) {
+                encoded.append(PARAM_SEPARATOR);
+            }
+            encoded.append(String.valueOf(params[i]).replace(PARAM_SEPARATOR, ' '));
+        }
+        return encoded.toString();
+    }
+
+    /**
+     * Renders the template from an encoded parameter payload.
+     */
+    public String render(String encodedParams) {
+        String[] params = encodedParams == null ? new String[0] : encodedParams.split(String.valueOf(PARAM_SEPARATOR), -1);
+        StringBuilder text = new StringBuilder(pattern.length() + 32);
+        for (int i = 0; i < paramIndexes.size(); i++) {
+            text.append(literals.get(i));
+            int index = paramIndexes.get(i);
+            text.append(index < params.length ? params[index] : "");
+        }
+        return text.append(literals.get(literals.size() - 1)).toString();
+    }
+
+    /**
+     * Renders the template from parameter values.
+     */
+    public String format(Object... params) {
+        return render(encodeParams(params));
+    }
+}
@@ -7,7 +7,12 @@ import org.springframework.format.annotation.DateTimeFormat;
 import java.util.Date;
 
 @Entity
-@Table(name ="notifications" )
+@Table(name ="notifications",
+        indexes = {
+                @Index(name = "idx_notifications_user_read_created", columnList = "user_id, is_read, created_at"),
+                @Index(name = "idx_notifications_user_created", columnList = "user_id, created_at"),
+                @Index(name = "idx_notifications_read_created", columnList = "is_read, created_at")
+        })
 public class Notifications {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -20,8 +25,15 @@ public class Notifications {
     @JsonIgnore
     private Users userId;
 
+    // Fully rendered text; null for templated rows, which are rendered from templateId and params
     private String message;
 
+    @Column(name = "template_id")
+    private Integer templateId;
+
+    @Column(name = "params", length = 512)
+    private String params;
+
     @Temporal(TemporalType.TIMESTAMP)
     @DateTimeFormat(pattern = "dd-MM-yyyy")
     @Column(name = "created_at")
@@ -30,6 +42,10 @@ public class Notifications {
     @Column(name = "is_read")
     private boolean read;
 
+    // How many identical notifications this row stands for after the cleanup job coalesced them
+    @Column(name = "digest_count", nullable = false, columnDefinition = "int not null default 1")
+    private int digestCount = 1;
+
     public Notifications() {
 
     }
@@ -37,6 +53,7 @@ public class Notifications {
         this.notificationsId = notificationsId;
         this.userId = userId;
         this.message = message;
+        this.createdTime = createdTime;
     }
     public int getNotificationsId() {
         return notificationsId;
@@ -56,6 +73,18 @@ public class Notifications {
     public void setMessage(String message) {
         this.message = message;
     }
+    public Integer getTemplateId() {
+        return templateId;
+    }
+    public void setTemplateId(Integer templateId) {
+        this.templateId = templateId;
+    }
+    public String getParams() {
+        return params;
+    }
+    public void setParams(String params) {
+        this.params = params;
+    }
     public Date getCreatedTime() {
         return createdTime;
     }
@@ -68,6 +97,12 @@ public class Notifications {
     public void setRead(boolean read) {
         this.read = read;
     }
+    public int getDigestCount() {
+        return digestCount;
+    }
+    public void setDigestCount(int digestCount) {
+        this.digestCount = digestCount;
+    }
 
     @Override
     public String toString() {
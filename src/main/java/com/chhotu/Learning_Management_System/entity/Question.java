@@ -6,7 +6,8 @@ import jakarta.persistence.*;
 
 
 @Entity
-@Table(name = "question")
+@Table(name = "question",
+        indexes = @Index(name = "idx_question_course_type_quiz", columnList = "course_id, type_id, quiz_id"))
 public class Question {
 
     @Id
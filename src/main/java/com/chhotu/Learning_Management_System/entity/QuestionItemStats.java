@@ -0,0 +1,95 @@
+package com.chhotu.Learning_Management_System.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Running item-analysis sums of one question, updated in the same transaction as the answers they
+ * summarise. The rest score of a response is the student's quiz grade without this question, so
+ * the discrimination index can be derived from these sums alone.
+ */
+@Entity
+@Table(name = "question_item_stats",
+        indexes = @Index(name = "idx_question_item_stats_quiz", columnList = "quiz_id"))
+public class QuestionItemStats {
+
+    @Id
+    @Column(name = "question_id")
+    private int questionId;
+
+    @Column(name = "quiz_id", nullable = false)
+    private int quizId;
+
+    @Column(name = "responses", nullable = false)
+    private long responses;
+
+    @Column(name = "correct", nullable = false)
+    private long correct;
+
+    @Column(name = "sum_rest", nullable = false)
+    private long sumRest;
+
+    @Column(name = "sum_rest_sq", nullable = false)
+    private long sumRestSquares;
+
+    // Sum of the rest scores of correct responses only
+    @Column(name = "sum_correct_rest", nullable = false)
+    private long sumCorrectRest;
+
+    public QuestionItemStats() {}
+
+    public int getQuestionId() {
+        return questionId;
+    }
+
+    public void setQuestionId(int questionId) {
+        this.questionId = questionId;
+    }
+
+    public int getQuizId() {
+        return quizId;
+    }
+
+    public void setQuizId(int quizId) {
+        this.quizId = quizId;
+    }
+
+    public long getResponses() {
+        return responses;
+    }
+
+    public void setResponses(long responses) {
+        this.responses = responses;
+    }
+
+    public long getCorrect() {
+        return correct;
+    }
+
+    public void setCorrect(long correct) {
+        this.correct = correct;
+    }
+
+    public long getSumRest() {
+        return sumRest;
+    }
+
+    public void setSumRest(long sumRest) {
+        this.sumRest = sumRest;
+    }
+
+    public long getSumRestSquares() {
+        return sumRestSquares;
+    }
+
+    public void setSumRestSquares(long sumRestSquares) {
+        this.sumRestSquares = sumRestSquares;
+    }
+
+    public long getSumCorrectRest() {
+        return sumCorrectRest;
+    }
+
+    public void setSumCorrectRest(long sumCorrectRest) {
+        this.sumCorrectRest = sumCorrectRest;
+    }
+}
@@ -0,0 +1,73 @@
+package com.chhotu.Learning_Management_System.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * How often one option of a multiple choice question has been picked. Options are stored in the
+ * normalised form the MCQ scorer compares with.
+ */
+@Entity
+@Table(name = "question_option_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_question_option_stats_option", columnNames = {"question_id", "option_value"}),
+        indexes = @Index(name = "idx_question_option_stats_quiz", columnList = "quiz_id"))
+public class QuestionOptionStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "option_stats_id")
+    private int optionStatsId;
+
+    @Column(name = "question_id", nullable = false)
+    private int questionId;
+
+    @Column(name = "quiz_id", nullable = false)
+    private int quizId;
+
+    @Column(name = "option_value", nullable = false, length = 64)
+    private String optionValue;
+
+    @Column(name = "picks", nullable = false)
+    private long picks;
+
+    public QuestionOptionStats() {}
+
+    public int getOptionStatsId() {
+        return optionStatsId;
+    }
+
+    public void setOptionStatsId(int optionStatsId) {
+        this.optionStatsId = optionStatsId;
+    }
+
+    public int getQuestionId() {
+        return questionId;
+    }
+
+    public void setQuestionId(int questionId) {
+        this.questionId = questionId;
+    }
+
+    public int getQuizId() {
+        return quizId;
+    }
+
+    public void setQuizId(int quizId) {
+        this.quizId = quizId;
+    }
+
+    public String getOptionValue() {
+        return optionValue;
+    }
+
+    public void setOptionValue(String optionValue) {
+        this.optionValue = optionValue;
+    }
+
+    public long getPicks() {
+        return picks;
+    }
+
+    public void setPicks(long picks) {
+        this.picks = picks;
+    }
+}
@@ -6,7 +6,9 @@ import org.springframework.format.annotation.DateTimeFormat;
 import java.util.Date;
 
 @Entity
-@Table(name = "quiz")
+@Table(name = "quiz",
+        uniqueConstraints = @UniqueConstraint(name = "uk_quiz_course_title", columnNames = {"course_id", "title"}),
+        indexes = @Index(name = "idx_quiz_closes_at", columnList = "closes_at"))
 public class Quiz {
 
     @Id
@@ -33,6 +35,16 @@ public class Quiz {
     @DateTimeFormat(pattern = "yyyy-MM-dd")
     private Date creationDate;
 
+    // When students may start taking the quiz; null on quizzes created before scheduling existed
+    @Column(name = "opens_at")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date opensAt;
+
+    // When submissions stop being accepted; null on quizzes created before scheduling existed
+    @Column(name = "closes_at")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date closesAt;
+
     public Quiz() {}
 
     public Quiz(int quizId, String title, Course course, Integer questionCount, Boolean randomized, Date creationDate) {
@@ -99,6 +111,22 @@ public class Quiz {
         this.creationDate = creationDate;
     }
 
+    public Date getOpensAt() {
+        return opensAt;
+    }
+
+    public void setOpensAt(Date opensAt) {
+        this.opensAt = opensAt;
+    }
+
+    public Date getClosesAt() {
+        return closesAt;
+    }
+
+    public void setClosesAt(Date closesAt) {
+        this.closesAt = closesAt;
+    }
+
     @Override
     public String toString() {
         return "Quiz{" +
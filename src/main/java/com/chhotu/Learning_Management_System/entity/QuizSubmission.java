@@ -0,0 +1,163 @@
+package com.chhotu.Learning_Management_System.entity;
+
+import jakarta.persistence.*;
+
+import java.util.Date;
+
+/**
+ * A quiz attempt accepted for asynchronous grading. The raw answers are stored as submitted and
+ * graded later by the submission workers, which fill in the grade or the rejection reason.
+ */
+@Entity
+@Table(name = "quiz_submission",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_quiz_submission_quiz_student", columnNames = {"quiz_id", "student_id"}),
+                @UniqueConstraint(name = "uk_quiz_submission_student_key", columnNames = {"student_id", "idempotency_key"})
+        },
+        indexes = @Index(name = "idx_quiz_submission_status_submitted", columnList = "status, submitted_at"))
+public class QuizSubmission {
+
+    public enum Status {
+        PENDING,
+        GRADED,
+        REJECTED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "submission_id")
+    private int submissionId;
+
+    @Column(name = "quiz_id", nullable = false)
+    private int quizId;
+
+    @Column(name = "course_id", nullable = false)
+    private int courseId;
+
+    @Column(name = "student_id", nullable = false)
+    private int studentId;
+
+    @Column(name = "idempotency_key", nullable = false, length = 64)
+    private String idempotencyKey;
+
+    @Column(name = "answers", nullable = false, columnDefinition = "TEXT")
+    private String answers;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "grade")
+    private Integer grade;
+
+    @Column(name = "error", length = 255)
+    private String error;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "submitted_at", nullable = false)
+    private Date submittedAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "graded_at")
+    private Date gradedAt;
+
+    public QuizSubmission() {}
+
+    public QuizSubmission(int quizId, int courseId, int studentId, String idempotencyKey, String answers, Date submittedAt) {
+        this.quizId = quizId;
+        this.courseId = courseId;
+        this.studentId = studentId;
+        this.idempotencyKey = idempotencyKey;
+        this.answers = answers;
+        this.status = Status.PENDING;
+        this.submittedAt = submittedAt;
+    }
+
+    public int getSubmissionId() {
+        return submissionId;
+    }
+
+    public void setSubmissionId(int submissionId) {
+        this.submissionId = submissionId;
+    }
+
+    public int getQuizId() {
+        return quizId;
+    }
+
+    public void setQuizId(int quizId) {
+        this.quizId = quizId;
+    }
+
+    public int getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(int courseId) {
+        this.courseId = courseId;
+    }
+
+    public int getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(int studentId) {
+        this.studentId = studentId;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getAnswers() {
+        return answers;
+    }
+
+    public void setAnswers(String answers) {
+        this.answers = answers;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Integer getGrade() {
+        return grade;
+    }
+
+    public void setGrade(Integer grade) {
+        this.grade = grade;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Date getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(Date submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public Date getGradedAt() {
+        return gradedAt;
+    }
+
+    public void setGradedAt(Date gradedAt) {
+        this.gradedAt = gradedAt;
+    }
+}
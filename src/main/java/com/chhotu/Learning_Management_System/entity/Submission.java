@@ -6,7 +6,9 @@ import org.springframework.format.annotation.DateTimeFormat;
 import java.util.Date;
 
 @Entity
-@Table(name = "submission")
+@Table(name = "submission",
+        uniqueConstraints = @UniqueConstraint(name = "uk_submission_assignment_student", columnNames = {"assignment_id", "student_id"}),
+        indexes = @Index(name = "idx_submission_file_path", columnList = "file_path"))
 public class Submission {
 
     @Id
@@ -0,0 +1,112 @@
+package com.chhotu.Learning_Management_System.entity;
+
+import jakarta.persistence.*;
+
+import java.util.Date;
+
+/**
+ * An assignment file upload in progress. The bytes received so far live in a part file named after
+ * the upload id, so only the declared metadata is stored here and chunks never touch the database.
+ */
+@Entity
+@Table(name = "submission_upload",
+        uniqueConstraints = @UniqueConstraint(name = "uk_submission_upload_assignment_student", columnNames = {"assignment_id", "student_id"}),
+        indexes = {
+                @Index(name = "idx_submission_upload_created", columnList = "created_at"),
+                @Index(name = "idx_submission_upload_activity", columnList = "last_activity_at")
+        })
+public class SubmissionUpload {
+
+    @Id
+    @Column(name = "upload_id", length = 36)
+    private String uploadId;
+
+    @Column(name = "assignment_id", nullable = false)
+    private int assignmentId;
+
+    @Column(name = "student_id", nullable = false)
+    private int studentId;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Column(name = "total_size", nullable = false)
+    private long totalSize;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt;
+
+    // Last start, resume or chunk; null for uploads started before this was tracked
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "last_activity_at")
+    private Date lastActivityAt;
+
+    public SubmissionUpload() {}
+
+    public SubmissionUpload(String uploadId, int assignmentId, int studentId, String fileName, long totalSize, Date createdAt) {
+        this.uploadId = uploadId;
+        this.assignmentId = assignmentId;
+        this.studentId = studentId;
+        this.fileName = fileName;
+        this.totalSize = totalSize;
+        this.createdAt = createdAt;
+        this.lastActivityAt = createdAt;
+    }
+
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public void setUploadId(String uploadId) {
+        this.uploadId = uploadId;
+    }
+
+    public int getAssignmentId() {
+        return assignmentId;
+    }
+
+    public void setAssignmentId(int assignmentId) {
+        this.assignmentId = assignmentId;
+    }
+
+    public int getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(int studentId) {
+        this.studentId = studentId;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public long getTotalSize() {
+        return totalSize;
+    }
+
+    public void setTotalSize(long totalSize) {
+        this.totalSize = totalSize;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Date getLastActivityAt() {
+        return lastActivityAt;
+    }
+
+    public void setLastActivityAt(Date lastActivityAt) {
+        this.lastActivityAt = lastActivityAt;
+    }
+}
@@ -0,0 +1,41 @@
+package com.chhotu.Learning_Management_System.entity;
+
+/**
+ * The fixed set of user types. Ids match the rows of the users_type table, so they are
+ * persisted and must never be renumbered.
+ */
+public enum UserRole {
+
+    ADMIN(1),
+    STUDENT(2),
+    INSTRUCTOR(3);
+
+    private final int id;
+
+    UserRole(int id) {
+        this.id = id;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return the role with the given users_type id, or null if it is unknown
+     */
+    public static UserRole fromId(int id) {
+        for (UserRole role : values()) {
+            if (role.id == id) {
+                return role;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return true if the user is non-null and has this role
+     */
+    public boolean matches(Users user) {
+        return user != null && user.getUserTypeId() != null && user.getUserTypeId().getUserTypeId() == id;
+    }
+}
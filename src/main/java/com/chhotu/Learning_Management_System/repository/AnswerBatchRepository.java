@@ -0,0 +1,151 @@
+package com.chhotu.Learning_Management_System.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * JDBC batch writer for per-question answers and the item-analysis sums kept next to them.
+ * Answers use IDENTITY keys, which disables Hibernate insert batching, so they go straight through
+ * JdbcTemplate. The sums are folded in with upserts in the same transaction, so reading the item
+ * analysis of a quiz never scans its answers.
+ */
+@Repository
+public class AnswerBatchRepository {
+
+    private static final String INSERT_ANSWER_SQL =
+            "INSERT INTO answers (question_id, student_id, answer_text, is_correct) VALUES (?, ?, ?, ?)";
+
+    private static final String UPSERT_ITEM_STATS_SQL =
+            "INSERT INTO question_item_stats (question_id, quiz_id, responses, correct, sum_rest, sum_rest_sq, sum_correct_rest) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE responses = responses + VALUES(responses), " +
+            "correct = correct + VALUES(correct), sum_rest = sum_rest + VALUES(sum_rest), " +
+            "sum_rest_sq = sum_rest_sq + VALUES(sum_rest_sq), sum_correct_rest = sum_correct_rest + VALUES(sum_correct_rest)";
+
+    private static final String UPSERT_OPTION_STATS_SQL =
+            "INSERT INTO question_option_stats (question_id, quiz_id, option_value, picks) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE picks = picks + VALUES(picks)";
+
+    private static final String FIND_ITEM_STATS_SQL =
+            "SELECT s.question_id, q.question_text, s.responses, s.correct, s.sum_rest, s.sum_rest_sq, s.sum_correct_rest " +
+            "FROM question_item_stats s JOIN question q ON q.question_id = s.question_id " +
+            "WHERE s.quiz_id = ? ORDER BY s.question_id";
+
+    private static final String FIND_OPTION_STATS_SQL =
+            "SELECT question_id, option_value, picks FROM question_option_stats WHERE quiz_id = ? " +
+            "ORDER BY question_id, picks DESC";
+
+    static final int MAX_ANSWER_LENGTH = 255;
+    static final int MAX_OPTION_LENGTH = 64;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AnswerBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts the answers and adds them to the item-analysis sums of their questions. Rows are
+     * aggregated per question and option first, so a batch of many submissions costs one upsert
+     * per question, issued in question id order to keep lock order the same across writers.
+     */
+    @Transactional
+    public void insertAnswers(List<AnswerRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Object[]> answers = new ArrayList<>(rows.size());
+        Map<Integer, long[]> itemSums = new TreeMap<>();
+        Map<Integer, Integer> quizOfQuestion = new TreeMap<>();
+        Map<Integer, Map<String, Long>> optionPicks = new TreeMap<>();
+
+        for (AnswerRow row : rows) {
+            answers.add(new Object[]{row.questionId(), row.studentId(), truncate(row.answerText(), MAX_ANSWER_LENGTH), row.correct()});
+            quizOfQuestion.put(row.questionId(), row.quizId());
+
+            long rest = row.restScore();
+            long[] sums = itemSums.computeIfAbsent(row.questionId(), id -> new long[5]);
+            sums[0]++;
+            sums[1] += row.correct() ? 1 : 0;
+            sums[2] += rest;
+            sums[3] += rest * rest;
+            sums[4] += row.correct() ? rest : 0;
+
+            if (row.option() != null && !row.option().isEmpty()) {
+                optionPicks.computeIfAbsent(row.questionId(), id -> new TreeMap<>())
+                        .merge(truncate(row.option(), MAX_OPTION_LENGTH), 1L, Long::sum);
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_ANSWER_SQL, answers);
+
+        List<Object[]> items = new ArrayList<>(itemSums.size());
+        itemSums.forEach((questionId, sums) ->
+                items.add(new Object[]{questionId, quizOfQuestion.get(questionId), sums[0], sums[1], sums[2], sums[3], sums[4]}));
+        jdbcTemplate.batchUpdate(UPSERT_ITEM_STATS_SQL, items);
+
+        if (!optionPicks.isEmpty()) {
+            List<Object[]> options = new ArrayList<>();
+            optionPicks.forEach((questionId, picks) -> picks.forEach((option, count) ->
+                    options.add(new Object[]{questionId, quizOfQuestion.get(questionId), option, count})));
+            jdbcTemplate.batchUpdate(UPSERT_OPTION_STATS_SQL, options);
+        }
+    }
+
+    /**
+     * Item-analysis sums of every answered question of a quiz, in question id order.
+     */
+    public List<ItemSums> findItemSums(int quizId) {
+        return jdbcTemplate.query(FIND_ITEM_STATS_SQL, (rs, rowNum) -> new ItemSums(
+                rs.getInt("question_id"),
+                rs.getString("question_text"),
+                rs.getLong("responses"),
+                rs.getLong("correct"),
+                rs.getLong("sum_rest"),
+                rs.getLong("sum_rest_sq"),
+                rs.getLong("sum_correct_rest")), quizId);
+    }
+
+    /**
+     * Option pick counts of a quiz's multiple choice questions, most picked first within each question.
+     */
+    public List<OptionPicks> findOptionPicks(int quizId) {
+        return jdbcTemplate.query(FIND_OPTION_STATS_SQL, (rs, rowNum) -> new OptionPicks(
+                rs.getInt("question_id"),
+                rs.getString("option_value"),
+                rs.getLong("picks")), quizId);
+    }
+
+    private static String truncate(String value, int maxLength) {
+        if (value == null) {
+            return "";
+        }
+        return value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    /**
+     * One graded answer. {@code option} is the normalised choice of a multiple choice question and
+     * null otherwise; {@code restScore} is the student's quiz grade without this question.
+     */
+    public record AnswerRow(int quizId, int questionId, int studentId, String answerText, String option,
+                            boolean correct, int restScore) {
+    }
+
+    /**
+     * Stored item-analysis sums of one question.
+     */
+    public record ItemSums(int questionId, String questionText, long responses, long correct, long sumRest,
+                           long sumRestSquares, long sumCorrectRest) {
+    }
+
+    /**
+     * Number of times one option of a question was picked.
+     */
+    public record OptionPicks(int questionId, String option, long picks) {
+    }
+}
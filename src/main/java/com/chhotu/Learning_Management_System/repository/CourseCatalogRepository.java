@@ -0,0 +1,120 @@
+package com.chhotu.Learning_Management_System.repository;
+
+import com.chhotu.Learning_Management_System.dto.CourseDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Course catalog reads. Each page is one query that joins the instructor's name, so listing courses
+ * never loads Course entities or their instructors one by one. Pages are addressed by keyset (the
+ * sort key and id of the last row seen), so a deep page costs the same index range scan as the first.
+ * Only the filters actually given are added to the SQL, which keeps the predicates index-friendly.
+ */
+@Repository
+public class CourseCatalogRepository {
+
+    /**
+     * Catalog orderings. Course ids are assigned in creation order, so the id doubles as the creation order.
+     */
+    public enum Sort {
+        NAME,
+        NEWEST,
+        OLDEST
+    }
+
+    private static final String SELECT_SQL =
+            "SELECT c.course_id, c.course_name, c.description, c.duration, c.media, i.first_name " +
+            "FROM course c LEFT JOIN instructor i ON i.user_account_id = c.instructor_id";
+
+    private static final RowMapper<CourseDto> COURSE_ROW = (rs, rowNum) -> new CourseDto(
+            rs.getInt("course_id"),
+            rs.getString("course_name"),
+            rs.getString("description"),
+            rs.getInt("duration"),
+            rs.getString("media"),
+            rs.getString("first_name"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CourseCatalogRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Every course in id order.
+     */
+    public List<CourseDto> findAll() {
+        return jdbcTemplate.query(SELECT_SQL + " ORDER BY c.course_id", COURSE_ROW);
+    }
+
+    /**
+     * One catalog page. Null filters are ignored; {@code after} is the last row of the previous page,
+     * or null for the first page.
+     */
+    public List<CourseDto> findPage(Integer instructorId, String namePrefix, Timestamp createdFrom, Timestamp createdBefore,
+                                    Sort sort, CourseDto after, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL).append(" WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+
+        if (instructorId != null) {
+            sql.append(" AND c.instructor_id = ?");
+            args.add(instructorId);
+        }
+        if (namePrefix != null && !namePrefix.isEmpty()) {
+            sql.append(" AND c.course_name LIKE ?");
+            args.add(escapeLike(namePrefix) + "%");
+        }
+        if (createdFrom != null) {
+            sql.append(" AND c.creation_date >= ?");
+            args.add(createdFrom);
+        }
+        if (createdBefore != null) {
+            sql.append(" AND c.creation_date < ?");
+            args.add(createdBefore);
+        }
+
+        if (after != null) {
+            switch (sort) {
+                case NAME -> {
+                    // MySQL sorts null names first
+                    if (after.getCourseName() == null) {
+                        sql.append(" AND (c.course_name IS NOT NULL OR c.course_id > ?)");
+                        args.add(after.getCourseId());
+                    } else {
+                        sql.append(" AND (c.course_name > ? OR (c.course_name = ? AND c.course_id > ?))");
+                        args.add(after.getCourseName());
+                        args.add(after.getCourseName());
+                        args.add(after.getCourseId());
+                    }
+                }
+                case NEWEST -> {
+                    sql.append(" AND c.course_id < ?");
+                    args.add(after.getCourseId());
+                }
+                case OLDEST -> {
+                    sql.append(" AND c.course_id > ?");
+                    args.add(after.getCourseId());
+                }
+            }
+        }
+
+        sql.append(switch (sort) {
+            case NAME -> " ORDER BY c.course_name ASC, c.course_id ASC";
+            case NEWEST -> " ORDER BY c.course_id DESC";
+            case OLDEST -> " ORDER BY c.course_id ASC";
+        });
+        sql.append(" LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), COURSE_ROW, args.toArray());
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
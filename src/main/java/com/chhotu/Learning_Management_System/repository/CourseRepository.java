@@ -2,7 +2,13 @@ package com.chhotu.Learning_Management_System.repository;
 
 import com.chhotu.Learning_Management_System.entity.Course;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
 
 
 //@Repository
@@ -13,4 +19,36 @@ public interface CourseRepository extends JpaRepository<Course, Integer> {
             "WHERE course.instructorId.userAccountId = :instructorId " +
             "AND course.courseId = :courseId")
     boolean findByInstructorId(int instructorId , int courseId);
+    @Query("SELECT c.courseId FROM Course c WHERE c.instructorId.userAccountId = :instructorId")
+    List<Integer> findCourseIdsByInstructorId(@Param("instructorId") int instructorId);
+
+    // Bumps the course's quiz counter; the row lock it takes serialises concurrent quiz creation for
+    // the course until commit. Courses from before the counter existed start after their highest
+    // "quiz<N>" title, since those numbers were global and need not match the course's quiz count.
+    @Modifying
+    @Query(value = "UPDATE course c SET c.quiz_sequence = " +
+            "COALESCE(c.quiz_sequence, (SELECT COALESCE(MAX(CAST(SUBSTRING(q.title, 5) AS UNSIGNED)), 0) " +
+            "FROM quiz q WHERE q.course_id = c.course_id AND q.title REGEXP '^quiz[0-9]+$')) + 1 " +
+            "WHERE c.course_id = :courseId", nativeQuery = true)
+    int incrementQuizSequence(@Param("courseId") int courseId);
+
+    @Query(value = "SELECT quiz_sequence FROM course WHERE course_id = :courseId", nativeQuery = true)
+    int findQuizSequence(@Param("courseId") int courseId);
+
+    // At most one row of (version, last change time) for conditional GETs; rows from before versioning fall back to the creation date
+    @Query("SELECT c.version, COALESCE(c.lastModified, c.creationDate) FROM Course c WHERE c.courseId = :courseId")
+    List<Object[]> findVersionRows(@Param("courseId") int courseId);
+
+    // Points the course at newly stored media without loading it, so a media upload never overwrites the
+    // course details edited while it was streaming; bumps the version like any other course update
+    @Modifying
+    @Transactional
+    @Query("UPDATE Course c SET c.media = :media, c.mediaSha256 = :sha256, c.version = c.version + 1, " +
+            "c.lastModified = :now WHERE c.courseId = :courseId")
+    int updateMedia(@Param("courseId") int courseId, @Param("media") String media,
+                    @Param("sha256") String sha256, @Param("now") Date now);
+
+    // Rows of (courseId, courseName, description) for the in-memory search index
+    @Query("SELECT c.courseId, c.courseName, c.description FROM Course c")
+    List<Object[]> findSearchRows();
 }
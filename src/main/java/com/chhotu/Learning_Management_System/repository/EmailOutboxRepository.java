@@ -0,0 +1,42 @@
+package com.chhotu.Learning_Management_System.repository;
+
+import com.chhotu.Learning_Management_System.entity.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // Claims the oldest due emails for one batch: tags them with the batch's token and moves their due time to
+    // the end of the lease, so no other worker or instance picks them up while they are being sent. A batch
+    // lost with its worker becomes due again when the lease ends. Served by idx_email_outbox_status_next_attempt.
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE email_outbox SET claim_token = :token, next_attempt_at = :leaseUntil " +
+            "WHERE status = 'PENDING' AND next_attempt_at <= :now ORDER BY next_attempt_at, email_id LIMIT :limit",
+            nativeQuery = true)
+    int claimDue(@Param("token") String token, @Param("now") Date now, @Param("leaseUntil") Date leaseUntil,
+                 @Param("limit") int limit);
+
+    // Emails claimed by one batch. Served by idx_email_outbox_claim.
+    List<EmailOutbox> findByClaimTokenOrderByEmailIdAsc(String claimToken);
+
+    // Drops sent emails older than the cutoff, a chunk at a time; a sent row's next_attempt_at is its send time
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM email_outbox WHERE status = 'SENT' AND next_attempt_at < :cutoff LIMIT :limit",
+            nativeQuery = true)
+    int deleteSentBefore(@Param("cutoff") Date cutoff, @Param("limit") int limit);
+
+    long countByStatus(EmailOutbox.Status status);
+
+    @Query("SELECT MIN(e.createdAt) FROM EmailOutbox e WHERE e.status = com.chhotu.Learning_Management_System.entity.EmailOutbox.Status.PENDING")
+    Date findOldestPendingCreatedAt();
+}
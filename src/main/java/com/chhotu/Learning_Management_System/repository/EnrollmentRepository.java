@@ -4,6 +4,8 @@ import com.chhotu.Learning_Management_System.entity.Course;
 import com.chhotu.Learning_Management_System.entity.Enrollment;
 import com.chhotu.Learning_Management_System.entity.Student;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
@@ -12,4 +14,10 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Integer>
     boolean existsByStudentAndCourse(Student student, Course course);
     List<Enrollment> findByCourse(Course course);
     Enrollment findByStudentAndCourse(Student student, Course course);
+    // Checks enrollment by ids alone, without loading the student or course
+    boolean existsByStudentUserAccountIdAndCourseCourseId(int studentId, int courseId);
+    @Query("SELECT e.student.userAccountId FROM Enrollment e WHERE e.course.courseId = :courseId")
+    List<Integer> findStudentIdsByCourseId(@Param("courseId") int courseId);
+    @Query("SELECT e.course.courseId FROM Enrollment e WHERE e.student.userAccountId = :studentId")
+    List<Integer> findCourseIdsByStudentId(@Param("studentId") int studentId);
 }
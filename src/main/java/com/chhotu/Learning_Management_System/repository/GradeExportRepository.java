@@ -0,0 +1,71 @@
+package com.chhotu.Learning_Management_System.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streaming reads for grade exports. Rows are handed to the caller one at a time straight from the
+ * result set, and the export statements ask the MySQL driver to stream rather than buffer the result,
+ * so memory stays flat however many rows the export has. Other queries keep the default fetch.
+ */
+@Repository
+public class GradeExportRepository {
+
+    public static final List<String> QUIZ_GRADE_COLUMNS =
+            List.of("gradingId", "studentId", "firstName", "lastName", "grade");
+
+    public static final List<String> SUBMISSION_COLUMNS =
+            List.of("submissionId", "studentId", "firstName", "lastName", "grade", "feedback", "submittedAt", "filePath");
+
+    private static final String QUIZ_GRADES_SQL =
+            "SELECT g.grade_id, g.student_id, s.first_name, s.last_name, g.grade " +
+            "FROM grading g LEFT JOIN student s ON s.user_account_id = g.student_id " +
+            "WHERE g.quiz_id = ? ORDER BY g.grade_id";
+
+    private static final String SUBMISSIONS_SQL =
+            "SELECT sub.submission_id, sub.student_id, s.first_name, s.last_name, sub.grade, sub.feedback, " +
+            "sub.submitted_at, sub.file_path " +
+            "FROM submission sub LEFT JOIN student s ON s.user_account_id = sub.student_id " +
+            "WHERE sub.assignment_id = ? ORDER BY sub.submission_id";
+
+    // Connector/J streams a forward-only, read-only result row by row when given this fetch size
+    private static final int STREAM_ROWS = Integer.MIN_VALUE;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public GradeExportRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Streams the grades of a quiz, one row of {@link #QUIZ_GRADE_COLUMNS} values at a time.
+     */
+    public void forEachQuizGrade(int quizId, Consumer<Object[]> row) {
+        stream(QUIZ_GRADES_SQL, quizId, rs -> row.accept(new Object[]{
+                rs.getInt(1), rs.getInt(2), rs.getString(3), rs.getString(4), rs.getInt(5)}));
+    }
+
+    /**
+     * Streams the submissions of an assignment, one row of {@link #SUBMISSION_COLUMNS} values at a time.
+     */
+    public void forEachSubmission(int assignmentId, Consumer<Object[]> row) {
+        stream(SUBMISSIONS_SQL, assignmentId, rs -> row.accept(new Object[]{
+                rs.getInt(1), rs.getInt(2), rs.getString(3), rs.getString(4), rs.getObject(5, Float.class),
+                rs.getString(6), rs.getTimestamp(7), rs.getString(8)}));
+    }
+
+    private void stream(String sql, int id, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(STREAM_ROWS);
+            ps.setInt(1, id);
+            return ps;
+        }, handler);
+    }
+}
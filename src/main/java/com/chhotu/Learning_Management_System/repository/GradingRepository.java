@@ -8,7 +8,6 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 @Repository
@@ -19,8 +18,12 @@ public interface GradingRepository extends JpaRepository<Grading, Integer> {
             "FROM Grading g " +
             "WHERE g.quizId.quizId = :quizId AND g.student_id.userId.userId = :studentId")
     Optional<Boolean> boolFindGradeByQuizAndStudentID(@Param("quizId") int quizId, @Param("studentId") int studentId);
-    @Query("SELECT g.student_id.userAccountId,g.grade FROM Grading g WHERE g.quizId.quizId = :quizId")
-    Map<Integer,Integer> findGradeByQuiz(@Param("quizId") int quizId);
+    // Student id and grade of every grading of a quiz, without loading the entities
+    @Query("SELECT g.student_id.userAccountId, g.grade FROM Grading g WHERE g.quizId.quizId = :quizId")
+    List<Object[]> findStudentGradeRowsByQuizId(@Param("quizId") int quizId);
+    // Grading id and grade of every grading of a quiz; what the grade statistics are rebuilt from
+    @Query("SELECT g.gradingId, g.grade FROM Grading g WHERE g.quizId.quizId = :quizId")
+    List<Object[]> findGradeRowsByQuizId(@Param("quizId") int quizId);
     @Query("SELECT g.student_id.userAccountId FROM Grading g WHERE g.quizId.quizId = :quizId")
     List<Integer> findStudentByQuiz(@Param("quizId") int quizId);
     @Query("SELECT g.grade FROM Grading g WHERE g.quizId.quizId = :quizId")
@@ -5,6 +5,8 @@ import com.chhotu.Learning_Management_System.entity.*;
 import com.chhotu.Learning_Management_System.entity.Course;
 import com.chhotu.Learning_Management_System.entity.Lesson;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,4 +14,18 @@ import java.util.List;
 @Repository
 public interface LessonRepository extends JpaRepository<Lesson, Integer> {
     List<Lesson> findByCourseId(Course course);
+
+    // At most one row of (version, last change time) for conditional GETs; rows from before versioning fall back to the creation time
+    @Query("SELECT l.version, COALESCE(l.lastModified, l.creationTime) FROM Lesson l WHERE l.lessonId = :lessonId")
+    List<Object[]> findVersionRows(@Param("lessonId") int lessonId);
+
+    // One row of (count, sum of ids, sum of versions) over a course's lessons. Adding, removing or updating
+    // a lesson changes at least one of them, so together they version the whole list.
+    @Query("SELECT COUNT(l), SUM(l.lessonId), SUM(l.version) " +
+            "FROM Lesson l WHERE l.courseId.courseId = :courseId")
+    List<Object[]> findCourseVersionRows(@Param("courseId") int courseId);
+
+    // Rows of (lessonId, courseId, lessonName, lessonDescription, content) for the in-memory search index
+    @Query("SELECT l.lessonId, l.courseId.courseId, l.lessonName, l.lessonDescription, l.content FROM Lesson l")
+    List<Object[]> findSearchRows();
 }
@@ -0,0 +1,28 @@
+package com.chhotu.Learning_Management_System.repository;
+
+import com.chhotu.Learning_Management_System.entity.NotificationFanOut;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface NotificationFanOutRepository extends JpaRepository<NotificationFanOut, Long> {
+
+    // Oldest undelivered fan-outs whose retry time has come. Served by idx_notification_fanout_next_attempt.
+    @Query("SELECT f FROM NotificationFanOut f WHERE f.nextAttemptAt <= :now ORDER BY f.nextAttemptAt ASC, f.fanOutId ASC")
+    List<NotificationFanOut> findDue(@Param("now") Date now, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationFanOut f SET f.attempts = f.attempts + 1, f.nextAttemptAt = :nextAttemptAt, " +
+            "f.lastError = :error WHERE f.fanOutId = :fanOutId")
+    int recordFailure(@Param("fanOutId") long fanOutId, @Param("nextAttemptAt") Date nextAttemptAt,
+                      @Param("error") String error);
+}
@@ -0,0 +1,119 @@
+package com.chhotu.Learning_Management_System.repository;
+
+import com.chhotu.Learning_Management_System.entity.NotificationTemplate;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC batch writer for notification fan-outs and their email outbox rows.
+ * Notifications use IDENTITY keys, which disables Hibernate insert batching, so bulk
+ * inserts go straight through JdbcTemplate and reference users by id without loading them.
+ */
+@Repository
+public class NotificationsBatchRepository {
+
+    static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO notifications (user_id, template_id, params, created_at, is_read) VALUES (?, ?, ?, ?, false)";
+
+    // One outbox row per recipient, addressed straight from the users table
+    private static final String ENQUEUE_EMAIL_SQL =
+            "INSERT INTO email_outbox (recipient, subject, body, status, attempts, next_attempt_at, created_at) " +
+            "SELECT u.email, ?, ?, 'PENDING', 0, ?, ? FROM users u WHERE u.email IS NOT NULL AND u.user_id IN (%s)";
+
+    // Locks a stored fan-out for delivery; another worker already delivering it is skipped rather than waited for
+    private static final String CLAIM_FAN_OUT_SQL =
+            "SELECT fanout_id FROM notification_fanout WHERE fanout_id = ? FOR UPDATE SKIP LOCKED";
+
+    private static final String DELETE_FAN_OUT_SQL = "DELETE FROM notification_fanout WHERE fanout_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public NotificationsBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Writes the notifications of a stored fan-out and deletes it in one transaction, so each fan-out is
+     * delivered exactly once however many workers and retries pick it up.
+     *
+     * @return generated notification ids, in recipient order, or null when the fan-out was already
+     *         delivered or is being delivered by another worker
+     */
+    @Transactional
+    public List<Integer> deliverFanOut(long fanOutId, NotificationTemplate template, String params, String emailSubject,
+                                       Date createdTime, List<Integer> recipientIds) {
+        if (jdbcTemplate.queryForList(CLAIM_FAN_OUT_SQL, Long.class, fanOutId).isEmpty()) {
+            return null;
+        }
+        List<Integer> ids = insertForRecipients(template, params, emailSubject, createdTime, recipientIds);
+        jdbcTemplate.update(DELETE_FAN_OUT_SQL, fanOutId);
+        return ids;
+    }
+
+    /**
+     * Inserts one unread templated notification for every recipient and, in the same transaction,
+     * queues the matching emails in the outbox. Notification rows carry only the template id and
+     * parameters; emails need the rendered text.
+     *
+     * @return generated notification ids, in recipient order
+     */
+    @Transactional
+    public List<Integer> insertForRecipients(NotificationTemplate template, String params, String emailSubject,
+                                             Date createdTime, List<Integer> recipientIds) {
+        String emailBody = template.render(params);
+        Timestamp created = new Timestamp(createdTime.getTime());
+        List<Integer> ids = new ArrayList<>(recipientIds.size());
+
+        for (int from = 0; from < recipientIds.size(); from += BATCH_SIZE) {
+            List<Integer> chunk = recipientIds.subList(from, Math.min(from + BATCH_SIZE, recipientIds.size()));
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(
+                    connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            ps.setInt(1, chunk.get(i));
+                            ps.setInt(2, template.getId());
+                            ps.setString(3, params);
+                            ps.setTimestamp(4, created);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return chunk.size();
+                        }
+                    },
+                    keyHolder);
+
+            for (Map<String, Object> keys : keyHolder.getKeyList()) {
+                ids.add(((Number) keys.values().iterator().next()).intValue());
+            }
+
+            List<Object> args = new ArrayList<>(chunk.size() + 4);
+            args.add(emailSubject);
+            args.add(emailBody);
+            args.add(created);
+            args.add(created);
+            args.addAll(chunk);
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.update(String.format(ENQUEUE_EMAIL_SQL, placeholders), args.toArray());
+        }
+        return ids;
+    }
+}
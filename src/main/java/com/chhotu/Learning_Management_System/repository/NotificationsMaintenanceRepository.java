@@ -0,0 +1,113 @@
+package com.chhotu.Learning_Management_System.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * JDBC statements for the notification cleanup job: coalescing duplicate unread rows and
+ * purging old read rows in bounded batches so no single statement holds locks for long.
+ */
+@Repository
+public class NotificationsMaintenanceRepository {
+
+    // Last user of the next slice of users with unread notifications; reads idx_notifications_user_read_created only
+    private static final String SLICE_END_SQL =
+            "SELECT MAX(user_id) FROM (SELECT DISTINCT user_id FROM notifications " +
+            "WHERE user_id > ? AND is_read = false ORDER BY user_id LIMIT ?) s";
+
+    // Unread notifications that say the same thing more than once to the same user, within one slice of users;
+    // the user_id range keeps the scan to that slice's rows of idx_notifications_user_read_created
+    private static final String FIND_DUPLICATE_GROUPS_SQL =
+            "SELECT user_id, message, template_id, params, MAX(Notification_id) AS keep_id, " +
+            "SUM(GREATEST(digest_count, 1)) AS total " +
+            "FROM notifications WHERE user_id > ? AND user_id <= ? AND is_read = false " +
+            "GROUP BY user_id, message, template_id, params HAVING COUNT(*) > 1";
+
+    private static final String UPDATE_DIGEST_SQL =
+            "UPDATE notifications SET digest_count = ? WHERE Notification_id = ?";
+
+    private static final String DELETE_DUPLICATES_SQL =
+            "DELETE FROM notifications WHERE user_id = ? AND message <=> ? AND template_id <=> ? AND params <=> ? " +
+            "AND is_read = false AND Notification_id < ?";
+
+    // Served by idx_notifications_read_created
+    private static final String PURGE_READ_SQL =
+            "DELETE FROM notifications WHERE is_read = true AND created_at < ? LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public NotificationsMaintenanceRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Looks up the groups of duplicate unread notifications of the next {@code users} users with unread
+     * notifications after {@code afterUserId}, walking the table once across calls.
+     *
+     * @return the slice's groups and last user, or null when no user after {@code afterUserId} has unread notifications
+     */
+    public DuplicateScan findUnreadDuplicateGroups(int afterUserId, int users) {
+        Integer lastUserId = jdbcTemplate.queryForObject(SLICE_END_SQL, Integer.class, afterUserId, users);
+        if (lastUserId == null) {
+            return null;
+        }
+        List<DuplicateGroup> groups = jdbcTemplate.query(FIND_DUPLICATE_GROUPS_SQL, (rs, rowNum) -> new DuplicateGroup(
+                rs.getInt("user_id"),
+                rs.getString("message"),
+                rs.getObject("template_id", Integer.class),
+                rs.getString("params"),
+                rs.getInt("keep_id"),
+                rs.getInt("total")), afterUserId, lastUserId);
+        return new DuplicateScan(lastUserId, groups);
+    }
+
+    /**
+     * Folds every group into its newest row, which keeps the combined count, and deletes the rest.
+     *
+     * @return number of rows deleted
+     */
+    @Transactional
+    public int coalesce(List<DuplicateGroup> groups) {
+        List<Object[]> digests = new ArrayList<>(groups.size());
+        List<Object[]> deletes = new ArrayList<>(groups.size());
+        for (DuplicateGroup group : groups) {
+            digests.add(new Object[]{group.total(), group.keepId()});
+            deletes.add(new Object[]{group.userId(), group.message(), group.templateId(), group.params(), group.keepId()});
+        }
+
+        jdbcTemplate.batchUpdate(UPDATE_DIGEST_SQL, digests);
+        int deleted = 0;
+        for (int rows : jdbcTemplate.batchUpdate(DELETE_DUPLICATES_SQL, deletes)) {
+            deleted += Math.max(rows, 0);
+        }
+        return deleted;
+    }
+
+    /**
+     * Deletes up to {@code batchSize} read notifications created before the cutoff.
+     *
+     * @return number of rows deleted
+     */
+    @Transactional
+    public int purgeReadBefore(Date cutoff, int batchSize) {
+        return jdbcTemplate.update(PURGE_READ_SQL, new Timestamp(cutoff.getTime()), batchSize);
+    }
+
+    /**
+     * Unread notifications of one user that share the same message, or the same template and parameters.
+     */
+    public record DuplicateGroup(int userId, String message, Integer templateId, String params, int keepId, int total) {
+    }
+
+    /**
+     * Duplicate groups of one slice of users, ending with {@code lastUserId}.
+     */
+    public record DuplicateScan(int lastUserId, List<DuplicateGroup> groups) {
+    }
+}
@@ -1,9 +1,64 @@
 package com.chhotu.Learning_Management_System.repository;
 
 import com.chhotu.Learning_Management_System.entity.Notifications;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
+import java.util.List;
+
 @Repository
 public interface NotificationsRepository extends JpaRepository<Notifications, Integer> {
+
+    // Keyset page of a user's inbox, newest first: the rows after (beforeTime, beforeId) in
+    // (createdTime DESC, notificationsId DESC) order. Served by idx_notifications_user_created.
+    @Query("SELECT n FROM Notifications n " +
+            "WHERE n.userId.userId = :userId " +
+            "AND (n.createdTime < :beforeTime OR (n.createdTime = :beforeTime AND n.notificationsId < :beforeId)) " +
+            "ORDER BY n.createdTime DESC, n.notificationsId DESC")
+    List<Notifications> findInboxPage(@Param("userId") int userId,
+                                      @Param("beforeTime") Date beforeTime,
+                                      @Param("beforeId") int beforeId,
+                                      Pageable pageable);
+
+    // Same page over unread notifications only. Served by idx_notifications_user_read_created.
+    @Query("SELECT n FROM Notifications n " +
+            "WHERE n.userId.userId = :userId AND n.read = false " +
+            "AND (n.createdTime < :beforeTime OR (n.createdTime = :beforeTime AND n.notificationsId < :beforeId)) " +
+            "ORDER BY n.createdTime DESC, n.notificationsId DESC")
+    List<Notifications> findUnreadInboxPage(@Param("userId") int userId,
+                                            @Param("beforeTime") Date beforeTime,
+                                            @Param("beforeId") int beforeId,
+                                            Pageable pageable);
+
+    @Query("SELECT n FROM Notifications n WHERE n.userId.userId = :userId " +
+            "ORDER BY n.createdTime DESC, n.notificationsId DESC")
+    List<Notifications> findAllByUser(@Param("userId") int userId);
+
+    @Query("SELECT n FROM Notifications n WHERE n.userId.userId = :userId AND n.read = false " +
+            "ORDER BY n.createdTime DESC, n.notificationsId DESC")
+    List<Notifications> findUnreadByUser(@Param("userId") int userId);
+
+    @Query("SELECT COUNT(n) FROM Notifications n WHERE n.userId.userId = :userId AND n.read = false")
+    long countUnreadByUser(@Param("userId") int userId);
+
+    // Notifications created after the given id, oldest first; used to replay a dropped event stream.
+    @Query("SELECT n FROM Notifications n WHERE n.userId.userId = :userId AND n.notificationsId > :afterId " +
+            "ORDER BY n.notificationsId ASC")
+    List<Notifications> findByUserAfter(@Param("userId") int userId,
+                                        @Param("afterId") int afterId,
+                                        Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(n.notificationsId), 0) FROM Notifications n WHERE n.userId.userId = :userId")
+    int findLatestIdByUser(@Param("userId") int userId);
+
+    // Marks every unread notification of the user up to (and including) the given id in one statement.
+    @Modifying
+    @Query("UPDATE Notifications n SET n.read = true " +
+            "WHERE n.userId.userId = :userId AND n.read = false AND n.notificationsId <= :upToId")
+    int markReadUpTo(@Param("userId") int userId, @Param("upToId") int upToId);
 }
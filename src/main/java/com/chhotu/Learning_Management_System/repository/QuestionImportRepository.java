@@ -0,0 +1,51 @@
+package com.chhotu.Learning_Management_System.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC batch writer for question bank imports. Questions use IDENTITY keys, which disables
+ * Hibernate insert batching, so imported rows go straight through JdbcTemplate and reference
+ * the course and question type by id without loading them.
+ */
+@Repository
+public class QuestionImportRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO question (question_text, type_id, options, course_id, correct_answer) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public QuestionImportRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts one batch of unassigned questions into a course's question bank.
+     *
+     * @return number of rows inserted
+     */
+    public int insertBatch(int courseId, List<Row> rows) {
+        List<Object[]> args = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            args.add(new Object[]{row.questionText(), row.typeId(), row.options(), courseId, row.correctAnswer()});
+        }
+
+        int inserted = 0;
+        for (int count : jdbcTemplate.batchUpdate(INSERT_SQL, args)) {
+            // The driver reports SUCCESS_NO_INFO (-2) for rewritten multi-row inserts
+            inserted += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+        }
+        return inserted;
+    }
+
+    /**
+     * A validated question ready to be written.
+     */
+    public record Row(String questionText, int typeId, String options, String correctAnswer) {
+    }
+}
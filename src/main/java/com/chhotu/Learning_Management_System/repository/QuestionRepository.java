@@ -1,7 +1,9 @@
 package com.chhotu.Learning_Management_System.repository;
 
 import com.chhotu.Learning_Management_System.entity.Question;
+import com.chhotu.Learning_Management_System.entity.Quiz;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,10 +14,33 @@ import java.util.List;
 public interface QuestionRepository extends JpaRepository<Question, Integer> {
     @Query("SELECT q FROM Question q WHERE q.courseId.courseId = :courseId")
     List<Question> findQuestionsByCourseId(@Param("courseId") int courseId);
-    @Query("SELECT q FROM Question q WHERE q.quiz.quizId = :quizId")
+    @Query("SELECT q FROM Question q WHERE q.quiz.quizId = :quizId ORDER BY q.questionId")
     List<Question> findQuestionsByQuizId(@Param("quizId") int quizId);
+    // Just what grading needs: question id, type and correct answer, in question id order
+    @Query("SELECT q.questionId, q.questionType.typeName, q.correctAnswer FROM Question q " +
+            "WHERE q.quiz.quizId = :quizId ORDER BY q.questionId")
+    List<Object[]> findAnswerKeyRowsByQuizId(@Param("quizId") int quizId);
+    // Student-facing paper columns (id, text, type id, options JSON, course id) in question id order; no answers
+    @Query("SELECT q.questionId, q.questionText, q.questionType.typeId, q.options, q.courseId.courseId FROM Question q " +
+            "WHERE q.quiz.quizId = :quizId ORDER BY q.questionId")
+    List<Object[]> findPaperRowsByQuizId(@Param("quizId") int quizId);
     @Query("SELECT q FROM Question q WHERE q.courseId.courseId = :courseId AND q.questionType.typeId = :questionType")
     List<Question> findQuestionsByCourseIdAndQuestionType(@Param("courseId") int courseId, @Param("questionType") int questionType);
     @Query("SELECT q FROM Question q WHERE q.courseId.courseId = :courseId AND q.questionType.typeId = :questionType AND q.quiz.quizId IS NULL ")
     List<Question> findEmptyQuestionsByCourseIdAndQuestionType(@Param("courseId") int courseId, @Param("questionType") int questionType);
+
+    @Query("SELECT COUNT(q) FROM Question q WHERE q.courseId.courseId = :courseId AND q.questionType.typeId = :questionType")
+    long countByCourseIdAndQuestionType(@Param("courseId") int courseId, @Param("questionType") int questionType);
+    @Query("SELECT COUNT(q) FROM Question q WHERE q.courseId.courseId = :courseId AND q.questionType.typeId = :questionType AND q.quiz IS NULL")
+    long countUnassignedByCourseIdAndQuestionType(@Param("courseId") int courseId, @Param("questionType") int questionType);
+    // Random sample of unassigned question ids, drawn in the database from idx_question_course_type_quiz
+    @Query(value = "SELECT question_id FROM question WHERE course_id = :courseId AND type_id = :questionType " +
+            "AND quiz_id IS NULL ORDER BY RAND() LIMIT :limit", nativeQuery = true)
+    List<Integer> sampleUnassignedQuestionIds(@Param("courseId") int courseId,
+                                              @Param("questionType") int questionType,
+                                              @Param("limit") int limit);
+    // Assigns the question only if nobody else has; returns 0 when another quiz claimed it first
+    @Modifying
+    @Query("UPDATE Question q SET q.quiz = :quiz WHERE q.questionId = :questionId AND q.quiz IS NULL")
+    int claimQuestion(@Param("questionId") int questionId, @Param("quiz") Quiz quiz);
 }
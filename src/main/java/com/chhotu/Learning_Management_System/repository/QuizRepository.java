@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.List;
 
 @Repository
@@ -13,4 +14,10 @@ public interface QuizRepository extends JpaRepository<Quiz, Integer> {
     @Query("SELECT q FROM Quiz q WHERE q.course.courseId = :courseId ")
     List<Quiz> getQuizzesByCourseId(@Param("courseId") int courseId );
 
+    // Quiz id, course id, opens at, closes at and creation date of every quiz that has not closed yet.
+    // Quizzes without a closing time are kept when created after legacyCutoff.
+    @Query("SELECT q.quizId, q.course.courseId, q.opensAt, q.closesAt, q.creationDate FROM Quiz q " +
+            "WHERE q.closesAt > :now OR (q.closesAt IS NULL AND q.creationDate > :legacyCutoff)")
+    List<Object[]> findScheduleRowsNotClosedBy(@Param("now") Date now, @Param("legacyCutoff") Date legacyCutoff);
+
 }
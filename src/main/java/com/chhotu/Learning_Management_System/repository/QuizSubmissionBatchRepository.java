@@ -0,0 +1,157 @@
+package com.chhotu.Learning_Management_System.repository;
+
+import com.chhotu.Learning_Management_System.entity.QuizSubmission;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JDBC statements for the submission workers: the batch lookups they validate against and the
+ * batch writes that store grades. Gradings use IDENTITY keys, which disables Hibernate insert
+ * batching, so they go straight through JdbcTemplate.
+ */
+@Repository
+public class QuizSubmissionBatchRepository {
+
+    // Locks the submissions until commit; those another worker has already completed are not returned
+    private static final String CLAIM_SQL =
+            "SELECT submission_id FROM quiz_submission WHERE status = 'PENDING' AND submission_id IN (%s) FOR UPDATE";
+
+    private static final String INSERT_GRADING_SQL =
+            "INSERT INTO grading (grade, quiz_id, student_id) VALUES (?, ?, ?)";
+
+    private static final String COMPLETE_SUBMISSION_SQL =
+            "UPDATE quiz_submission SET status = ?, grade = ?, error = ?, graded_at = ? " +
+            "WHERE submission_id = ? AND status = 'PENDING'";
+
+    private static final String ENROLLED_SQL =
+            "SELECT student_id FROM enrollment WHERE course_id = ? AND student_id IN (%s)";
+
+    private static final String GRADED_SQL =
+            "SELECT student_id FROM grading WHERE quiz_id = ? AND student_id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AnswerBatchRepository answerBatchRepository;
+
+    public QuizSubmissionBatchRepository(JdbcTemplate jdbcTemplate, AnswerBatchRepository answerBatchRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.answerBatchRepository = answerBatchRepository;
+    }
+
+    /**
+     * @return the given students that are enrolled in the course
+     */
+    public Set<Integer> findEnrolledStudentIds(int courseId, Collection<Integer> studentIds) {
+        return selectStudentIds(ENROLLED_SQL, courseId, studentIds);
+    }
+
+    /**
+     * @return the given students that already have a grade for the quiz
+     */
+    public Set<Integer> findGradedStudentIds(int quizId, Collection<Integer> studentIds) {
+        return selectStudentIds(GRADED_SQL, quizId, studentIds);
+    }
+
+    /**
+     * Inserts the grades and per-question answers of the accepted submissions and records the outcome
+     * of every submission, all in one transaction so a grade is never stored without its submission
+     * being completed. The submissions are claimed first, and any that are no longer pending (completed
+     * meanwhile by another worker or the sweeper) are skipped, so a submission is graded only once.
+     *
+     * @return the graded submissions that were claimed, with their generated grading ids
+     */
+    @Transactional
+    public Completion complete(List<QuizSubmission> graded, List<QuizSubmission> rejected,
+                               List<AnswerBatchRepository.AnswerRow> answers, Date completedAt) {
+        Set<Integer> claimed = claim(graded, rejected);
+        graded = graded.stream().filter(s -> claimed.contains(s.getSubmissionId())).toList();
+        rejected = rejected.stream().filter(s -> claimed.contains(s.getSubmissionId())).toList();
+        Set<Integer> gradedStudents = new HashSet<>();
+        graded.forEach(s -> gradedStudents.add(s.getStudentId()));
+        answers = answers.stream().filter(a -> gradedStudents.contains(a.studentId())).toList();
+
+        Timestamp completed = new Timestamp(completedAt.getTime());
+        List<Object[]> outcomes = new ArrayList<>(graded.size() + rejected.size());
+        for (QuizSubmission submission : graded) {
+            outcomes.add(new Object[]{QuizSubmission.Status.GRADED.name(), submission.getGrade(), null, completed, submission.getSubmissionId()});
+        }
+        for (QuizSubmission submission : rejected) {
+            outcomes.add(new Object[]{QuizSubmission.Status.REJECTED.name(), null, submission.getError(), completed, submission.getSubmissionId()});
+        }
+
+        List<Integer> gradingIds = new ArrayList<>(graded.size());
+        if (!graded.isEmpty()) {
+            List<QuizSubmission> toInsert = graded;
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(
+                    connection -> connection.prepareStatement(INSERT_GRADING_SQL, Statement.RETURN_GENERATED_KEYS),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            QuizSubmission submission = toInsert.get(i);
+                            ps.setInt(1, submission.getGrade());
+                            ps.setInt(2, submission.getQuizId());
+                            ps.setInt(3, submission.getStudentId());
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return toInsert.size();
+                        }
+                    },
+                    keyHolder);
+            for (Map<String, Object> keys : keyHolder.getKeyList()) {
+                gradingIds.add(((Number) keys.values().iterator().next()).intValue());
+            }
+        }
+        answerBatchRepository.insertAnswers(answers);
+        if (!outcomes.isEmpty()) {
+            jdbcTemplate.batchUpdate(COMPLETE_SUBMISSION_SQL, outcomes);
+        }
+        return new Completion(graded, gradingIds);
+    }
+
+    private Set<Integer> claim(List<QuizSubmission> graded, List<QuizSubmission> rejected) {
+        List<Object> ids = new ArrayList<>(graded.size() + rejected.size());
+        graded.forEach(s -> ids.add(s.getSubmissionId()));
+        rejected.forEach(s -> ids.add(s.getSubmissionId()));
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        return new HashSet<>(jdbcTemplate.queryForList(String.format(CLAIM_SQL, placeholders), Integer.class, ids.toArray()));
+    }
+
+    private Set<Integer> selectStudentIds(String sql, int scopeId, Collection<Integer> studentIds) {
+        if (studentIds.isEmpty()) {
+            return Set.of();
+        }
+        List<Object> args = new ArrayList<>(studentIds.size() + 1);
+        args.add(scopeId);
+        args.addAll(studentIds);
+        String placeholders = String.join(", ", Collections.nCopies(studentIds.size(), "?"));
+        return new HashSet<>(jdbcTemplate.queryForList(String.format(sql, placeholders), Integer.class, args.toArray()));
+    }
+
+    /**
+     * Outcome of {@link #complete}: the graded submissions it stored, and their grading ids in the same order.
+     */
+    public record Completion(List<QuizSubmission> graded, List<Integer> gradingIds) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.chhotu.Learning_Management_System.repository;
+
+import com.chhotu.Learning_Management_System.entity.QuizSubmission;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface QuizSubmissionRepository extends JpaRepository<QuizSubmission, Integer> {
+
+    Optional<QuizSubmission> findByQuizIdAndStudentId(int quizId, int studentId);
+
+    // Pending submissions older than the cutoff, oldest first. Served by idx_quiz_submission_status_submitted.
+    @Query("SELECT s.submissionId FROM QuizSubmission s WHERE s.status = com.chhotu.Learning_Management_System.entity.QuizSubmission.Status.PENDING " +
+            "AND s.submittedAt < :cutoff ORDER BY s.submittedAt ASC")
+    List<Integer> findPendingIdsSubmittedBefore(@Param("cutoff") Date cutoff, Pageable pageable);
+}
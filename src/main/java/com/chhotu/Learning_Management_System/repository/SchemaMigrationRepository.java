@@ -0,0 +1,105 @@
+package com.chhotu.Learning_Management_System.repository;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+/**
+ * One-off migrations for unique keys that older databases may violate. ddl-auto skips a unique key
+ * it cannot create, so these run once the schema update is done and before requests are served:
+ * the offending rows are fixed up, then the key is added if it is still missing. Rows holding
+ * results are never dropped silently: they are logged and moved to a {@code <table>_duplicate_archive}
+ * table with the same columns, where they can be reviewed and restored by hand.
+ */
+@Repository
+@DependsOn("entityManagerFactory")
+public class SchemaMigrationRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMigrationRepository.class);
+
+    private static final String COUNT_KEY_SQL =
+            "SELECT COUNT(*) FROM information_schema.statistics " +
+            "WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?";
+
+    // Quiz titles used to be numbered across all courses; keeps the oldest quiz of every duplicate
+    // (course, title) group as it is and appends the quiz id to the others
+    private static final String RENAME_DUPLICATE_QUIZ_TITLES_SQL =
+            "UPDATE quiz q JOIN (SELECT course_id, title, MIN(quiz_id) AS keep_id FROM quiz " +
+            "GROUP BY course_id, title HAVING COUNT(*) > 1) d " +
+            "ON q.course_id = d.course_id AND q.title = d.title AND q.quiz_id <> d.keep_id " +
+            "SET q.title = CONCAT(q.title, ' (', q.quiz_id, ')')";
+
+    private static final String ADD_QUIZ_TITLE_KEY_SQL =
+            "ALTER TABLE quiz ADD CONSTRAINT uk_quiz_course_title UNIQUE (course_id, title)";
+
+    private static final String ADD_GRADING_KEY_SQL =
+            "ALTER TABLE grading ADD CONSTRAINT uk_grading_quiz_student UNIQUE (quiz_id, student_id)";
+
+    private static final String ADD_SUBMISSION_KEY_SQL =
+            "ALTER TABLE submission ADD CONSTRAINT uk_submission_assignment_student UNIQUE (assignment_id, student_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SchemaMigrationRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        addUniqueKey("quiz", "uk_quiz_course_title", () -> jdbcTemplate.update(RENAME_DUPLICATE_QUIZ_TITLES_SQL),
+                ADD_QUIZ_TITLE_KEY_SQL);
+        // Racing grading paths could store a quiz grade twice; the first one stored is the one that counts
+        addUniqueKey("grading", "uk_grading_quiz_student",
+                () -> archiveDuplicates("grading", "grade_id", "quiz_id, student_id", "grade_id"), ADD_GRADING_KEY_SQL);
+        // Assignment uploads used to check for an earlier submission before inserting, so a double submit could
+        // store two; the graded one is kept, otherwise the latest upload
+        addUniqueKey("submission", "uk_submission_assignment_student",
+                () -> archiveDuplicates("submission", "submission_id", "assignment_id, student_id",
+                        "grade IS NULL, submitted_at DESC, submission_id DESC"), ADD_SUBMISSION_KEY_SQL);
+    }
+
+    private void addUniqueKey(String table, String key, IntSupplier fixDuplicates, String addKeySql) {
+        Integer keys = jdbcTemplate.queryForObject(COUNT_KEY_SQL, Integer.class, table, key);
+        if (keys != null && keys > 0) {
+            return;
+        }
+
+        int fixed = fixDuplicates.getAsInt();
+        jdbcTemplate.execute(addKeySql);
+        logger.info("Added {} after fixing {} duplicate {} rows", key, fixed, table);
+    }
+
+    /**
+     * Moves every row but the first of each duplicate group to {@code <table>_duplicate_archive}, logging
+     * each one. Safe to run again after a failure: archived ids are skipped, deleted ones are gone.
+     *
+     * @param groupColumns columns the unique key will cover
+     * @param keepOrder    order within a group; the first row stays in the table
+     * @return number of rows moved
+     */
+    private int archiveDuplicates(String table, String idColumn, String groupColumns, String keepOrder) {
+        List<Object> ids = jdbcTemplate.queryForList(
+                "SELECT " + idColumn + " FROM (SELECT " + idColumn + ", ROW_NUMBER() OVER (PARTITION BY " + groupColumns +
+                        " ORDER BY " + keepOrder + ") AS n FROM " + table + ") r WHERE r.n > 1", Object.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        String archive = table + "_duplicate_archive";
+        String inIds = " WHERE " + idColumn + " IN (" + String.join(",", Collections.nCopies(ids.size(), "?")) + ")";
+        for (Map<String, Object> row : jdbcTemplate.queryForList("SELECT * FROM " + table + inIds, ids.toArray())) {
+            logger.warn("Moving duplicate {} row to {}: {}", table, archive, row);
+        }
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + archive + " LIKE " + table);
+        jdbcTemplate.update("INSERT IGNORE INTO " + archive + " SELECT * FROM " + table + inIds, ids.toArray());
+        return jdbcTemplate.update("DELETE FROM " + table + inIds, ids.toArray());
+    }
+}
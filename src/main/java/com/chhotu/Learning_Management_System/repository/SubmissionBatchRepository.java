@@ -0,0 +1,84 @@
+package com.chhotu.Learning_Management_System.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * JDBC statements for grading a whole assignment at once. Each update is keyed on
+ * uk_submission_assignment_student, so a batch of several hundred rows touches exactly those rows.
+ */
+@Repository
+public class SubmissionBatchRepository {
+
+    private static final String SUBMITTED_SQL =
+            "SELECT student_id FROM submission WHERE assignment_id = ? AND student_id IN (%s)";
+
+    // A null grade or feedback leaves the stored value as it is
+    private static final String APPLY_GRADE_SQL =
+            "UPDATE submission SET grade = COALESCE(?, grade), feedback = COALESCE(?, feedback) " +
+            "WHERE assignment_id = ? AND student_id = ?";
+
+    static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SubmissionBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return the given students that have a submission for the assignment
+     */
+    public Set<Integer> findSubmittedStudentIds(int assignmentId, Collection<Integer> studentIds) {
+        if (studentIds.isEmpty()) {
+            return Set.of();
+        }
+        List<Object> args = new ArrayList<>(studentIds.size() + 1);
+        args.add(assignmentId);
+        args.addAll(studentIds);
+        String placeholders = String.join(", ", Collections.nCopies(studentIds.size(), "?"));
+        return new HashSet<>(jdbcTemplate.queryForList(String.format(SUBMITTED_SQL, placeholders), Integer.class, args.toArray()));
+    }
+
+    /**
+     * Applies grades and feedback to the submissions of one assignment in a single transaction,
+     * sent as JDBC batches in student id order so concurrent graders lock rows in the same order.
+     *
+     * @return number of submissions updated
+     */
+    @Transactional
+    public int applyGrades(int assignmentId, List<GradeUpdate> updates) {
+        List<GradeUpdate> rows = new ArrayList<>(updates);
+        rows.sort(Comparator.comparingInt(GradeUpdate::studentId));
+
+        int updated = 0;
+        for (int[] batch : jdbcTemplate.batchUpdate(APPLY_GRADE_SQL, rows, BATCH_SIZE, (ps, row) -> {
+            ps.setObject(1, row.grade());
+            ps.setString(2, row.feedback());
+            ps.setInt(3, assignmentId);
+            ps.setInt(4, row.studentId());
+        })) {
+            for (int count : batch) {
+                // The driver may report SUCCESS_NO_INFO for rewritten batches
+                updated += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Grade and feedback for one student's submission; either may be null to keep the stored value.
+     */
+    public record GradeUpdate(int studentId, Float grade, String feedback) {
+    }
+}
@@ -4,12 +4,26 @@ import com.chhotu.Learning_Management_System.entity.Assignment;
 import com.chhotu.Learning_Management_System.entity.Student;
 import com.chhotu.Learning_Management_System.entity.Submission;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SubmissionRepository extends JpaRepository<Submission, Integer> {
     List<Submission> findByStudentId(Student student);
     List <Submission> findAllByAssignmentId (Assignment assignmentId);
+    boolean existsByStudentId(Student student);
+
+    // Served by uk_submission_assignment_student, so it costs one index lookup however many submissions a student has
+    @Query("SELECT s FROM Submission s WHERE s.assignmentId.assignmentId = :assignmentId AND s.studentId.userAccountId = :studentId")
+    Optional<Submission> findByAssignmentAndStudent(@Param("assignmentId") int assignmentId, @Param("studentId") int studentId);
+
+    @Query("SELECT COUNT(s) > 0 FROM Submission s WHERE s.assignmentId.assignmentId = :assignmentId AND s.studentId.userAccountId = :studentId")
+    boolean existsByAssignmentAndStudent(@Param("assignmentId") int assignmentId, @Param("studentId") int studentId);
+
+    // Whether a stored upload object is still attached to any submission; served by idx_submission_file_path
+    boolean existsByFilePath(String filePath);
 }
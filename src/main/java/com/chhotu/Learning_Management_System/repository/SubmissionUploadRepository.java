@@ -0,0 +1,30 @@
+package com.chhotu.Learning_Management_System.repository;
+
+import com.chhotu.Learning_Management_System.entity.SubmissionUpload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SubmissionUploadRepository extends JpaRepository<SubmissionUpload, String> {
+
+    Optional<SubmissionUpload> findByAssignmentIdAndStudentId(int assignmentId, int studentId);
+
+    // Abandoned uploads: no start, resume or chunk since the cutoff. Served by idx_submission_upload_activity,
+    // and by idx_submission_upload_created for uploads from before activity was tracked
+    @Query("SELECT u FROM SubmissionUpload u WHERE u.lastActivityAt < :cutoff " +
+            "OR (u.lastActivityAt IS NULL AND u.createdAt < :cutoff)")
+    List<SubmissionUpload> findInactiveSince(@Param("cutoff") Date cutoff);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SubmissionUpload u SET u.lastActivityAt = :at WHERE u.uploadId = :uploadId")
+    int recordActivity(@Param("uploadId") String uploadId, @Param("at") Date at);
+}
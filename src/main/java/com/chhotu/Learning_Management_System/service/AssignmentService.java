@@ -1,6 +1,8 @@
 package com.chhotu.Learning_Management_System.service;
 
 import com.chhotu.Learning_Management_System.dto.AssignmentDto;
+import com.chhotu.Learning_Management_System.dto.BulkGradeDto;
+import com.chhotu.Learning_Management_System.dto.BulkGradeReportDto;
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.List;
 
@@ -17,4 +19,6 @@ public interface AssignmentService {
     List<String> assignmentSubmissions(int assignmentId, HttpServletRequest request);
 
     void addAssignment(AssignmentDto assignment, HttpServletRequest request);
+
+    BulkGradeReportDto bulkGrade(BulkGradeDto bulkGrade, HttpServletRequest request);
 }
@@ -0,0 +1,27 @@
+package com.chhotu.Learning_Management_System.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+public interface CourseMediaService {
+
+    // A course's media file, if the caller may read it; a null file name means the current one
+    MediaFile getMedia(int courseId, String fileName, HttpServletRequest request);
+
+    // Body for bytes [start, start + length) of the file; empty when the servlet container sends the file itself
+    Optional<StreamingResponseBody> openRange(MediaFile media, long start, long length, HttpServletRequest request);
+
+    /**
+     * A stored media file. File names are unique per upload, so the content at a given name never changes.
+     */
+    record MediaFile(int courseId, String fileName, Path path, long size, String sha256, MediaType contentType) {
+
+        public String etag() {
+            return "\"" + sha256 + "\"";
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.chhotu.Learning_Management_System.service;
 
+import com.chhotu.Learning_Management_System.dto.CourseCatalogPageDto;
 import com.chhotu.Learning_Management_System.dto.CourseDto;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.web.multipart.MultipartFile;
 import com.chhotu.Learning_Management_System.entity.Course;
+import com.chhotu.Learning_Management_System.util.VersionStamp;
 
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -22,11 +26,24 @@ public interface CourseService {
      */
     List<CourseDto> getAllCourses(HttpServletRequest request);
 
+    /**
+     * Retrieves one keyset page of the course catalog, optionally filtered by instructor, name prefix
+     * and creation date range (inclusive), sorted by "name", "newest" or "oldest".
+     */
+    CourseCatalogPageDto getCatalog(Integer instructorId, String namePrefix, LocalDate createdFrom, LocalDate createdTo,
+                                    String sort, String cursor, Integer limit, HttpServletRequest request);
+
     /**
      * Retrieves course details by ID.
      */
     CourseDto getCourseById(int id, HttpServletRequest request);
 
+    /**
+     * Retrieves the version of a course's details with the same access checks as getCourseById,
+     * without loading the course.
+     */
+    VersionStamp getCourseVersion(int id, HttpServletRequest request);
+
     /**
      * Updates an existing course.
      */
@@ -43,7 +60,17 @@ public interface CourseService {
     void uploadMediaFile(int courseId, MultipartFile file, HttpServletRequest request);
 
     /**
-     * Sends update notifications to all students enrolled in a course.
+     * Streams a media file from the request body straight into storage and associates it with a course.
+     *
+     * @param declaredSize the request's Content-Length, or -1 if unknown
+     * @return the stored file name
+     */
+    String uploadMediaStream(int courseId, String fileName, long declaredSize, InputStream body, HttpServletRequest request);
+
+    /**
+     * Queues update notifications for all students enrolled in a course.
+     *
+     * @return number of students the notification was queued for
      */
-    void sendNotificationsToEnrolledStudents(int courseId, HttpServletRequest request);
+    int sendNotificationsToEnrolledStudents(int courseId, HttpServletRequest request);
 }
@@ -0,0 +1,13 @@
+package com.chhotu.Learning_Management_System.service;
+
+import com.chhotu.Learning_Management_System.dto.EmailOutboxStatsDto;
+import jakarta.servlet.http.HttpServletRequest;
+
+public interface EmailOutboxService {
+
+    // Send due outbox emails in batches over shared SMTP connections; returns emails sent
+    int drainOutbox();
+
+    // Queue depth and delivery counters, admin only
+    EmailOutboxStatsDto getQueueStats(HttpServletRequest request);
+}
@@ -0,0 +1,19 @@
+package com.chhotu.Learning_Management_System.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+public interface GradeExportService {
+
+    // Check the instructor's access now; the returned body streams the quiz's grades as CSV or JSONL
+    GradeExport exportQuizGrades(int quizId, String format, HttpServletRequest request);
+
+    // Check the instructor's access now; the returned body streams the assignment's submissions as CSV or JSONL
+    GradeExport exportAssignmentSubmissions(int assignmentId, String format, HttpServletRequest request);
+
+    /**
+     * A ready-to-stream export: suggested file name, content type and the body writing the rows.
+     */
+    record GradeExport(String fileName, String contentType, StreamingResponseBody body) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.chhotu.Learning_Management_System.service;
+
+import com.chhotu.Learning_Management_System.dto.QuestionItemAnalysisDto;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.List;
+
+public interface ItemAnalysisService {
+
+    // Item analysis of every answered question of a quiz, for its instructor
+    List<QuestionItemAnalysisDto> getItemAnalysis(int quizId, HttpServletRequest request);
+}
@@ -2,6 +2,7 @@ package com.chhotu.Learning_Management_System.service;
 
 import com.chhotu.Learning_Management_System.dto.LessonDto;
 import com.chhotu.Learning_Management_System.entity.Lesson;
+import com.chhotu.Learning_Management_System.util.VersionStamp;
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.List;
 
@@ -13,6 +14,10 @@ public interface LessonService {
 
     LessonDto getLessonById(int lessonId, HttpServletRequest request);
 
+    VersionStamp getLessonsVersion(int courseId, HttpServletRequest request);
+
+    VersionStamp getLessonVersion(int lessonId, HttpServletRequest request);
+
     void updateLesson(int lessonId, Lesson updatedLesson, HttpServletRequest request);
 
     void deleteLesson(int lessonId, int courseId, HttpServletRequest request);
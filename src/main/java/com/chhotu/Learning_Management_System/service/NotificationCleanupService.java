@@ -0,0 +1,13 @@
+package com.chhotu.Learning_Management_System.service;
+
+import com.chhotu.Learning_Management_System.dto.NotificationCleanupReportDto;
+import jakarta.servlet.http.HttpServletRequest;
+
+public interface NotificationCleanupService {
+
+    // Coalesce repeated unread notifications and purge old read ones; returns what was removed
+    NotificationCleanupReportDto runCleanup();
+
+    // Same as runCleanup, triggered on demand by an admin
+    NotificationCleanupReportDto runCleanup(HttpServletRequest request);
+}
@@ -0,0 +1,13 @@
+package com.chhotu.Learning_Management_System.service;
+
+import com.chhotu.Learning_Management_System.dto.NotificationDto;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface NotificationStreamService {
+
+    // Open a Server-Sent Events stream for a user, replaying everything after lastEventId when given
+    SseEmitter subscribe(int userId, Integer lastEventId);
+
+    // Push a freshly stored notification to the user's open streams and replay buffer
+    void publish(int userId, NotificationDto notification);
+}
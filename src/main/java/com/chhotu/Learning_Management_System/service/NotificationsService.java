@@ -1,6 +1,10 @@
 package com.chhotu.Learning_Management_System.service;
 
+import com.chhotu.Learning_Management_System.dto.NotificationPageDto;
+import com.chhotu.Learning_Management_System.entity.NotificationTemplate;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.util.Collection;
 import java.util.List;
 
 public interface NotificationsService {
@@ -11,6 +15,31 @@ public interface NotificationsService {
     // Fetch only unread notifications for a user
     List<String> getAllUnreadNotifications(int userId, HttpServletRequest request);
 
+    // Fetch one keyset page of a user's inbox without changing read state
+    NotificationPageDto getInbox(int userId, boolean unreadOnly, String cursor, Integer limit, HttpServletRequest request);
+
+    // Mark every unread notification up to the given id as read, returns rows updated
+    int markReadUpTo(int userId, int upToId, HttpServletRequest request);
+
+    // Number of unread notifications for a user, served from an in-memory counter
+    int getUnreadCount(int userId, HttpServletRequest request);
+
+    // Drop cached unread counts so they are reloaded from the database on next use
+    void evictUnreadCounts(Collection<Integer> userIds);
+
     // Send a new notification to a user
     void sendNotification(String message, int id);
+
+    // Send a templated notification; only the template id and parameters are stored
+    void sendNotification(NotificationTemplate template, int id, Object... params);
+
+    // Open a live Server-Sent Events stream of new notifications, resuming after lastEventId when given
+    SseEmitter streamNotifications(int userId, Integer lastEventId, HttpServletRequest request);
+
+    // Queue the same templated notification for many users once the surrounding transaction commits, written in batches
+    // off the request thread; returns recipients queued
+    int fanOutNotification(NotificationTemplate template, Collection<Integer> recipientIds, Object... params);
+
+    // Queue a templated notification for every student enrolled in a course; returns recipients queued
+    int notifyEnrolledStudents(int courseId, NotificationTemplate template, Object... params);
 }
@@ -0,0 +1,12 @@
+package com.chhotu.Learning_Management_System.service;
+
+import com.chhotu.Learning_Management_System.dto.QuestionImportReportDto;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.Reader;
+
+public interface QuestionImportService {
+
+    // Stream a JSONL or CSV question bank into a course, one question per line
+    QuestionImportReportDto importQuestionBank(int courseId, String format, Reader reader, HttpServletRequest request) throws Exception;
+}
@@ -0,0 +1,16 @@
+package com.chhotu.Learning_Management_System.service;
+
+import com.chhotu.Learning_Management_System.dto.QuizGradeStatsDto;
+import jakarta.servlet.http.HttpServletRequest;
+
+public interface QuizGradeStatsService {
+
+    // Fold a newly inserted grading into the quiz's statistics; applied once the surrounding transaction commits
+    void record(int quizId, int gradingId, int grade);
+
+    // Statistics of a quiz for its instructor, served from memory and rebuilt from the database when missing
+    QuizGradeStatsDto getStats(int quizId, HttpServletRequest request);
+
+    // Drop the in-memory statistics of a quiz so the next request rebuilds them
+    void evict(int quizId);
+}
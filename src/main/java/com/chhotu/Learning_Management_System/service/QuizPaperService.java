@@ -0,0 +1,10 @@
+package com.chhotu.Learning_Management_System.service;
+
+public interface QuizPaperService {
+
+    // Student-facing question paper of a quiz as serialized JSON, without correct answers
+    byte[] getPaper(int quizId);
+
+    // Drop the cached paper of a quiz once the surrounding transaction commits; call whenever its questions change
+    void evict(int quizId);
+}
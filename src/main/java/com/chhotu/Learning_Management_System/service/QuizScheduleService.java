@@ -0,0 +1,38 @@
+package com.chhotu.Learning_Management_System.service;
+
+import com.chhotu.Learning_Management_System.entity.Quiz;
+
+import java.util.List;
+
+public interface QuizScheduleService {
+
+    // Track a newly created or rescheduled quiz; takes effect once the surrounding transaction commits
+    void register(Quiz quiz);
+
+    // Quizzes of a course that are open right now, soonest to close first; served from memory
+    List<QuizWindow> getOpenQuizzes(int courseId);
+
+    // Window of a quiz that is open or about to open, or null if the index does not hold it; no database access
+    QuizWindow findTrackedWindow(int quizId);
+
+    // Effective open/close window of a quiz, with defaults for quizzes created before scheduling existed
+    QuizWindow windowOf(Quiz quiz);
+
+    /**
+     * When a quiz accepts students, as epoch milliseconds. Open from opensAt (inclusive) to closesAt (exclusive).
+     */
+    record QuizWindow(int quizId, int courseId, long opensAt, long closesAt) {
+
+        public boolean hasOpened(long time) {
+            return time >= opensAt;
+        }
+
+        public boolean hasClosed(long time) {
+            return time >= closesAt;
+        }
+
+        public boolean isOpenAt(long time) {
+            return hasOpened(time) && !hasClosed(time);
+        }
+    }
+}
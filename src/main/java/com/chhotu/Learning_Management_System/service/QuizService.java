@@ -6,15 +6,22 @@ import com.chhotu.Learning_Management_System.dto.QuizDto;
 import com.chhotu.Learning_Management_System.entity.Course;
 import com.chhotu.Learning_Management_System.entity.Quiz;
 import jakarta.servlet.http.HttpServletRequest;
+import java.util.Date;
 import java.util.List;
 
 public interface QuizService {
 
     int Create(Integer course_id, int type_id, HttpServletRequest request) throws Exception;
 
+    // Create a quiz with its own window; null times mean "open now" and "close after the default duration"
+    int Create(Integer course_id, int type_id, Date opensAt, Date closesAt, HttpServletRequest request) throws Exception;
+
     String getActiveQuiz(int course_id, HttpServletRequest request);
 
+    // Questions of a quiz with their correct answers, for the course instructor only
     List<QuestionDto> getQuizQuestions(int id, HttpServletRequest request) throws Exception;
+    // Student-facing question paper of a quiz as serialized JSON, served from the paper cache
+    byte[] getQuizPaper(int id, HttpServletRequest request) throws Exception;
 
     String getType(int typeID);
 
@@ -0,0 +1,14 @@
+package com.chhotu.Learning_Management_System.service;
+
+import com.chhotu.Learning_Management_System.dto.GradingDto;
+import com.chhotu.Learning_Management_System.dto.QuizSubmissionDto;
+import jakarta.servlet.http.HttpServletRequest;
+
+public interface QuizSubmissionService {
+
+    // Validate cheaply, store the answers and queue them for grading; repeating a key returns the same submission
+    QuizSubmissionDto submit(GradingDto gradingDto, String idempotencyKey, HttpServletRequest request);
+
+    // Current state of one of the logged-in student's submissions
+    QuizSubmissionDto getSubmission(int submissionId, HttpServletRequest request);
+}
@@ -0,0 +1,41 @@
+package com.chhotu.Learning_Management_System.service;
+
+import com.chhotu.Learning_Management_System.entity.QuestionType;
+import com.chhotu.Learning_Management_System.entity.QuestionType.QuestionTypeEnum;
+import com.chhotu.Learning_Management_System.entity.UserRole;
+import com.chhotu.Learning_Management_System.entity.UsersType;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.Optional;
+
+/**
+ * In-memory copy of the small, static lookup tables (user types and question types).
+ * Cached entities are detached and shared; treat them as read-only and use the reference
+ * methods when one has to be set on an entity that is about to be saved.
+ */
+public interface ReferenceDataService {
+
+    // Cached user type with the given id
+    Optional<UsersType> findUsersType(int userTypeId);
+
+    // Cached user type of a role; fails if the table has no row for it
+    UsersType getUsersType(UserRole role);
+
+    // Cached question type with the given id
+    Optional<QuestionType> findQuestionType(int typeId);
+
+    // Cached question type of an enum value; fails if the table has no row for it
+    QuestionType getQuestionType(QuestionTypeEnum type);
+
+    // Managed reference to a known user type, obtained without a query
+    Optional<UsersType> findUsersTypeReference(int userTypeId);
+
+    // Managed reference to a known question type, obtained without a query
+    Optional<QuestionType> findQuestionTypeReference(int typeId);
+
+    // Re-read both tables and swap in the new snapshot; returns a summary of what was loaded
+    String reload();
+
+    // Same as reload, triggered on demand by an admin
+    String reload(HttpServletRequest request);
+}
@@ -0,0 +1,26 @@
+package com.chhotu.Learning_Management_System.service;
+
+import com.chhotu.Learning_Management_System.dto.SearchHitDto;
+import com.chhotu.Learning_Management_System.entity.Course;
+import com.chhotu.Learning_Management_System.entity.Lesson;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.List;
+
+public interface SearchIndexService {
+
+    // Courses and lessons containing every word of the query, best first; a word also matches longer words it starts
+    List<SearchHitDto> search(String query, Integer limit, HttpServletRequest request);
+
+    // Add or replace a course in the index once the surrounding transaction commits
+    void indexCourse(Course course);
+
+    // Add or replace a lesson in the index once the surrounding transaction commits
+    void indexLesson(Lesson lesson);
+
+    // Drop a course and its lessons from the index once the surrounding transaction commits
+    void removeCourse(int courseId);
+
+    // Drop a lesson from the index once the surrounding transaction commits
+    void removeLesson(int lessonId);
+}
@@ -0,0 +1,22 @@
+package com.chhotu.Learning_Management_System.service;
+
+import com.chhotu.Learning_Management_System.dto.StartUploadDto;
+import com.chhotu.Learning_Management_System.dto.UploadStatusDto;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.InputStream;
+
+public interface SubmissionFileService {
+
+    // Start a file upload for the student's submission, or resume the matching one already in progress
+    UploadStatusDto startUpload(StartUploadDto upload, HttpServletRequest request);
+
+    // Progress of an upload; the next chunk must start at receivedBytes
+    UploadStatusDto getUploadStatus(String uploadId, HttpServletRequest request);
+
+    // Append the bytes of a chunk, streamed to disk, at the given offset
+    UploadStatusDto writeChunk(String uploadId, long offset, InputStream chunk, HttpServletRequest request);
+
+    // Verify and store a fully received file by its SHA-256 and point the submission at it
+    UploadStatusDto completeUpload(String uploadId, String expectedSha256, HttpServletRequest request);
+}
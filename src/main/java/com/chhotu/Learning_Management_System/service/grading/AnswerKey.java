@@ -0,0 +1,51 @@
+package com.chhotu.Learning_Management_System.service.grading;
+
+import com.chhotu.Learning_Management_System.entity.QuestionType.QuestionTypeEnum;
+
+import java.util.Arrays;
+
+/**
+ * Immutable answer key of one quiz: parallel arrays sorted by question id, with every correct
+ * answer already normalised by its type's scorer.
+ */
+public final class AnswerKey {
+
+    private final int quizId;
+    private final int[] questionIds;
+    private final QuestionTypeEnum[] types;
+    private final String[] normalizedAnswers;
+
+    AnswerKey(int quizId, int[] questionIds, QuestionTypeEnum[] types, String[] normalizedAnswers) {
+        this.quizId = quizId;
+        this.questionIds = questionIds;
+        this.types = types;
+        this.normalizedAnswers = normalizedAnswers;
+    }
+
+    public int getQuizId() {
+        return quizId;
+    }
+
+    public int size() {
+        return questionIds.length;
+    }
+
+    public int questionIdAt(int index) {
+        return questionIds[index];
+    }
+
+    public QuestionTypeEnum typeAt(int index) {
+        return types[index];
+    }
+
+    String normalizedAnswerAt(int index) {
+        return normalizedAnswers[index];
+    }
+
+    /**
+     * @return position of the question in this key, or a negative number if it is not part of the quiz
+     */
+    public int indexOf(int questionId) {
+        return Arrays.binarySearch(questionIds, questionId);
+    }
+}
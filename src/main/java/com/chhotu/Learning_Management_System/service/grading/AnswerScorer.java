@@ -0,0 +1,21 @@
+package com.chhotu.Learning_Management_System.service.grading;
+
+import com.chhotu.Learning_Management_System.entity.QuestionType.QuestionTypeEnum;
+
+/**
+ * Decides whether a submitted answer matches the answer key for one question type.
+ * Correct answers are normalised once when the answer key is built, so grading only
+ * normalises the submitted side.
+ */
+public interface AnswerScorer {
+
+    // Question type this scorer handles
+    QuestionTypeEnum getType();
+
+    // Canonical form used for comparison; null stays null
+    String normalize(String answer);
+
+    default boolean matches(String normalizedKey, String answer) {
+        return answer != null && normalizedKey != null && normalizedKey.equals(normalize(answer));
+    }
+}
@@ -0,0 +1,23 @@
+package com.chhotu.Learning_Management_System.service.grading;
+
+import com.chhotu.Learning_Management_System.entity.QuestionType.QuestionTypeEnum;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Multiple choice: the chosen option must match the correct one, ignoring case and surrounding spaces.
+ */
+@Component
+public class McqScorer implements AnswerScorer {
+
+    @Override
+    public QuestionTypeEnum getType() {
+        return QuestionTypeEnum.MCQ;
+    }
+
+    @Override
+    public String normalize(String answer) {
+        return answer == null ? null : answer.strip().toLowerCase(Locale.ROOT);
+    }
+}
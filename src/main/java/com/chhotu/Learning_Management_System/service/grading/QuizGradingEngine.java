@@ -0,0 +1,153 @@
+package com.chhotu.Learning_Management_System.service.grading;
+
+import com.chhotu.Learning_Management_System.dto.GradingDto;
+import com.chhotu.Learning_Management_System.entity.QuestionType.QuestionTypeEnum;
+import com.chhotu.Learning_Management_System.repository.QuestionRepository;
+import com.chhotu.Learning_Management_System.util.BoundedCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Grades quiz submissions against cached answer keys. The key of a quiz is loaded with a single
+ * projection query the first time it is graded and reused for every later submission, so grading
+ * itself never touches the database. Keys must be evicted whenever the quiz's questions change.
+ */
+@Service
+public class QuizGradingEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuizGradingEngine.class);
+
+    private static final int MAX_CACHED_KEYS = 2000;
+
+    private final QuestionRepository questionRepository;
+    private final Map<QuestionTypeEnum, AnswerScorer> scorers = new EnumMap<>(QuestionTypeEnum.class);
+    // Old quizzes are rarely graded again, so the least recently used keys make way for new ones
+    private final BoundedCache<Integer, CompletableFuture<AnswerKey>> answerKeys = new BoundedCache<>(MAX_CACHED_KEYS);
+
+    public QuizGradingEngine(QuestionRepository questionRepository, List<AnswerScorer> scorers) {
+        this.questionRepository = questionRepository;
+        for (AnswerScorer scorer : scorers) {
+            this.scorers.put(scorer.getType(), scorer);
+        }
+        for (QuestionTypeEnum type : QuestionTypeEnum.values()) {
+            if (!this.scorers.containsKey(type)) {
+                throw new IllegalStateException("No answer scorer registered for question type " + type);
+            }
+        }
+    }
+
+    /**
+     * Returns the cached answer key of a quiz, loading it on first use.
+     */
+    public AnswerKey getAnswerKey(int quizId) {
+        CompletableFuture<AnswerKey> key = answerKeys.get(quizId);
+        if (key == null) {
+            CompletableFuture<AnswerKey> loading = new CompletableFuture<>();
+            key = answerKeys.putIfAbsent(quizId, loading);
+            if (key == null) {
+                // Loaded outside the cache, so other quizzes are not blocked; concurrent graders wait for it
+                key = loading;
+                try {
+                    loading.complete(loadAnswerKey(quizId));
+                } catch (RuntimeException e) {
+                    answerKeys.remove(quizId, loading);
+                    loading.completeExceptionally(e);
+                }
+            }
+        }
+        try {
+            return key.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Scores a submission. Answers are matched by question id when the submission provides them,
+     * otherwise the positional answer list is matched against the questions in id order.
+     *
+     * @return number of correct answers
+     */
+    public int grade(GradingDto submission) {
+        return score(submission).grade();
+    }
+
+    /**
+     * Scores a submission like {@link #grade(GradingDto)}, keeping the result of every question.
+     */
+    public QuizScore score(GradingDto submission) {
+        AnswerKey key = getAnswerKey(submission.getQuizId());
+        Map<Integer, String> byQuestion = submission.getAnswersByQuestion();
+        List<String> positional = submission.getAnswers();
+
+        int grade = 0;
+        List<QuizScore.QuestionResult> results = new ArrayList<>(key.size());
+        for (int i = 0; i < key.size(); i++) {
+            String answer;
+            if (byQuestion != null) {
+                answer = byQuestion.get(key.questionIdAt(i));
+            } else {
+                answer = positional != null && i < positional.size() ? positional.get(i) : null;
+            }
+            AnswerScorer scorer = scorers.get(key.typeAt(i));
+            boolean correct = scorer.matches(key.normalizedAnswerAt(i), answer);
+            if (correct) {
+                grade++;
+            }
+            results.add(new QuizScore.QuestionResult(key.questionIdAt(i), key.typeAt(i), answer,
+                    scorer.normalize(answer), correct));
+        }
+        return new QuizScore(key.getQuizId(), grade, results);
+    }
+
+    /**
+     * Drops the cached answer key of a quiz; call whenever its questions are added, removed or edited.
+     * Inside a transaction the key is dropped once it commits.
+     */
+    public void evict(int quizId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Evicting before commit would let a concurrent grader cache the old answers again
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removeAnswerKey(quizId);
+                }
+            });
+        } else {
+            removeAnswerKey(quizId);
+        }
+    }
+
+    private void removeAnswerKey(int quizId) {
+        if (answerKeys.remove(quizId) != null) {
+            logger.info("Evicted cached answer key for quiz ID: {}", quizId);
+        }
+    }
+
+    private AnswerKey loadAnswerKey(int quizId) {
+        List<Object[]> rows = questionRepository.findAnswerKeyRowsByQuizId(quizId);
+        int[] questionIds = new int[rows.size()];
+        QuestionTypeEnum[] types = new QuestionTypeEnum[rows.size()];
+        String[] answers = new String[rows.size()];
+
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            questionIds[i] = (Integer) row[0];
+            types[i] = (QuestionTypeEnum) row[1];
+            answers[i] = scorers.get(types[i]).normalize((String) row[2]);
+        }
+
+        logger.info("Loaded answer key for quiz ID {} with {} questions", quizId, rows.size());
+        return new AnswerKey(quizId, questionIds, types, answers);
+    }
+}
@@ -0,0 +1,20 @@
+package com.chhotu.Learning_Management_System.service.grading;
+
+import com.chhotu.Learning_Management_System.entity.QuestionType.QuestionTypeEnum;
+
+import java.util.List;
+
+/**
+ * Outcome of scoring one submission: the total grade plus the result of every question in the
+ * answer key, in question id order.
+ */
+public record QuizScore(int quizId, int grade, List<QuestionResult> results) {
+
+    /**
+     * One question of a scored submission. {@code answer} is what the student sent (null when the
+     * question was left blank) and {@code normalizedAnswer} its canonical form for that question type.
+     */
+    public record QuestionResult(int questionId, QuestionTypeEnum type, String answer, String normalizedAnswer,
+                                 boolean correct) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.chhotu.Learning_Management_System.service.grading;
+
+import com.chhotu.Learning_Management_System.entity.QuestionType.QuestionTypeEnum;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Short answer: compares text after Unicode normalisation, lower-casing, dropping punctuation
+ * and collapsing whitespace, so "  Java Virtual-Machine. " matches "java virtual machine".
+ */
+@Component
+public class ShortAnswerScorer implements AnswerScorer {
+
+    private static final Pattern PUNCTUATION = Pattern.compile("[\\p{Punct}\\p{IsPunctuation}]");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Override
+    public QuestionTypeEnum getType() {
+        return QuestionTypeEnum.SHORT_ANSWER;
+    }
+
+    @Override
+    public String normalize(String answer) {
+        if (answer == null) {
+            return null;
+        }
+        String text = Normalizer.normalize(answer, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        text = PUNCTUATION.matcher(text).replaceAll(" ");
+        return WHITESPACE.matcher(text).replaceAll(" ").strip();
+    }
+}
@@ -0,0 +1,30 @@
+package com.chhotu.Learning_Management_System.service.grading;
+
+import com.chhotu.Learning_Management_System.entity.QuestionType.QuestionTypeEnum;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * True/false: accepts the usual spellings (true/false, t/f, yes/no, 1/0).
+ */
+@Component
+public class TrueFalseScorer implements AnswerScorer {
+
+    @Override
+    public QuestionTypeEnum getType() {
+        return QuestionTypeEnum.TRUE_FALSE;
+    }
+
+    @Override
+    public String normalize(String answer) {
+        if (answer == null) {
+            return null;
+        }
+        return switch (answer.strip().toLowerCase(Locale.ROOT)) {
+            case "true", "t", "yes", "y", "1" -> "true";
+            case "false", "f", "no", "n", "0" -> "false";
+            default -> answer.strip().toLowerCase(Locale.ROOT);
+        };
+    }
+}
@@ -1,19 +1,22 @@
 package com.chhotu.Learning_Management_System.service.impl;
 
 import com.chhotu.Learning_Management_System.dto.AssignmentDto;
-import com.chhotu.Learning_Management_System.entity.*;
-import com.chhotu.Learning_Management_System.repository.*;
+import com.chhotu.Learning_Management_System.dto.BulkGradeDto;
+import com.chhotu.Learning_Management_System.dto.BulkGradeReportDto;
 import com.chhotu.Learning_Management_System.entity.*;
 import com.chhotu.Learning_Management_System.repository.*;
 import com.chhotu.Learning_Management_System.service.AssignmentService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Implementation class for AssignmentService interface.
@@ -25,22 +28,27 @@ public class AssignmentServiceImpl implements AssignmentService {
 
     private static final Logger logger = LoggerFactory.getLogger(AssignmentServiceImpl.class);
 
+    static final int MAX_BULK_GRADES = 1000;
+
     private final AssignmentRepository assignmentRepository;
     private final SubmissionRepository submissionRepository;
     private final CourseRepository courseRepository;
     private final StudentRepository studentRepository;
     private final EnrollmentRepository enrollmentRepository;
+    private final SubmissionBatchRepository submissionBatchRepository;
 
     public AssignmentServiceImpl(AssignmentRepository assignmentRepository,
                                  SubmissionRepository submissionRepository,
                                  CourseRepository courseRepository,
                                  StudentRepository studentRepository,
-                                 EnrollmentRepository enrollmentRepository) {
+                                 EnrollmentRepository enrollmentRepository,
+                                 SubmissionBatchRepository submissionBatchRepository) {
         this.assignmentRepository = assignmentRepository;
         this.submissionRepository = submissionRepository;
         this.courseRepository = courseRepository;
         this.studentRepository = studentRepository;
         this.enrollmentRepository = enrollmentRepository;
+        this.submissionBatchRepository = submissionBatchRepository;
     }
 
     /**
@@ -70,12 +78,9 @@ public class AssignmentServiceImpl implements AssignmentService {
         }
 
         // Check duplicate submission
-        List<Submission> submissions = submissionRepository.findByStudentId(student);
-        for (Submission s : submissions) {
-            if (s.getAssignmentId().getAssignmentId() == assignment.getAssignmentId()) {
-                logger.warn("Duplicate submission attempt by student ID {} for assignment {}", student.getUserAccountId(), assignment.getAssignmentId());
-                throw new IllegalArgumentException("You've already submitted this assignment");
-            }
+        if (submissionRepository.existsByAssignmentAndStudent(assignment.getAssignmentId(), student.getUserAccountId())) {
+            logger.warn("Duplicate submission attempt by student ID {} for assignment {}", student.getUserAccountId(), assignment.getAssignmentId());
+            throw new IllegalArgumentException("You've already submitted this assignment");
         }
 
         // Save submission
@@ -89,7 +94,13 @@ public class AssignmentServiceImpl implements AssignmentService {
         Submission submission = new Submission();
         submission.setAssignmentId(newAssignment);
         submission.setStudentId(student);
-        submissionRepository.save(submission);
+        try {
+            submissionRepository.saveAndFlush(submission);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent upload won the race on uk_submission_assignment_student
+            logger.warn("Duplicate submission attempt by student ID {} for assignment {}", student.getUserAccountId(), assignment.getAssignmentId());
+            throw new IllegalArgumentException("You've already submitted this assignment");
+        }
 
         logger.info("Assignment '{}' uploaded successfully by student ID {}", assignment.getAssignmentTitle(), student.getUserId().getUserId());
     }
@@ -118,23 +129,10 @@ public class AssignmentServiceImpl implements AssignmentService {
         Student student = studentRepository.findById(studentID)
                 .orElseThrow(() -> new IllegalArgumentException("Student not found"));
 
-        List<Submission> submissions = submissionRepository.findByStudentId(student);
-        if (submissions.isEmpty()) {
-            logger.warn("Student ID {} has no submissions for assignment {}", studentID, assigID);
-            throw new IllegalArgumentException("Student has no submissions");
-        }
-
-        for (Submission s : submissions) {
-            if (s.getAssignmentId().getAssignmentId() == assigID) {
-                s.setGrade(grade);
-                submissionRepository.save(s);
-                logger.info("Grade {} assigned to student ID {} for assignment ID {}", grade, studentID, assigID);
-                return;
-            }
-        }
-
-        logger.error("Assignment ID {} not submitted by student ID {}", assigID, studentID);
-        throw new IllegalArgumentException("Student didn't submit this assignment");
+        Submission submission = findSubmission(assigID, student);
+        submission.setGrade(grade);
+        submissionRepository.save(submission);
+        logger.info("Grade {} assigned to student ID {} for assignment ID {}", grade, studentID, assigID);
     }
 
     /**
@@ -161,23 +159,10 @@ public class AssignmentServiceImpl implements AssignmentService {
         Student student = studentRepository.findById(studentID)
                 .orElseThrow(() -> new IllegalArgumentException("Student not found"));
 
-        List<Submission> submissions = submissionRepository.findByStudentId(student);
-        if (submissions.isEmpty()) {
-            logger.warn("Student ID {} has no submissions", studentID);
-            throw new IllegalArgumentException("Student has no submissions");
-        }
-
-        for (Submission s : submissions) {
-            if (s.getAssignmentId().getAssignmentId() == assigID) {
-                s.setFeedback(feedback);
-                submissionRepository.save(s);
-                logger.info("Feedback added for student ID {} on assignment ID {}", studentID, assigID);
-                return;
-            }
-        }
-
-        logger.error("No submission found for student ID {} and assignment ID {}", studentID, assigID);
-        throw new IllegalArgumentException("Student didn't submit this assignment");
+        Submission submission = findSubmission(assigID, student);
+        submission.setFeedback(feedback);
+        submissionRepository.save(submission);
+        logger.info("Feedback added for student ID {} on assignment ID {}", studentID, assigID);
     }
 
     /**
@@ -203,20 +188,9 @@ public class AssignmentServiceImpl implements AssignmentService {
             throw new IllegalArgumentException("You're not enrolled in this course");
         }
 
-        List<Submission> submissions = submissionRepository.findByStudentId(student);
-        if (submissions.isEmpty()) {
-            throw new IllegalArgumentException("Student has no submissions");
-        }
-
-        for (Submission s : submissions) {
-            if (s.getAssignmentId().getAssignmentId() == assigID) {
-                logger.debug("Feedback retrieved successfully for student ID {}", student.getUserId().getUserId());
-                return s.getFeedback() != null ? s.getFeedback() : "There is no feedback yet";
-            }
-        }
-
-        logger.error("Feedback not found for student ID {} and assignment ID {}", student.getUserId().getUserId(), assigID);
-        throw new IllegalArgumentException("Student didn't submit this assignment");
+        Submission submission = findSubmission(assigID, student);
+        logger.debug("Feedback retrieved successfully for student ID {}", student.getUserId().getUserId());
+        return submission.getFeedback() != null ? submission.getFeedback() : "There is no feedback yet";
     }
 
     /**
@@ -236,7 +210,7 @@ public class AssignmentServiceImpl implements AssignmentService {
         if (instructor == null) {
             throw new IllegalArgumentException("No logged in user is found.");
         }
-        if (instructor.getUserTypeId() == null || instructor.getUserTypeId().getUserTypeId() != 3) {
+        if (!UserRole.INSTRUCTOR.matches(instructor)) {
             throw new IllegalArgumentException("Logged-in user is not an instructor.");
         }
         if (assignment.getCourseID().getInstructorId().getUserAccountId() != instructor.getUserId()) {
@@ -266,7 +240,7 @@ public class AssignmentServiceImpl implements AssignmentService {
             throw new IllegalArgumentException("No user is logged in.");
         }
 
-        if (instructor.getUserTypeId() == null || instructor.getUserTypeId().getUserTypeId() != 3) {
+        if (!UserRole.INSTRUCTOR.matches(instructor)) {
             throw new IllegalArgumentException("Logged-in user is not an instructor.");
         }
 
@@ -290,4 +264,79 @@ public class AssignmentServiceImpl implements AssignmentService {
         assignmentRepository.save(newAssignment);
         logger.info("Assignment '{}' successfully added to course '{}'", assignment.getAssignmentTitle(), course.getCourseName());
     }
+
+    /**
+     * Apply grades and feedback to many submissions of one assignment in a single transaction.
+     * The whole request is rejected if any entry is invalid; students without a submission are reported.
+     */
+    @Override
+    public BulkGradeReportDto bulkGrade(BulkGradeDto bulkGrade, HttpServletRequest request) {
+        int assignmentId = bulkGrade.getAssignmentId();
+        List<BulkGradeDto.Entry> entries = bulkGrade.getGrades() == null ? List.of() : bulkGrade.getGrades();
+        logger.info("Bulk grading {} submissions of assignment ID {}", entries.size(), assignmentId);
+
+        Users instructor = (Users) request.getSession().getAttribute("user");
+        if (instructor == null) {
+            logger.error("Unauthorized bulk grading attempt - no user logged in.");
+            throw new IllegalArgumentException("You are not logged in");
+        }
+
+        Assignment assignment = assignmentRepository.findById(assignmentId)
+                .orElseThrow(() -> new IllegalArgumentException("Assignment not found"));
+
+        if (instructor.getUserId() != assignment.getCourseID().getInstructorId().getUserAccountId()) {
+            logger.warn("Instructor ID {} unauthorized to grade assignment ID {}", instructor.getUserId(), assignmentId);
+            throw new IllegalArgumentException("You're not the instructor of this course");
+        }
+
+        if (entries.isEmpty()) {
+            throw new IllegalArgumentException("No grades provided");
+        }
+        if (entries.size() > MAX_BULK_GRADES) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_GRADES + " grades can be submitted at once");
+        }
+
+        Set<Integer> studentIds = new LinkedHashSet<>();
+        for (BulkGradeDto.Entry entry : entries) {
+            if (!studentIds.add(entry.getStudentId())) {
+                throw new IllegalArgumentException("Student " + entry.getStudentId() + " is graded more than once");
+            }
+            if (entry.getGrade() == null && entry.getFeedback() == null) {
+                throw new IllegalArgumentException("Student " + entry.getStudentId() + " has neither a grade nor feedback");
+            }
+        }
+
+        Set<Integer> submitted = submissionBatchRepository.findSubmittedStudentIds(assignmentId, studentIds);
+        List<SubmissionBatchRepository.GradeUpdate> updates = new ArrayList<>(submitted.size());
+        List<Integer> graded = new ArrayList<>();
+        List<Integer> notSubmitted = new ArrayList<>();
+        for (BulkGradeDto.Entry entry : entries) {
+            if (!submitted.contains(entry.getStudentId())) {
+                notSubmitted.add(entry.getStudentId());
+                continue;
+            }
+            updates.add(new SubmissionBatchRepository.GradeUpdate(entry.getStudentId(), entry.getGrade(), entry.getFeedback()));
+            if (entry.getGrade() != null) {
+                graded.add(entry.getStudentId());
+            }
+        }
+
+        int updated = updates.isEmpty() ? 0 : submissionBatchRepository.applyGrades(assignmentId, updates);
+        logger.info("Bulk graded {} submissions of assignment ID {}, {} students had not submitted",
+                updated, assignmentId, notSubmitted.size());
+        return new BulkGradeReportDto(assignmentId, updated, graded, notSubmitted);
+    }
+
+    private Submission findSubmission(int assignmentId, Student student) {
+        return submissionRepository.findByAssignmentAndStudent(assignmentId, student.getUserAccountId())
+                .orElseThrow(() -> {
+                    // Only the error path pays for telling "nothing submitted" apart from "not this one"
+                    if (!submissionRepository.existsByStudentId(student)) {
+                        logger.warn("Student ID {} has no submissions", student.getUserAccountId());
+                        return new IllegalArgumentException("Student has no submissions");
+                    }
+                    logger.error("Assignment ID {} not submitted by student ID {}", assignmentId, student.getUserAccountId());
+                    return new IllegalArgumentException("Student didn't submit this assignment");
+                });
+    }
 }
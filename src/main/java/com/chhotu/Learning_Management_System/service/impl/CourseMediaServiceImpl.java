@@ -0,0 +1,148 @@
+package com.chhotu.Learning_Management_System.service.impl;
+
+import com.chhotu.Learning_Management_System.entity.Course;
+import com.chhotu.Learning_Management_System.entity.UserRole;
+import com.chhotu.Learning_Management_System.entity.Users;
+import com.chhotu.Learning_Management_System.repository.CourseRepository;
+import com.chhotu.Learning_Management_System.repository.EnrollmentRepository;
+import com.chhotu.Learning_Management_System.service.CourseMediaService;
+import com.chhotu.Learning_Management_System.util.BoundedCache;
+import com.chhotu.Learning_Management_System.util.FileDigests;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Serves course media files. On Tomcat the byte range is handed to the connector's sendfile support,
+ * which copies it from the page cache to the socket without passing through the JVM; elsewhere the
+ * range is copied with {@link FileChannel#transferTo}, which never buffers more than a small chunk.
+ */
+@Service
+public class CourseMediaServiceImpl implements CourseMediaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CourseMediaServiceImpl.class);
+
+    public static final Path MEDIA_DIR = Paths.get("media", "uploads");
+
+    static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    private static final int MAX_CACHED_HASHES = 2000;
+
+    private final CourseRepository courseRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    // Hashes of files uploaded before media_sha256 existed, computed once per file name and kept for
+    // the most recently requested files
+    private final BoundedCache<String, CompletableFuture<String>> legacyHashes = new BoundedCache<>(MAX_CACHED_HASHES);
+
+    public CourseMediaServiceImpl(CourseRepository courseRepository, EnrollmentRepository enrollmentRepository) {
+        this.courseRepository = courseRepository;
+        this.enrollmentRepository = enrollmentRepository;
+    }
+
+    @Override
+    public MediaFile getMedia(int courseId, String fileName, HttpServletRequest request) {
+        Users user = (Users) request.getSession().getAttribute("user");
+        if (user == null) {
+            throw new IllegalArgumentException("No user is logged in.");
+        }
+
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new IllegalArgumentException("No course found with ID: " + courseId));
+        if (course.getMedia() == null || (fileName != null && !fileName.equals(course.getMedia()))) {
+            throw new IllegalArgumentException("No such media for course ID: " + courseId);
+        }
+
+        if (UserRole.INSTRUCTOR.matches(user)) {
+            if (course.getInstructorId() == null || course.getInstructorId().getUserAccountId() != user.getUserId()) {
+                throw new IllegalArgumentException("You do not have access to this course's media.");
+            }
+        } else if (UserRole.STUDENT.matches(user)) {
+            if (!enrollmentRepository.existsByStudentUserAccountIdAndCourseCourseId(user.getUserId(), courseId)) {
+                throw new IllegalArgumentException("You're not enrolled in this course");
+            }
+        } else if (!UserRole.ADMIN.matches(user)) {
+            throw new IllegalArgumentException("You do not have access to this course's media.");
+        }
+
+        Path path = MEDIA_DIR.resolve(course.getMedia());
+        try {
+            long size = Files.size(path);
+            String sha256 = course.getMediaSha256() != null ? course.getMediaSha256() : legacyHash(course.getMedia(), path);
+            MediaType contentType = MediaTypeFactory.getMediaType(course.getMedia()).orElse(MediaType.APPLICATION_OCTET_STREAM);
+            return new MediaFile(courseId, course.getMedia(), path, size, sha256, contentType);
+        } catch (IOException e) {
+            logger.error("Media file {} of course {} is unreadable: {}", path, courseId, e.getMessage());
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Optional<StreamingResponseBody> openRange(MediaFile media, long start, long length, HttpServletRequest request) {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR))) {
+            request.setAttribute(SENDFILE_FILENAME_ATTR, media.path().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, start + length);
+            return Optional.empty();
+        }
+        return Optional.of(out -> {
+            try (FileChannel channel = FileChannel.open(media.path(), StandardOpenOption.READ)) {
+                WritableByteChannel target = Channels.newChannel(out);
+                long position = start;
+                long end = start + length;
+                while (position < end) {
+                    long sent = channel.transferTo(position, end - position, target);
+                    if (sent <= 0) {
+                        break;
+                    }
+                    position += sent;
+                }
+            }
+        });
+    }
+
+    private String legacyHash(String fileName, Path path) {
+        CompletableFuture<String> hash = legacyHashes.get(fileName);
+        if (hash == null) {
+            CompletableFuture<String> computing = new CompletableFuture<>();
+            hash = legacyHashes.putIfAbsent(fileName, computing);
+            if (hash == null) {
+                // Concurrent first requests for the same file wait for this one hash instead of each reading the file
+                hash = computing;
+                try {
+                    computing.complete(FileDigests.sha256(path));
+                } catch (IOException | RuntimeException e) {
+                    legacyHashes.remove(fileName, computing);
+                    computing.completeExceptionally(e);
+                }
+            }
+        }
+        try {
+            return hash.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw new UncheckedIOException(io);
+            }
+            throw e;
+        }
+    }
+}
@@ -1,29 +1,50 @@
 package com.chhotu.Learning_Management_System.service.impl;
 
+import com.chhotu.Learning_Management_System.dto.CourseCatalogPageDto;
 import com.chhotu.Learning_Management_System.dto.CourseDto;
-import com.chhotu.Learning_Management_System.dto.StudentDto;
 import com.chhotu.Learning_Management_System.entity.*;
 import com.chhotu.Learning_Management_System.repository.*;
 import com.chhotu.Learning_Management_System.entity.Course;
 import com.chhotu.Learning_Management_System.entity.Instructor;
 import com.chhotu.Learning_Management_System.entity.Users;
+import com.chhotu.Learning_Management_System.repository.CourseCatalogRepository;
 import com.chhotu.Learning_Management_System.repository.CourseRepository;
 import com.chhotu.Learning_Management_System.repository.EnrollmentRepository;
 import com.chhotu.Learning_Management_System.repository.InstructorRepository;
 import com.chhotu.Learning_Management_System.service.CourseService;
-import com.chhotu.Learning_Management_System.service.EnrollmentService;
 import com.chhotu.Learning_Management_System.service.NotificationsService;
+import com.chhotu.Learning_Management_System.service.SearchIndexService;
+import com.chhotu.Learning_Management_System.util.VersionStamp;
+import com.chhotu.Learning_Management_System.util.FileDigests;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Base64;
 import java.util.Date;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.UUID;
 
 /**
  * Implementation class for CourseService.
@@ -34,22 +55,34 @@ public class CourseServiceImpl implements CourseService {
 
     private static final Logger logger = LoggerFactory.getLogger(CourseServiceImpl.class);
 
+    private static final int DEFAULT_CATALOG_PAGE_SIZE = 20;
+    private static final int MAX_CATALOG_PAGE_SIZE = 100;
+    private static final int MEDIA_BUFFER_BYTES = 64 * 1024;
+    // Leaves room for the "<millis>_" prefix within the 64 characters of course.media
+    private static final int MAX_MEDIA_NAME_LENGTH = 48;
+
     private final InstructorRepository instructorRepository;
     private final CourseRepository courseRepository;
     private final EnrollmentRepository enrollmentRepository;
-    private final EnrollmentService enrollmentService;
     private final NotificationsService notificationsService;
+    private final long maxMediaBytes;
+    private final CourseCatalogRepository courseCatalogRepository;
+    private final SearchIndexService searchIndexService;
 
     public CourseServiceImpl(InstructorRepository instructorRepository,
                              CourseRepository courseRepository,
                              EnrollmentRepository enrollmentRepository,
-                             EnrollmentService enrollmentService,
-                             NotificationsService notificationsService) {
+                             NotificationsService notificationsService,
+                             @Value("${lms.media.max-file-size-bytes:10737418240}") long maxMediaBytes,
+                             CourseCatalogRepository courseCatalogRepository,
+                             SearchIndexService searchIndexService) {
         this.instructorRepository = instructorRepository;
         this.courseRepository = courseRepository;
         this.enrollmentRepository = enrollmentRepository;
-        this.enrollmentService = enrollmentService;
         this.notificationsService = notificationsService;
+        this.maxMediaBytes = maxMediaBytes;
+        this.courseCatalogRepository = courseCatalogRepository;
+        this.searchIndexService = searchIndexService;
         logger.info("CourseServiceImpl initialized successfully");
     }
 
@@ -68,8 +101,7 @@ public class CourseServiceImpl implements CourseService {
         }
 
         // Validate instructor role
-        if (loggedInInstructor.getUserTypeId() == null ||
-                loggedInInstructor.getUserTypeId().getUserTypeId() != 3) {
+        if (!UserRole.INSTRUCTOR.matches(loggedInInstructor)) {
             logger.error("Unauthorized user type for course creation.");
             throw new IllegalArgumentException("Logged-in user is not an instructor.");
         }
@@ -94,6 +126,7 @@ public class CourseServiceImpl implements CourseService {
         course.setInstructorId(instructor);
         course.setCreationDate(new Date());
         courseRepository.save(course);
+        searchIndexService.indexCourse(course);
 
         logger.info("Course '{}' added successfully by instructor '{}'", course.getCourseName(), instructor.getFirstName());
     }
@@ -111,9 +144,44 @@ public class CourseServiceImpl implements CourseService {
             throw new IllegalArgumentException("No user is logged in.");
         }
 
-        List<Course> courses = courseRepository.findAll();
+        List<CourseDto> courses = courseCatalogRepository.findAll();
         logger.info("Fetched {} courses.", courses.size());
-        return convertToCourseDtoList(courses);
+        return courses;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CourseCatalogPageDto getCatalog(Integer instructorId, String namePrefix, LocalDate createdFrom, LocalDate createdTo,
+                                           String sort, String cursor, Integer limit, HttpServletRequest request) {
+        logger.info("Fetching course catalog page (instructor={}, prefix={}, sort={}, cursor={})", instructorId, namePrefix, sort, cursor);
+
+        Users loggedInUser = (Users) request.getSession().getAttribute("user");
+        if (loggedInUser == null) {
+            logger.error("Unauthorized attempt to fetch the course catalog.");
+            throw new IllegalArgumentException("No user is logged in.");
+        }
+
+        CourseCatalogRepository.Sort order = parseCatalogSort(sort);
+        int pageSize = limit == null ? DEFAULT_CATALOG_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_CATALOG_PAGE_SIZE));
+        if (createdFrom != null && createdTo != null && createdTo.isBefore(createdFrom)) {
+            throw new IllegalArgumentException("createdTo must not be before createdFrom.");
+        }
+
+        // Fetch one extra row to learn whether another page exists
+        List<CourseDto> courses = courseCatalogRepository.findPage(instructorId, namePrefix,
+                createdFrom == null ? null : Timestamp.valueOf(createdFrom.atStartOfDay()),
+                createdTo == null ? null : Timestamp.valueOf(createdTo.plusDays(1).atStartOfDay()),
+                order, decodeCatalogCursor(cursor, order), pageSize + 1);
+        boolean hasMore = courses.size() > pageSize;
+        if (hasMore) {
+            courses = courses.subList(0, pageSize);
+        }
+
+        String nextCursor = hasMore ? encodeCatalogCursor(order, courses.get(courses.size() - 1)) : null;
+        logger.info("Course catalog page returned {} courses", courses.size());
+        return new CourseCatalogPageDto(courses, nextCursor, hasMore);
     }
 
     /**
@@ -133,7 +201,7 @@ public class CourseServiceImpl implements CourseService {
                 .orElseThrow(() -> new IllegalArgumentException("No course found with ID: " + id));
 
         // Check enrollment if student
-        if (loggedInUser.getUserTypeId().getUserTypeId() == 2) {
+        if (UserRole.STUDENT.matches(loggedInUser)) {
             boolean enrolled = enrollmentRepository.findByCourse(course).stream()
                     .anyMatch(e -> e.getStudent().getUserAccountId() == loggedInUser.getUserId());
             if (!enrolled) {
@@ -153,6 +221,29 @@ public class CourseServiceImpl implements CourseService {
         );
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public VersionStamp getCourseVersion(int id, HttpServletRequest request) {
+        Users loggedInUser = (Users) request.getSession().getAttribute("user");
+        if (loggedInUser == null) {
+            throw new IllegalArgumentException("No user is logged in.");
+        }
+
+        List<Object[]> rows = courseRepository.findVersionRows(id);
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("No course found with ID: " + id);
+        }
+        if (UserRole.STUDENT.matches(loggedInUser)
+                && !enrollmentRepository.existsByStudentUserAccountIdAndCourseCourseId(loggedInUser.getUserId(), id)) {
+            throw new IllegalArgumentException("You are not enrolled in this course.");
+        }
+
+        Object[] row = rows.get(0);
+        return new VersionStamp("course-" + id + "-" + row[0], row[1] == null ? -1 : ((Date) row[1]).getTime());
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -165,7 +256,12 @@ public class CourseServiceImpl implements CourseService {
         existingCourse.setDescription(updatedCourse.getDescription());
         existingCourse.setDuration(updatedCourse.getDuration());
 
-        courseRepository.save(existingCourse);
+        try {
+            courseRepository.save(existingCourse);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new IllegalArgumentException("The course was changed meanwhile; reload it and try again.");
+        }
+        searchIndexService.indexCourse(existingCourse);
         logger.info("Course '{}' updated successfully.", updatedCourse.getCourseName());
     }
 
@@ -177,6 +273,7 @@ public class CourseServiceImpl implements CourseService {
         logger.info("Deleting course with ID: {}", courseId);
         Course existingCourse = validateInstructorAndCourse(courseId, request);
         courseRepository.delete(existingCourse);
+        searchIndexService.removeCourse(courseId);
         logger.info("Course with ID {} deleted successfully.", courseId);
     }
 
@@ -186,45 +283,125 @@ public class CourseServiceImpl implements CourseService {
     @Override
     public void uploadMediaFile(int courseId, MultipartFile file, HttpServletRequest request) {
         logger.info("Uploading media for course ID: {}", courseId);
-        Course course = validateInstructorAndCourse(courseId, request);
+        validateInstructorAndCourse(courseId, request);
 
-        String uploadDir = "media/uploads/";
-        File directory = new File(uploadDir);
+        File directory = CourseMediaServiceImpl.MEDIA_DIR.toFile();
         if (!directory.exists()) {
             directory.mkdirs();
-            logger.debug("Media upload directory created: {}", uploadDir);
+            logger.debug("Media upload directory created: {}", directory);
         }
 
         String fileName = System.currentTimeMillis() + "_" + file.getOriginalFilename();
-        File destination = new File(uploadDir + fileName);
+        File destination = new File(directory, fileName);
 
+        String sha256;
         try {
             file.transferTo(destination);
+            sha256 = FileDigests.sha256(destination.toPath());
             logger.info("File '{}' uploaded successfully for course ID {}", fileName, courseId);
         } catch (IOException e) {
             logger.error("File upload failed for course {}: {}", courseId, e.getMessage());
             throw new RuntimeException("File upload failed.", e);
         }
 
-        course.setMedia(fileName);
-        courseRepository.save(course);
+        storeMedia(courseId, destination.toPath(), sha256);
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * The body is read through one fixed buffer that feeds both the SHA-256 digest and the file channel,
+     * so each byte is written to disk once and memory use does not depend on the file size. The file is
+     * written under a temporary name next to its final one and renamed only once it is complete.
      */
     @Override
-    public void sendNotificationsToEnrolledStudents(int courseId, HttpServletRequest request) {
-        logger.info("Sending course update notifications for course ID: {}", courseId);
-        List<StudentDto> students = enrollmentService.viewEnrolledStudents(courseId, request);
-        String message = getCourseById(courseId, request).getCourseName() + " course is updated";
+    public String uploadMediaStream(int courseId, String fileName, long declaredSize, InputStream body, HttpServletRequest request) {
+        logger.info("Streaming media upload for course ID: {}", courseId);
+        validateInstructorAndCourse(courseId, request);
 
-        for (StudentDto student : students) {
-            notificationsService.sendNotification(message, student.getUserAccountId());
-            logger.debug("Notification sent to student ID {}", student.getUserAccountId());
+        String safeName = safeMediaName(fileName);
+        if (declaredSize > maxMediaBytes) {
+            throw new IllegalArgumentException("Media file exceeds the limit of " + maxMediaBytes + " bytes.");
         }
 
-        logger.info("Notifications sent successfully to all enrolled students of course {}", courseId);
+        Path directory = CourseMediaServiceImpl.MEDIA_DIR;
+        String storedName = System.currentTimeMillis() + "_" + safeName;
+        Path temp = directory.resolve("." + UUID.randomUUID() + ".part");
+        try {
+            Files.createDirectories(directory);
+            if (declaredSize > 0 && Files.getFileStore(directory).getUsableSpace() < declaredSize) {
+                throw new IllegalArgumentException("Not enough storage space for this media file.");
+            }
+
+            MessageDigest digest = FileDigests.newSha256();
+            long written = 0;
+            ByteBuffer buffer = ByteBuffer.allocate(MEDIA_BUFFER_BYTES);
+            try (ReadableByteChannel source = Channels.newChannel(body);
+                 FileChannel target = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                while (source.read(buffer) != -1) {
+                    buffer.flip();
+                    written += buffer.remaining();
+                    if (written > maxMediaBytes) {
+                        throw new IllegalArgumentException("Media file exceeds the limit of " + maxMediaBytes + " bytes.");
+                    }
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        target.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                target.force(true);
+            }
+            if (written == 0) {
+                throw new IllegalArgumentException("Media file is empty.");
+            }
+            if (declaredSize >= 0 && written != declaredSize) {
+                throw new IllegalArgumentException("Upload ended after " + written + " of " + declaredSize + " bytes.");
+            }
+
+            Path stored = directory.resolve(storedName);
+            Files.move(temp, stored, StandardCopyOption.ATOMIC_MOVE);
+            storeMedia(courseId, stored, FileDigests.hex(digest));
+            logger.info("Media '{}' ({} bytes) stored for course ID {}", storedName, written, courseId);
+            return storedName;
+        } catch (IOException e) {
+            logger.error("Media upload failed for course {}: {}", courseId, e.getMessage());
+            throw new UncheckedIOException("Media upload failed.", e);
+        } finally {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                logger.warn("Could not delete partial media upload {}: {}", temp, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int sendNotificationsToEnrolledStudents(int courseId, HttpServletRequest request) {
+        logger.info("Sending course update notifications for course ID: {}", courseId);
+        Course course = validateInstructorAndCourse(courseId, request);
+        int queued = notificationsService.notifyEnrolledStudents(courseId, NotificationTemplate.COURSE_UPDATED,
+                course.getCourseName());
+        logger.info("Notifications queued for {} enrolled students of course {}", queued, courseId);
+        return queued;
+    }
+
+    /**
+     * Points the course at a stored media file with a targeted update instead of saving the course loaded
+     * before the upload, which may have been edited since. The file is removed again if the course is gone.
+     */
+    private void storeMedia(int courseId, Path stored, String sha256) {
+        if (courseRepository.updateMedia(courseId, stored.getFileName().toString(), sha256, new Date()) == 0) {
+            try {
+                Files.deleteIfExists(stored);
+            } catch (IOException e) {
+                logger.warn("Could not delete media {} of removed course {}: {}", stored, courseId, e.getMessage());
+            }
+            throw new IllegalArgumentException("No course found with ID: " + courseId);
+        }
     }
 
     /**
@@ -236,7 +413,7 @@ public class CourseServiceImpl implements CourseService {
             throw new IllegalArgumentException("No user is logged in.");
         }
 
-        if (instructor.getUserTypeId() == null || instructor.getUserTypeId().getUserTypeId() != 3) {
+        if (!UserRole.INSTRUCTOR.matches(instructor)) {
             throw new IllegalArgumentException("Logged-in user is not an instructor.");
         }
 
@@ -251,19 +428,65 @@ public class CourseServiceImpl implements CourseService {
         return course;
     }
 
+    private static CourseCatalogRepository.Sort parseCatalogSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return CourseCatalogRepository.Sort.NAME;
+        }
+        try {
+            return CourseCatalogRepository.Sort.valueOf(sort.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported sort: " + sort + ". Use name, newest or oldest.");
+        }
+    }
+
     /**
-     * Converts a list of Course entities to DTOs.
+     * The cursor carries the sort it was made for and the last row's keys: "SORT:id" or "NAME:id:name".
      */
-    private List<CourseDto> convertToCourseDtoList(List<Course> courses) {
-        return courses.stream()
-                .map(course -> new CourseDto(
-                        course.getCourseId(),
-                        course.getCourseName(),
-                        course.getDescription(),
-                        course.getDuration(),
-                        course.getMedia(),
-                        course.getInstructorId().getFirstName()
-                ))
-                .collect(Collectors.toList());
+    private static String encodeCatalogCursor(CourseCatalogRepository.Sort sort, CourseDto last) {
+        String key = sort + ":" + last.getCourseId();
+        if (sort == CourseCatalogRepository.Sort.NAME && last.getCourseName() != null) {
+            key += ":" + last.getCourseName();
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static CourseDto decodeCatalogCursor(String cursor, CourseCatalogRepository.Sort sort) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String[] parts;
+        CourseDto last = new CourseDto();
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 3);
+            last.setCourseId(Integer.parseInt(parts[1]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+        if (!parts[0].equals(sort.name())) {
+            throw new IllegalArgumentException("Cursor was issued for a different sort.");
+        }
+        last.setCourseName(parts.length > 2 ? parts[2] : null);
+        return last;
+    }
+
+    /**
+     * Reduces a client supplied file name to a short, safe final path segment.
+     */
+    private static String safeMediaName(String fileName) {
+        if (fileName == null) {
+            throw new IllegalArgumentException("File name is required.");
+        }
+        String name = fileName.substring(Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\')) + 1);
+        name = name.replaceAll("[^A-Za-z0-9._-]", "_");
+        if (name.isEmpty() || name.startsWith(".")) {
+            throw new IllegalArgumentException("Invalid file name.");
+        }
+        if (name.length() > MAX_MEDIA_NAME_LENGTH) {
+            // Keep the extension, which decides the content type the file is served with
+            int dot = name.lastIndexOf('.');
+            String extension = dot > 0 && name.length() - dot <= 10 ? name.substring(dot) : "";
+            name = name.substring(0, MAX_MEDIA_NAME_LENGTH - extension.length()) + extension;
+        }
+        return name;
     }
 }
@@ -0,0 +1,221 @@
+package com.chhotu.Learning_Management_System.service.impl;
+
+import com.chhotu.Learning_Management_System.dto.EmailOutboxStatsDto;
+import com.chhotu.Learning_Management_System.entity.EmailOutbox;
+import com.chhotu.Learning_Management_System.entity.UserRole;
+import com.chhotu.Learning_Management_System.entity.Users;
+import com.chhotu.Learning_Management_System.repository.EmailOutboxRepository;
+import com.chhotu.Learning_Management_System.service.EmailOutboxService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background delivery of the email outbox. Rows are written in the same transaction as the
+ * notification they belong to; this worker claims due rows, hands each batch to the mail sender
+ * as one call so it travels over a single SMTP connection, and reschedules failures with
+ * exponential backoff. No database transaction is held open while talking to the SMTP server:
+ * a claim is a lease on the rows, so instances draining at the same time never send an email twice.
+ * Sent rows are purged once they are older than the retention period.
+ */
+@Service
+public class EmailOutboxServiceImpl implements EmailOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxServiceImpl.class);
+
+    static final int BATCH_SIZE = 50;
+    static final int MAX_ATTEMPTS = 6;
+    private static final int MAX_BATCHES_PER_RUN = 20;
+    private static final long BASE_BACKOFF_MS = 30_000L;
+    private static final long MAX_BACKOFF_MS = 60 * 60 * 1000L;
+    private static final int MAX_ERROR_LENGTH = 512;
+    // Longer than any batch can take to send; only a batch lost with its worker is claimed again
+    private static final long CLAIM_LEASE_MS = 10 * 60 * 1000L;
+    private static final int PURGE_BATCH_SIZE = 1000;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final String from;
+    private final boolean enabled;
+    private final int retentionDays;
+
+    private final AtomicLong sentSinceStartup = new AtomicLong();
+    private final AtomicLong failedAttemptsSinceStartup = new AtomicLong();
+    private volatile int lastBatchSize;
+
+    public EmailOutboxServiceImpl(EmailOutboxRepository emailOutboxRepository,
+                                  JavaMailSender mailSender,
+                                  @Value("${lms.mail.from:no-reply@unicore-lms.local}") String from,
+                                  @Value("${lms.mail.outbox.enabled:true}") boolean enabled,
+                                  @Value("${lms.mail.outbox.retention-days:30}") int retentionDays) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.mailSender = mailSender;
+        this.from = from;
+        this.enabled = enabled;
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * Scheduled entry point; keeps draining until the due queue is empty or the per-run cap is hit.
+     */
+    @Scheduled(fixedDelayString = "${lms.mail.outbox.poll-interval-ms:5000}")
+    public void scheduledDrain() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            drainOutbox();
+        } catch (Exception e) {
+            logger.error("Email outbox drain failed", e);
+        }
+    }
+
+    @Override
+    public int drainOutbox() {
+        int sent = 0;
+        for (int batch = 0; batch < MAX_BATCHES_PER_RUN; batch++) {
+            String token = UUID.randomUUID().toString();
+            Date now = new Date();
+            int claimed = emailOutboxRepository.claimDue(token, now, new Date(now.getTime() + CLAIM_LEASE_MS), BATCH_SIZE);
+            if (claimed == 0) {
+                break;
+            }
+            List<EmailOutbox> due = emailOutboxRepository.findByClaimTokenOrderByEmailIdAsc(token);
+            if (!due.isEmpty()) {
+                sent += sendBatch(due);
+            }
+            if (claimed < BATCH_SIZE) {
+                break;
+            }
+        }
+        if (sent > 0) {
+            logger.info("Email outbox delivered {} emails", sent);
+        }
+        return sent;
+    }
+
+    /**
+     * Deletes sent emails older than the retention period in chunks, so the outbox only holds
+     * pending, failed and recently sent rows.
+     */
+    @Scheduled(cron = "${lms.mail.outbox.purge-cron:0 45 3 * * *}")
+    public void purgeSent() {
+        try {
+            Date cutoff = new Date(System.currentTimeMillis() - retentionDays * 24L * 60 * 60 * 1000);
+            int purged = 0;
+            int deleted;
+            do {
+                deleted = emailOutboxRepository.deleteSentBefore(cutoff, PURGE_BATCH_SIZE);
+                purged += deleted;
+            } while (deleted == PURGE_BATCH_SIZE);
+            if (purged > 0) {
+                logger.info("Purged {} sent emails older than {} days from the outbox", purged, retentionDays);
+            }
+        } catch (Exception e) {
+            logger.error("Email outbox purge failed", e);
+        }
+    }
+
+    @Override
+    public EmailOutboxStatsDto getQueueStats(HttpServletRequest request) {
+        Users loggedInUser = (Users) request.getSession().getAttribute("user");
+        if (loggedInUser == null) {
+            throw new IllegalArgumentException("No user is logged in.");
+        }
+        if (!UserRole.ADMIN.matches(loggedInUser)) {
+            throw new IllegalArgumentException("Only admins can view the email outbox.");
+        }
+
+        Date oldestPending = emailOutboxRepository.findOldestPendingCreatedAt();
+        long oldestAgeSeconds = oldestPending == null ? 0 : (System.currentTimeMillis() - oldestPending.getTime()) / 1000;
+        return new EmailOutboxStatsDto(
+                emailOutboxRepository.countByStatus(EmailOutbox.Status.PENDING),
+                emailOutboxRepository.countByStatus(EmailOutbox.Status.FAILED),
+                oldestAgeSeconds,
+                sentSinceStartup.get(),
+                failedAttemptsSinceStartup.get(),
+                lastBatchSize);
+    }
+
+    /**
+     * Sends one batch and records the outcome of every email in it.
+     * @return number of emails delivered
+     */
+    private int sendBatch(List<EmailOutbox> batch) {
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            EmailOutbox email = batch.get(i);
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom(from);
+            message.setTo(email.getRecipient());
+            message.setSubject(email.getSubject());
+            message.setText(email.getBody());
+            messages[i] = message;
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        Exception batchFailure = null;
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                batchFailure = e;
+            }
+        } catch (MailException e) {
+            batchFailure = e;
+        }
+        lastBatchSize = batch.size();
+
+        int sent = 0;
+        Date now = new Date();
+        for (int i = 0; i < batch.size(); i++) {
+            EmailOutbox email = batch.get(i);
+            Exception failure = batchFailure != null ? batchFailure : failures.get(messages[i]);
+            if (failure == null) {
+                email.setStatus(EmailOutbox.Status.SENT);
+                email.setNextAttemptAt(now);
+                email.setLastError(null);
+                sent++;
+            } else {
+                scheduleRetry(email, failure, now);
+            }
+        }
+        emailOutboxRepository.saveAll(batch);
+
+        sentSinceStartup.addAndGet(sent);
+        failedAttemptsSinceStartup.addAndGet(batch.size() - sent);
+        if (sent < batch.size()) {
+            logger.warn("Email outbox batch: {} of {} emails failed", batch.size() - sent, batch.size());
+        }
+        return sent;
+    }
+
+    private void scheduleRetry(EmailOutbox email, Exception failure, Date now) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        String error = String.valueOf(failure.getMessage());
+        email.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+
+        if (attempts >= MAX_ATTEMPTS) {
+            email.setStatus(EmailOutbox.Status.FAILED);
+            logger.error("Giving up on email {} to {} after {} attempts", email.getEmailId(), email.getRecipient(), attempts);
+            return;
+        }
+        long backoff = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << (attempts - 1));
+        email.setNextAttemptAt(new Date(now.getTime() + backoff));
+    }
+}
@@ -95,8 +95,9 @@ public class EnrollmentServiceImpl implements EnrollmentService {
         logger.info("Student {} successfully enrolled in course {}", student.getUserAccountId(), courseId);
 
         notificationsService.sendNotification(
-                "Student with ID " + student.getUserAccountId() + " enrolled in course " + courseId,
-                course.getInstructorId().getUserAccountId()
+                NotificationTemplate.STUDENT_ENROLLED,
+                course.getInstructorId().getUserAccountId(),
+                student.getUserAccountId(), courseId
         );
     }
 
@@ -170,12 +171,11 @@ public class EnrollmentServiceImpl implements EnrollmentService {
             throw new IllegalArgumentException("User type is missing.");
         }
 
-        int userType = loggedInUser.getUserTypeId().getUserTypeId();
-        if (userType != 1 && userType != 3) { // 1 = Admin, 3 = Instructor
+        if (!UserRole.ADMIN.matches(loggedInUser) && !UserRole.INSTRUCTOR.matches(loggedInUser)) {
             throw new IllegalArgumentException("Access denied. Only Admins or Instructors can view this.");
         }
 
-        if (userType == 3 && course.getInstructorId().getUserAccountId() != loggedInUser.getUserId()) {
+        if (UserRole.INSTRUCTOR.matches(loggedInUser) && course.getInstructorId().getUserAccountId() != loggedInUser.getUserId()) {
             throw new IllegalArgumentException("You are not the instructor of this course.");
         }
 
@@ -191,8 +191,7 @@ public class EnrollmentServiceImpl implements EnrollmentService {
             throw new IllegalArgumentException("No user is logged in.");
         }
 
-        if (loggedInInstructor.getUserTypeId() == null ||
-                loggedInInstructor.getUserTypeId().getUserTypeId() != 3) {
+        if (!UserRole.INSTRUCTOR.matches(loggedInInstructor)) {
             throw new IllegalArgumentException("Logged-in user is not an instructor.");
         }
 
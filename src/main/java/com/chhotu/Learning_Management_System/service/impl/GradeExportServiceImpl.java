@@ -0,0 +1,206 @@
+package com.chhotu.Learning_Management_System.service.impl;
+
+import com.chhotu.Learning_Management_System.entity.Assignment;
+import com.chhotu.Learning_Management_System.entity.Quiz;
+import com.chhotu.Learning_Management_System.entity.UserRole;
+import com.chhotu.Learning_Management_System.entity.Users;
+import com.chhotu.Learning_Management_System.repository.AssignmentRepository;
+import com.chhotu.Learning_Management_System.repository.GradeExportRepository;
+import com.chhotu.Learning_Management_System.repository.QuizRepository;
+import com.chhotu.Learning_Management_System.service.GradeExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Streams grade exports straight from a database cursor to the response. Access is checked before
+ * the body is handed out, so a refused export is still a normal error response; once streaming
+ * starts only the row being written is held in memory.
+ */
+@Service
+public class GradeExportServiceImpl implements GradeExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GradeExportServiceImpl.class);
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    // Leading characters that make spreadsheet applications evaluate a cell
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private final GradeExportRepository gradeExportRepository;
+    private final QuizRepository quizRepository;
+    private final AssignmentRepository assignmentRepository;
+    private final ObjectMapper objectMapper;
+
+    public GradeExportServiceImpl(GradeExportRepository gradeExportRepository,
+                                  QuizRepository quizRepository,
+                                  AssignmentRepository assignmentRepository,
+                                  ObjectMapper objectMapper) {
+        this.gradeExportRepository = gradeExportRepository;
+        this.quizRepository = quizRepository;
+        this.assignmentRepository = assignmentRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public GradeExport exportQuizGrades(int quizId, String format, HttpServletRequest request) {
+        Format exportFormat = Format.parse(format);
+        Users instructor = requireInstructor(request);
+        Quiz quiz = quizRepository.findById(quizId)
+                .orElseThrow(() -> new IllegalArgumentException("Quiz with ID " + quizId + " not found."));
+        if (quiz.getCourse().getInstructorId().getUserAccountId() != instructor.getUserId()) {
+            throw new IllegalArgumentException("Logged-in instructor does not have access for this quiz grades.");
+        }
+
+        logger.info("Exporting grades of quiz ID {} as {}", quizId, exportFormat);
+        return new GradeExport("quiz-" + quizId + "-grades." + exportFormat.extension, exportFormat.contentType,
+                out -> write(exportFormat, GradeExportRepository.QUIZ_GRADE_COLUMNS, out,
+                        row -> gradeExportRepository.forEachQuizGrade(quizId, row)));
+    }
+
+    @Override
+    public GradeExport exportAssignmentSubmissions(int assignmentId, String format, HttpServletRequest request) {
+        Format exportFormat = Format.parse(format);
+        Users instructor = requireInstructor(request);
+        Assignment assignment = assignmentRepository.findById(assignmentId)
+                .orElseThrow(() -> new IllegalArgumentException("Assignment with ID " + assignmentId + " not found."));
+        if (assignment.getCourseID().getInstructorId().getUserAccountId() != instructor.getUserId()) {
+            throw new IllegalArgumentException("You do not have access to these submissions.");
+        }
+
+        logger.info("Exporting submissions of assignment ID {} as {}", assignmentId, exportFormat);
+        return new GradeExport("assignment-" + assignmentId + "-submissions." + exportFormat.extension, exportFormat.contentType,
+                out -> write(exportFormat, GradeExportRepository.SUBMISSION_COLUMNS, out,
+                        row -> gradeExportRepository.forEachSubmission(assignmentId, row)));
+    }
+
+    private Users requireInstructor(HttpServletRequest request) {
+        Users user = (Users) request.getSession().getAttribute("user");
+        if (user == null) {
+            throw new IllegalArgumentException("No logged in user is found.");
+        }
+        if (!UserRole.INSTRUCTOR.matches(user)) {
+            throw new IllegalArgumentException("Logged-in user is not an instructor.");
+        }
+        return user;
+    }
+
+    /**
+     * Writes every row produced by {@code source} in the given format.
+     */
+    private void write(Format format, List<String> columns, OutputStream out,
+                       Consumer<Consumer<Object[]>> source) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        long[] rows = new long[1];
+        try {
+            if (format == Format.CSV) {
+                writeCsvRow(writer, columns.toArray());
+                source.accept(row -> {
+                    writeCsvRow(writer, row);
+                    rows[0]++;
+                });
+            } else {
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                source.accept(row -> {
+                    writeJsonLine(generator, columns, row);
+                    rows[0]++;
+                });
+                generator.flush();
+            }
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; JdbcTemplate has already closed the cursor
+            throw e.getCause();
+        }
+        writer.flush();
+        logger.info("Export finished after {} rows", rows[0]);
+    }
+
+    private static void writeCsvRow(Writer writer, Object[] values) {
+        try {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(csvField(values[i]));
+            }
+            writer.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeJsonLine(JsonGenerator generator, List<String> columns, Object[] values) {
+        try {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                Object value = values[i];
+                if (value instanceof Date date) {
+                    generator.writeStringField(columns.get(i), date.toInstant().toString());
+                } else {
+                    generator.writeObjectField(columns.get(i), value);
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * RFC 4180 field: quoted only when it contains a separator, quote or line break. Text that a
+     * spreadsheet would read as a formula gets a leading apostrophe so it opens as plain text.
+     */
+    static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof Date date ? date.toInstant().toString() : value.toString();
+        if (value instanceof CharSequence && !text.isEmpty() && FORMULA_PREFIXES.indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private enum Format {
+        CSV("csv", "text/csv;charset=UTF-8"),
+        JSONL("jsonl", "application/x-ndjson");
+
+        private final String extension;
+        private final String contentType;
+
+        Format(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        private static Format parse(String format) {
+            if (format == null || format.isBlank()) {
+                return CSV;
+            }
+            try {
+                return valueOf(format.strip().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + format + ". Use csv or jsonl.");
+            }
+        }
+    }
+}
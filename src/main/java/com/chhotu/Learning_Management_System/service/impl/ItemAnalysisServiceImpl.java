@@ -0,0 +1,103 @@
+package com.chhotu.Learning_Management_System.service.impl;
+
+import com.chhotu.Learning_Management_System.dto.QuestionItemAnalysisDto;
+import com.chhotu.Learning_Management_System.entity.QuestionType.QuestionTypeEnum;
+import com.chhotu.Learning_Management_System.entity.Quiz;
+import com.chhotu.Learning_Management_System.entity.UserRole;
+import com.chhotu.Learning_Management_System.entity.Users;
+import com.chhotu.Learning_Management_System.repository.AnswerBatchRepository;
+import com.chhotu.Learning_Management_System.repository.AnswerBatchRepository.AnswerRow;
+import com.chhotu.Learning_Management_System.repository.AnswerBatchRepository.ItemSums;
+import com.chhotu.Learning_Management_System.repository.AnswerBatchRepository.OptionPicks;
+import com.chhotu.Learning_Management_System.repository.QuizRepository;
+import com.chhotu.Learning_Management_System.service.ItemAnalysisService;
+import com.chhotu.Learning_Management_System.service.grading.QuizScore;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Item analysis of quiz questions, read from the running sums that are updated whenever answers
+ * are stored. The discrimination index is the corrected point-biserial correlation: how strongly
+ * answering the question correctly goes with a high score on the rest of the quiz.
+ */
+@Service
+public class ItemAnalysisServiceImpl implements ItemAnalysisService {
+
+    private final AnswerBatchRepository answerBatchRepository;
+    private final QuizRepository quizRepository;
+
+    public ItemAnalysisServiceImpl(AnswerBatchRepository answerBatchRepository, QuizRepository quizRepository) {
+        this.answerBatchRepository = answerBatchRepository;
+        this.quizRepository = quizRepository;
+    }
+
+    /**
+     * Turns a scored submission into the answer rows stored for it, one per question of the quiz.
+     */
+    public static List<AnswerRow> answerRows(int studentId, QuizScore score) {
+        List<AnswerRow> rows = new ArrayList<>(score.results().size());
+        for (QuizScore.QuestionResult result : score.results()) {
+            String option = result.type() == QuestionTypeEnum.MCQ ? result.normalizedAnswer() : null;
+            int restScore = score.grade() - (result.correct() ? 1 : 0);
+            rows.add(new AnswerRow(score.quizId(), result.questionId(), studentId, result.answer(), option,
+                    result.correct(), restScore));
+        }
+        return rows;
+    }
+
+    @Override
+    public List<QuestionItemAnalysisDto> getItemAnalysis(int quizId, HttpServletRequest request) {
+        Users loggedInInstructor = (Users) request.getSession().getAttribute("user");
+        if (loggedInInstructor == null) {
+            throw new IllegalArgumentException("No logged in user is found.");
+        }
+        if (!UserRole.INSTRUCTOR.matches(loggedInInstructor)) {
+            throw new IllegalArgumentException("Logged-in user is not an instructor.");
+        }
+        Quiz quiz = quizRepository.findById(quizId)
+                .orElseThrow(() -> new IllegalArgumentException("Quiz with ID " + quizId + " not found."));
+        if (quiz.getCourse().getInstructorId().getUserAccountId() != loggedInInstructor.getUserId()) {
+            throw new IllegalArgumentException("Logged-in instructor does not have access for this quiz grades.");
+        }
+
+        Map<Integer, Map<String, Long>> optionsByQuestion = new HashMap<>();
+        for (OptionPicks picks : answerBatchRepository.findOptionPicks(quizId)) {
+            optionsByQuestion.computeIfAbsent(picks.questionId(), id -> new LinkedHashMap<>())
+                    .put(picks.option(), picks.picks());
+        }
+
+        List<QuestionItemAnalysisDto> analysis = new ArrayList<>();
+        for (ItemSums sums : answerBatchRepository.findItemSums(quizId)) {
+            double percentCorrect = sums.responses() == 0 ? 0 : 100.0 * sums.correct() / sums.responses();
+            analysis.add(new QuestionItemAnalysisDto(sums.questionId(), sums.questionText(), sums.responses(),
+                    percentCorrect, discrimination(sums),
+                    optionsByQuestion.getOrDefault(sums.questionId(), Map.of())));
+        }
+        return analysis;
+    }
+
+    /**
+     * Point-biserial correlation between correctness (0/1) and rest score, from the stored sums.
+     *
+     * @return null when either side has no variance, e.g. everyone answered correctly
+     */
+    static Double discrimination(ItemSums sums) {
+        double n = sums.responses();
+        double correct = sums.correct();
+        double sumRest = sums.sumRest();
+        // Correctness is 0 or 1, so its sum of squares equals its sum
+        double covariance = n * sums.sumCorrectRest() - correct * sumRest;
+        double correctVariance = n * correct - correct * correct;
+        double restVariance = n * sums.sumRestSquares() - sumRest * sumRest;
+        if (correctVariance <= 0 || restVariance <= 0) {
+            return null;
+        }
+        return covariance / Math.sqrt(correctVariance * restVariance);
+    }
+}
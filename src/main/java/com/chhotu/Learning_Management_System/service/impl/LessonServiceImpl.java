@@ -6,9 +6,12 @@ import com.chhotu.Learning_Management_System.repository.*;
 import com.chhotu.Learning_Management_System.entity.*;
 import com.chhotu.Learning_Management_System.repository.*;
 import com.chhotu.Learning_Management_System.service.LessonService;
+import com.chhotu.Learning_Management_System.service.SearchIndexService;
+import com.chhotu.Learning_Management_System.util.VersionStamp;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -23,17 +26,20 @@ public class LessonServiceImpl implements LessonService {
     private final EnrollmentRepository enrollmentRepository;
     private final LessonAttendanceRepository lessonAttendanceRepository;
     private final StudentRepository studentRepository;
+    private final SearchIndexService searchIndexService;
 
     public LessonServiceImpl(LessonRepository lessonRepository,
                              CourseRepository courseRepository,
                              EnrollmentRepository enrollmentRepository,
                              LessonAttendanceRepository lessonAttendanceRepository,
-                             StudentRepository studentRepository) {
+                             StudentRepository studentRepository,
+                             SearchIndexService searchIndexService) {
         this.lessonRepository = lessonRepository;
         this.courseRepository = courseRepository;
         this.enrollmentRepository = enrollmentRepository;
         this.lessonAttendanceRepository = lessonAttendanceRepository;
         this.studentRepository = studentRepository;
+        this.searchIndexService = searchIndexService;
     }
 
     /**
@@ -46,7 +52,7 @@ public class LessonServiceImpl implements LessonService {
 
         if (loggedInInstructor == null)
             throw new IllegalArgumentException("No user is logged in.");
-        if (loggedInInstructor.getUserTypeId() == null || loggedInInstructor.getUserTypeId().getUserTypeId() != 3)
+        if (!UserRole.INSTRUCTOR.matches(loggedInInstructor))
             throw new IllegalArgumentException("Logged-in user is not an instructor.");
 
         Course course = courseRepository.findById(lesson.getCourseId().getCourseId())
@@ -61,6 +67,7 @@ public class LessonServiceImpl implements LessonService {
         lesson.setCreationTime(new Date(System.currentTimeMillis()));
         lesson.setCourseId(course);
         lessonRepository.save(lesson);
+        searchIndexService.indexLesson(lesson);
         logger.info("Lesson added successfully by Instructor ID {}", loggedInInstructor.getUserId());
     }
 
@@ -77,7 +84,7 @@ public class LessonServiceImpl implements LessonService {
         if (loggedInUser == null)
             throw new IllegalArgumentException("No user is logged in.");
 
-        if (loggedInUser.getUserTypeId().getUserTypeId() == 2) {
+        if (UserRole.STUDENT.matches(loggedInUser)) {
             boolean enrolled = enrollmentRepository.existsByStudentAndCourse(
                     studentRepository.findById(loggedInUser.getUserId())
                             .orElseThrow(() -> new IllegalArgumentException("No student found with this ID!")),
@@ -116,6 +123,45 @@ public class LessonServiceImpl implements LessonService {
         );
     }
 
+    /**
+     * Version of a course's lesson list, checked like getLessonsByCourseId but without loading any lesson.
+     * It carries no Last-Modified: no lesson row records a deletion, so only the ETag can tell one apart.
+     */
+    @Override
+    public VersionStamp getLessonsVersion(int courseId, HttpServletRequest request) {
+        if (!courseRepository.existsById(courseId))
+            throw new IllegalArgumentException("No such CourseId");
+        Users loggedInUser = (Users) request.getSession().getAttribute("user");
+
+        if (loggedInUser == null)
+            throw new IllegalArgumentException("No user is logged in.");
+
+        if (UserRole.STUDENT.matches(loggedInUser)
+                && !enrollmentRepository.existsByStudentUserAccountIdAndCourseCourseId(loggedInUser.getUserId(), courseId))
+            throw new IllegalArgumentException("You are not enrolled in this course.");
+
+        Object[] row = lessonRepository.findCourseVersionRows(courseId).get(0);
+        return new VersionStamp("lessons-" + courseId + "-" + row[0] + "-" + (row[1] == null ? 0 : row[1]) + "-"
+                + (row[2] == null ? 0 : row[2]), -1);
+    }
+
+    /**
+     * Version of a lesson, checked like getLessonById but without loading the lesson.
+     */
+    @Override
+    public VersionStamp getLessonVersion(int lessonId, HttpServletRequest request) {
+        Users loggedInUser = (Users) request.getSession().getAttribute("user");
+        if (loggedInUser == null)
+            throw new IllegalArgumentException("No user is logged in.");
+
+        List<Object[]> rows = lessonRepository.findVersionRows(lessonId);
+        if (rows.isEmpty())
+            throw new IllegalArgumentException("No such LessonId: " + lessonId);
+
+        Object[] row = rows.get(0);
+        return new VersionStamp("lesson-" + lessonId + "-" + row[0], row[1] == null ? -1 : ((Date) row[1]).getTime());
+    }
+
     /**
      * Updates lesson details (Instructor only).
      */
@@ -126,7 +172,7 @@ public class LessonServiceImpl implements LessonService {
 
         if (loggedInInstructor == null)
             throw new IllegalArgumentException("No user is logged in.");
-        if (loggedInInstructor.getUserTypeId() == null || loggedInInstructor.getUserTypeId().getUserTypeId() != 3)
+        if (!UserRole.INSTRUCTOR.matches(loggedInInstructor))
             throw new IllegalArgumentException("Logged-in user is not an instructor.");
 
         Course course = courseRepository.findById(updatedLesson.getCourseId().getCourseId())
@@ -144,7 +190,12 @@ public class LessonServiceImpl implements LessonService {
         existingLesson.setContent(updatedLesson.getContent());
         existingLesson.setOTP(updatedLesson.getOTP());
 
-        lessonRepository.save(existingLesson);
+        try {
+            lessonRepository.save(existingLesson);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new IllegalArgumentException("The lesson was changed meanwhile; reload it and try again.");
+        }
+        searchIndexService.indexLesson(existingLesson);
         logger.info("Lesson ID {} updated successfully", lessonId);
     }
 
@@ -161,6 +212,7 @@ public class LessonServiceImpl implements LessonService {
             throw new IllegalArgumentException("You are not the Instructor of this course");
 
         lessonRepository.deleteById(lessonId);
+        searchIndexService.removeLesson(lessonId);
         logger.info("Lesson ID {} deleted successfully", lessonId);
     }
 
@@ -221,7 +273,7 @@ public class LessonServiceImpl implements LessonService {
 
         if (loggedInInstructor == null)
             throw new IllegalArgumentException("No logged-in user is found.");
-        if (loggedInInstructor.getUserTypeId() == null || loggedInInstructor.getUserTypeId().getUserTypeId() != 3)
+        if (!UserRole.INSTRUCTOR.matches(loggedInInstructor))
             throw new IllegalArgumentException("Logged-in user is not an instructor.");
         if (lesson.getCourseId().getInstructorId().getUserAccountId() != loggedInInstructor.getUserId())
             throw new IllegalArgumentException("Instructor does not have access for this lesson attendance.");
@@ -254,7 +306,7 @@ public class LessonServiceImpl implements LessonService {
         Users loggedInInstructor = (Users) request.getSession().getAttribute("user");
         if (loggedInInstructor == null)
             throw new IllegalArgumentException("No user is logged in.");
-        if (loggedInInstructor.getUserTypeId() == null || loggedInInstructor.getUserTypeId().getUserTypeId() != 3)
+        if (!UserRole.INSTRUCTOR.matches(loggedInInstructor))
             throw new IllegalArgumentException("Logged-in user is not an instructor.");
 
         Course course = courseRepository.findById(courseId)
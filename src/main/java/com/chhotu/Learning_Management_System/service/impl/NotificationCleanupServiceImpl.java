@@ -0,0 +1,124 @@
+package com.chhotu.Learning_Management_System.service.impl;
+
+import com.chhotu.Learning_Management_System.dto.NotificationCleanupReportDto;
+import com.chhotu.Learning_Management_System.entity.UserRole;
+import com.chhotu.Learning_Management_System.entity.Users;
+import com.chhotu.Learning_Management_System.repository.NotificationsMaintenanceRepository;
+import com.chhotu.Learning_Management_System.repository.NotificationsMaintenanceRepository.DuplicateGroup;
+import com.chhotu.Learning_Management_System.repository.NotificationsMaintenanceRepository.DuplicateScan;
+import com.chhotu.Learning_Management_System.service.NotificationCleanupService;
+import com.chhotu.Learning_Management_System.service.NotificationsService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the notifications table small: repeated unread messages (for example a run of
+ * "&lt;course&gt; course is updated") collapse into one digest row, and read notifications past the
+ * retention period are deleted. Both phases work in bounded batches and the whole run is capped,
+ * so a large backlog is worked off over several nights instead of in one long lock. Duplicates are
+ * found one slice of users at a time, so a run reads each unread row at most once, and a run that
+ * hits the cap leaves off where the next one resumes.
+ */
+@Service
+public class NotificationCleanupServiceImpl implements NotificationCleanupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationCleanupServiceImpl.class);
+
+    private static final int DIGEST_USERS_PER_BATCH = 500;
+    private static final int MAX_BATCHES_PER_RUN = 200;
+
+    private final NotificationsMaintenanceRepository maintenanceRepository;
+    private final NotificationsService notificationsService;
+    private final int retentionDays;
+    private final int purgeBatchSize;
+    // Last user coalesced by a run that stopped at the batch cap; 0 once a run got through every user
+    private volatile int resumeAfterUserId;
+
+    public NotificationCleanupServiceImpl(NotificationsMaintenanceRepository maintenanceRepository,
+                                          NotificationsService notificationsService,
+                                          @Value("${lms.notifications.retention-days:90}") int retentionDays,
+                                          @Value("${lms.notifications.purge-batch-size:1000}") int purgeBatchSize) {
+        this.maintenanceRepository = maintenanceRepository;
+        this.notificationsService = notificationsService;
+        this.retentionDays = retentionDays;
+        this.purgeBatchSize = purgeBatchSize;
+    }
+
+    @Scheduled(cron = "${lms.notifications.cleanup-cron:0 30 3 * * *}")
+    public void scheduledCleanup() {
+        try {
+            runCleanup();
+        } catch (Exception e) {
+            logger.error("Notification cleanup failed", e);
+        }
+    }
+
+    @Override
+    public NotificationCleanupReportDto runCleanup() {
+        long start = System.currentTimeMillis();
+        logger.info("Starting notification cleanup (retention {} days)", retentionDays);
+
+        int digests = 0;
+        int duplicatesRemoved = 0;
+        Set<Integer> affectedUsers = new LinkedHashSet<>();
+        int afterUserId = resumeAfterUserId;
+        for (int batch = 0; ; batch++) {
+            if (batch == MAX_BATCHES_PER_RUN) {
+                resumeAfterUserId = afterUserId;
+                break;
+            }
+            DuplicateScan scan = maintenanceRepository.findUnreadDuplicateGroups(afterUserId, DIGEST_USERS_PER_BATCH);
+            if (scan == null) {
+                resumeAfterUserId = 0;
+                break;
+            }
+            List<DuplicateGroup> groups = scan.groups();
+            if (!groups.isEmpty()) {
+                duplicatesRemoved += maintenanceRepository.coalesce(groups);
+                digests += groups.size();
+                groups.forEach(group -> affectedUsers.add(group.userId()));
+            }
+            afterUserId = scan.lastUserId();
+        }
+        // Coalescing removed unread rows, so cached badge counts for those users are stale
+        notificationsService.evictUnreadCounts(affectedUsers);
+
+        Date cutoff = new Date(start - TimeUnit.DAYS.toMillis(retentionDays));
+        int readPurged = 0;
+        for (int batch = 0; batch < MAX_BATCHES_PER_RUN; batch++) {
+            int deleted = maintenanceRepository.purgeReadBefore(cutoff, purgeBatchSize);
+            readPurged += deleted;
+            if (deleted < purgeBatchSize) {
+                break;
+            }
+        }
+
+        NotificationCleanupReportDto report = new NotificationCleanupReportDto(
+                digests, duplicatesRemoved, readPurged, System.currentTimeMillis() - start);
+        logger.info("Notification cleanup finished: {} digests, {} duplicates removed, {} read notifications purged in {} ms",
+                report.getDigestsCreated(), report.getDuplicatesRemoved(), report.getReadPurged(), report.getDurationMs());
+        return report;
+    }
+
+    @Override
+    public NotificationCleanupReportDto runCleanup(HttpServletRequest request) {
+        Users loggedInUser = (Users) request.getSession().getAttribute("user");
+        if (loggedInUser == null) {
+            throw new IllegalArgumentException("No user is logged in.");
+        }
+        if (!UserRole.ADMIN.matches(loggedInUser)) {
+            throw new IllegalArgumentException("Only admins can run the notification cleanup.");
+        }
+        return runCleanup();
+    }
+}
@@ -0,0 +1,250 @@
+package com.chhotu.Learning_Management_System.service.impl;
+
+import com.chhotu.Learning_Management_System.dto.NotificationDto;
+import com.chhotu.Learning_Management_System.entity.Notifications;
+import com.chhotu.Learning_Management_System.repository.NotificationsRepository;
+import com.chhotu.Learning_Management_System.service.NotificationStreamService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps one channel per connected user: the open SSE emitters plus a bounded ring buffer of the
+ * most recent notifications. Emitters rely on async servlet support, so an idle stream holds no
+ * request thread. Event ids are notification ids, which only grow per user, so a reconnecting
+ * client's Last-Event-ID tells us exactly what it has missed.
+ */
+@Service
+public class NotificationStreamServiceImpl implements NotificationStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationStreamServiceImpl.class);
+
+    static final int BUFFER_SIZE = 64;
+    private static final long STREAM_TIMEOUT_MS = 30 * 60 * 1000L;
+    private static final long IDLE_CHANNEL_TTL_MS = 10 * 60 * 1000L;
+    private static final String EVENT_NAME = "notification";
+
+    private final NotificationsRepository notificationsRepository;
+    private final Map<Integer, UserChannel> channels = new ConcurrentHashMap<>();
+
+    public NotificationStreamServiceImpl(NotificationsRepository notificationsRepository) {
+        this.notificationsRepository = notificationsRepository;
+    }
+
+    @Override
+    public SseEmitter subscribe(int userId, Integer lastEventId) {
+        SseEmitter emitter = createEmitter();
+        Subscriber subscriber = new Subscriber(emitter);
+
+        // Registered before the replay is read, so a notification published in between is held back
+        // for this subscriber instead of falling into the gap. Added under the map's lock for this user,
+        // so the heartbeat cannot drop the channel as idle between finding it and adding to it.
+        UserChannel channel = channels.compute(userId, (id, existing) -> {
+            UserChannel joined = existing != null ? existing : new UserChannel(notificationsRepository.findLatestIdByUser(id));
+            joined.add(subscriber);
+            return joined;
+        });
+        emitter.onCompletion(() -> channel.remove(subscriber));
+        emitter.onTimeout(() -> channel.remove(subscriber));
+        emitter.onError(e -> channel.remove(subscriber));
+
+        List<NotificationDto> missed = lastEventId == null ? List.of() : replay(userId, channel, lastEventId);
+        if (!subscriber.goLive(missed)) {
+            channel.remove(subscriber);
+            return emitter;
+        }
+
+        logger.info("User ID {} subscribed to notification stream (replayed {})", userId, missed.size());
+        return emitter;
+    }
+
+    @Override
+    public void publish(int userId, NotificationDto notification) {
+        UserChannel channel = channels.get(userId);
+        if (channel == null) {
+            // Nobody has streamed for this user recently; the inbox endpoints will serve it
+            return;
+        }
+
+        channel.buffer(notification);
+        for (Subscriber subscriber : channel.subscribers) {
+            if (!subscriber.deliver(notification)) {
+                channel.remove(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Sends a comment line to every open stream so dead connections are noticed and dropped,
+     * and forgets channels that have had no subscribers for a while.
+     */
+    @Scheduled(fixedDelay = 25_000)
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        channels.forEach((userId, channel) -> {
+            for (Subscriber subscriber : channel.subscribers) {
+                try {
+                    subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+                } catch (IOException | IllegalStateException e) {
+                    channel.remove(subscriber);
+                }
+            }
+            // Checked again under the same lock subscribe adds with, so a subscriber that just joined keeps it
+            channels.computeIfPresent(userId, (id, current) ->
+                    current.subscribers.isEmpty() && now - current.lastActive > IDLE_CHANNEL_TTL_MS ? null : current);
+        });
+    }
+
+    /**
+     * Returns what the client missed after lastEventId. Served from the ring buffer when it still
+     * covers that id, otherwise read from the database page by page until caught up, since the client
+     * moves its Last-Event-ID past whatever it is sent.
+     */
+    private List<NotificationDto> replay(int userId, UserChannel channel, int lastEventId) {
+        List<NotificationDto> buffered = channel.after(lastEventId);
+        if (buffered != null) {
+            return buffered;
+        }
+
+        logger.info("Replay buffer for user ID {} no longer covers event {}, reading from database", userId, lastEventId);
+        List<NotificationDto> missed = new ArrayList<>();
+        int afterId = lastEventId;
+        List<Notifications> page;
+        do {
+            page = notificationsRepository.findByUserAfter(userId, afterId, PageRequest.of(0, BUFFER_SIZE));
+            for (Notifications n : page) {
+                missed.add(new NotificationDto(n.getNotificationsId(),
+                        NotificationsServiceImpl.displayMessage(n), n.getCreatedTime(), n.isRead()));
+                afterId = n.getNotificationsId();
+            }
+        } while (page.size() == BUFFER_SIZE);
+        return missed;
+    }
+
+    protected SseEmitter createEmitter() {
+        return new SseEmitter(STREAM_TIMEOUT_MS);
+    }
+
+    private static boolean send(SseEmitter emitter, NotificationDto notification) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(notification.getNotificationId()))
+                    .name(EVENT_NAME)
+                    .data(notification));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Dropping notification stream: {}", e.getMessage());
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    /**
+     * One open stream. Until its replay has been sent, live notifications are held back and then sent
+     * after the replay, skipping any the replay already contained.
+     */
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        // Null once the subscriber is live; guarded by this
+        private List<NotificationDto> heldBack = new ArrayList<>();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private synchronized boolean deliver(NotificationDto notification) {
+            if (heldBack != null) {
+                heldBack.add(notification);
+                return true;
+            }
+            return send(emitter, notification);
+        }
+
+        private synchronized boolean goLive(List<NotificationDto> replay) {
+            Set<Integer> sent = new HashSet<>();
+            for (NotificationDto notification : replay) {
+                if (!send(emitter, notification)) {
+                    return false;
+                }
+                sent.add(notification.getNotificationId());
+            }
+            for (NotificationDto notification : heldBack) {
+                if (sent.add(notification.getNotificationId()) && !send(emitter, notification)) {
+                    return false;
+                }
+            }
+            heldBack = null;
+            return true;
+        }
+    }
+
+    /**
+     * Open streams and recent notifications of a single user.
+     */
+    private static final class UserChannel {
+
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private final NotificationDto[] ring = new NotificationDto[BUFFER_SIZE];
+        private int head;
+        private int size;
+        // Every notification with a greater id is either in the ring or was never published
+        private int floorId;
+        private volatile long lastActive = System.currentTimeMillis();
+
+        private UserChannel(int floorId) {
+            this.floorId = floorId;
+        }
+
+        private void add(Subscriber subscriber) {
+            subscribers.add(subscriber);
+            lastActive = System.currentTimeMillis();
+        }
+
+        private void remove(Subscriber subscriber) {
+            subscribers.remove(subscriber);
+            lastActive = System.currentTimeMillis();
+        }
+
+        private synchronized void buffer(NotificationDto notification) {
+            int tail = (head + size) % BUFFER_SIZE;
+            if (size == BUFFER_SIZE) {
+                floorId = ring[head].getNotificationId();
+                head = (head + 1) % BUFFER_SIZE;
+            } else {
+                size++;
+            }
+            ring[tail] = notification;
+        }
+
+        /**
+         * @return buffered notifications newer than lastEventId, or null when the buffer has
+         *         already evicted some of them
+         */
+        private synchronized List<NotificationDto> after(int lastEventId) {
+            if (lastEventId < floorId) {
+                return null;
+            }
+            List<NotificationDto> result = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                NotificationDto notification = ring[(head + i) % BUFFER_SIZE];
+                if (notification.getNotificationId() > lastEventId) {
+                    result.add(notification);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -1,32 +1,88 @@
 package com.chhotu.Learning_Management_System.service.impl;
 
+import com.chhotu.Learning_Management_System.dto.NotificationDto;
+import com.chhotu.Learning_Management_System.dto.NotificationPageDto;
+import com.chhotu.Learning_Management_System.entity.EmailOutbox;
+import com.chhotu.Learning_Management_System.entity.NotificationFanOut;
+import com.chhotu.Learning_Management_System.entity.NotificationTemplate;
 import com.chhotu.Learning_Management_System.entity.Notifications;
 import com.chhotu.Learning_Management_System.entity.Users;
+import com.chhotu.Learning_Management_System.repository.EmailOutboxRepository;
+import com.chhotu.Learning_Management_System.repository.EnrollmentRepository;
+import com.chhotu.Learning_Management_System.repository.NotificationFanOutRepository;
+import com.chhotu.Learning_Management_System.repository.NotificationsBatchRepository;
 import com.chhotu.Learning_Management_System.repository.NotificationsRepository;
 import com.chhotu.Learning_Management_System.repository.UsersRepository;
+import com.chhotu.Learning_Management_System.service.NotificationStreamService;
 import com.chhotu.Learning_Management_System.service.NotificationsService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class NotificationsServiceImpl implements NotificationsService {
 
     private static final Logger logger = LoggerFactory.getLogger(NotificationsServiceImpl.class);
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    // Later than any created_at a DATETIME column can hold, so the first page starts at the newest row
+    private static final Date FIRST_PAGE_TIME = java.sql.Timestamp.valueOf("9999-12-31 23:59:59");
+    static final String EMAIL_SUBJECT = "New notification from UniCore LMS";
+    // A stored fan-out is left to its executor task for this long before the retry job picks it up
+    private static final long FAN_OUT_RETRY_DELAY_MS = 60_000L;
+    private static final long MAX_FAN_OUT_BACKOFF_MS = 60 * 60 * 1000L;
+    private static final int FAN_OUT_RETRY_BATCH = 20;
+    private static final int MAX_ERROR_LENGTH = 512;
+
+    // Unread count per user; loaded lazily from a COUNT query and kept current by the write and read paths
+    private final Map<Integer, UnreadCount> unreadCounts = new ConcurrentHashMap<>();
+
     private final NotificationsRepository notificationsRepository;
     private final UsersRepository usersRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final NotificationsBatchRepository notificationsBatchRepository;
+    private final TaskExecutor notificationExecutor;
+    private final NotificationStreamService notificationStreamService;
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final NotificationFanOutRepository notificationFanOutRepository;
 
     @Autowired
     public NotificationsServiceImpl(NotificationsRepository notificationsRepository,
-                                    UsersRepository usersRepository) {
+                                    UsersRepository usersRepository,
+                                    EnrollmentRepository enrollmentRepository,
+                                    NotificationsBatchRepository notificationsBatchRepository,
+                                    @Qualifier("notificationExecutor") TaskExecutor notificationExecutor,
+                                    NotificationStreamService notificationStreamService,
+                                    EmailOutboxRepository emailOutboxRepository,
+                                    NotificationFanOutRepository notificationFanOutRepository) {
         this.notificationsRepository = notificationsRepository;
         this.usersRepository = usersRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.notificationsBatchRepository = notificationsBatchRepository;
+        this.notificationExecutor = notificationExecutor;
+        this.notificationStreamService = notificationStreamService;
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.notificationFanOutRepository = notificationFanOutRepository;
     }
 
     /**
@@ -36,20 +92,13 @@ public class NotificationsServiceImpl implements NotificationsService {
      * @return list of notification messages
      */
     @Override
+    @Transactional
     public List<String> getAllNotifications(int userId, HttpServletRequest request) {
         logger.info("Fetching all notifications for user ID: {}", userId);
         checkUserAccess(userId, request);
 
-        List<Notifications> notificationsList = notificationsRepository.findAll();
-        List<String> notificationMessages = new ArrayList<>();
-
-        for (Notifications notification : notificationsList) {
-            if (notification.getUserId().getUserId() == userId) {
-                notification.setRead(true);
-                notificationsRepository.save(notification);
-                notificationMessages.add(notification.getMessage());
-            }
-        }
+        List<Notifications> notificationsList = notificationsRepository.findAllByUser(userId);
+        List<String> notificationMessages = markAllRead(userId, notificationsList);
 
         logger.info("Total notifications retrieved for user ID {}: {}", userId, notificationMessages.size());
         return notificationMessages;
@@ -62,44 +111,431 @@ public class NotificationsServiceImpl implements NotificationsService {
      * @return list of unread notification messages
      */
     @Override
+    @Transactional
     public List<String> getAllUnreadNotifications(int userId, HttpServletRequest request) {
         logger.info("Fetching unread notifications for user ID: {}", userId);
         checkUserAccess(userId, request);
 
-        List<Notifications> notificationsList = notificationsRepository.findAll();
-        List<String> notificationMessages = new ArrayList<>();
+        List<Notifications> notificationsList = notificationsRepository.findUnreadByUser(userId);
+        List<String> notificationMessages = markAllRead(userId, notificationsList);
 
-        for (Notifications notification : notificationsList) {
-            if (notification.getUserId().getUserId() == userId && !notification.isRead()) {
-                notification.setRead(true);
-                notificationsRepository.save(notification);
-                notificationMessages.add(notification.getMessage());
+        logger.info("Unread notifications retrieved for user ID {}: {}", userId, notificationMessages.size());
+        return notificationMessages;
+    }
+
+    /**
+     * Retrieves one keyset page of a user's inbox, newest first, without marking anything as read.
+     * @param userId the ID of the user
+     * @param unreadOnly whether to return unread notifications only
+     * @param cursor the {@code nextCursor} of the previous page, or null for the first page
+     * @param limit the page size (defaults to 20, capped at 100)
+     * @param request the HTTP request used to verify the logged-in user
+     * @return the requested page
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public NotificationPageDto getInbox(int userId, boolean unreadOnly, String cursor, Integer limit, HttpServletRequest request) {
+        logger.info("Fetching inbox page for user ID: {} (unreadOnly={}, cursor={})", userId, unreadOnly, cursor);
+        checkUserAccess(userId, request);
+
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Date beforeTime = FIRST_PAGE_TIME;
+        int beforeId = Integer.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 2);
+                beforeTime = new Date(Long.parseLong(parts[0]));
+                beforeId = Integer.parseInt(parts[1]);
+            } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid cursor.");
             }
         }
 
-        logger.info("Unread notifications retrieved for user ID {}: {}", userId, notificationMessages.size());
-        return notificationMessages;
+        // Fetch one extra row to learn whether another page exists
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<Notifications> rows = unreadOnly
+                ? notificationsRepository.findUnreadInboxPage(userId, beforeTime, beforeId, page)
+                : notificationsRepository.findInboxPage(userId, beforeTime, beforeId, page);
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        List<NotificationDto> notifications = new ArrayList<>(rows.size());
+        for (Notifications notification : rows) {
+            notifications.add(new NotificationDto(
+                    notification.getNotificationsId(),
+                    displayMessage(notification),
+                    notification.getCreatedTime(),
+                    notification.isRead()));
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            // Both sort columns go into the cursor, so rows sharing a created time are neither skipped nor repeated
+            Notifications last = rows.get(rows.size() - 1);
+            String key = last.getCreatedTime().getTime() + ":" + last.getNotificationsId();
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+        }
+        logger.info("Inbox page for user ID {} returned {} notifications", userId, notifications.size());
+        return new NotificationPageDto(notifications, nextCursor, hasMore);
+    }
+
+    /**
+     * Marks every unread notification of a user up to and including the given id as read.
+     * @param userId the ID of the user
+     * @param upToId the newest notification id the client has seen
+     * @param request the HTTP request used to verify the logged-in user
+     * @return number of notifications marked as read
+     */
+    @Override
+    @Transactional
+    public int markReadUpTo(int userId, int upToId, HttpServletRequest request) {
+        logger.info("Marking notifications as read for user ID: {} up to ID: {}", userId, upToId);
+        checkUserAccess(userId, request);
+
+        int updated = notificationsRepository.markReadUpTo(userId, upToId);
+        changeUnreadCount(userId, -updated);
+        logger.info("{} notifications marked as read for user ID {}", updated, userId);
+        return updated;
     }
 
     /**
-     * Sends a notification message to a user.
+     * Returns how many unread notifications a user has without loading or changing them.
+     * @param userId the ID of the user
+     * @param request the HTTP request used to verify the logged-in user
+     * @return number of unread notifications
+     */
+    @Override
+    public int getUnreadCount(int userId, HttpServletRequest request) {
+        checkUserAccess(userId, request);
+        UnreadCount entry = unreadCount(userId);
+        Integer cached = entry.cached();
+        if (cached != null) {
+            return cached;
+        }
+
+        long version = entry.version();
+        int count = Math.toIntExact(notificationsRepository.countUnreadByUser(userId));
+        entry.publish(count, version);
+        return count;
+    }
+
+    /**
+     * Drops cached unread counts, used after bulk changes made outside this service.
+     * @param userIds the IDs of the affected users
+     */
+    @Override
+    public void evictUnreadCounts(Collection<Integer> userIds) {
+        userIds.forEach(id -> unreadCount(id).invalidate());
+    }
+
+    /**
+     * Sends a notification message to a user and queues the matching email in the outbox
+     * within the same transaction.
      * @param message the notification message
      * @param id the ID of the recipient user
      */
     @Override
+    @Transactional
     public void sendNotification(String message, int id) {
         logger.info("Sending notification to user ID: {} | Message: {}", id, message);
+        Notifications notification = new Notifications();
+        notification.setMessage(message);
+        store(notification, id, message);
+    }
+
+    /**
+     * Sends a templated notification to a user. Only the template id and parameters are stored;
+     * the text is rendered when the notification is read.
+     * @param template the notification template
+     * @param id the ID of the recipient user
+     * @param params the template parameters
+     */
+    @Override
+    @Transactional
+    public void sendNotification(NotificationTemplate template, int id, Object... params) {
+        String encodedParams = NotificationTemplate.encodeParams(params);
+        String message = template.render(encodedParams);
+        logger.info("Sending notification to user ID: {} | Message: {}", id, message);
+
+        Notifications notification = new Notifications();
+        notification.setTemplateId(template.getId());
+        notification.setParams(encodedParams);
+        store(notification, id, message);
+    }
+
+    /**
+     * Opens a live notification stream for a user.
+     * @param userId the ID of the user
+     * @param lastEventId the last notification id the client received, or null for a fresh stream
+     * @param request the HTTP request used to verify the logged-in user
+     * @return the event stream
+     */
+    @Override
+    public SseEmitter streamNotifications(int userId, Integer lastEventId, HttpServletRequest request) {
+        logger.info("Opening notification stream for user ID: {} (lastEventId={})", userId, lastEventId);
+        checkUserAccess(userId, request);
+        return notificationStreamService.subscribe(userId, lastEventId);
+    }
+
+    /**
+     * Queues the same templated notification for many users. The fan-out is stored in the caller's
+     * transaction, then recipients are written with JDBC batch inserts on the notification executor, so
+     * the caller only pays for one insert. A fan-out the executor fails or never runs is retried by
+     * {@link #retryPendingFanOuts()} until it is delivered.
+     * @param template the notification template
+     * @param recipientIds the IDs of the recipient users
+     * @param params the template parameters
+     * @return number of recipients queued
+     */
+    @Override
+    public int fanOutNotification(NotificationTemplate template, Collection<Integer> recipientIds, Object... params) {
+        String encodedParams = NotificationTemplate.encodeParams(params);
+        String message = template.render(encodedParams);
+        List<Integer> recipients = new ArrayList<>(new LinkedHashSet<>(recipientIds));
+        if (recipients.isEmpty()) {
+            logger.info("No recipients to notify | Message: {}", message);
+            return 0;
+        }
+
+        // Stored with the caller's change, so a rolled back change notifies nobody and a committed one is
+        // delivered even if this instance stops first; handed to the executor only once it commits
+        Date createdTime = new Date();
+        NotificationFanOut fanOut = notificationFanOutRepository.save(new NotificationFanOut(template.getId(), encodedParams,
+                recipients, createdTime, new Date(createdTime.getTime() + FAN_OUT_RETRY_DELAY_MS)));
+        afterCommit(() -> notificationExecutor.execute(() -> deliver(fanOut)));
+
+        logger.info("Queued notification for {} recipients | Message: {}", recipients.size(), message);
+        return recipients.size();
+    }
+
+    /**
+     * Delivers stored fan-outs whose executor task failed or was lost, with exponential backoff per fan-out.
+     */
+    @Scheduled(fixedDelayString = "${lms.notifications.fan-out-retry-interval-ms:60000}")
+    public void retryPendingFanOuts() {
+        try {
+            for (NotificationFanOut fanOut : notificationFanOutRepository.findDue(new Date(), PageRequest.of(0, FAN_OUT_RETRY_BATCH))) {
+                deliver(fanOut);
+            }
+        } catch (Exception e) {
+            logger.error("Notification fan-out retry failed", e);
+        }
+    }
+
+    /**
+     * Writes a stored fan-out, announces each notification and keeps the unread counts current.
+     * A failure only reschedules it; the notifications stay owed until a later attempt commits.
+     */
+    private void deliver(NotificationFanOut fanOut) {
+        NotificationTemplate template = NotificationTemplate.fromId(fanOut.getTemplateId());
+        List<Integer> recipients = fanOut.getRecipientIds();
+        // Marked as changing before the insert, so a count read while it runs is not cached
+        List<UnreadCount> counts = new ArrayList<>(recipients.size());
+        for (Integer recipient : recipients) {
+            UnreadCount entry = unreadCount(recipient);
+            entry.begin();
+            counts.add(entry);
+        }
+        int written = 0;
+        try {
+            if (template == null) {
+                throw new IllegalStateException("Unknown notification template " + fanOut.getTemplateId());
+            }
+            String message = template.render(fanOut.getParams());
+            Date createdTime = fanOut.getCreatedAt();
+            List<Integer> ids = notificationsBatchRepository.deliverFanOut(
+                    fanOut.getFanOutId(), template, fanOut.getParams(), EMAIL_SUBJECT, createdTime, recipients);
+            if (ids == null) {
+                logger.debug("Fan-out {} was already delivered", fanOut.getFanOutId());
+                return;
+            }
+            logger.info("Fan-out wrote {} notifications | Message: {}", ids.size(), message);
+
+            for (; written < ids.size(); written++) {
+                counts.get(written).finish(1);
+                notificationStreamService.publish(recipients.get(written),
+                        new NotificationDto(ids.get(written), message, createdTime, false));
+            }
+        } catch (Exception e) {
+            long backoff = Math.min(MAX_FAN_OUT_BACKOFF_MS, FAN_OUT_RETRY_DELAY_MS << Math.min(fanOut.getAttempts(), 6));
+            logger.error("Fan-out {} failed for {} recipients, retrying in {} s", fanOut.getFanOutId(), recipients.size(),
+                    backoff / 1000, e);
+            String error = String.valueOf(e.getMessage());
+            try {
+                notificationFanOutRepository.recordFailure(fanOut.getFanOutId(), new Date(System.currentTimeMillis() + backoff),
+                        error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            } catch (Exception recordFailure) {
+                logger.warn("Could not reschedule fan-out {}: {}", fanOut.getFanOutId(), recordFailure.getMessage());
+            }
+        } finally {
+            for (int i = written; i < counts.size(); i++) {
+                counts.get(i).finish(0);
+            }
+        }
+    }
+
+    /**
+     * Queues a templated notification for every student enrolled in a course.
+     * @param courseId the ID of the course
+     * @param template the notification template
+     * @param params the template parameters
+     * @return number of recipients queued
+     */
+    @Override
+    public int notifyEnrolledStudents(int courseId, NotificationTemplate template, Object... params) {
+        List<Integer> studentIds = enrollmentRepository.findStudentIdsByCourseId(courseId);
+        logger.info("Notifying {} enrolled students of course ID: {}", studentIds.size(), courseId);
+        return fanOutNotification(template, studentIds, params);
+    }
+
+    /**
+     * Saves a notification for a user, queues its email and announces it once committed.
+     */
+    private void store(Notifications notification, int id, String message) {
         Users user = usersRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + id));
 
-        Notifications notification = new Notifications();
         notification.setUserId(user);
         notification.setRead(false);
         notification.setCreatedTime(new Date());
-        notification.setMessage(message);
 
-        notificationsRepository.save(notification);
+        Notifications saved = notificationsRepository.save(notification);
+        if (user.getEmail() != null) {
+            emailOutboxRepository.save(new EmailOutbox(user.getEmail(), EMAIL_SUBJECT, message, notification.getCreatedTime()));
+        }
         logger.info("Notification sent successfully to user ID: {}", id);
+
+        NotificationDto event = new NotificationDto(
+                saved.getNotificationsId(), message, saved.getCreatedTime(), false);
+        changeUnreadCount(id, 1);
+        afterCommit(() -> notificationStreamService.publish(id, event));
+    }
+
+    private UnreadCount unreadCount(int userId) {
+        return unreadCounts.computeIfAbsent(userId, id -> new UnreadCount());
+    }
+
+    /**
+     * Records a change to a user's unread count. The cached value moves only once the surrounding
+     * transaction completes, and until then a concurrent load is not cached, since its COUNT may or
+     * may not include the change.
+     */
+    private void changeUnreadCount(int userId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        UnreadCount entry = unreadCount(userId);
+        entry.begin();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    entry.finish(status == STATUS_COMMITTED ? delta : 0);
+                }
+            });
+        } else {
+            entry.finish(delta);
+        }
+    }
+
+    /**
+     * Runs the action once the surrounding transaction commits, or right away when there is none,
+     * so streams never announce a notification that was rolled back.
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Text shown to the user. Templated rows are rendered from the template registry, and digest
+     * rows left by the cleanup job say how many updates they stand for.
+     */
+    static String displayMessage(Notifications notification) {
+        String message = notification.getMessage();
+        if (notification.getTemplateId() != null) {
+            NotificationTemplate template = NotificationTemplate.fromId(notification.getTemplateId());
+            if (template != null) {
+                message = template.render(notification.getParams());
+            }
+        }
+        if (notification.getDigestCount() > 1) {
+            return message + " (" + notification.getDigestCount() + " updates)";
+        }
+        return message;
+    }
+
+    /**
+     * Cached unread count of one user. Every completed change bumps the version, so a load that
+     * overlapped a change is returned to its caller but not kept.
+     */
+    private static final class UnreadCount {
+
+        // Guarded by this; -1 while unknown
+        private int count = -1;
+        private int pending;
+        private long version;
+
+        private synchronized Integer cached() {
+            return count >= 0 ? count : null;
+        }
+
+        private synchronized long version() {
+            return version;
+        }
+
+        private synchronized void publish(int loaded, long loadedVersion) {
+            if (count < 0 && pending == 0 && version == loadedVersion) {
+                count = loaded;
+            }
+        }
+
+        private synchronized void begin() {
+            pending++;
+        }
+
+        private synchronized void finish(int delta) {
+            pending--;
+            version++;
+            if (count >= 0) {
+                count = Math.max(0, count + delta);
+            }
+        }
+
+        private synchronized void invalidate() {
+            version++;
+            count = -1;
+        }
+    }
+
+    /**
+     * Collects the messages of the given notifications and marks the unread ones as read in one update.
+     */
+    private List<String> markAllRead(int userId, List<Notifications> notificationsList) {
+        List<String> notificationMessages = new ArrayList<>(notificationsList.size());
+        int newestUnreadId = -1;
+
+        for (Notifications notification : notificationsList) {
+            notificationMessages.add(displayMessage(notification));
+            if (!notification.isRead()) {
+                newestUnreadId = Math.max(newestUnreadId, notification.getNotificationsId());
+            }
+        }
+
+        if (newestUnreadId != -1) {
+            changeUnreadCount(userId, -notificationsRepository.markReadUpTo(userId, newestUnreadId));
+        }
+        return notificationMessages;
     }
 
     /**
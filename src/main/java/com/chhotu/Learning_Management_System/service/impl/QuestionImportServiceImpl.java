@@ -0,0 +1,334 @@
+package com.chhotu.Learning_Management_System.service.impl;
+
+import com.chhotu.Learning_Management_System.dto.QuestionImportReportDto;
+import com.chhotu.Learning_Management_System.entity.QuestionType;
+import com.chhotu.Learning_Management_System.entity.QuestionType.QuestionTypeEnum;
+import com.chhotu.Learning_Management_System.entity.UserRole;
+import com.chhotu.Learning_Management_System.entity.Users;
+import com.chhotu.Learning_Management_System.repository.CourseRepository;
+import com.chhotu.Learning_Management_System.repository.QuestionImportRepository;
+import com.chhotu.Learning_Management_System.service.QuestionImportService;
+import com.chhotu.Learning_Management_System.service.ReferenceDataService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streams a question bank upload line by line. Only the current batch of parsed rows is held in
+ * memory, question types are resolved from the in-memory reference data, and rows are written
+ * with one JDBC batch per {@link #BATCH_SIZE} lines. A bad line is reported and skipped; it never
+ * aborts the rest of the import.
+ * <p>
+ * JSONL: one object per line with {@code questionText}, {@code type}, {@code options} and
+ * {@code correctAnswer}; {@code options} may be a JSON array or a string.
+ * CSV: a header line naming the same columns, then one question per line. Quoted fields may
+ * contain commas and doubled quotes but not line breaks.
+ * In both formats {@code type} is a question type id or name, e.g. {@code 1} or {@code MCQ}.
+ */
+@Service
+public class QuestionImportServiceImpl implements QuestionImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuestionImportServiceImpl.class);
+
+    static final int BATCH_SIZE = 500;
+    static final int MAX_REPORTED_ERRORS = 100;
+    // question_text and correct_answer are VARCHAR(255)
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private final CourseRepository courseRepository;
+    private final ReferenceDataService referenceDataService;
+    private final QuestionImportRepository questionImportRepository;
+    private final ObjectMapper objectMapper;
+
+    public QuestionImportServiceImpl(CourseRepository courseRepository,
+                                     ReferenceDataService referenceDataService,
+                                     QuestionImportRepository questionImportRepository,
+                                     ObjectMapper objectMapper) {
+        this.courseRepository = courseRepository;
+        this.referenceDataService = referenceDataService;
+        this.questionImportRepository = questionImportRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public QuestionImportReportDto importQuestionBank(int courseId, String format, Reader reader, HttpServletRequest request) throws Exception {
+        logger.info("Importing question bank for course ID: {} (format {})", courseId, format);
+
+        courseRepository.findById(courseId)
+                .orElseThrow(() -> new EntityNotFoundException("No such Course"));
+        Users loggedInUser = (Users) request.getSession().getAttribute("user");
+        if (loggedInUser == null) {
+            logger.error("Unauthorized attempt to import question bank.");
+            throw new IllegalArgumentException("No user is logged in.");
+        }
+        if (UserRole.STUDENT.matches(loggedInUser)) {
+            throw new Exception("You don't have access to this feature!");
+        }
+        if (UserRole.INSTRUCTOR.matches(loggedInUser) && !courseRepository.findByInstructorId(loggedInUser.getUserId(), courseId)) {
+            logger.warn("Instructor ID {} attempted unauthorized course access.", loggedInUser.getUserId());
+            throw new IllegalArgumentException("You don't have permission to enter this course.");
+        }
+
+        LineParser parser;
+        if ("jsonl".equalsIgnoreCase(format)) {
+            parser = new JsonLineParser();
+        } else if ("csv".equalsIgnoreCase(format)) {
+            parser = new CsvLineParser();
+        } else {
+            throw new IllegalArgumentException("Unsupported import format: " + format + ". Use jsonl or csv.");
+        }
+
+        Import run = new Import(courseId);
+        BufferedReader lines = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (parser.consumesHeader()) {
+                parser.header(line);
+                continue;
+            }
+
+            run.report.setLinesRead(run.report.getLinesRead() + 1);
+            try {
+                run.add(lineNumber, parser.parse(line));
+            } catch (IllegalArgumentException e) {
+                run.reject(lineNumber, e.getMessage());
+            }
+        }
+        run.flush();
+
+        logger.info("Imported {} of {} questions into course ID: {}",
+                run.report.getImported(), run.report.getLinesRead(), courseId);
+        return run.report;
+    }
+
+    /**
+     * Resolves a question type given by id or by name, e.g. {@code 1} or {@code MCQ}.
+     */
+    private Integer resolveQuestionType(String type) {
+        if (type == null || type.isBlank()) {
+            return null;
+        }
+        String trimmed = type.trim();
+        if (Character.isDigit(trimmed.charAt(0))) {
+            try {
+                return referenceDataService.findQuestionType(Integer.parseInt(trimmed)).map(QuestionType::getTypeId).orElse(null);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        try {
+            return referenceDataService.getQuestionType(QuestionTypeEnum.valueOf(trimmed.toUpperCase(Locale.ROOT))).getTypeId();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return null;
+        }
+    }
+
+    private QuestionImportRepository.Row toRow(String questionText, String type, String options, String correctAnswer) {
+        if (questionText == null || questionText.isBlank()) {
+            throw new IllegalArgumentException("questionText is required");
+        }
+        if (correctAnswer == null || correctAnswer.isBlank()) {
+            throw new IllegalArgumentException("correctAnswer is required");
+        }
+        if (questionText.length() > MAX_TEXT_LENGTH || correctAnswer.length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException("questionText and correctAnswer must be at most " + MAX_TEXT_LENGTH + " characters");
+        }
+        Integer typeId = resolveQuestionType(type);
+        if (typeId == null) {
+            throw new IllegalArgumentException("Unknown question type: " + type);
+        }
+
+        String optionsJson = null;
+        if (options != null && !options.isEmpty()) {
+            try {
+                // Stored the same way createQuestionBank stores them
+                optionsJson = objectMapper.writeValueAsString(options);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Invalid options: " + e.getOriginalMessage());
+            }
+        }
+        return new QuestionImportRepository.Row(questionText, typeId, optionsJson, correctAnswer);
+    }
+
+    /**
+     * State of one import: the pending batch and the report being built.
+     */
+    private final class Import {
+
+        private final int courseId;
+        private final QuestionImportReportDto report = new QuestionImportReportDto();
+        private final List<QuestionImportRepository.Row> batch = new ArrayList<>(BATCH_SIZE);
+        private final List<Integer> batchLines = new ArrayList<>(BATCH_SIZE);
+
+        private Import(int courseId) {
+            this.courseId = courseId;
+        }
+
+        private void add(int lineNumber, QuestionImportRepository.Row row) {
+            batch.add(row);
+            batchLines.add(lineNumber);
+            if (batch.size() == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                report.setImported(report.getImported() + questionImportRepository.insertBatch(courseId, batch));
+            } catch (DataAccessException e) {
+                logger.error("Question import batch for course ID {} failed", courseId, e);
+                String message = "Batch rejected by the database: " + e.getMostSpecificCause().getMessage();
+                for (int lineNumber : batchLines) {
+                    reject(lineNumber, message);
+                }
+            }
+            batch.clear();
+            batchLines.clear();
+        }
+
+        private void reject(int lineNumber, String message) {
+            report.setRejected(report.getRejected() + 1);
+            if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+                report.getErrors().add(new QuestionImportReportDto.LineError(lineNumber, message));
+            } else {
+                report.setErrorsTruncated(true);
+            }
+        }
+    }
+
+    private interface LineParser {
+
+        default boolean consumesHeader() {
+            return false;
+        }
+
+        default void header(String line) {
+        }
+
+        QuestionImportRepository.Row parse(String line);
+    }
+
+    private final class JsonLineParser implements LineParser {
+
+        @Override
+        public QuestionImportRepository.Row parse(String line) {
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+            }
+            if (node == null || !node.isObject()) {
+                throw new IllegalArgumentException("Expected a JSON object");
+            }
+
+            JsonNode options = node.get("options");
+            String optionsText = options == null || options.isNull() ? null
+                    : options.isTextual() ? options.asText() : options.toString();
+            return toRow(text(node, "questionText"), text(node, "type"), optionsText, text(node, "correctAnswer"));
+        }
+
+        private String text(JsonNode node, String field) {
+            JsonNode value = node.get(field);
+            return value == null || value.isNull() ? null : value.asText();
+        }
+    }
+
+    private final class CsvLineParser implements LineParser {
+
+        private int questionTextColumn = -1;
+        private int typeColumn = -1;
+        private int optionsColumn = -1;
+        private int correctAnswerColumn = -1;
+        private boolean headerRead;
+
+        @Override
+        public boolean consumesHeader() {
+            return !headerRead;
+        }
+
+        @Override
+        public void header(String line) {
+            // Spreadsheet exports often start with a byte order mark
+            List<String> columns = splitCsv(line.replace("\uFEFF", ""));
+            for (int i = 0; i < columns.size(); i++) {
+                switch (columns.get(i).trim()) {
+                    case "questionText" -> questionTextColumn = i;
+                    case "type" -> typeColumn = i;
+                    case "options" -> optionsColumn = i;
+                    case "correctAnswer" -> correctAnswerColumn = i;
+                    default -> { }
+                }
+            }
+            if (questionTextColumn < 0 || typeColumn < 0 || correctAnswerColumn < 0) {
+                throw new IllegalArgumentException("CSV header must name the questionText, type and correctAnswer columns");
+            }
+            headerRead = true;
+        }
+
+        @Override
+        public QuestionImportRepository.Row parse(String line) {
+            List<String> fields = splitCsv(line);
+            return toRow(field(fields, questionTextColumn), field(fields, typeColumn),
+                    field(fields, optionsColumn), field(fields, correctAnswerColumn));
+        }
+
+        private String field(List<String> fields, int column) {
+            return column >= 0 && column < fields.size() ? fields.get(column) : null;
+        }
+    }
+
+    /**
+     * Splits one CSV record. Quoted fields may contain commas and doubled quotes.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
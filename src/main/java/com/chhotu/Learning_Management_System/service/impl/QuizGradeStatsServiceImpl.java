@@ -0,0 +1,241 @@
+package com.chhotu.Learning_Management_System.service.impl;
+
+import com.chhotu.Learning_Management_System.dto.QuizGradeStatsDto;
+import com.chhotu.Learning_Management_System.entity.Quiz;
+import com.chhotu.Learning_Management_System.entity.UserRole;
+import com.chhotu.Learning_Management_System.entity.Users;
+import com.chhotu.Learning_Management_System.repository.GradingRepository;
+import com.chhotu.Learning_Management_System.repository.QuizRepository;
+import com.chhotu.Learning_Management_System.service.QuizGradeStatsService;
+import com.chhotu.Learning_Management_System.util.BoundedCache;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps running grade statistics per quiz: count, sum, sum of squares, min, max and a histogram
+ * with one bucket per grade. Grades are small integers (one point per question), so the histogram
+ * is tiny and percentiles read from it are exact. Every grading insert is folded in as it commits;
+ * a quiz that is not in memory is rebuilt from one projection query the first time it is asked for.
+ * The entry is published before that query runs, so gradings committed during the rebuild are folded
+ * into it too, and each grading is counted once whether the query saw it or not.
+ */
+@Service
+public class QuizGradeStatsServiceImpl implements QuizGradeStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuizGradeStatsServiceImpl.class);
+
+    private static final int MAX_CACHED_QUIZZES = 2000;
+    // How long the grading ids read by a rebuild are kept to recognise late after-commit records
+    private static final long REBUILD_DEDUP_WINDOW_MS = 60_000L;
+
+    private final GradingRepository gradingRepository;
+    private final QuizRepository quizRepository;
+    // Dashboards look at recent quizzes, so the least recently viewed statistics make way for new ones
+    private final BoundedCache<Integer, GradeStats> statsByQuiz = new BoundedCache<>(MAX_CACHED_QUIZZES);
+
+    public QuizGradeStatsServiceImpl(GradingRepository gradingRepository, QuizRepository quizRepository) {
+        this.gradingRepository = gradingRepository;
+        this.quizRepository = quizRepository;
+    }
+
+    @Override
+    public void record(int quizId, int gradingId, int grade) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(quizId, gradingId, grade);
+                }
+            });
+        } else {
+            apply(quizId, gradingId, grade);
+        }
+    }
+
+    @Override
+    public QuizGradeStatsDto getStats(int quizId, HttpServletRequest request) {
+        Users loggedInInstructor = (Users) request.getSession().getAttribute("user");
+        if (loggedInInstructor == null) {
+            throw new IllegalArgumentException("No logged in user is found.");
+        }
+        if (!UserRole.INSTRUCTOR.matches(loggedInInstructor)) {
+            throw new IllegalArgumentException("Logged-in user is not an instructor.");
+        }
+        Quiz quiz = quizRepository.findById(quizId)
+                .orElseThrow(() -> new IllegalArgumentException("Quiz with ID " + quizId + " not found."));
+        if (quiz.getCourse().getInstructorId().getUserAccountId() != loggedInInstructor.getUserId()) {
+            throw new IllegalArgumentException("Logged-in instructor does not have access for this quiz grades.");
+        }
+
+        GradeStats stats = statsByQuiz.get(quizId);
+        if (stats == null) {
+            GradeStats loading = new GradeStats();
+            stats = statsByQuiz.putIfAbsent(quizId, loading);
+            if (stats == null) {
+                stats = loading;
+                rebuild(quizId, loading);
+            }
+        }
+        return stats.toDto(quizId);
+    }
+
+    @Override
+    public void evict(int quizId) {
+        statsByQuiz.remove(quizId);
+    }
+
+    private void apply(int quizId, int gradingId, int grade) {
+        // Quizzes nobody has asked about are not tracked; their first request rebuilds from the database.
+        // A quiz being rebuilt is tracked, and its entry sorts out gradings the rebuild also reads.
+        GradeStats stats = statsByQuiz.get(quizId);
+        if (stats != null) {
+            stats.add(gradingId, grade);
+        }
+    }
+
+    private void rebuild(int quizId, GradeStats stats) {
+        List<Object[]> rows;
+        try {
+            rows = gradingRepository.findGradeRowsByQuizId(quizId);
+        } catch (RuntimeException e) {
+            statsByQuiz.remove(quizId, stats);
+            stats.failLoad();
+            throw e;
+        }
+        stats.finishLoad(rows);
+        logger.info("Rebuilt grade statistics for quiz ID {} from {} gradings", quizId, rows.size());
+    }
+
+    /**
+     * Running statistics of one quiz.
+     */
+    private static final class GradeStats {
+
+        private long count;
+        private long sum;
+        private long sumOfSquares;
+        private int min = Integer.MAX_VALUE;
+        private int max = Integer.MIN_VALUE;
+        private long[] histogram = new long[8];
+
+        // Ids recorded while the rebuild query runs, null once it is done; the rebuild skips these
+        private Set<Integer> addedWhileLoading = new HashSet<>();
+        private boolean loadFailed;
+        // Ids read by the rebuild; an after-commit record for one of them was already counted
+        private Set<Integer> loadedIds = Set.of();
+        private long loadedIdsExpireAt;
+
+        private synchronized void finishLoad(List<Object[]> rows) {
+            Set<Integer> ids = new HashSet<>();
+            for (Object[] row : rows) {
+                int gradingId = ((Number) row[0]).intValue();
+                ids.add(gradingId);
+                if (!addedWhileLoading.contains(gradingId)) {
+                    count(((Number) row[1]).intValue());
+                }
+            }
+            addedWhileLoading = null;
+            loadedIds = ids;
+            loadedIdsExpireAt = System.currentTimeMillis() + REBUILD_DEDUP_WINDOW_MS;
+            notifyAll();
+        }
+
+        private synchronized void failLoad() {
+            loadFailed = true;
+            addedWhileLoading = null;
+            notifyAll();
+        }
+
+        private synchronized void add(int gradingId, int grade) {
+            if (addedWhileLoading != null) {
+                if (addedWhileLoading.add(gradingId)) {
+                    count(grade);
+                }
+                return;
+            }
+            if (!loadedIds.isEmpty()) {
+                if (System.currentTimeMillis() > loadedIdsExpireAt) {
+                    loadedIds = Set.of();
+                } else if (loadedIds.contains(gradingId)) {
+                    return;
+                }
+            }
+            count(grade);
+        }
+
+        private void count(int grade) {
+            if (grade < 0) {
+                return;
+            }
+
+            count++;
+            sum += grade;
+            sumOfSquares += (long) grade * grade;
+            min = Math.min(min, grade);
+            max = Math.max(max, grade);
+            if (grade >= histogram.length) {
+                histogram = Arrays.copyOf(histogram, Math.max(grade + 1, histogram.length * 2));
+            }
+            histogram[grade]++;
+        }
+
+        private synchronized QuizGradeStatsDto toDto(int quizId) {
+            // Another request is rebuilding this quiz; wait for it rather than show partial numbers
+            boolean interrupted = false;
+            while (addedWhileLoading != null) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (loadFailed) {
+                throw new IllegalStateException("Grade statistics for quiz ID " + quizId + " could not be loaded.");
+            }
+
+            Map<Integer, Long> buckets = new LinkedHashMap<>();
+            for (int grade = 0; grade < histogram.length; grade++) {
+                if (histogram[grade] > 0) {
+                    buckets.put(grade, histogram[grade]);
+                }
+            }
+            if (count == 0) {
+                return new QuizGradeStatsDto(quizId, 0, 0, 0, null, null, buckets, null, null, null, null);
+            }
+
+            double mean = (double) sum / count;
+            double variance = Math.max(0, (double) sumOfSquares / count - mean * mean);
+            return new QuizGradeStatsDto(quizId, count, mean, Math.sqrt(variance), min, max, buckets,
+                    percentile(0.25), percentile(0.50), percentile(0.75), percentile(0.90));
+        }
+
+        /**
+         * Smallest grade with at least the given fraction of submissions at or below it.
+         */
+        private int percentile(double fraction) {
+            long rank = (long) Math.ceil(fraction * count);
+            long seen = 0;
+            for (int grade = 0; grade < histogram.length; grade++) {
+                seen += histogram[grade];
+                if (seen >= rank && seen > 0) {
+                    return grade;
+                }
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.chhotu.Learning_Management_System.service.impl;
+
+import com.chhotu.Learning_Management_System.repository.QuestionRepository;
+import com.chhotu.Learning_Management_System.service.QuizPaperService;
+import com.chhotu.Learning_Management_System.util.BoundedCache;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Caches each quiz's question paper as ready-to-send JSON bytes. When a quiz opens, every enrolled
+ * student asks for the paper at once: the first request renders it from one projection query and
+ * the others wait for that same render instead of querying in parallel. Options are stored as JSON
+ * and copied into the paper as they are; correct answers are never selected.
+ */
+@Service
+public class QuizPaperServiceImpl implements QuizPaperService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuizPaperServiceImpl.class);
+
+    private static final int MAX_CACHED_PAPERS = 2000;
+
+    private final QuestionRepository questionRepository;
+    private final ObjectMapper objectMapper;
+    // Only open quizzes are hot, so the least recently served papers make way for new ones
+    private final BoundedCache<Integer, CompletableFuture<byte[]>> papers = new BoundedCache<>(MAX_CACHED_PAPERS);
+
+    public QuizPaperServiceImpl(QuestionRepository questionRepository, ObjectMapper objectMapper) {
+        this.questionRepository = questionRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public byte[] getPaper(int quizId) {
+        CompletableFuture<byte[]> paper = papers.get(quizId);
+        if (paper == null) {
+            CompletableFuture<byte[]> render = new CompletableFuture<>();
+            paper = papers.putIfAbsent(quizId, render);
+            if (paper == null) {
+                // This request won the race; render outside the map so other quizzes are not blocked
+                paper = render;
+                try {
+                    render.complete(render(quizId));
+                } catch (RuntimeException e) {
+                    papers.remove(quizId, render);
+                    render.completeExceptionally(e);
+                }
+            }
+        }
+        try {
+            return paper.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    @Override
+    public void evict(int quizId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Evicting before commit would let a concurrent request cache the old questions again
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    papers.remove(quizId);
+                }
+            });
+        } else {
+            papers.remove(quizId);
+        }
+    }
+
+    private byte[] render(int quizId) {
+        List<Object[]> rows = questionRepository.findPaperRowsByQuizId(quizId);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256 * (rows.size() + 1));
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            for (Object[] row : rows) {
+                generator.writeStartObject();
+                generator.writeNumberField("questionId", (Integer) row[0]);
+                generator.writeStringField("questionText", (String) row[1]);
+                generator.writeNumberField("type", (Integer) row[2]);
+                generator.writeFieldName("options");
+                if (row[3] == null) {
+                    generator.writeNull();
+                } else {
+                    generator.writeRawValue((String) row[3]);
+                }
+                generator.writeNumberField("courseId", (Integer) row[4]);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        logger.info("Rendered question paper for quiz ID {} with {} questions ({} bytes)", quizId, rows.size(), out.size());
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,185 @@
+package com.chhotu.Learning_Management_System.service.impl;
+
+import com.chhotu.Learning_Management_System.entity.Quiz;
+import com.chhotu.Learning_Management_System.repository.QuizRepository;
+import com.chhotu.Learning_Management_System.service.QuizScheduleService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of quizzes that are open or due to open. Upcoming quizzes wait in a set ordered by
+ * opening time and open quizzes sit in a set ordered by closing time; a one-second tick moves quizzes
+ * between them, so the work per tick is proportional to the quizzes that actually changed state.
+ * Each course's open quizzes are published as an immutable list sorted by closing time, which readers
+ * fetch without locking. The index is loaded from the database at startup and re-synced periodically,
+ * which also picks up quizzes created by other instances.
+ */
+@Service
+public class QuizScheduleServiceImpl implements QuizScheduleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuizScheduleServiceImpl.class);
+
+    private static final Comparator<QuizWindow> BY_OPENS_AT =
+            Comparator.comparingLong(QuizWindow::opensAt).thenComparingInt(QuizWindow::quizId);
+    private static final Comparator<QuizWindow> BY_CLOSES_AT =
+            Comparator.comparingLong(QuizWindow::closesAt).thenComparingInt(QuizWindow::quizId);
+
+    private final QuizRepository quizRepository;
+    private final Clock clock;
+    private final long defaultDurationMs;
+
+    // Written under this lock, read without it
+    private final Map<Integer, QuizWindow> tracked = new ConcurrentHashMap<>();
+
+    // Guarded by this
+    private final TreeSet<QuizWindow> upcoming = new TreeSet<>(BY_OPENS_AT);
+    private final TreeSet<QuizWindow> closing = new TreeSet<>(BY_CLOSES_AT);
+
+    private final Map<Integer, List<QuizWindow>> openByCourse = new ConcurrentHashMap<>();
+
+    public QuizScheduleServiceImpl(QuizRepository quizRepository, Clock clock,
+                                   @Value("${lms.quiz.default-duration-minutes:15}") long defaultDurationMinutes) {
+        this.quizRepository = quizRepository;
+        this.clock = clock;
+        this.defaultDurationMs = defaultDurationMinutes * 60 * 1000;
+    }
+
+    @Override
+    public void register(Quiz quiz) {
+        QuizWindow window = windowOf(quiz);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    track(window, clock.millis());
+                }
+            });
+        } else {
+            track(window, clock.millis());
+        }
+    }
+
+    @Override
+    public List<QuizWindow> getOpenQuizzes(int courseId) {
+        List<QuizWindow> open = openByCourse.getOrDefault(courseId, List.of());
+        long now = clock.millis();
+        // The tick may lag slightly behind the clock; never report a quiz outside its window
+        for (QuizWindow window : open) {
+            if (!window.isOpenAt(now)) {
+                return open.stream().filter(w -> w.isOpenAt(now)).toList();
+            }
+        }
+        return open;
+    }
+
+    @Override
+    public QuizWindow findTrackedWindow(int quizId) {
+        return tracked.get(quizId);
+    }
+
+    @Override
+    public QuizWindow windowOf(Quiz quiz) {
+        return window(quiz.getQuizId(), quiz.getCourse() == null ? 0 : quiz.getCourse().getCourseId(),
+                quiz.getOpensAt(), quiz.getClosesAt(), quiz.getCreationDate());
+    }
+
+    /**
+     * Opens quizzes whose start time has come and drops those that have closed.
+     */
+    @Scheduled(fixedDelayString = "${lms.quiz.schedule-tick-ms:1000}")
+    public synchronized void tick() {
+        long now = clock.millis();
+        while (!upcoming.isEmpty() && upcoming.first().hasOpened(now)) {
+            open(upcoming.pollFirst());
+        }
+        while (!closing.isEmpty() && closing.first().hasClosed(now)) {
+            close(closing.pollFirst());
+        }
+    }
+
+    /**
+     * Loads every quiz that has not closed yet into the index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${lms.quiz.schedule-resync-ms:300000}", fixedDelayString = "${lms.quiz.schedule-resync-ms:300000}")
+    public void resync() {
+        Date now = new Date(clock.millis());
+        List<QuizWindow> windows = new ArrayList<>();
+        for (Object[] row : quizRepository.findScheduleRowsNotClosedBy(now, new Date(now.getTime() - defaultDurationMs))) {
+            windows.add(window((Integer) row[0], row[1] == null ? 0 : (Integer) row[1],
+                    (Date) row[2], (Date) row[3], (Date) row[4]));
+        }
+
+        // Merged rather than swapped in, so a quiz registered while the query ran is not lost.
+        // Quizzes are never deleted, so merging cannot leave a stale entry behind.
+        synchronized (this) {
+            long time = clock.millis();
+            for (QuizWindow window : windows) {
+                track(window, time);
+            }
+        }
+        logger.info("Quiz schedule synced with {} open or upcoming quizzes", windows.size());
+    }
+
+    private synchronized void track(QuizWindow window, long now) {
+        QuizWindow previous = tracked.remove(window.quizId());
+        if (previous != null && !upcoming.remove(previous) && closing.remove(previous)) {
+            close(previous);
+        }
+        if (window.hasClosed(now)) {
+            return;
+        }
+
+        tracked.put(window.quizId(), window);
+        if (window.hasOpened(now)) {
+            open(window);
+        } else {
+            upcoming.add(window);
+        }
+    }
+
+    private void open(QuizWindow window) {
+        if (window.hasClosed(clock.millis())) {
+            tracked.remove(window.quizId());
+            return;
+        }
+        closing.add(window);
+        openByCourse.compute(window.courseId(), (courseId, open) -> {
+            List<QuizWindow> updated = open == null ? new ArrayList<>() : new ArrayList<>(open);
+            updated.add(window);
+            updated.sort(BY_CLOSES_AT);
+            return List.copyOf(updated);
+        });
+    }
+
+    private void close(QuizWindow window) {
+        tracked.remove(window.quizId(), window);
+        openByCourse.computeIfPresent(window.courseId(), (courseId, open) -> {
+            List<QuizWindow> updated = new ArrayList<>(open);
+            updated.remove(window);
+            return updated.isEmpty() ? null : List.copyOf(updated);
+        });
+    }
+
+    private QuizWindow window(int quizId, int courseId, Date opensAt, Date closesAt, Date creationDate) {
+        long opens = opensAt != null ? opensAt.getTime() : creationDate != null ? creationDate.getTime() : 0L;
+        long closes = closesAt != null ? closesAt.getTime() : opens + defaultDurationMs;
+        return new QuizWindow(quizId, courseId, opens, closes);
+    }
+}
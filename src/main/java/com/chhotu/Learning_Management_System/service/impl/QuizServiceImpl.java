@@ -7,19 +7,26 @@ import com.chhotu.Learning_Management_System.service.*;
 import com.chhotu.Learning_Management_System.dto.GradingDto;
 import com.chhotu.Learning_Management_System.dto.QuestionDto;
 import com.chhotu.Learning_Management_System.dto.QuizDto;
-import com.chhotu.Learning_Management_System.dto.StudentDto;
 import com.chhotu.Learning_Management_System.entity.*;
 import com.chhotu.Learning_Management_System.repository.*;
-import com.chhotu.Learning_Management_System.service.EnrollmentService;
 import com.chhotu.Learning_Management_System.service.NotificationsService;
+import com.chhotu.Learning_Management_System.service.QuizGradeStatsService;
+import com.chhotu.Learning_Management_System.service.QuizPaperService;
+import com.chhotu.Learning_Management_System.service.QuizScheduleService;
 import com.chhotu.Learning_Management_System.service.QuizService;
+import com.chhotu.Learning_Management_System.service.ReferenceDataService;
+import com.chhotu.Learning_Management_System.service.grading.QuizGradingEngine;
+import com.chhotu.Learning_Management_System.service.grading.QuizScore;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
 import java.util.*;
 
 @Service
@@ -27,16 +34,25 @@ public class QuizServiceImpl implements QuizService {
 
     private static final Logger logger = LoggerFactory.getLogger(QuizServiceImpl.class);
 
+    private static final int MAX_CLAIM_ROUNDS = 3;
+    private static final int CLAIM_OVERSAMPLING = 3;
+
     private final QuizRepository quizRepository;
     private final CourseRepository courseRepository;
     private final QuestionRepository questionRepository;
     private final ObjectMapper objectMapper;
     private final StudentRepository studentRepository;
     private final GradingRepository gradingRepository;
-    private final QuestionTypeRepository questionTypeRepository;
+    private final ReferenceDataService referenceDataService;
     private final EnrollmentRepository enrollmentRepository;
     private final NotificationsService notificationsService;
-    private final EnrollmentService enrollmentService;
+    private final QuizGradingEngine quizGradingEngine;
+    private final QuizScheduleService quizScheduleService;
+    private final QuizGradeStatsService quizGradeStatsService;
+    private final AnswerBatchRepository answerBatchRepository;
+    private final QuizPaperService quizPaperService;
+    // Same time source as the quiz schedule, so both agree on whether a quiz is open
+    private final Clock clock;
 
     List<Question> quizQuestions = new ArrayList<>();
     List<Question> questionBank = new ArrayList<>();
@@ -48,24 +64,41 @@ public class QuizServiceImpl implements QuizService {
             ObjectMapper objectMapper,
             StudentRepository studentRepository,
             GradingRepository gradingRepository,
-            QuestionTypeRepository questionTypeRepository,
+            ReferenceDataService referenceDataService,
             EnrollmentRepository enrollmentRepository,
             NotificationsService notificationsService,
-            EnrollmentService enrollmentService) {
+            QuizGradingEngine quizGradingEngine,
+            QuizScheduleService quizScheduleService,
+            QuizGradeStatsService quizGradeStatsService,
+            AnswerBatchRepository answerBatchRepository,
+            QuizPaperService quizPaperService,
+            Clock clock) {
         this.quizRepository = quizRepository;
         this.courseRepository = courseRepository;
         this.questionRepository = questionRepository;
         this.objectMapper = objectMapper;
         this.studentRepository = studentRepository;
         this.gradingRepository = gradingRepository;
-        this.questionTypeRepository = questionTypeRepository;
+        this.referenceDataService = referenceDataService;
         this.enrollmentRepository = enrollmentRepository;
         this.notificationsService = notificationsService;
-        this.enrollmentService = enrollmentService;
+        this.quizGradingEngine = quizGradingEngine;
+        this.quizScheduleService = quizScheduleService;
+        this.quizGradeStatsService = quizGradeStatsService;
+        this.answerBatchRepository = answerBatchRepository;
+        this.quizPaperService = quizPaperService;
+        this.clock = clock;
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public int Create(Integer course_id, int type_id, HttpServletRequest request) throws Exception {
+        return Create(course_id, type_id, null, null, request);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int Create(Integer course_id, int type_id, Date opensAt, Date closesAt, HttpServletRequest request) throws Exception {
         logger.info("Creating quiz for course ID: {}", course_id);
 
         Users loggedInInstructor = (Users) request.getSession().getAttribute("user");
@@ -76,7 +109,7 @@ public class QuizServiceImpl implements QuizService {
             logger.error("Attempted quiz creation without login");
             throw new IllegalArgumentException("No logged in user is found.");
         }
-        if (loggedInInstructor.getUserTypeId() == null || loggedInInstructor.getUserTypeId().getUserTypeId() != 3) {
+        if (!UserRole.INSTRUCTOR.matches(loggedInInstructor)) {
             throw new IllegalArgumentException("Logged-in user is not an instructor.");
         }
         if (course.getInstructorId().getUserAccountId() != loggedInInstructor.getUserId()) {
@@ -87,24 +120,41 @@ public class QuizServiceImpl implements QuizService {
 
         Quiz quiz = new Quiz();
         quiz.setCourse(course);
-        quiz.setTitle("quiz" + (quizRepository.findAll().size() + 1));
+        quiz.setTitle("quiz" + nextQuizSequence(course_id));
         quiz.setQuestionCount(5);
         quiz.setRandomized(true);
         quiz.setCreationDate(new Date());
+        quiz.setOpensAt(opensAt != null ? opensAt : quiz.getCreationDate());
+        quiz.setClosesAt(closesAt != null ? closesAt : new Date(quizScheduleService.windowOf(quiz).closesAt()));
+        if (!quiz.getClosesAt().after(quiz.getOpensAt())) {
+            throw new IllegalArgumentException("A quiz must close after it opens.");
+        }
+        if (!quiz.getClosesAt().after(quiz.getCreationDate())) {
+            throw new IllegalArgumentException("The quiz closing time has already passed.");
+        }
 
-        generateQuestions(quiz, type_id, course);
+        // Saved first so the claimed questions can reference it; a failed claim rolls the quiz back
         quizRepository.save(quiz);
+        generateQuestions(quiz, type_id, course);
+        quizScheduleService.register(quiz);
         logger.info("Quiz created successfully with ID: {}", quiz.getQuizId());
 
-        List<StudentDto> enrolledStudents = enrollmentService.viewEnrolledStudents(course_id, request);
-        for (StudentDto student : enrolledStudents) {
-            notificationsService.sendNotification("A new quiz (ID: " + quiz.getQuizId() +
-                    ") is available for course: " + course.getCourseName(), student.getUserAccountId());
-        }
+        int queued = notificationsService.notifyEnrolledStudents(course_id, NotificationTemplate.QUIZ_AVAILABLE,
+                quiz.getQuizId(), course.getCourseName());
+        logger.info("Queued quiz notifications for {} enrolled students of course ID: {}", queued, course_id);
 
         return quiz.getQuizId();
     }
 
+    /**
+     * Returns the next quiz number of a course. Must run inside the caller's transaction, which holds
+     * the course row lock until the new quiz is committed.
+     */
+    private int nextQuizSequence(int courseId) {
+        courseRepository.incrementQuizSequence(courseId);
+        return courseRepository.findQuizSequence(courseId);
+    }
+
     @Override
     public String getActiveQuiz(int course_id, HttpServletRequest request) {
         logger.info("Fetching active quiz for course ID: {}", course_id);
@@ -112,20 +162,17 @@ public class QuizServiceImpl implements QuizService {
 
         if (loggedInUser == null) throw new IllegalArgumentException("No user is logged in.");
 
-        boolean instructor = courseRepository.findByInstructorId(loggedInUser.getUserId(), course_id);
-        if (loggedInUser.getUserTypeId().getUserTypeId() == 3 && !instructor)
+        if (UserRole.INSTRUCTOR.matches(loggedInUser) && !courseRepository.findByInstructorId(loggedInUser.getUserId(), course_id))
             throw new IllegalArgumentException("You don't have permission to enter this quiz.");
 
-        List<Quiz> quizzes = quizRepository.getQuizzesByCourseId(course_id);
+        // Served from the in-memory schedule, soonest to close first
+        long now = clock.millis();
         StringBuilder ids = new StringBuilder();
-
-        for (Quiz quiz : quizzes) {
-            if (quiz.getCreationDate().getTime() + 15 * 60 * 1000 > new Date().getTime()) {
-                ids.append("Quiz with ID: ").append(quiz.getQuizId())
-                        .append(" has time left: ")
-                        .append(((quiz.getCreationDate().getTime() + (15 * 60 * 1000) - new Date().getTime()) / (60 * 1000)))
-                        .append(" mins\n");
-            }
+        for (QuizScheduleService.QuizWindow window : quizScheduleService.getOpenQuizzes(course_id)) {
+            ids.append("Quiz with ID: ").append(window.quizId())
+                    .append(" has time left: ")
+                    .append((window.closesAt() - now) / (60 * 1000))
+                    .append(" mins\n");
         }
         return ids.isEmpty() ? "No active quizzes." : ids.toString();
     }
@@ -133,6 +180,52 @@ public class QuizServiceImpl implements QuizService {
     @Override
     public List<QuestionDto> getQuizQuestions(int id, HttpServletRequest request) throws Exception {
         logger.info("Fetching questions for quiz ID: {}", id);
+        checkQuestionAccess(id, request);
+        // Students take the quiz from the question paper, which leaves the correct answers out
+        Users loggedInUser = (Users) request.getSession().getAttribute("user");
+        if (!UserRole.INSTRUCTOR.matches(loggedInUser))
+            throw new IllegalArgumentException("Only the course instructor can see the correct answers.");
+
+        quizQuestions = questionRepository.findQuestionsByQuizId(id);
+        List<QuestionDto> questions = new ArrayList<>();
+        for (Question q : quizQuestions) {
+            QuestionDto dto = new QuestionDto();
+            dto.setOptions(q.getOptions());
+            dto.setType(q.getQuestionType().getTypeId());
+            dto.setQuestionText(q.getQuestionText());
+            dto.setCorrectAnswer(q.getCorrectAnswer());
+            dto.setCourseId(q.getCourseId().getCourseId());
+            dto.setQuestionId(q.getQuestionId());
+            questions.add(dto);
+        }
+        logger.info("{} questions returned for quiz ID {}", questions.size(), id);
+        return questions;
+    }
+
+    @Override
+    public byte[] getQuizPaper(int id, HttpServletRequest request) throws Exception {
+        Users loggedInUser = (Users) request.getSession().getAttribute("user");
+        QuizScheduleService.QuizWindow window = loggedInUser != null && UserRole.STUDENT.matches(loggedInUser)
+                ? quizScheduleService.findTrackedWindow(id) : null;
+        if (window != null) {
+            // Open or upcoming quiz: at quiz start every student lands here, so check with one indexed lookup
+            if (!enrollmentRepository.existsByStudentUserAccountIdAndCourseCourseId(loggedInUser.getUserId(), window.courseId()))
+                throw new IllegalArgumentException("You are not enrolled in this course.");
+            if (!window.hasOpened(clock.millis()))
+                throw new IllegalArgumentException("The quiz has not started yet.");
+            if (window.hasClosed(clock.millis()))
+                throw new IllegalArgumentException("The quiz has ended.");
+        } else {
+            checkQuestionAccess(id, request);
+        }
+        return quizPaperService.getPaper(id);
+    }
+
+    /**
+     * Checks that the logged-in user may see the questions of a quiz: its instructor, or an enrolled
+     * student while the quiz is open.
+     */
+    private void checkQuestionAccess(int id, HttpServletRequest request) {
         Users loggedInUser = (Users) request.getSession().getAttribute("user");
         Quiz quiz = quizRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Quiz not found with ID: " + id));
@@ -141,45 +234,32 @@ public class QuizServiceImpl implements QuizService {
             throw new IllegalArgumentException("No user is logged in.");
 
         boolean instructor = courseRepository.findByInstructorId(loggedInUser.getUserId(), quiz.getCourse().getCourseId());
-        if (loggedInUser.getUserTypeId().getUserTypeId() == 3 && !instructor)
+        if (UserRole.INSTRUCTOR.matches(loggedInUser) && !instructor)
             throw new IllegalArgumentException("You don't have permission for this quiz.");
 
-        if (loggedInUser.getUserTypeId().getUserTypeId() == 2) {
+        if (UserRole.STUDENT.matches(loggedInUser)) {
             boolean enrolled = enrollmentRepository.existsByStudentAndCourse(
                     studentRepository.findById(loggedInUser.getUserId())
                             .orElseThrow(() -> new IllegalArgumentException("No student found.")),
                     quiz.getCourse());
             if (!enrolled) throw new IllegalArgumentException("You are not enrolled in this course.");
-            if (quiz.getCreationDate().getTime() + 15 * 60 * 1000 < new Date().getTime())
+            QuizScheduleService.QuizWindow window = quizScheduleService.windowOf(quiz);
+            if (!window.hasOpened(clock.millis()))
+                throw new IllegalArgumentException("The quiz has not started yet.");
+            if (window.hasClosed(clock.millis()))
                 throw new IllegalArgumentException("The quiz has ended.");
         }
-
-        quizQuestions = questionRepository.findQuestionsByQuizId(id);
-        List<QuestionDto> questions = new ArrayList<>();
-        for (Question q : quizQuestions) {
-            QuestionDto dto = new QuestionDto();
-            dto.setOptions(q.getOptions());
-            dto.setType(q.getQuestionType().getTypeId());
-            dto.setQuestionText(q.getQuestionText());
-            dto.setCorrectAnswer(q.getCorrectAnswer());
-            dto.setCourseId(q.getCourseId().getCourseId());
-            dto.setQuestionId(q.getQuestionId());
-            questions.add(dto);
-        }
-        logger.info("{} questions returned for quiz ID {}", questions.size(), id);
-        return questions;
     }
 
     @Override
     public String getType(int typeID) {
-        return switch (typeID) {
-            case 1 -> "MCQ";
-            case 2 -> "TRUE_FALSE";
-            default -> "SHORT_ANSWER";
-        };
+        return referenceDataService.findQuestionType(typeID)
+                .map(type -> type.getTypeName().name())
+                .orElse(QuestionType.QuestionTypeEnum.SHORT_ANSWER.name());
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public void addQuestion(QuestionDto questionDto, HttpServletRequest request) throws Exception {
         logger.info("Adding new question for course ID: {}", questionDto.getCourseId());
         Users loggedInUser = (Users) request.getSession().getAttribute("user");
@@ -190,9 +270,9 @@ public class QuizServiceImpl implements QuizService {
             throw new IllegalArgumentException("No user is logged in.");
 
         boolean instructor = courseRepository.findByInstructorId(loggedInUser.getUserId(), course.getCourseId());
-        if (loggedInUser.getUserTypeId().getUserTypeId() == 3 && !instructor)
+        if (UserRole.INSTRUCTOR.matches(loggedInUser) && !instructor)
             throw new IllegalArgumentException("Unauthorized instructor.");
-        if (loggedInUser.getUserTypeId().getUserTypeId() == 2)
+        if (UserRole.STUDENT.matches(loggedInUser))
             throw new IllegalArgumentException("Students cannot add questions.");
 
         if (questionRepository.findById(questionDto.getQuestionId()).isPresent())
@@ -203,7 +283,7 @@ public class QuizServiceImpl implements QuizService {
         question.setCourseId(course);
         question.setCorrectAnswer(questionDto.getCorrectAnswer());
 
-        QuestionType questionType = questionTypeRepository.findById(questionDto.getType())
+        QuestionType questionType = referenceDataService.findQuestionTypeReference(questionDto.getType())
                 .orElseThrow(() -> new EntityNotFoundException("Invalid QuestionType."));
         question.setQuestionType(questionType);
 
@@ -218,38 +298,45 @@ public class QuizServiceImpl implements QuizService {
     }
 
 
+    /**
+     * Assigns random unassigned questions of the given type to a saved quiz. Candidates are sampled
+     * in the database and each one is claimed with a conditional update, so concurrent quiz creation
+     * never hands the same question to two quizzes. Must run inside the caller's transaction.
+     */
     @Override
     public void generateQuestions(Quiz quiz, int questionType, Course course_id) throws Exception {
-        logger.info("Generating questions for quiz ID: {}, type: {}, course ID: {}", quiz.getQuizId(), questionType, course_id.getCourseId());
-
-        List<Question> allQuestions = questionRepository.findQuestionsByCourseIdAndQuestionType(course_id.getCourseId(), questionType);
-        List<Question> emptyQuestions = questionRepository.findEmptyQuestionsByCourseIdAndQuestionType(course_id.getCourseId(), questionType);
+        int courseId = course_id.getCourseId();
+        int needed = quiz.getQuestionCount();
+        logger.info("Generating questions for quiz ID: {}, type: {}, course ID: {}", quiz.getQuizId(), questionType, courseId);
 
-        if (allQuestions.size() < 5) {
-            logger.error("Not enough questions available for course ID: {}", course_id.getCourseId());
+        if (questionRepository.countByCourseIdAndQuestionType(courseId, questionType) < needed) {
+            logger.error("Not enough questions available for course ID: {}", courseId);
             throw new Exception("No enough Questions to create quiz!\n");
         }
 
-        if (emptyQuestions.size() < 5) {
-            logger.error("Not enough unassigned questions found for type {} in course ID: {}", questionType, course_id.getCourseId());
-            throw new Exception("No enough unassigned questions to create new quiz! number: " + emptyQuestions.size() + " type " + questionType + "\n");
+        int claimed = 0;
+        for (int round = 0; round < MAX_CLAIM_ROUNDS && claimed < needed; round++) {
+            // Oversample so a few candidates lost to a concurrent quiz don't cost another round trip
+            List<Integer> candidates = questionRepository.sampleUnassignedQuestionIds(
+                    courseId, questionType, (needed - claimed) * CLAIM_OVERSAMPLING);
+            if (candidates.isEmpty()) {
+                break;
+            }
+            for (Integer questionId : candidates) {
+                if (claimed == needed) {
+                    break;
+                }
+                claimed += questionRepository.claimQuestion(questionId, quiz);
+            }
         }
 
-        Random random = new Random();
-        Set<Integer> selectedIndices = new HashSet<>();
-        int count = 0;
-
-        while (count < 5) {
-            int randomNumber = random.nextInt(allQuestions.size());
-            if (!selectedIndices.contains(randomNumber)) {
-                selectedIndices.add(randomNumber);
-                Question selectedQuestion = allQuestions.get(randomNumber);
-                selectedQuestion.setQuiz(quiz);
-                count++;
-            }
+        if (claimed < needed) {
+            long unassigned = questionRepository.countUnassignedByCourseIdAndQuestionType(courseId, questionType);
+            logger.error("Not enough unassigned questions found for type {} in course ID: {}", questionType, courseId);
+            throw new Exception("No enough unassigned questions to create new quiz! number: " + unassigned + " type " + questionType + "\n");
         }
 
-        logger.info("Successfully generated {} random questions for quiz ID: {}", count, quiz.getQuizId());
+        logger.info("Successfully generated {} random questions for quiz ID: {}", claimed, quiz.getQuizId());
     }
 
     @Override
@@ -266,10 +353,10 @@ public class QuizServiceImpl implements QuizService {
         }
 
         boolean instructor = courseRepository.findByInstructorId(loggedInUser.getUserId(), quiz.getCourse().getCourseId());
-        if (loggedInUser.getUserTypeId().getUserTypeId() == 3 && !instructor) {
+        if (UserRole.INSTRUCTOR.matches(loggedInUser) && !instructor) {
             logger.warn("Unauthorized instructor access attempt for quiz ID: {}", id);
             throw new IllegalArgumentException("You don't have permission to enter this quiz.");
-        } else if (loggedInUser.getUserTypeId().getUserTypeId() == 2) {
+        } else if (UserRole.STUDENT.matches(loggedInUser)) {
             boolean enrolled = enrollmentRepository.existsByStudentAndCourse(
                     studentRepository.findById(loggedInUser.getUserId())
                             .orElseThrow(() -> new IllegalArgumentException("No student found with this ID!")),
@@ -285,11 +372,15 @@ public class QuizServiceImpl implements QuizService {
         quizDto.setQuizId(quiz.getQuizId());
         quizDto.setTitle(quiz.getTitle());
         quizDto.setCreationDate(quiz.getCreationDate());
+        QuizScheduleService.QuizWindow window = quizScheduleService.windowOf(quiz);
+        quizDto.setOpensAt(new Date(window.opensAt()));
+        quizDto.setClosesAt(new Date(window.closesAt()));
         return quizDto;
 
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public void createQuestionBank(int course_id, List<QuestionDto> questions, HttpServletRequest request) throws Exception {
         logger.info("Creating question bank for course ID: {}", course_id);
 
@@ -303,12 +394,12 @@ public class QuizServiceImpl implements QuizService {
         }
 
         boolean instructor = courseRepository.findByInstructorId(loggedInUser.getUserId(), course_id);
-        if (loggedInUser.getUserTypeId().getUserTypeId() == 3 && !instructor) {
+        if (UserRole.INSTRUCTOR.matches(loggedInUser) && !instructor) {
             logger.warn("Instructor ID {} attempted unauthorized course access.", loggedInUser.getUserId());
             throw new IllegalArgumentException("You don't have permission to enter this course.");
         }
 
-        if (loggedInUser.getUserTypeId().getUserTypeId() == 2) {
+        if (UserRole.STUDENT.matches(loggedInUser)) {
             throw new Exception("You don't have access to this feature!");
         }
 
@@ -327,11 +418,16 @@ public class QuizServiceImpl implements QuizService {
             question.setCorrectAnswer(dto.getCorrectAnswer());
             question.setCourseId(course);
 
-            QuestionType questionType = questionTypeRepository.findById(dto.getType())
+            QuestionType questionType = referenceDataService.findQuestionTypeReference(dto.getType())
                     .orElseThrow(() -> new EntityNotFoundException("No such QuestionType " + dto.getType()));
             question.setQuestionType(questionType);
 
             questionRepository.save(question);
+            if (question.getQuiz() != null) {
+                // The question belongs to a quiz, whose cached answer key and paper are now stale
+                quizGradingEngine.evict(question.getQuiz().getQuizId());
+                quizPaperService.evict(question.getQuiz().getQuizId());
+            }
         }
 
         logger.info("Question bank created/updated successfully for course ID: {}", course_id);
@@ -350,9 +446,9 @@ public class QuizServiceImpl implements QuizService {
         Course course = courseRepository.findById(course_id)
                 .orElseThrow(() -> new IllegalArgumentException("No course found with the given ID: " + course_id));
 
-        if (loggedInUser.getUserTypeId().getUserTypeId() == 3 && !instructor) {
+        if (UserRole.INSTRUCTOR.matches(loggedInUser) && !instructor) {
             throw new IllegalArgumentException("You don't have permission to enter this course.");
-        } else if (loggedInUser.getUserTypeId().getUserTypeId() == 2) {
+        } else if (UserRole.STUDENT.matches(loggedInUser)) {
             throw new IllegalArgumentException("You don't have permission to enter this feature!");
         }
 
@@ -378,6 +474,7 @@ public class QuizServiceImpl implements QuizService {
         return quizDto;
     }
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public void gradeQuiz(GradingDto gradingDto, HttpServletRequest request) throws Exception {
         logger.info("Starting quiz grading for Quiz ID: {}", gradingDto.getQuizId());
 
@@ -399,13 +496,17 @@ public class QuizServiceImpl implements QuizService {
                 quiz.getCourse()
         );
 
-        if (loggedInUser.getUserTypeId().getUserTypeId() == 2) {
+        if (UserRole.STUDENT.matches(loggedInUser)) {
             if (!enrolled) {
                 logger.warn("Unauthorized attempt: student {} not enrolled in course {}.",
                         loggedInUser.getUserId(), quiz.getCourse().getCourseId());
                 throw new IllegalArgumentException("You don't have permission to enter this course.");
             }
-            if (quiz.getCreationDate().getTime() + 15 * 60 * 1000 < new Date().getTime()) {
+            QuizScheduleService.QuizWindow window = quizScheduleService.windowOf(quiz);
+            if (!window.hasOpened(clock.millis())) {
+                throw new IllegalArgumentException("The quiz has not started yet.");
+            }
+            if (window.hasClosed(clock.millis())) {
                 logger.warn("Quiz {} expired before grading attempt by student {}.",
                         quiz.getQuizId(), loggedInUser.getUserId());
                 throw new IllegalArgumentException("The quiz has been finished!");
@@ -422,27 +523,26 @@ public class QuizServiceImpl implements QuizService {
         Student student = studentRepository.findById(loggedInUser.getUserId())
                 .orElseThrow(() -> new IllegalArgumentException("No Student found with this ID!"));
 
-        // Fetch all quiz questions
-        List<Question> gradedQuestions = questionRepository.findQuestionsByQuizId(gradingDto.getQuizId());
-        List<String> answersList = gradingDto.getAnswers();
-        int grade = 0;
-
-        logger.info("Comparing answers for grading...");
-        for (int i = 0; i < gradedQuestions.size(); i++) {
-            if (Objects.equals(gradedQuestions.get(i).getCorrectAnswer(), answersList.get(i))) {
-                grade++;
-            }
-        }
+        // Scored in memory against the quiz's cached answer key
+        QuizScore score = quizGradingEngine.score(gradingDto);
+        int grade = score.grade();
 
         Grading grading = new Grading();
         grading.setGrade(grade);
         grading.setQuiz_id(quiz);
         grading.setStudent_id(student);
-        gradingRepository.save(grading);
+        try {
+            gradingRepository.save(grading);
+        } catch (DataIntegrityViolationException e) {
+            // Graded meanwhile by a concurrent request or the submission workers
+            throw new Exception("You have submitted a response earlier!");
+        }
+        quizGradeStatsService.record(quiz.getQuizId(), grading.getGradingId(), grade);
+        answerBatchRepository.insertAnswers(ItemAnalysisServiceImpl.answerRows(student.getUserAccountId(), score));
 
         int id = quiz.getQuizId();
         logger.info("Quiz ID {} graded successfully with grade: {}", id, grade);
-        notificationsService.sendNotification("Quiz " + id + " has been graded", loggedInUser.getUserId());
+        notificationsService.sendNotification(NotificationTemplate.QUIZ_GRADED, loggedInUser.getUserId(), id);
     }
 
 
@@ -463,12 +563,12 @@ public class QuizServiceImpl implements QuizService {
         boolean instructor = courseRepository.findByInstructorId(loggedInUser.getUserId(),
                 quiz.getCourse().getCourseId());
 
-        if (loggedInUser.getUserTypeId().getUserTypeId() == 3) {
+        if (UserRole.INSTRUCTOR.matches(loggedInUser)) {
             if (!instructor) {
                 logger.warn("Instructor {} not authorized to access quiz {}", loggedInUser.getUserId(), quiz_id);
                 throw new IllegalArgumentException("You don't have permission to enter this quiz.");
             }
-        } else if (loggedInUser.getUserTypeId().getUserTypeId() == 2) {
+        } else if (UserRole.STUDENT.matches(loggedInUser)) {
             boolean enrolled = enrollmentRepository.existsByStudentAndCourse(
                     studentRepository.findById(loggedInUser.getUserId())
                             .orElseThrow(() -> new IllegalArgumentException("No student found with this ID!")),
@@ -505,15 +605,13 @@ public class QuizServiceImpl implements QuizService {
 
         if (quizRepository.existsById(quizId)) {
             Quiz quiz = quizRepository.findById(quizId).get();
-            List<Grading> quizGrades = gradingRepository.findAllByQuizId(quiz);
             Users loggedInInstructor = (Users) request.getSession().getAttribute("user");
             int instructorId = quiz.getCourse().getInstructorId().getUserAccountId();
 
             if (loggedInInstructor == null) {
                 logger.error("Attempt to fetch quiz grades without login.");
                 throw new IllegalArgumentException("No logged in user is found.");
-            } else if (loggedInInstructor.getUserTypeId() == null ||
-                    loggedInInstructor.getUserTypeId().getUserTypeId() != 3) {
+            } else if (!UserRole.INSTRUCTOR.matches(loggedInInstructor)) {
                 logger.warn("Unauthorized access: User {} is not an instructor.", loggedInInstructor.getUserId());
                 throw new IllegalArgumentException("Logged-in user is not an instructor.");
             } else if (instructorId != loggedInInstructor.getUserId()) {
@@ -521,11 +619,10 @@ public class QuizServiceImpl implements QuizService {
                 throw new IllegalArgumentException("Logged-in instructor does not have access for this quiz grades.");
             }
 
+            // Student id and grade only; no Grading or Student entities are loaded
             List<String> grades = new ArrayList<>();
-            for (Grading grading : quizGrades) {
-                Student student = grading.getStudent_id();
-                String studentGrade = "(ID)" + student.getUserAccountId() + ": (Grade)" + grading.getGrade();
-                grades.add(studentGrade);
+            for (Object[] row : gradingRepository.findStudentGradeRowsByQuizId(quizId)) {
+                grades.add("(ID)" + row[0] + ": (Grade)" + row[1]);
             }
 
             logger.info("Successfully fetched {} grades for Quiz ID: {}", grades.size(), quizId);
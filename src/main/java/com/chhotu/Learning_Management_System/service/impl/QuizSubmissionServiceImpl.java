@@ -0,0 +1,372 @@
+package com.chhotu.Learning_Management_System.service.impl;
+
+import com.chhotu.Learning_Management_System.dto.GradingDto;
+import com.chhotu.Learning_Management_System.dto.QuizSubmissionDto;
+import com.chhotu.Learning_Management_System.entity.NotificationTemplate;
+import com.chhotu.Learning_Management_System.entity.QuizSubmission;
+import com.chhotu.Learning_Management_System.entity.UserRole;
+import com.chhotu.Learning_Management_System.entity.Users;
+import com.chhotu.Learning_Management_System.repository.AnswerBatchRepository;
+import com.chhotu.Learning_Management_System.repository.QuizRepository;
+import com.chhotu.Learning_Management_System.repository.QuizSubmissionBatchRepository;
+import com.chhotu.Learning_Management_System.repository.QuizSubmissionRepository;
+import com.chhotu.Learning_Management_System.service.NotificationsService;
+import com.chhotu.Learning_Management_System.service.QuizGradeStatsService;
+import com.chhotu.Learning_Management_System.service.QuizScheduleService;
+import com.chhotu.Learning_Management_System.service.QuizSubmissionService;
+import com.chhotu.Learning_Management_System.service.grading.QuizGradingEngine;
+import com.chhotu.Learning_Management_System.service.grading.QuizScore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingest path for quiz submissions during end-of-quiz bursts. Accepting a submission costs one
+ * insert: the quiz window comes from the in-memory schedule (or, for a quiz this instance does not
+ * track yet, from the quiz row), and enrollment, duplicate and grading
+ * work is left to a small pool of workers. Workers drain the queue in batches, check enrollment and
+ * earlier grades with one query each per quiz, score in memory against the cached answer key, and
+ * store all grades and outcomes of the batch with two JDBC batch statements.
+ * <p>
+ * The queue only holds submission ids. Anything it cannot take, or loses on restart, is still
+ * PENDING in the database and is re-queued by the sweeper.
+ */
+@Service
+public class QuizSubmissionServiceImpl implements QuizSubmissionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuizSubmissionServiceImpl.class);
+
+    private static final int MAX_KEY_LENGTH = 64;
+    // Pending rows younger than this are assumed to still be in some worker's queue
+    private static final long SWEEP_GRACE_MS = 30_000L;
+
+    private final QuizSubmissionRepository quizSubmissionRepository;
+    private final QuizSubmissionBatchRepository quizSubmissionBatchRepository;
+    private final QuizRepository quizRepository;
+    private final QuizScheduleService quizScheduleService;
+    private final QuizGradingEngine quizGradingEngine;
+    private final NotificationsService notificationsService;
+    private final QuizGradeStatsService quizGradeStatsService;
+    private final ObjectMapper objectMapper;
+    private final TaskExecutor gradingExecutor;
+    private final Clock clock;
+    private final int workers;
+    private final int batchSize;
+
+    private final BlockingQueue<Integer> queue;
+    // Ids that are queued or being graded, so the sweeper never hands one out twice
+    private final Set<Integer> inFlight = ConcurrentHashMap.newKeySet();
+    private volatile boolean running;
+
+    public QuizSubmissionServiceImpl(QuizSubmissionRepository quizSubmissionRepository,
+                                     QuizSubmissionBatchRepository quizSubmissionBatchRepository,
+                                     QuizRepository quizRepository,
+                                     QuizScheduleService quizScheduleService,
+                                     QuizGradingEngine quizGradingEngine,
+                                     NotificationsService notificationsService,
+                                     QuizGradeStatsService quizGradeStatsService,
+                                     ObjectMapper objectMapper,
+                                     @Qualifier("quizGradingExecutor") TaskExecutor gradingExecutor,
+                                     Clock clock,
+                                     @Value("${lms.quiz.submissions.workers:4}") int workers,
+                                     @Value("${lms.quiz.submissions.batch-size:100}") int batchSize,
+                                     @Value("${lms.quiz.submissions.queue-capacity:10000}") int queueCapacity) {
+        this.quizSubmissionRepository = quizSubmissionRepository;
+        this.quizSubmissionBatchRepository = quizSubmissionBatchRepository;
+        this.quizRepository = quizRepository;
+        this.quizScheduleService = quizScheduleService;
+        this.quizGradingEngine = quizGradingEngine;
+        this.notificationsService = notificationsService;
+        this.quizGradeStatsService = quizGradeStatsService;
+        this.objectMapper = objectMapper;
+        this.gradingExecutor = gradingExecutor;
+        this.clock = clock;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWorkers() {
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            gradingExecutor.execute(this::workLoop);
+        }
+        logger.info("Started {} quiz submission workers", workers);
+    }
+
+    @PreDestroy
+    public void stopWorkers() {
+        running = false;
+    }
+
+    @Override
+    public QuizSubmissionDto submit(GradingDto gradingDto, String idempotencyKey, HttpServletRequest request) {
+        Users loggedInUser = (Users) request.getSession().getAttribute("user");
+        if (loggedInUser == null) {
+            throw new IllegalArgumentException("No user is logged in.");
+        }
+        if (!UserRole.STUDENT.matches(loggedInUser)) {
+            throw new IllegalArgumentException("You are not authorized to submit quizzes!");
+        }
+
+        int quizId = gradingDto.getQuizId();
+        String key = idempotencyKey == null || idempotencyKey.isBlank() ? "quiz-" + quizId : idempotencyKey.trim();
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency key must be at most " + MAX_KEY_LENGTH + " characters.");
+        }
+
+        QuizScheduleService.QuizWindow window = quizScheduleService.findTrackedWindow(quizId);
+        if (window == null) {
+            // Created on another instance or not reloaded yet after a restart; the quiz row is authoritative
+            window = quizRepository.findById(quizId).map(quizScheduleService::windowOf).orElse(null);
+        }
+        if (window == null || !window.isOpenAt(clock.millis())) {
+            // A retry after the quiz closed still gets the result of the original submission
+            return quizSubmissionRepository.findByQuizIdAndStudentId(quizId, loggedInUser.getUserId())
+                    .filter(existing -> existing.getIdempotencyKey().equals(key))
+                    .map(this::toDto)
+                    .orElseThrow(() -> new IllegalArgumentException("The quiz is not open for submissions."));
+        }
+
+        gradingDto.setStudentId(loggedInUser.getUserId());
+        String answers;
+        try {
+            answers = objectMapper.writeValueAsString(gradingDto);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid answers: " + e.getOriginalMessage());
+        }
+
+        QuizSubmission submission = new QuizSubmission(quizId, window.courseId(), loggedInUser.getUserId(), key, answers, new Date());
+        try {
+            quizSubmissionRepository.save(submission);
+        } catch (DataIntegrityViolationException e) {
+            // Same student and quiz already submitted; a retry with the same key is answered with the original
+            // No submission for this quiz means the key itself collided with the student's submission of another quiz
+            QuizSubmission existing = quizSubmissionRepository.findByQuizIdAndStudentId(quizId, loggedInUser.getUserId())
+                    .orElseThrow(() -> new IllegalArgumentException("This idempotency key was already used for another quiz."));
+            if (!existing.getIdempotencyKey().equals(key)) {
+                throw new IllegalArgumentException("You have submitted a response earlier!");
+            }
+            return toDto(existing);
+        }
+
+        enqueue(submission.getSubmissionId());
+        logger.info("Accepted submission {} for quiz ID {} from student {}", submission.getSubmissionId(), quizId, loggedInUser.getUserId());
+        return toDto(submission);
+    }
+
+    @Override
+    public QuizSubmissionDto getSubmission(int submissionId, HttpServletRequest request) {
+        Users loggedInUser = (Users) request.getSession().getAttribute("user");
+        if (loggedInUser == null) {
+            throw new IllegalArgumentException("No user is logged in.");
+        }
+        QuizSubmission submission = quizSubmissionRepository.findById(submissionId)
+                .orElseThrow(() -> new IllegalArgumentException("No submission found with ID: " + submissionId));
+        if (submission.getStudentId() != loggedInUser.getUserId()) {
+            throw new IllegalArgumentException("You don't have permission to view this submission.");
+        }
+        return toDto(submission);
+    }
+
+    /**
+     * Re-queues pending submissions the workers have not picked up: ones the queue was too full to
+     * take, and ones left behind by a restart or a failed batch.
+     */
+    @Scheduled(fixedDelayString = "${lms.quiz.submissions.sweep-interval-ms:15000}")
+    public void sweepPending() {
+        if (!running) {
+            return;
+        }
+        Date cutoff = new Date(System.currentTimeMillis() - SWEEP_GRACE_MS);
+        int requeued = 0;
+        for (Integer id : quizSubmissionRepository.findPendingIdsSubmittedBefore(cutoff, PageRequest.of(0, batchSize * workers))) {
+            if (enqueue(id)) {
+                requeued++;
+            }
+        }
+        if (requeued > 0) {
+            logger.info("Re-queued {} pending quiz submissions", requeued);
+        }
+    }
+
+    /**
+     * Grades one batch of submissions and stores every outcome.
+     */
+    public void gradeBatch(List<Integer> submissionIds) {
+        Map<Integer, List<QuizSubmission>> byQuiz = new LinkedHashMap<>();
+        for (QuizSubmission submission : quizSubmissionRepository.findAllById(submissionIds)) {
+            if (submission.getStatus() == QuizSubmission.Status.PENDING) {
+                byQuiz.computeIfAbsent(submission.getQuizId(), id -> new ArrayList<>()).add(submission);
+            }
+        }
+
+        Date now = new Date();
+        for (Map.Entry<Integer, List<QuizSubmission>> entry : byQuiz.entrySet()) {
+            int quizId = entry.getKey();
+            List<QuizSubmission> submissions = entry.getValue();
+            List<Integer> studentIds = submissions.stream().map(QuizSubmission::getStudentId).toList();
+            Set<Integer> enrolled = quizSubmissionBatchRepository.findEnrolledStudentIds(submissions.get(0).getCourseId(), studentIds);
+            Set<Integer> alreadyGraded = quizSubmissionBatchRepository.findGradedStudentIds(quizId, studentIds);
+
+            List<QuizSubmission> graded = new ArrayList<>();
+            List<QuizSubmission> rejected = new ArrayList<>();
+            List<AnswerBatchRepository.AnswerRow> answers = new ArrayList<>();
+            for (QuizSubmission submission : submissions) {
+                if (!enrolled.contains(submission.getStudentId())) {
+                    reject(submission, "You are not enrolled in this course.", rejected);
+                } else if (alreadyGraded.contains(submission.getStudentId())) {
+                    reject(submission, "You have submitted a response earlier!", rejected);
+                } else {
+                    try {
+                        GradingDto submitted = objectMapper.readValue(submission.getAnswers(), GradingDto.class);
+                        QuizScore score = quizGradingEngine.score(submitted);
+                        submission.setGrade(score.grade());
+                        graded.add(submission);
+                        answers.addAll(ItemAnalysisServiceImpl.answerRows(submission.getStudentId(), score));
+                    } catch (JsonProcessingException e) {
+                        reject(submission, "Stored answers could not be read.", rejected);
+                    } catch (RuntimeException e) {
+                        // Left PENDING for the sweeper without holding back the rest of the batch
+                        logger.error("Scoring submission {} of quiz ID {} failed", submission.getSubmissionId(), quizId, e);
+                    }
+                }
+            }
+
+            QuizSubmissionBatchRepository.Completion completion;
+            try {
+                completion = quizSubmissionBatchRepository.complete(graded, rejected, answers, now);
+            } catch (RuntimeException e) {
+                logger.warn("Storing {} outcomes of quiz ID {} failed, storing them one at a time",
+                        graded.size() + rejected.size(), quizId, e);
+                completion = completeEach(graded, rejected, answers, now);
+            }
+
+            List<QuizSubmission> stored = completion.graded();
+            for (int i = 0; i < stored.size(); i++) {
+                quizGradeStatsService.record(quizId, completion.gradingIds().get(i), stored.get(i).getGrade());
+            }
+            if (!stored.isEmpty()) {
+                notificationsService.fanOutNotification(NotificationTemplate.QUIZ_GRADED,
+                        stored.stream().map(QuizSubmission::getStudentId).toList(), quizId);
+            }
+            logger.info("Quiz ID {}: graded {} submissions, rejected {}", quizId, stored.size(), rejected.size());
+        }
+    }
+
+    /**
+     * Stores each outcome in its own transaction, so one bad submission does not hold back the others.
+     * A submission whose grade the database refuses is rejected; one that fails for any other reason
+     * stays PENDING for the sweeper.
+     */
+    private QuizSubmissionBatchRepository.Completion completeEach(List<QuizSubmission> graded, List<QuizSubmission> rejected,
+                                                                   List<AnswerBatchRepository.AnswerRow> answers, Date now) {
+        List<QuizSubmission> stored = new ArrayList<>();
+        List<Integer> gradingIds = new ArrayList<>();
+        for (QuizSubmission submission : graded) {
+            List<AnswerBatchRepository.AnswerRow> rows = answers.stream()
+                    .filter(a -> a.studentId() == submission.getStudentId()).toList();
+            try {
+                QuizSubmissionBatchRepository.Completion one =
+                        quizSubmissionBatchRepository.complete(List.of(submission), List.of(), rows, now);
+                stored.addAll(one.graded());
+                gradingIds.addAll(one.gradingIds());
+            } catch (DataIntegrityViolationException e) {
+                // The grade already exists, stored by the synchronous grading endpoint
+                submission.setGrade(null);
+                completeOne(submission, "You have submitted a response earlier!", now);
+            } catch (NonTransientDataAccessException e) {
+                logger.error("Grade of submission {} was refused", submission.getSubmissionId(), e);
+                submission.setGrade(null);
+                completeOne(submission, "Submission could not be graded.", now);
+            } catch (RuntimeException e) {
+                logger.error("Storing the grade of submission {} failed", submission.getSubmissionId(), e);
+            }
+        }
+        for (QuizSubmission submission : rejected) {
+            completeOne(submission, submission.getError(), now);
+        }
+        return new QuizSubmissionBatchRepository.Completion(stored, gradingIds);
+    }
+
+    private void completeOne(QuizSubmission submission, String error, Date now) {
+        submission.setError(error);
+        try {
+            quizSubmissionBatchRepository.complete(List.of(), List.of(submission), List.of(), now);
+        } catch (RuntimeException e) {
+            logger.error("Rejecting submission {} failed", submission.getSubmissionId(), e);
+        }
+    }
+
+    private void reject(QuizSubmission submission, String error, List<QuizSubmission> rejected) {
+        submission.setError(error);
+        rejected.add(submission);
+    }
+
+    private boolean enqueue(int submissionId) {
+        if (!inFlight.add(submissionId)) {
+            return false;
+        }
+        if (!queue.offer(submissionId)) {
+            // Left PENDING in the database; the sweeper will offer it again
+            inFlight.remove(submissionId);
+            return false;
+        }
+        return true;
+    }
+
+    private void workLoop() {
+        List<Integer> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Integer first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                gradeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // The batch stays PENDING and is picked up again by the sweeper
+                logger.error("Grading batch of {} quiz submissions failed", batch.size(), e);
+            } finally {
+                batch.forEach(inFlight::remove);
+                batch.clear();
+            }
+        }
+    }
+
+    private QuizSubmissionDto toDto(QuizSubmission submission) {
+        return new QuizSubmissionDto(submission.getSubmissionId(), submission.getQuizId(), submission.getStatus().name(),
+                submission.getGrade(), submission.getError(), submission.getSubmittedAt(), submission.getGradedAt());
+    }
+}
@@ -0,0 +1,162 @@
+package com.chhotu.Learning_Management_System.service.impl;
+
+import com.chhotu.Learning_Management_System.entity.QuestionType;
+import com.chhotu.Learning_Management_System.entity.QuestionType.QuestionTypeEnum;
+import com.chhotu.Learning_Management_System.entity.UserRole;
+import com.chhotu.Learning_Management_System.entity.Users;
+import com.chhotu.Learning_Management_System.entity.UsersType;
+import com.chhotu.Learning_Management_System.repository.QuestionTypeRepository;
+import com.chhotu.Learning_Management_System.repository.UsersTypeRepository;
+import com.chhotu.Learning_Management_System.service.ReferenceDataService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Loads the user type and question type tables once, at startup, into an immutable snapshot.
+ * Lookups read the current snapshot without locking; a reload builds a complete new snapshot
+ * and swaps it in with a single volatile write, so readers never see a half-loaded state.
+ */
+@Service
+public class ReferenceDataServiceImpl implements ReferenceDataService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataServiceImpl.class);
+
+    private final UsersTypeRepository usersTypeRepository;
+    private final QuestionTypeRepository questionTypeRepository;
+    private volatile Snapshot snapshot;
+
+    public ReferenceDataServiceImpl(UsersTypeRepository usersTypeRepository,
+                                    QuestionTypeRepository questionTypeRepository) {
+        this.usersTypeRepository = usersTypeRepository;
+        this.questionTypeRepository = questionTypeRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    @Override
+    public Optional<UsersType> findUsersType(int userTypeId) {
+        return Optional.ofNullable(snapshot().usersTypesById().get(userTypeId));
+    }
+
+    @Override
+    public UsersType getUsersType(UserRole role) {
+        UsersType usersType = snapshot().usersTypes().get(role);
+        if (usersType == null) {
+            throw new IllegalStateException("users_type has no row for " + role);
+        }
+        return usersType;
+    }
+
+    @Override
+    public Optional<QuestionType> findQuestionType(int typeId) {
+        return Optional.ofNullable(snapshot().questionTypesById().get(typeId));
+    }
+
+    @Override
+    public QuestionType getQuestionType(QuestionTypeEnum type) {
+        QuestionType questionType = snapshot().questionTypes().get(type);
+        if (questionType == null) {
+            throw new IllegalStateException("question_type has no row for " + type);
+        }
+        return questionType;
+    }
+
+    @Override
+    public Optional<UsersType> findUsersTypeReference(int userTypeId) {
+        return findUsersType(userTypeId).map(type -> usersTypeRepository.getReferenceById(type.getUserTypeId()));
+    }
+
+    @Override
+    public Optional<QuestionType> findQuestionTypeReference(int typeId) {
+        return findQuestionType(typeId).map(type -> questionTypeRepository.getReferenceById(type.getTypeId()));
+    }
+
+    @Override
+    public synchronized String reload() {
+        List<UsersType> usersTypes = usersTypeRepository.findAll();
+        List<QuestionType> questionTypes = questionTypeRepository.findAll();
+
+        Map<Integer, UsersType> usersTypesById = new HashMap<>();
+        Map<UserRole, UsersType> usersTypesByRole = new EnumMap<>(UserRole.class);
+        for (UsersType usersType : usersTypes) {
+            usersTypesById.put(usersType.getUserTypeId(), usersType);
+            UserRole role = UserRole.fromId(usersType.getUserTypeId());
+            if (role != null) {
+                usersTypesByRole.put(role, usersType);
+            }
+        }
+        Map<Integer, QuestionType> questionTypesById = new HashMap<>();
+        Map<QuestionTypeEnum, QuestionType> questionTypesByEnum = new EnumMap<>(QuestionTypeEnum.class);
+        for (QuestionType questionType : questionTypes) {
+            questionTypesById.put(questionType.getTypeId(), questionType);
+            if (questionType.getTypeName() != null) {
+                questionTypesByEnum.put(questionType.getTypeName(), questionType);
+            }
+        }
+
+        for (UserRole role : UserRole.values()) {
+            if (!usersTypesByRole.containsKey(role)) {
+                logger.warn("users_type has no row with id {} for role {}", role.getId(), role);
+            }
+        }
+        for (QuestionTypeEnum type : QuestionTypeEnum.values()) {
+            if (!questionTypesByEnum.containsKey(type)) {
+                logger.warn("question_type has no row for {}", type);
+            }
+        }
+
+        snapshot = new Snapshot(
+                Map.copyOf(usersTypesById),
+                Collections.unmodifiableMap(usersTypesByRole),
+                Map.copyOf(questionTypesById),
+                Collections.unmodifiableMap(questionTypesByEnum));
+
+        String summary = "Loaded " + usersTypes.size() + " user types and " + questionTypes.size() + " question types";
+        logger.info(summary);
+        return summary;
+    }
+
+    @Override
+    public String reload(HttpServletRequest request) {
+        Users loggedInUser = (Users) request.getSession().getAttribute("user");
+        if (loggedInUser == null) {
+            throw new IllegalArgumentException("No user is logged in.");
+        }
+        if (!UserRole.ADMIN.matches(loggedInUser)) {
+            throw new IllegalArgumentException("Only admins can reload reference data.");
+        }
+        return reload();
+    }
+
+    /**
+     * Loads on first use when a lookup arrives before the application ready event.
+     */
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            reload();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    private record Snapshot(Map<Integer, UsersType> usersTypesById,
+                            Map<UserRole, UsersType> usersTypes,
+                            Map<Integer, QuestionType> questionTypesById,
+                            Map<QuestionTypeEnum, QuestionType> questionTypes) {
+    }
+}
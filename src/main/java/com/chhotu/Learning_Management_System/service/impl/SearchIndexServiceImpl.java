@@ -0,0 +1,398 @@
+package com.chhotu.Learning_Management_System.service.impl;
+
+import com.chhotu.Learning_Management_System.dto.SearchHitDto;
+import com.chhotu.Learning_Management_System.entity.Course;
+import com.chhotu.Learning_Management_System.entity.Lesson;
+import com.chhotu.Learning_Management_System.entity.UserRole;
+import com.chhotu.Learning_Management_System.entity.Users;
+import com.chhotu.Learning_Management_System.repository.CourseRepository;
+import com.chhotu.Learning_Management_System.repository.EnrollmentRepository;
+import com.chhotu.Learning_Management_System.repository.LessonRepository;
+import com.chhotu.Learning_Management_System.service.SearchIndexService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over course names and descriptions and lesson names, descriptions and
+ * content. Each term maps to the documents containing it with a field-weighted frequency, and terms
+ * are kept sorted so a query word also matches the terms it is a prefix of. Documents must contain
+ * every query word; they are ranked by saturated term weight times inverse document frequency, with
+ * prefix matches counting for half. The index is built from two projection queries at startup and
+ * rebuilt periodically, which also picks up changes made by other instances; in between, course and
+ * lesson writes update it once their transaction commits. Lessons are only returned from courses the
+ * caller may read them in: students see their enrolled courses and instructors the courses they teach.
+ */
+@Service
+public class SearchIndexServiceImpl implements SearchIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexServiceImpl.class);
+
+    static final int DEFAULT_LIMIT = 20;
+    static final int MAX_LIMIT = 100;
+
+    private static final int MAX_QUERY_WORDS = 8;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MAX_TERM_LENGTH = 40;
+    private static final double PREFIX_MATCH_WEIGHT = 0.5;
+    private static final double SATURATION = 1.2;
+
+    private static final int NAME_WEIGHT = 4;
+    private static final int DESCRIPTION_WEIGHT = 2;
+    private static final int CONTENT_WEIGHT = 1;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+            "of", "on", "or", "the", "to", "with");
+
+    private final CourseRepository courseRepository;
+    private final LessonRepository lessonRepository;
+    private final EnrollmentRepository enrollmentRepository;
+
+    // Swapped by rebuild(); changed only through apply()
+    private volatile Index index = new Index();
+
+    // Changes made while a rebuild reads the database, replayed onto the new index; guarded by this
+    private List<Consumer<Index>> changesDuringRebuild;
+
+    public SearchIndexServiceImpl(CourseRepository courseRepository, LessonRepository lessonRepository,
+                                  EnrollmentRepository enrollmentRepository) {
+        this.courseRepository = courseRepository;
+        this.lessonRepository = lessonRepository;
+        this.enrollmentRepository = enrollmentRepository;
+    }
+
+    /**
+     * Builds a fresh index from the database and swaps it in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${lms.search.rebuild-interval-ms:3600000}", fixedDelayString = "${lms.search.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        synchronized (this) {
+            if (changesDuringRebuild != null) {
+                return;
+            }
+            changesDuringRebuild = new ArrayList<>();
+        }
+
+        Index fresh = new Index();
+        boolean loaded = false;
+        try {
+            for (Object[] row : courseRepository.findSearchRows()) {
+                fresh.put(courseDocument((Integer) row[0], (String) row[1], (String) row[2]));
+            }
+            for (Object[] row : lessonRepository.findSearchRows()) {
+                fresh.put(lessonDocument((Integer) row[0], row[1] == null ? 0 : (Integer) row[1],
+                        (String) row[2], (String) row[3], (String) row[4]));
+            }
+            loaded = true;
+        } finally {
+            synchronized (this) {
+                if (loaded) {
+                    // Replaying is safe even for changes the queries already saw: puts replace and removes are idempotent
+                    changesDuringRebuild.forEach(change -> change.accept(fresh));
+                    index = fresh;
+                }
+                changesDuringRebuild = null;
+            }
+        }
+        logger.info("Search index rebuilt with {} documents and {} terms", fresh.documentCount(), fresh.termCount());
+    }
+
+    @Override
+    public List<SearchHitDto> search(String query, Integer limit, HttpServletRequest request) {
+        Users loggedInUser = (Users) request.getSession().getAttribute("user");
+        if (loggedInUser == null) {
+            throw new IllegalArgumentException("No user is logged in.");
+        }
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be empty.");
+        }
+
+        List<String> words = terms(query).stream().distinct().limit(MAX_QUERY_WORDS).toList();
+        int maxHits = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<SearchHitDto> hits = words.isEmpty() ? List.of() : index.search(words, maxHits, lessonCourses(loggedInUser));
+        logger.info("Search for '{}' returned {} hits", query, hits.size());
+        return hits;
+    }
+
+    /**
+     * Courses whose lessons the user may see in results, or null for all of them.
+     */
+    private Set<Integer> lessonCourses(Users user) {
+        if (UserRole.STUDENT.matches(user)) {
+            return new HashSet<>(enrollmentRepository.findCourseIdsByStudentId(user.getUserId()));
+        }
+        if (UserRole.INSTRUCTOR.matches(user)) {
+            return new HashSet<>(courseRepository.findCourseIdsByInstructorId(user.getUserId()));
+        }
+        return null;
+    }
+
+    @Override
+    public void indexCourse(Course course) {
+        Document document = courseDocument(course.getCourseId(), course.getCourseName(), course.getDescription());
+        afterCommit(index -> index.put(document));
+    }
+
+    @Override
+    public void indexLesson(Lesson lesson) {
+        Document document = lessonDocument(lesson.getLessonId(),
+                lesson.getCourseId() == null ? 0 : lesson.getCourseId().getCourseId(),
+                lesson.getLessonName(), lesson.getLessonDescription(), lesson.getContent());
+        afterCommit(index -> index.put(document));
+    }
+
+    @Override
+    public void removeCourse(int courseId) {
+        afterCommit(index -> index.removeCourse(courseId));
+    }
+
+    @Override
+    public void removeLesson(int lessonId) {
+        afterCommit(index -> index.remove(new DocumentKey(DocumentType.LESSON, lessonId)));
+    }
+
+    private void afterCommit(Consumer<Index> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Applying before commit would make a rolled back write searchable
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private synchronized void apply(Consumer<Index> change) {
+        change.accept(index);
+        if (changesDuringRebuild != null) {
+            changesDuringRebuild.add(change);
+        }
+    }
+
+    private static Document courseDocument(int courseId, String name, String description) {
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, name, NAME_WEIGHT);
+        addTerms(terms, description, DESCRIPTION_WEIGHT);
+        return new Document(new DocumentKey(DocumentType.COURSE, courseId), courseId, name, description, terms);
+    }
+
+    private static Document lessonDocument(int lessonId, int courseId, String name, String description, String content) {
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, name, NAME_WEIGHT);
+        addTerms(terms, description, DESCRIPTION_WEIGHT);
+        addTerms(terms, content, CONTENT_WEIGHT);
+        return new Document(new DocumentKey(DocumentType.LESSON, lessonId), courseId, name, description, terms);
+    }
+
+    private static void addTerms(Map<String, Integer> terms, String text, int weight) {
+        for (String term : terms(text)) {
+            terms.merge(term, weight, Integer::sum);
+        }
+    }
+
+    /**
+     * Lower-cased words of a text without accents or stop words, the same way for documents and queries.
+     */
+    static List<String> terms(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        List<String> terms = new ArrayList<>();
+        for (String word : NON_WORD.split(folded)) {
+            if (!word.isEmpty() && !STOP_WORDS.contains(word)) {
+                terms.add(word.length() > MAX_TERM_LENGTH ? word.substring(0, MAX_TERM_LENGTH) : word);
+            }
+        }
+        return terms;
+    }
+
+    private enum DocumentType {COURSE, LESSON}
+
+    private record DocumentKey(DocumentType type, int id) {
+    }
+
+    /**
+     * A searchable course or lesson; {@code terms} maps each term to its summed field weights.
+     */
+    private record Document(DocumentKey key, int courseId, String title, String description, Map<String, Integer> terms) {
+    }
+
+    private static final class Index {
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<DocumentKey, Document> documents = new HashMap<>();
+        private final NavigableMap<String, Map<DocumentKey, Integer>> postings = new TreeMap<>();
+        private final Map<Integer, Set<Integer>> lessonsByCourse = new HashMap<>();
+
+        void put(Document document) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(document.key());
+                documents.put(document.key(), document);
+                document.terms().forEach((term, weight) ->
+                        postings.computeIfAbsent(term, t -> new HashMap<>()).put(document.key(), weight));
+                if (document.key().type() == DocumentType.LESSON) {
+                    lessonsByCourse.computeIfAbsent(document.courseId(), id -> new HashSet<>()).add(document.key().id());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(DocumentKey key) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(key);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void removeCourse(int courseId) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(new DocumentKey(DocumentType.COURSE, courseId));
+                Set<Integer> lessons = lessonsByCourse.remove(courseId);
+                if (lessons != null) {
+                    for (int lessonId : lessons) {
+                        removeLocked(new DocumentKey(DocumentType.LESSON, lessonId));
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void removeLocked(DocumentKey key) {
+            Document old = documents.remove(key);
+            if (old == null) {
+                return;
+            }
+            for (String term : old.terms().keySet()) {
+                Map<DocumentKey, Integer> docs = postings.get(term);
+                if (docs != null) {
+                    docs.remove(key);
+                    if (docs.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+            if (key.type() == DocumentType.LESSON) {
+                Set<Integer> lessons = lessonsByCourse.get(old.courseId());
+                if (lessons != null) {
+                    lessons.remove(key.id());
+                    if (lessons.isEmpty()) {
+                        lessonsByCourse.remove(old.courseId());
+                    }
+                }
+            }
+        }
+
+        List<SearchHitDto> search(List<String> words, int limit, Set<Integer> lessonCourses) {
+            lock.readLock().lock();
+            try {
+                Map<DocumentKey, Double> scores = null;
+                for (String word : words) {
+                    Map<DocumentKey, Double> wordScores = new HashMap<>();
+                    for (String term : expand(word)) {
+                        Map<DocumentKey, Integer> docs = postings.get(term);
+                        double match = term.equals(word) ? 1.0 : PREFIX_MATCH_WEIGHT;
+                        double idf = Math.log(1 + (documents.size() - docs.size() + 0.5) / (docs.size() + 0.5));
+                        for (Map.Entry<DocumentKey, Integer> doc : docs.entrySet()) {
+                            if (scores != null && !scores.containsKey(doc.getKey())) {
+                                continue;
+                            }
+                            if (lessonCourses != null && doc.getKey().type() == DocumentType.LESSON
+                                    && !lessonCourses.contains(documents.get(doc.getKey()).courseId())) {
+                                continue;
+                            }
+                            int weight = doc.getValue();
+                            // A word counts once per document, through its best matching term
+                            wordScores.merge(doc.getKey(), match * idf * weight * (SATURATION + 1) / (weight + SATURATION), Math::max);
+                        }
+                    }
+                    if (scores == null) {
+                        scores = wordScores;
+                    } else {
+                        scores.keySet().retainAll(wordScores.keySet());
+                        scores.replaceAll((key, score) -> score + wordScores.get(key));
+                    }
+                    if (scores.isEmpty()) {
+                        return List.of();
+                    }
+                }
+
+                return scores.entrySet().stream()
+                        .sorted(Map.Entry.<DocumentKey, Double>comparingByValue().reversed()
+                                .thenComparing(entry -> entry.getKey().type())
+                                .thenComparingInt(entry -> entry.getKey().id()))
+                        .limit(limit)
+                        .map(entry -> {
+                            Document document = documents.get(entry.getKey());
+                            return new SearchHitDto(entry.getKey().type().name(), entry.getKey().id(), document.courseId(),
+                                    document.title(), document.description(), entry.getValue());
+                        })
+                        .toList();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * The word itself plus the terms it is a prefix of, keeping only the most common when there are many.
+         */
+        private List<String> expand(String word) {
+            if (word.length() < MIN_PREFIX_LENGTH) {
+                return postings.containsKey(word) ? List.of(word) : List.of();
+            }
+            SortedMap<String, Map<DocumentKey, Integer>> matches = postings.subMap(word, word + Character.MAX_VALUE);
+            if (matches.size() <= MAX_PREFIX_EXPANSIONS) {
+                return new ArrayList<>(matches.keySet());
+            }
+            List<String> terms = new ArrayList<>(matches.keySet());
+            terms.sort(Comparator.comparing((String term) -> !term.equals(word))
+                    .thenComparing(term -> -postings.get(term).size()));
+            return terms.subList(0, MAX_PREFIX_EXPANSIONS);
+        }
+
+        int documentCount() {
+            lock.readLock().lock();
+            try {
+                return documents.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int termCount() {
+            lock.readLock().lock();
+            try {
+                return postings.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package com.chhotu.Learning_Management_System.service.impl;
+
+import com.chhotu.Learning_Management_System.dto.StartUploadDto;
+import com.chhotu.Learning_Management_System.dto.UploadStatusDto;
+import com.chhotu.Learning_Management_System.entity.Assignment;
+import com.chhotu.Learning_Management_System.entity.Submission;
+import com.chhotu.Learning_Management_System.entity.SubmissionUpload;
+import com.chhotu.Learning_Management_System.entity.UserRole;
+import com.chhotu.Learning_Management_System.entity.Users;
+import com.chhotu.Learning_Management_System.repository.AssignmentRepository;
+import com.chhotu.Learning_Management_System.repository.EnrollmentRepository;
+import com.chhotu.Learning_Management_System.repository.SubmissionRepository;
+import com.chhotu.Learning_Management_System.repository.SubmissionUploadRepository;
+import com.chhotu.Learning_Management_System.service.SubmissionFileService;
+import com.chhotu.Learning_Management_System.util.FileDigests;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Stores assignment files uploaded in chunks. Each chunk is streamed from the request straight into
+ * a part file through a {@link FileChannel}, so heap use does not depend on the file size, and an
+ * interrupted upload resumes from the part file's length. Completed files are stored once per
+ * SHA-256 under {@code objects/}, so identical uploads share a single stored object. An object a
+ * student's new upload replaced is removed by the cleanup job once no submission refers to it.
+ */
+@Service
+public class SubmissionFileServiceImpl implements SubmissionFileService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubmissionFileServiceImpl.class);
+
+    private static final int CHUNK_TRANSFER_BYTES = 1 << 20;
+    // A replaced object stored or reused more recently than this may belong to an upload that is still committing
+    private static final long OBJECT_REUSE_GRACE_MS = 10 * 60 * 1000L;
+
+    private final SubmissionUploadRepository uploadRepository;
+    private final SubmissionRepository submissionRepository;
+    private final AssignmentRepository assignmentRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final Path incomingDir;
+    private final Path objectsDir;
+    private final long maxFileSize;
+    private final long expiryMs;
+    // Objects replaced by a newer upload, checked by the cleanup job; lost on restart, which only leaves the file behind
+    private final Queue<Path> releasedObjects = new ConcurrentLinkedQueue<>();
+    // Serialises storing and removing an object with the same name
+    private final Object[] objectLocks = new Object[64];
+
+    public SubmissionFileServiceImpl(SubmissionUploadRepository uploadRepository,
+                                     SubmissionRepository submissionRepository,
+                                     AssignmentRepository assignmentRepository,
+                                     EnrollmentRepository enrollmentRepository,
+                                     @Value("${lms.uploads.root:uploads}") String root,
+                                     @Value("${lms.uploads.max-file-size-bytes:2147483648}") long maxFileSize,
+                                     @Value("${lms.uploads.expiry-hours:48}") long expiryHours) {
+        this.uploadRepository = uploadRepository;
+        this.submissionRepository = submissionRepository;
+        this.assignmentRepository = assignmentRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.incomingDir = Paths.get(root, "incoming");
+        this.objectsDir = Paths.get(root, "objects");
+        this.maxFileSize = maxFileSize;
+        this.expiryMs = expiryHours * 3_600_000L;
+        for (int i = 0; i < objectLocks.length; i++) {
+            objectLocks[i] = new Object();
+        }
+    }
+
+    @Override
+    @Transactional
+    public UploadStatusDto startUpload(StartUploadDto upload, HttpServletRequest request) {
+        Users student = loggedInStudent(request);
+        if (upload.getFileName() == null || upload.getFileName().isBlank()) {
+            throw new IllegalArgumentException("File name is required");
+        }
+        if (upload.getTotalSize() <= 0 || upload.getTotalSize() > maxFileSize) {
+            throw new IllegalArgumentException("File size must be between 1 and " + maxFileSize + " bytes");
+        }
+
+        Assignment assignment = assignmentRepository.findById(upload.getAssignmentId())
+                .orElseThrow(() -> new IllegalArgumentException("Assignment not found"));
+        if (!enrollmentRepository.existsByStudentUserAccountIdAndCourseCourseId(student.getUserId(), assignment.getCourseID().getCourseId())) {
+            throw new IllegalArgumentException("You're not enrolled in this course");
+        }
+        if (!submissionRepository.existsByAssignmentAndStudent(upload.getAssignmentId(), student.getUserId())) {
+            throw new IllegalArgumentException("Submit the assignment before uploading its file");
+        }
+
+        SubmissionUpload existing = uploadRepository.findByAssignmentIdAndStudentId(upload.getAssignmentId(), student.getUserId())
+                .orElse(null);
+        if (existing != null) {
+            if (existing.getFileName().equals(upload.getFileName()) && existing.getTotalSize() == upload.getTotalSize()) {
+                existing.setLastActivityAt(new Date());
+                logger.info("Resuming upload {} for student ID {}", existing.getUploadId(), student.getUserId());
+                return status(existing);
+            }
+            // A different file replaces the unfinished one
+            discard(existing);
+            uploadRepository.flush();
+        }
+
+        SubmissionUpload created = uploadRepository.save(new SubmissionUpload(UUID.randomUUID().toString(),
+                upload.getAssignmentId(), student.getUserId(), upload.getFileName(), upload.getTotalSize(), new Date()));
+        logger.info("Started upload {} of {} bytes for assignment ID {} by student ID {}",
+                created.getUploadId(), created.getTotalSize(), created.getAssignmentId(), student.getUserId());
+        return status(created);
+    }
+
+    @Override
+    public UploadStatusDto getUploadStatus(String uploadId, HttpServletRequest request) {
+        return status(ownUpload(uploadId, request));
+    }
+
+    @Override
+    public UploadStatusDto writeChunk(String uploadId, long offset, InputStream chunk, HttpServletRequest request) {
+        SubmissionUpload upload = ownUpload(uploadId, request);
+        uploadRepository.recordActivity(uploadId, new Date());
+        Path part = partFile(upload);
+        try {
+            Files.createDirectories(incomingDir);
+            try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock lock = tryLock(channel)) {
+                long received = channel.size();
+                if (offset != received) {
+                    throw new IllegalArgumentException("Chunk must start at offset " + received);
+                }
+
+                ReadableByteChannel source = Channels.newChannel(chunk);
+                long position = offset;
+                long remaining = upload.getTotalSize() - offset;
+                while (remaining > 0) {
+                    long written = channel.transferFrom(source, position, Math.min(remaining, CHUNK_TRANSFER_BYTES));
+                    if (written <= 0) {
+                        break;
+                    }
+                    position += written;
+                    remaining -= written;
+                }
+                if (remaining == 0 && chunk.read() != -1) {
+                    channel.truncate(offset);
+                    throw new IllegalArgumentException("Chunk runs past the declared file size of " + upload.getTotalSize() + " bytes");
+                }
+                channel.force(false);
+                return status(upload, position, null, null);
+            }
+        } catch (IOException e) {
+            // Whatever reached the part file stays there; the client resumes from its length
+            throw new UncheckedIOException("Failed to store chunk of upload " + uploadId, e);
+        }
+    }
+
+    @Override
+    @Transactional
+    public UploadStatusDto completeUpload(String uploadId, String expectedSha256, HttpServletRequest request) {
+        SubmissionUpload upload = ownUpload(uploadId, request);
+        Path part = partFile(upload);
+        try {
+            long received = Files.exists(part) ? Files.size(part) : 0;
+            if (received != upload.getTotalSize()) {
+                throw new IllegalArgumentException("Upload is incomplete: " + received + " of " + upload.getTotalSize() + " bytes received");
+            }
+
+            String sha256 = FileDigests.sha256(part);
+            if (expectedSha256 != null && !expectedSha256.isBlank() && !expectedSha256.equalsIgnoreCase(sha256)) {
+                // The stored bytes are not what the client meant to send; it has to send them again from offset 0
+                Files.delete(part);
+                throw new IllegalArgumentException("Checksum mismatch, the file has to be uploaded again");
+            }
+
+            Path object = objectsDir.resolve(sha256.substring(0, 2)).resolve(sha256);
+            synchronized (objectLock(object)) {
+                if (Files.exists(object)) {
+                    // Marked as just used, so the cleanup job leaves it alone while this upload commits
+                    Files.setLastModifiedTime(object, FileTime.fromMillis(System.currentTimeMillis()));
+                    Files.delete(part);
+                    logger.info("Upload {} duplicates stored object {}", uploadId, sha256);
+                } else {
+                    Files.createDirectories(object.getParent());
+                    try {
+                        Files.move(part, object, StandardCopyOption.ATOMIC_MOVE);
+                    } catch (FileAlreadyExistsException e) {
+                        // Same content was stored concurrently
+                        Files.delete(part);
+                    }
+                }
+            }
+
+            Submission submission = submissionRepository.findByAssignmentAndStudent(upload.getAssignmentId(), upload.getStudentId())
+                    .orElseThrow(() -> new IllegalArgumentException("Student didn't submit this assignment"));
+            String previous = submission.getFilePath();
+            if (previous != null && !previous.equals(object.toString())) {
+                releaseAfterCommit(Paths.get(previous));
+            }
+            submission.setFilePath(object.toString());
+            submission.setSubmittedAt(new Date());
+            submissionRepository.save(submission);
+            uploadRepository.delete(upload);
+
+            logger.info("Upload {} stored as {} for assignment ID {} by student ID {}",
+                    uploadId, object, upload.getAssignmentId(), upload.getStudentId());
+            return status(upload, upload.getTotalSize(), sha256, object.toString());
+        } catch (NoSuchFileException e) {
+            // Another request completed or restarted this upload while this one was reading it
+            throw new IllegalArgumentException("Upload " + uploadId + " is already being completed");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store upload " + uploadId, e);
+        }
+    }
+
+    /**
+     * Removes uploads with no activity within the expiry period, with their part files, and stored
+     * objects that replaced uploads left without a submission.
+     */
+    @Scheduled(fixedDelayString = "${lms.uploads.cleanup-interval-ms:3600000}")
+    public void removeAbandonedUploads() {
+        try {
+            int removed = 0;
+            for (SubmissionUpload upload : uploadRepository.findInactiveSince(new Date(System.currentTimeMillis() - expiryMs))) {
+                discard(upload);
+                removed++;
+            }
+            if (removed > 0) {
+                logger.info("Removed {} abandoned uploads", removed);
+            }
+        } catch (Exception e) {
+            logger.error("Abandoned upload cleanup failed: {}", e.getMessage(), e);
+        }
+        removeReleasedObjects();
+    }
+
+    private void removeReleasedObjects() {
+        List<Path> released = new ArrayList<>();
+        for (Path path = releasedObjects.poll(); path != null; path = releasedObjects.poll()) {
+            released.add(path);
+        }
+
+        int removed = 0;
+        for (Path object : released) {
+            try {
+                synchronized (objectLock(object)) {
+                    if (submissionRepository.existsByFilePath(object.toString()) || !Files.exists(object)) {
+                        continue;
+                    }
+                    if (Files.getLastModifiedTime(object).toMillis() > System.currentTimeMillis() - OBJECT_REUSE_GRACE_MS) {
+                        releasedObjects.add(object);
+                        continue;
+                    }
+                    Files.delete(object);
+                    removed++;
+                }
+            } catch (Exception e) {
+                logger.warn("Could not remove replaced object {}: {}", object, e.getMessage());
+            }
+        }
+        if (removed > 0) {
+            logger.info("Removed {} replaced upload objects", removed);
+        }
+    }
+
+    /**
+     * Queues a replaced object for removal once the new file path is committed. Only files under
+     * {@code objects/} are touched; paths from before chunked uploads are left where they are.
+     */
+    private void releaseAfterCommit(Path previous) {
+        if (!previous.toAbsolutePath().normalize().startsWith(objectsDir.toAbsolutePath().normalize())) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    releasedObjects.add(previous);
+                }
+            });
+        } else {
+            releasedObjects.add(previous);
+        }
+    }
+
+    private Object objectLock(Path object) {
+        return objectLocks[Math.floorMod(object.getFileName().toString().hashCode(), objectLocks.length)];
+    }
+
+    private Users loggedInStudent(HttpServletRequest request) {
+        Users user = (Users) request.getSession().getAttribute("user");
+        if (user == null) {
+            throw new IllegalArgumentException("You are not logged in");
+        }
+        if (!UserRole.STUDENT.matches(user)) {
+            throw new IllegalArgumentException("You're not a student");
+        }
+        return user;
+    }
+
+    private SubmissionUpload ownUpload(String uploadId, HttpServletRequest request) {
+        Users student = loggedInStudent(request);
+        SubmissionUpload upload = uploadRepository.findById(uploadId)
+                .orElseThrow(() -> new IllegalArgumentException("Upload not found"));
+        if (upload.getStudentId() != student.getUserId()) {
+            // Same answer as a missing upload, so ids cannot be probed
+            throw new IllegalArgumentException("Upload not found");
+        }
+        return upload;
+    }
+
+    private void discard(SubmissionUpload upload) {
+        try {
+            Files.deleteIfExists(partFile(upload));
+        } catch (IOException e) {
+            logger.warn("Could not delete part file of upload {}: {}", upload.getUploadId(), e.getMessage());
+        }
+        uploadRepository.delete(upload);
+    }
+
+    private Path partFile(SubmissionUpload upload) {
+        return incomingDir.resolve(upload.getUploadId() + ".part");
+    }
+
+    private UploadStatusDto status(SubmissionUpload upload) {
+        try {
+            Path part = partFile(upload);
+            return status(upload, Files.exists(part) ? Files.size(part) : 0, null, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static UploadStatusDto status(SubmissionUpload upload, long receivedBytes, String sha256, String filePath) {
+        return new UploadStatusDto(upload.getUploadId(), upload.getFileName(), upload.getTotalSize(), receivedBytes, sha256, filePath);
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            FileLock lock = channel.tryLock();
+            if (lock != null) {
+                return lock;
+            }
+        } catch (OverlappingFileLockException e) {
+            // Held by another request in this process
+        }
+        throw new IllegalArgumentException("Another chunk of this upload is being written");
+    }
+}
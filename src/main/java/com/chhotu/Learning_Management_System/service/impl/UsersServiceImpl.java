@@ -4,6 +4,7 @@ import com.chhotu.Learning_Management_System.entity.*;
 import com.chhotu.Learning_Management_System.repository.*;
 import com.chhotu.Learning_Management_System.entity.*;
 import com.chhotu.Learning_Management_System.repository.*;
+import com.chhotu.Learning_Management_System.service.ReferenceDataService;
 import com.chhotu.Learning_Management_System.service.UsersService;
 import com.chhotu.Learning_Management_System.util.UserSignUpRequest;
 import jakarta.persistence.EntityNotFoundException;
@@ -12,6 +13,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Date;
 
@@ -26,20 +28,20 @@ public class UsersServiceImpl implements UsersService {
 
     private final UsersRepository usersRepository;
     private final PasswordEncoder passwordEncoder;
-    private final UsersTypeRepository usersTypeRepository;
+    private final ReferenceDataService referenceDataService;
     private final StudentRepository studentRepository;
     private final AdminRepository adminRepository;
     private final InstructorRepository instructorRepository;
 
     public UsersServiceImpl(UsersRepository usersRepository,
                             PasswordEncoder passwordEncoder,
-                            UsersTypeRepository usersTypeRepository,
+                            ReferenceDataService referenceDataService,
                             StudentRepository studentRepository,
                             AdminRepository adminRepository,
                             InstructorRepository instructorRepository) {
         this.passwordEncoder = passwordEncoder;
         this.usersRepository = usersRepository;
-        this.usersTypeRepository = usersTypeRepository;
+        this.referenceDataService = referenceDataService;
         this.studentRepository = studentRepository;
         this.adminRepository = adminRepository;
         this.instructorRepository = instructorRepository;
@@ -54,6 +56,7 @@ public class UsersServiceImpl implements UsersService {
      * @param request the HTTP request containing the logged-in admin session
      */
     @Override
+    @Transactional
     public void save(UserSignUpRequest signUpRequest, HttpServletRequest request) {
         logger.info("Attempting to create a new user with email: {}", signUpRequest.getEmail());
 
@@ -63,7 +66,7 @@ public class UsersServiceImpl implements UsersService {
             throw new IllegalArgumentException("Admin must logged in to create a new user");
         }
 
-        if (loggedInUser.getUserTypeId().getUserTypeId() != 1) {
+        if (!UserRole.ADMIN.matches(loggedInUser)) {
             logger.error("Unauthorized access: Non-admin user {} tried to create an account", loggedInUser.getEmail());
             throw new IllegalArgumentException("Admin only can create account");
         }
@@ -73,25 +76,25 @@ public class UsersServiceImpl implements UsersService {
             throw new IllegalArgumentException("Email already in use");
         }
 
-        UsersType userType = usersTypeRepository.findById(signUpRequest.getUserTypeId())
+        UsersType userType = referenceDataService.findUsersType(signUpRequest.getUserTypeId())
                 .orElseThrow(() -> new EntityNotFoundException("User Type not found"));
         logger.info("User type found: {}", userType.getUserTypeName());
 
         Users newUser = new Users(
                 signUpRequest.getEmail(),
                 passwordEncoder.encode(signUpRequest.getPassword()),
-                userType
+                referenceDataService.findUsersTypeReference(userType.getUserTypeId()).orElseThrow()
         );
         newUser.setRegistrationDate(new Date());
         usersRepository.save(newUser);
         logger.info("New user saved successfully: {}", newUser.getEmail());
 
         // Assign role-specific entity
-        if (newUser.getUserTypeId().getUserTypeId() == 1) {
+        if (UserRole.ADMIN.matches(newUser)) {
             adminRepository.save(new Admin(newUser));
             logger.info("Admin entity created for user: {}", newUser.getEmail());
         }
-        else if (newUser.getUserTypeId().getUserTypeId() == 2) {
+        else if (UserRole.STUDENT.matches(newUser)) {
             studentRepository.save(new Student(newUser));
             logger.info("Student entity created for user: {}", newUser.getEmail());
         } else {
@@ -0,0 +1,47 @@
+package com.chhotu.Learning_Management_System.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size-bounded cache that drops its least recently used entry once it is full. Every operation
+ * takes the cache's lock for a map lookup only, so values that are expensive to build must be
+ * built outside it (the in-memory caches here publish a future first and complete it afterwards).
+ */
+public final class BoundedCache<K, V> {
+
+    // Guarded by this; access order makes the eldest entry the least recently used one
+    private final LinkedHashMap<K, V> entries;
+
+    public BoundedCache(int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * @return the value already cached for the key, or null when {@code value} was added
+     */
+    public synchronized V putIfAbsent(K key, V value) {
+        return entries.putIfAbsent(key, value);
+    }
+
+    public synchronized V remove(K key) {
+        return entries.remove(key);
+    }
+
+    public synchronized boolean remove(K key, V value) {
+        return entries.remove(key, value);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,27 @@
+package com.chhotu.Learning_Management_System.util;
+
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Helpers for endpoints declared as {@code ResponseEntity<StreamingResponseBody>}. Spring only streams a
+ * body when the declared type says so; behind {@code ResponseEntity<?>} the body is handed to the JSON
+ * converter instead. Error replies of such endpoints therefore have to be streaming bodies too.
+ */
+public final class StreamingResponses {
+
+    private StreamingResponses() {
+    }
+
+    public static ResponseEntity<StreamingResponseBody> text(HttpStatusCode status, String message) {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        return ResponseEntity.status(status)
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .contentLength(bytes.length)
+                .body(out -> out.write(bytes));
+    }
+}
@@ -0,0 +1,73 @@
+package com.chhotu.Learning_Management_System.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Version of a JSON representation, read with a one-row query before the representation itself.
+ * Read endpoints compare it with the client's validators first and answer 304 Not Modified without
+ * loading or serializing any entity when the client's copy is current.
+ *
+ * @param tag          opaque version string, unique per resource and version
+ * @param lastModified last change as epoch milliseconds, or -1 when unknown
+ */
+public record VersionStamp(String tag, long lastModified) {
+
+    // Clients may keep a copy but must revalidate it on every use; the data is per-user, so not in shared caches
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    public String etag() {
+        return "W/\"" + tag + "\"";
+    }
+
+    /**
+     * Whether the copy the client holds is current: If-None-Match when sent, otherwise If-Modified-Since.
+     */
+    public boolean isNotModified(HttpServletRequest request) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String candidate : ifNoneMatch.split(",")) {
+                String etag = candidate.trim();
+                // Weak comparison, as If-None-Match requires
+                if (etag.equals("*") || opaqueTag(etag).equals(opaqueTag(etag()))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (lastModified < 0) {
+            return false;
+        }
+        long ifModifiedSince;
+        try {
+            ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        // HTTP dates have whole seconds
+        return ifModifiedSince > 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    public <T> ResponseEntity<T> notModified() {
+        return headers(ResponseEntity.status(HttpStatus.NOT_MODIFIED)).build();
+    }
+
+    public <T> ResponseEntity<T> ok(T body) {
+        return headers(ResponseEntity.ok()).body(body);
+    }
+
+    private ResponseEntity.BodyBuilder headers(ResponseEntity.BodyBuilder builder) {
+        builder.eTag(etag()).cacheControl(REVALIDATE);
+        if (lastModified >= 0) {
+            builder.lastModified(lastModified);
+        }
+        return builder;
+    }
+
+    private static String opaqueTag(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
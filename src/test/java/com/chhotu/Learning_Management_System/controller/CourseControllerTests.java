@@ -3,27 +3,40 @@ package com.chhotu.Learning_Management_System.controller;
 import com.chhotu.Learning_Management_System.dto.CourseDto;
 import com.chhotu.Learning_Management_System.entity.Course;
 import com.chhotu.Learning_Management_System.entity.Instructor;
+import com.chhotu.Learning_Management_System.service.CourseMediaService;
 import com.chhotu.Learning_Management_System.service.CourseService;
+import com.chhotu.Learning_Management_System.util.VersionStamp;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class CourseControllerTest {
 
     @Mock
     private CourseService courseService;
 
+    @Mock
+    private CourseMediaService courseMediaService;
 
     @InjectMocks
     private CourseController courseController;
@@ -63,15 +76,31 @@ class CourseControllerTest {
         int courseId = 1;
         CourseDto courseDto = new CourseDto(1, "Java Basics", "Learn Java", 10, null, "John Doe");
 
+        when(courseService.getCourseVersion(eq(courseId), eq(request))).thenReturn(new VersionStamp("course-1-3", 1_700_000_000_000L));
         when(courseService.getCourseById(eq(courseId), eq(request))).thenReturn(courseDto);
 
         ResponseEntity<?> response = courseController.getCourseById(courseId, request);
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(courseDto, response.getBody());
+        assertEquals("W/\"course-1-3\"", response.getHeaders().getETag());
+        assertEquals(1_700_000_000_000L, response.getHeaders().getLastModified());
         verify(courseService, times(1)).getCourseById(eq(courseId), eq(request));
     }
 
+    @Test
+    void testGetCourseByIdNotModified() {
+        when(courseService.getCourseVersion(eq(1), eq(request))).thenReturn(new VersionStamp("course-1-3", 1_700_000_000_000L));
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "W/\"course-1-2\", W/\"course-1-3\"");
+
+        ResponseEntity<?> response = courseController.getCourseById(1, request);
+
+        assertEquals(304, response.getStatusCodeValue());
+        assertNull(response.getBody());
+        assertEquals("W/\"course-1-3\"", response.getHeaders().getETag());
+        verify(courseService, never()).getCourseById(anyInt(), any());
+    }
+
     @Test
     void testGetAllCourses() {
         List<CourseDto> courseList = Arrays.asList(
@@ -116,4 +145,64 @@ class CourseControllerTest {
         assertEquals("Course deleted successfully.", response.getBody());
         verify(courseService, times(1)).deleteCourse(eq(courseId), eq(request));
     }
+
+    @Test
+    void testDownloadMediaRange() {
+        CourseMediaService.MediaFile media = new CourseMediaService.MediaFile(1, "1_intro.mp4",
+                Paths.get("media", "uploads", "1_intro.mp4"), 1000, "abc123", MediaType.valueOf("video/mp4"));
+        when(courseMediaService.getMedia(1, "1_intro.mp4", request)).thenReturn(media);
+        when(courseMediaService.openRange(media, 100, 100, request)).thenReturn(Optional.empty());
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RANGE, "bytes=100-199");
+
+        ResponseEntity<?> response = courseController.downloadMedia(1, "1_intro.mp4", headers, request);
+
+        assertEquals(206, response.getStatusCode().value());
+        assertEquals("bytes 100-199/1000", response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        assertEquals(100, response.getHeaders().getContentLength());
+        assertEquals("\"abc123\"", response.getHeaders().getETag());
+        assertEquals("max-age=31536000, private, immutable", response.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void testUploadMediaStreamRefusesFormBodies() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(courseController).build();
+
+        mockMvc.perform(put("/api/course/upload_media/1/stream")
+                        .param("fileName", "intro.mp4")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .content("a=b"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verifyNoInteractions(courseService);
+    }
+
+    @Test
+    void testDownloadMediaUnsatisfiableRange() {
+        CourseMediaService.MediaFile media = new CourseMediaService.MediaFile(1, "1_intro.mp4",
+                Paths.get("media", "uploads", "1_intro.mp4"), 1000, "abc123", MediaType.valueOf("video/mp4"));
+        when(courseMediaService.getMedia(1, "1_intro.mp4", request)).thenReturn(media);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RANGE, "bytes=5000-");
+
+        ResponseEntity<?> response = courseController.downloadMedia(1, "1_intro.mp4", headers, request);
+
+        assertEquals(416, response.getStatusCode().value());
+        assertEquals("bytes */1000", response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        verify(courseMediaService, never()).openRange(any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void testDownloadMediaNotModified() {
+        CourseMediaService.MediaFile media = new CourseMediaService.MediaFile(1, "1_intro.mp4",
+                Paths.get("media", "uploads", "1_intro.mp4"), 1000, "abc123", MediaType.valueOf("video/mp4"));
+        when(courseMediaService.getMedia(1, "1_intro.mp4", request)).thenReturn(media);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch("\"abc123\"");
+
+        ResponseEntity<?> response = courseController.downloadMedia(1, "1_intro.mp4", headers, request);
+
+        assertEquals(304, response.getStatusCode().value());
+        assertNull(response.getBody());
+    }
 }
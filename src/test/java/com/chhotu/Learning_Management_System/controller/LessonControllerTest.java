@@ -4,12 +4,14 @@ import com.chhotu.Learning_Management_System.dto.LessonDto;
 import com.chhotu.Learning_Management_System.entity.Course;
 import com.chhotu.Learning_Management_System.entity.Lesson;
 import com.chhotu.Learning_Management_System.service.LessonService;
+import com.chhotu.Learning_Management_System.util.VersionStamp;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockHttpServletRequest;
 
@@ -64,28 +66,57 @@ class LessonControllerTest {
                 new LessonDto(1, 1, "Lesson 1", "First lesson", 1, "12345","Content of the lesson",null),
                 new LessonDto(2,1,"Lesson 2","Second lesson",2,"123456","Content",null)
         );
+        when(lessonService.getLessonsVersion(eq(courseId), eq(request))).thenReturn(new VersionStamp("lessons-1-2-3-0", 1_700_000_000_000L));
         when(lessonService.getLessonsByCourseId(eq(courseId),eq(request))).thenReturn(lessons);
 
         ResponseEntity<?> response = lessonController.getAllLessons(courseId,request);
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(lessons, response.getBody());
+        assertEquals("W/\"lessons-1-2-3-0\"", response.getHeaders().getETag());
         verify(lessonService, times(1)).getLessonsByCourseId(eq(courseId),eq(request));
     }
 
+    @Test
+    void testGetAllLessonsNotModifiedSince(){
+        when(lessonService.getLessonsVersion(eq(1), eq(request))).thenReturn(new VersionStamp("lessons-1-2-3-0", 1_700_000_000_500L));
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, 1_700_000_000_000L);
+
+        ResponseEntity<?> response = lessonController.getAllLessons(1, request);
+
+        assertEquals(304, response.getStatusCodeValue());
+        verify(lessonService, never()).getLessonsByCourseId(anyInt(), any());
+    }
+
     @Test
     void testGetLessonById(){
         int lessonId=1;
         LessonDto lessonDto = new LessonDto(1, 1, "Lesson 1", "First lesson", 1, "12345","Content of the lesson",null);
+        when(lessonService.getLessonVersion(eq(lessonId), eq(request))).thenReturn(new VersionStamp("lesson-1-4", -1));
         when(lessonService.getLessonById(eq(lessonId), eq(request))).thenReturn(lessonDto);
 
         ResponseEntity<?> response = lessonController.getLessonById(lessonId, request);
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(lessonDto, response.getBody());
+        assertEquals(-1, response.getHeaders().getLastModified());
         verify(lessonService, times(1)).getLessonById(eq(lessonId), eq(request));
     }
 
+    @Test
+    void testGetLessonByIdChangedSinceCachedCopy(){
+        LessonDto lessonDto = new LessonDto(1, 1, "Lesson 1", "First lesson", 1, "12345","Content of the lesson",null);
+        when(lessonService.getLessonVersion(eq(1), eq(request))).thenReturn(new VersionStamp("lesson-1-5", 1_700_000_000_000L));
+        when(lessonService.getLessonById(eq(1), eq(request))).thenReturn(lessonDto);
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "W/\"lesson-1-4\"");
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, 1_700_000_000_000L);
+
+        ResponseEntity<?> response = lessonController.getLessonById(1, request);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(lessonDto, response.getBody());
+    }
+
     @Test
     void testUpdateLesson(){
         int lessonId=1;
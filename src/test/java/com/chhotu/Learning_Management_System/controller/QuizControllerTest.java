@@ -3,26 +3,42 @@ package com.chhotu.Learning_Management_System.controller;
 import com.chhotu.Learning_Management_System.dto.GradingDto;
 import com.chhotu.Learning_Management_System.dto.QuestionDto;
 import com.chhotu.Learning_Management_System.dto.QuizDto;
+import com.chhotu.Learning_Management_System.service.GradeExportService;
 import com.chhotu.Learning_Management_System.service.QuizService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class QuizControllerTest {
 
     @Mock
     private QuizService quizService;
 
+    @Mock
+    private GradeExportService gradeExportService;
+
     @InjectMocks
     private QuizController quizController;
     private MockHttpServletRequest request;
@@ -135,14 +151,28 @@ class QuizControllerTest {
     }
     @Test
     void testGetQuizQuestions() throws Exception {
-        List<QuestionDto>ans = new ArrayList<QuestionDto>();
+        byte[] paper = "[]".getBytes();
 
-        when(quizService.getQuizQuestions(eq(1),eq(request))).thenReturn(ans);
+        when(quizService.getQuizPaper(eq(1),eq(request))).thenReturn(paper);
 
         ResponseEntity<?> response = quizController.getQuizQuestions(1, request);
         assertEquals(200,response.getStatusCodeValue());
-        assertEquals(ans,response.getBody());
-        verify(quizService, times(1)).getQuizQuestions(eq(1), eq(request));
+        assertEquals(paper,response.getBody());
+        verify(quizService, times(1)).getQuizPaper(eq(1), eq(request));
+    }
+
+    @Test
+    void testGetQuizQuestionsWithAnswers() throws Exception {
+        QuestionDto question = new QuestionDto();
+        question.setCorrectAnswer("B");
+        List<QuestionDto> questions = List.of(question);
+
+        when(quizService.getQuizQuestions(eq(1),eq(request))).thenReturn(questions);
+
+        ResponseEntity<?> response = quizController.getQuizQuestionsWithAnswers(1, request);
+        assertEquals(200,response.getStatusCodeValue());
+        assertEquals(questions,response.getBody());
+        verify(quizService, never()).getQuizPaper(anyInt(), any());
     }
 
     @Test
@@ -157,4 +187,35 @@ class QuizControllerTest {
         assertEquals(ans, response.getBody());
         verify(quizService, times(1)).quizGrades(eq(1), eq(request));
     }
+
+    @Test
+    void testExportQuizGradesStreamsTheFile() throws Exception {
+        when(gradeExportService.exportQuizGrades(eq(9), eq("csv"), any())).thenReturn(new GradeExportService.GradeExport(
+                "quiz-9-grades.csv", "text/csv;charset=UTF-8",
+                out -> out.write("gradingId,grade\r\n1,5\r\n".getBytes(StandardCharsets.UTF_8))));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(quizController).build();
+
+        MvcResult started = mockMvc.perform(get("/api/quiz/export_grades/9").param("format", "csv"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"quiz-9-grades.csv\""))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv;charset=UTF-8"))
+                .andExpect(content().string("gradingId,grade\r\n1,5\r\n"));
+    }
+
+    @Test
+    void testExportQuizGradesRefused() throws Exception {
+        when(gradeExportService.exportQuizGrades(eq(9), eq(null), any()))
+                .thenThrow(new IllegalArgumentException("Logged-in user is not an instructor."));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(quizController).build();
+
+        MvcResult started = mockMvc.perform(get("/api/quiz/export_grades/9")).andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Logged-in user is not an instructor."));
+    }
 }
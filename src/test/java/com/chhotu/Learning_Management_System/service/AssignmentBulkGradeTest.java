@@ -0,0 +1,143 @@
+package com.chhotu.Learning_Management_System.service;
+
+import com.chhotu.Learning_Management_System.dto.BulkGradeDto;
+import com.chhotu.Learning_Management_System.dto.BulkGradeReportDto;
+import com.chhotu.Learning_Management_System.entity.*;
+import com.chhotu.Learning_Management_System.repository.*;
+import com.chhotu.Learning_Management_System.repository.SubmissionBatchRepository.GradeUpdate;
+import com.chhotu.Learning_Management_System.service.impl.AssignmentServiceImpl;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AssignmentBulkGradeTest {
+
+    @Mock
+    private AssignmentRepository assignmentRepository;
+
+    @Mock
+    private SubmissionRepository submissionRepository;
+
+    @Mock
+    private SubmissionBatchRepository submissionBatchRepository;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpSession session;
+
+    private AssignmentServiceImpl assignmentService;
+    private Users instructorUser;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        assignmentService = new AssignmentServiceImpl(assignmentRepository, submissionRepository,
+                mock(CourseRepository.class), mock(StudentRepository.class), mock(EnrollmentRepository.class),
+                submissionBatchRepository);
+
+        instructorUser = new Users();
+        instructorUser.setUserId(5);
+        instructorUser.setUserTypeId(new UsersType(3, "Instructor", null));
+        Instructor instructor = new Instructor();
+        instructor.setUserAccountId(5);
+        Course course = new Course();
+        course.setInstructorId(instructor);
+        Assignment assignment = new Assignment();
+        assignment.setAssignmentId(4);
+        assignment.setCourseID(course);
+
+        when(request.getSession()).thenReturn(session);
+        when(session.getAttribute("user")).thenReturn(instructorUser);
+        when(assignmentRepository.findById(4)).thenReturn(Optional.of(assignment));
+    }
+
+    @Test
+    void gradesAreAppliedInOneBatchAndMissingSubmissionsReported_Test() {
+        when(submissionBatchRepository.findSubmittedStudentIds(eq(4), anyCollection())).thenReturn(Set.of(20, 21));
+        when(submissionBatchRepository.applyGrades(eq(4), anyList())).thenReturn(2);
+
+        BulkGradeReportDto report = assignmentService.bulkGrade(new BulkGradeDto(4, List.of(
+                new BulkGradeDto.Entry(20, 9.5f, "Good"),
+                new BulkGradeDto.Entry(21, null, "Resubmit the proof"),
+                new BulkGradeDto.Entry(22, 7f, null))), request);
+
+        assertEquals(2, report.getUpdated());
+        assertEquals(List.of(20), report.getGradedStudentIds());
+        assertEquals(List.of(22), report.getNotSubmitted());
+        verify(submissionBatchRepository).applyGrades(4, List.of(
+                new GradeUpdate(20, 9.5f, "Good"),
+                new GradeUpdate(21, null, "Resubmit the proof")));
+        verifyNoInteractions(submissionRepository);
+    }
+
+    @Test
+    void duplicateStudentRejectsWholeRequest_Test() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> assignmentService.bulkGrade(
+                new BulkGradeDto(4, List.of(new BulkGradeDto.Entry(20, 9f, null), new BulkGradeDto.Entry(20, 8f, null))), request));
+
+        assertEquals("Student 20 is graded more than once", exception.getMessage());
+        verifyNoInteractions(submissionBatchRepository);
+    }
+
+    @Test
+    void entryWithoutGradeOrFeedbackIsRejected_Test() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> assignmentService.bulkGrade(
+                new BulkGradeDto(4, List.of(new BulkGradeDto.Entry(20, null, null))), request));
+
+        assertEquals("Student 20 has neither a grade nor feedback", exception.getMessage());
+    }
+
+    @Test
+    void oversizedRequestIsRejected_Test() {
+        List<BulkGradeDto.Entry> entries = new ArrayList<>();
+        for (int i = 0; i <= 1000; i++) {
+            entries.add(new BulkGradeDto.Entry(i, 5f, null));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> assignmentService.bulkGrade(new BulkGradeDto(4, entries), request));
+        verifyNoInteractions(submissionBatchRepository);
+    }
+
+    @Test
+    void onlyCourseInstructorCanBulkGrade_Test() {
+        instructorUser.setUserId(6);
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> assignmentService.bulkGrade(
+                new BulkGradeDto(4, List.of(new BulkGradeDto.Entry(20, 9f, null))), request));
+
+        assertEquals("You're not the instructor of this course", exception.getMessage());
+        verifyNoInteractions(submissionBatchRepository);
+    }
+
+    @Test
+    void gradingLooksUpTheSubmissionDirectly_Test() {
+        Student student = new Student();
+        student.setUserAccountId(20);
+        Submission submission = new Submission();
+        StudentRepository studentRepository = mock(StudentRepository.class);
+        assignmentService = new AssignmentServiceImpl(assignmentRepository, submissionRepository,
+                mock(CourseRepository.class), studentRepository, mock(EnrollmentRepository.class), submissionBatchRepository);
+        when(studentRepository.findById(20)).thenReturn(Optional.of(student));
+        when(submissionRepository.findByAssignmentAndStudent(4, 20)).thenReturn(Optional.of(submission));
+
+        assignmentService.gradeAssignment(20, 4, 8f, request);
+
+        assertEquals(8f, submission.getGrade());
+        verify(submissionRepository).save(submission);
+        verify(submissionRepository, never()).findByStudentId(any());
+    }
+}
@@ -40,6 +40,9 @@ public class AssignmentServiceTest {
     @Mock
     private EnrollmentRepository enrollmentRepository;
 
+    @Mock
+    private SubmissionBatchRepository submissionBatchRepository;
+
     @Mock
     private HttpServletRequest request;
 
@@ -190,9 +193,7 @@ public class AssignmentServiceTest {
         when(studentRepository.findById(1)).thenReturn(Optional.of(student));
         when(assignmentRepository.findById(1)).thenReturn(Optional.of(assignment));
         when(enrollmentRepository.existsByStudentAndCourse(student,course)).thenReturn(true);
-        List<Submission> submissions = new ArrayList<>();
-        submissions.add(submission);
-        when(submissionRepository.findByStudentId(student)).thenReturn(submissions);
+        when(submissionRepository.existsByAssignmentAndStudent(1, student.getUserAccountId())).thenReturn(true);
 
         Exception exception = assertThrows(IllegalArgumentException.class, () -> {
             assignmentService.uploadAssignment(assignmentDto, request);
@@ -281,7 +282,7 @@ public class AssignmentServiceTest {
         when(assignmentRepository.findById(1)).thenReturn(Optional.of(assignment));
         when(studentRepository.findById(1)).thenReturn(Optional.of(student));
         when(courseRepository.findById(1)).thenReturn(Optional.of(course));
-        when(submissionRepository.findByStudentId(student)).thenReturn(new ArrayList<>());
+        when(submissionRepository.existsByStudentId(student)).thenReturn(false);
 
         Exception exception = assertThrows(IllegalArgumentException.class, () -> {
             assignmentService.gradeAssignment(1,1,50, request);
@@ -311,7 +312,7 @@ public class AssignmentServiceTest {
         List<Submission> submissions = new ArrayList<>();
         submissions.add(unrelatedSubmission);
 
-        when(submissionRepository.findByStudentId(student)).thenReturn(submissions);
+        when(submissionRepository.existsByStudentId(student)).thenReturn(true);
 
 
         Exception exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -403,7 +404,7 @@ public class AssignmentServiceTest {
         when(assignmentRepository.findById(1)).thenReturn(Optional.of(assignment));
         when(studentRepository.findById(1)).thenReturn(Optional.of(student));
         when(courseRepository.findById(1)).thenReturn(Optional.of(course));
-        when(submissionRepository.findByStudentId(student)).thenReturn(new ArrayList<>());
+        when(submissionRepository.existsByStudentId(student)).thenReturn(false);
 
         Exception exception = assertThrows(IllegalArgumentException.class, () -> {
             assignmentService.saveAssignmentFeedback(1,1,"done", request);
@@ -433,7 +434,7 @@ public class AssignmentServiceTest {
         List<Submission> submissions = new ArrayList<>();
         submissions.add(unrelatedSubmission);
 
-        when(submissionRepository.findByStudentId(student)).thenReturn(submissions);
+        when(submissionRepository.existsByStudentId(student)).thenReturn(true);
 
 
         Exception exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -521,7 +522,7 @@ public class AssignmentServiceTest {
         when(studentRepository.findById(1)).thenReturn(Optional.of(student));
         when(courseRepository.findById(1)).thenReturn(Optional.of(course));
         when(enrollmentRepository.existsByStudentAndCourse(student,course)).thenReturn(true);
-        when(submissionRepository.findByStudentId(student)).thenReturn(new ArrayList<>());
+        when(submissionRepository.existsByStudentId(student)).thenReturn(false);
 
         Exception exception = assertThrows(IllegalArgumentException.class, () -> {
             assignmentService.getFeedback(1, request);
@@ -553,7 +554,7 @@ public class AssignmentServiceTest {
         List<Submission> submissions = new ArrayList<>();
         submissions.add(unrelatedSubmission);
 
-        when(submissionRepository.findByStudentId(student)).thenReturn(submissions);
+        when(submissionRepository.existsByStudentId(student)).thenReturn(true);
 
 
         Exception exception = assertThrows(IllegalArgumentException.class, () -> {
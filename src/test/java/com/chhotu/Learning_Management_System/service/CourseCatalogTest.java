@@ -0,0 +1,130 @@
+package com.chhotu.Learning_Management_System.service;
+
+import com.chhotu.Learning_Management_System.dto.CourseCatalogPageDto;
+import com.chhotu.Learning_Management_System.dto.CourseDto;
+import com.chhotu.Learning_Management_System.entity.Users;
+import com.chhotu.Learning_Management_System.entity.UsersType;
+import com.chhotu.Learning_Management_System.repository.*;
+import com.chhotu.Learning_Management_System.service.impl.CourseServiceImpl;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CourseCatalogTest {
+
+    @Mock
+    private CourseCatalogRepository courseCatalogRepository;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpSession session;
+
+    private CourseServiceImpl courseService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        courseService = new CourseServiceImpl(mock(InstructorRepository.class), mock(CourseRepository.class),
+                mock(EnrollmentRepository.class), mock(NotificationsService.class), 1024, courseCatalogRepository,
+                mock(SearchIndexService.class));
+
+        Users user = new Users();
+        user.setUserId(20);
+        user.setUserTypeId(new UsersType(2, "Student", null));
+        when(request.getSession()).thenReturn(session);
+        when(session.getAttribute("user")).thenReturn(user);
+    }
+
+    @Test
+    void nextCursorResumesAfterLastRow_Test() {
+        when(courseCatalogRepository.findPage(any(), any(), any(), any(), eq(CourseCatalogRepository.Sort.NAME), isNull(), eq(3)))
+                .thenReturn(List.of(course(7, "Algebra"), course(3, "Biology"), course(9, "Chemistry")));
+
+        CourseCatalogPageDto first = courseService.getCatalog(null, null, null, null, null, null, 2, request);
+
+        assertEquals(List.of(7, 3), first.getCourses().stream().map(CourseDto::getCourseId).toList());
+        assertTrue(first.isHasMore());
+
+        courseService.getCatalog(null, null, null, null, "name", first.getNextCursor(), 2, request);
+
+        ArgumentCaptor<CourseDto> after = ArgumentCaptor.forClass(CourseDto.class);
+        verify(courseCatalogRepository, times(2)).findPage(any(), any(), any(), any(), eq(CourseCatalogRepository.Sort.NAME), after.capture(), eq(3));
+        assertNull(after.getAllValues().get(0));
+        assertEquals(3, after.getAllValues().get(1).getCourseId());
+        assertEquals("Biology", after.getAllValues().get(1).getCourseName());
+    }
+
+    @Test
+    void lastPageHasNoCursor_Test() {
+        when(courseCatalogRepository.findPage(any(), any(), any(), any(), any(), any(), anyInt()))
+                .thenReturn(List.of(course(7, "Algebra")));
+
+        CourseCatalogPageDto page = courseService.getCatalog(null, null, null, null, "newest", null, 20, request);
+
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void creationDateRangeIsInclusive_Test() {
+        courseService.getCatalog(5, "Ja", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), "oldest", null, null, request);
+
+        verify(courseCatalogRepository).findPage(5, "Ja",
+                Timestamp.valueOf("2025-01-01 00:00:00"), Timestamp.valueOf("2025-02-01 00:00:00"),
+                CourseCatalogRepository.Sort.OLDEST, null, 21);
+    }
+
+    @Test
+    void cursorFromAnotherSortIsRejected_Test() {
+        when(courseCatalogRepository.findPage(any(), any(), any(), any(), any(), any(), anyInt()))
+                .thenReturn(List.of(course(7, "Algebra"), course(3, "Biology")));
+        String cursor = courseService.getCatalog(null, null, null, null, "name", null, 1, request).getNextCursor();
+
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> courseService.getCatalog(null, null, null, null, "newest", cursor, 1, request));
+
+        assertEquals("Cursor was issued for a different sort.", exception.getMessage());
+        assertThrows(IllegalArgumentException.class,
+                () -> courseService.getCatalog(null, null, null, null, "name", "not a cursor", 1, request));
+        assertThrows(IllegalArgumentException.class,
+                () -> courseService.getCatalog(null, null, null, null, "popular", null, 1, request));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void nameKeysetAndPrefixAreSentAsOneQuery_Test() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        CourseCatalogRepository repository = new CourseCatalogRepository(jdbcTemplate);
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+
+        repository.findPage(5, "C_+", null, null, CourseCatalogRepository.Sort.NAME, course(3, "C_+ Basics"), 21);
+
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), args.capture());
+        assertTrue(sql.getValue().contains("LEFT JOIN instructor i ON i.user_account_id = c.instructor_id"));
+        assertTrue(sql.getValue().endsWith(
+                "AND (c.course_name > ? OR (c.course_name = ? AND c.course_id > ?)) ORDER BY c.course_name ASC, c.course_id ASC LIMIT ?"));
+        assertFalse(sql.getValue().contains("creation_date"));
+        assertArrayEquals(new Object[]{5, "C\\_+%", "C_+ Basics", "C_+ Basics", 3, 21}, args.getValue());
+    }
+
+    private static CourseDto course(int id, String name) {
+        return new CourseDto(id, name, null, 10, null, "Ada");
+    }
+}
@@ -0,0 +1,133 @@
+package com.chhotu.Learning_Management_System.service;
+
+import com.chhotu.Learning_Management_System.entity.*;
+import com.chhotu.Learning_Management_System.repository.CourseRepository;
+import com.chhotu.Learning_Management_System.repository.EnrollmentRepository;
+import com.chhotu.Learning_Management_System.service.impl.CourseMediaServiceImpl;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CourseMediaServiceTest {
+
+    private static final String HELLO_SHA256 = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpSession session;
+
+    private CourseMediaServiceImpl courseMediaService;
+    private Users studentUser;
+    private Course course;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        courseMediaService = new CourseMediaServiceImpl(courseRepository, enrollmentRepository);
+
+        Files.createDirectories(CourseMediaServiceImpl.MEDIA_DIR);
+        file = Files.createTempFile(CourseMediaServiceImpl.MEDIA_DIR, "test_", ".mp4");
+        Files.writeString(file, "hello");
+
+        studentUser = new Users();
+        studentUser.setUserId(20);
+        studentUser.setUserTypeId(new UsersType(2, "Student", null));
+        course = new Course();
+        course.setCourseId(3);
+        course.setMedia(file.getFileName().toString());
+
+        when(request.getSession()).thenReturn(session);
+        when(session.getAttribute("user")).thenReturn(studentUser);
+        when(courseRepository.findById(3)).thenReturn(Optional.of(course));
+        when(enrollmentRepository.existsByStudentUserAccountIdAndCourseCourseId(20, 3)).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void storedHashIsUsedAsEtag_Test() {
+        course.setMediaSha256("feedbeef");
+
+        CourseMediaService.MediaFile media = courseMediaService.getMedia(3, course.getMedia(), request);
+
+        assertEquals("\"feedbeef\"", media.etag());
+        assertEquals(5, media.size());
+        assertEquals("video/mp4", media.contentType().toString());
+    }
+
+    @Test
+    void legacyFileIsHashedOnce_Test() throws Exception {
+        assertEquals(HELLO_SHA256, courseMediaService.getMedia(3, null, request).sha256());
+
+        // A changed file keeps its first hash: file names are never reused, so this only proves the cache is hit
+        Files.writeString(file, "other");
+        assertEquals(HELLO_SHA256, courseMediaService.getMedia(3, null, request).sha256());
+    }
+
+    @Test
+    void rangeIsCopiedWhenSendfileIsUnavailable_Test() throws Exception {
+        CourseMediaService.MediaFile media = courseMediaService.getMedia(3, null, request);
+
+        StreamingResponseBody body = courseMediaService.openRange(media, 1, 3, request).orElseThrow();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+
+        assertEquals("ell", out.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void rangeIsHandedToTomcatSendfile_Test() {
+        CourseMediaService.MediaFile media = courseMediaService.getMedia(3, null, request);
+        when(request.getAttribute("org.apache.tomcat.sendfile.support")).thenReturn(Boolean.TRUE);
+
+        assertTrue(courseMediaService.openRange(media, 1, 3, request).isEmpty());
+
+        verify(request).setAttribute("org.apache.tomcat.sendfile.filename", file.toAbsolutePath().toString());
+        verify(request).setAttribute("org.apache.tomcat.sendfile.start", 1L);
+        verify(request).setAttribute("org.apache.tomcat.sendfile.end", 4L);
+    }
+
+    @Test
+    void studentMustBeEnrolled_Test() {
+        when(enrollmentRepository.existsByStudentUserAccountIdAndCourseCourseId(20, 3)).thenReturn(false);
+
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> courseMediaService.getMedia(3, course.getMedia(), request));
+
+        assertEquals("You're not enrolled in this course", exception.getMessage());
+    }
+
+    @Test
+    void onlyCurrentMediaIsServed_Test() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> courseMediaService.getMedia(3, "../../pom.xml", request));
+
+        assertEquals("No such media for course ID: 3", exception.getMessage());
+    }
+}
@@ -0,0 +1,148 @@
+package com.chhotu.Learning_Management_System.service;
+
+import com.chhotu.Learning_Management_System.entity.*;
+import com.chhotu.Learning_Management_System.repository.CourseCatalogRepository;
+import com.chhotu.Learning_Management_System.repository.CourseRepository;
+import com.chhotu.Learning_Management_System.repository.EnrollmentRepository;
+import com.chhotu.Learning_Management_System.repository.InstructorRepository;
+import com.chhotu.Learning_Management_System.service.impl.CourseMediaServiceImpl;
+import com.chhotu.Learning_Management_System.service.impl.CourseServiceImpl;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CourseMediaUploadTest {
+
+    private static final String HELLO_SHA256 = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpSession session;
+
+    private CourseServiceImpl courseService;
+    private Course course;
+    private List<Path> existingFiles;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        courseService = new CourseServiceImpl(mock(InstructorRepository.class), courseRepository,
+                mock(EnrollmentRepository.class), mock(NotificationsService.class), 8, mock(CourseCatalogRepository.class),
+                mock(SearchIndexService.class));
+
+        Users instructorUser = new Users();
+        instructorUser.setUserId(5);
+        instructorUser.setUserTypeId(new UsersType(3, "Instructor", null));
+        Instructor instructor = new Instructor();
+        instructor.setUserAccountId(5);
+        course = new Course();
+        course.setCourseId(3);
+        course.setInstructorId(instructor);
+
+        when(request.getSession()).thenReturn(session);
+        when(session.getAttribute("user")).thenReturn(instructorUser);
+        when(courseRepository.findById(3)).thenReturn(Optional.of(course));
+        when(courseRepository.updateMedia(eq(3), anyString(), anyString(), any())).thenReturn(1);
+
+        Files.createDirectories(CourseMediaServiceImpl.MEDIA_DIR);
+        existingFiles = listMedia();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (Path file : listMedia()) {
+            if (!existingFiles.contains(file)) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    void mediaIsStreamedHashedAndRenamedIntoPlace_Test() throws Exception {
+        String stored = courseService.uploadMediaStream(3, "C:\\recordings\\week 1.mp4", 5, body("hello"), request);
+
+        assertTrue(stored.endsWith("_week_1.mp4"));
+        assertEquals("hello", Files.readString(CourseMediaServiceImpl.MEDIA_DIR.resolve(stored)));
+        assertEquals(List.of(CourseMediaServiceImpl.MEDIA_DIR.resolve(stored)), newMedia());
+        // Only the media columns are written, never the course loaded before the upload
+        verify(courseRepository).updateMedia(eq(3), eq(stored), eq(HELLO_SHA256), any());
+        verify(courseRepository, never()).save(any());
+    }
+
+    @Test
+    void mediaOfCourseDeletedDuringUploadIsRemoved_Test() throws Exception {
+        when(courseRepository.updateMedia(eq(3), anyString(), anyString(), any())).thenReturn(0);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> courseService.uploadMediaStream(3, "clip.mp4", 5, body("hello"), request));
+
+        assertEquals(List.of(), newMedia());
+    }
+
+    @Test
+    void quotaIsEnforcedWhileStreaming_Test() throws Exception {
+        // No Content-Length, so only the running byte count can catch it
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> courseService.uploadMediaStream(3, "big.mp4", -1, body("0123456789"), request));
+
+        assertEquals("Media file exceeds the limit of 8 bytes.", exception.getMessage());
+        assertEquals(List.of(), newMedia());
+        verify(courseRepository, never()).updateMedia(anyInt(), anyString(), anyString(), any());
+    }
+
+    @Test
+    void declaredSizeOverQuotaIsRefusedBeforeReading_Test() {
+        ByteArrayInputStream body = body("0123456789");
+
+        assertThrows(IllegalArgumentException.class, () -> courseService.uploadMediaStream(3, "big.mp4", 10, body, request));
+
+        assertEquals(10, body.available());
+    }
+
+    @Test
+    void truncatedUploadIsDiscarded_Test() throws Exception {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> courseService.uploadMediaStream(3, "clip.mp4", 7, body("hello"), request));
+
+        assertEquals("Upload ended after 5 of 7 bytes.", exception.getMessage());
+        assertEquals(List.of(), newMedia());
+        verify(courseRepository, never()).updateMedia(anyInt(), anyString(), anyString(), any());
+    }
+
+    private List<Path> newMedia() throws Exception {
+        List<Path> files = new ArrayList<>(listMedia());
+        files.removeAll(existingFiles);
+        return files;
+    }
+
+    private static List<Path> listMedia() throws Exception {
+        try (Stream<Path> files = Files.list(CourseMediaServiceImpl.MEDIA_DIR)) {
+            return files.toList();
+        }
+    }
+
+    private static ByteArrayInputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII));
+    }
+}
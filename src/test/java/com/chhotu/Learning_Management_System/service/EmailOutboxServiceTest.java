@@ -0,0 +1,179 @@
+package com.chhotu.Learning_Management_System.service;
+
+import com.chhotu.Learning_Management_System.entity.EmailOutbox;
+import com.chhotu.Learning_Management_System.repository.EmailOutboxRepository;
+import com.chhotu.Learning_Management_System.service.impl.EmailOutboxServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the outbox worker against a minimal in-process SMTP server.
+ */
+class EmailOutboxServiceTest {
+
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+
+    private FakeSmtpServer smtpServer;
+    private EmailOutboxServiceImpl emailOutboxService;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        MockitoAnnotations.openMocks(this);
+        smtpServer = new FakeSmtpServer();
+
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpServer.getPort());
+
+        emailOutboxService = new EmailOutboxServiceImpl(emailOutboxRepository, mailSender, "lms@example.com", true, 30);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        smtpServer.close();
+    }
+
+    @Test
+    void drainSendsBatchOverOneConnection_Test() {
+        List<EmailOutbox> due = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            due.add(new EmailOutbox("student" + i + "@example.com", "Subject", "Body " + i, new Date()));
+        }
+        claim(due);
+
+        assertEquals(3, emailOutboxService.drainOutbox());
+
+        assertEquals(1, smtpServer.connections.get());
+        assertEquals(3, smtpServer.messages.get());
+        due.forEach(email -> assertEquals(EmailOutbox.Status.SENT, email.getStatus()));
+        verify(emailOutboxRepository).saveAll(due);
+    }
+
+    @Test
+    void rejectedRecipientIsRescheduledWithBackoff_Test() {
+        EmailOutbox good = new EmailOutbox("student@example.com", "Subject", "Body", new Date());
+        EmailOutbox bounced = new EmailOutbox("bounce@example.com", "Subject", "Body", new Date());
+        claim(List.of(good, bounced));
+
+        assertEquals(1, emailOutboxService.drainOutbox());
+
+        assertEquals(EmailOutbox.Status.SENT, good.getStatus());
+        assertEquals(EmailOutbox.Status.PENDING, bounced.getStatus());
+        assertEquals(1, bounced.getAttempts());
+        assertTrue(bounced.getNextAttemptAt().after(new Date()));
+        assertNotNull(bounced.getLastError());
+    }
+
+    @Test
+    void emailIsMarkedFailedAfterMaxAttempts_Test() {
+        EmailOutbox bounced = new EmailOutbox("bounce@example.com", "Subject", "Body", new Date());
+        bounced.setAttempts(5);
+        claim(List.of(bounced));
+
+        assertEquals(0, emailOutboxService.drainOutbox());
+
+        assertEquals(EmailOutbox.Status.FAILED, bounced.getStatus());
+    }
+
+    @Test
+    void sentEmailsArePurgedInChunks_Test() {
+        when(emailOutboxRepository.deleteSentBefore(any(Date.class), anyInt())).thenReturn(1000, 1000, 12);
+
+        emailOutboxService.purgeSent();
+
+        verify(emailOutboxRepository, times(3)).deleteSentBefore(any(Date.class), eq(1000));
+    }
+
+    private void claim(List<EmailOutbox> batch) {
+        when(emailOutboxRepository.claimDue(anyString(), any(Date.class), any(Date.class), anyInt())).thenReturn(batch.size(), 0);
+        when(emailOutboxRepository.findByClaimTokenOrderByEmailIdAsc(anyString())).thenReturn(batch);
+    }
+
+    /**
+     * Accepts SMTP sessions on a random port, answering just enough of the protocol for
+     * Jakarta Mail. Recipients containing "bounce" are rejected.
+     */
+    private static final class FakeSmtpServer {
+
+        private final ServerSocket serverSocket;
+        private final AtomicInteger connections = new AtomicInteger();
+        private final AtomicInteger messages = new AtomicInteger();
+
+        private FakeSmtpServer() throws IOException {
+            serverSocket = new ServerSocket(0);
+            Thread acceptor = new Thread(this::acceptLoop, "fake-smtp");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        private int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        private void close() throws IOException {
+            serverSocket.close();
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try (Socket socket = serverSocket.accept()) {
+                    connections.incrementAndGet();
+                    handle(socket);
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void handle(Socket socket) throws IOException {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII);
+            reply(out, "220 localhost ESMTP");
+
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase();
+                if (command.startsWith("QUIT")) {
+                    reply(out, "221 Bye");
+                    return;
+                } else if (command.startsWith("RCPT") && command.contains("BOUNCE")) {
+                    reply(out, "550 No such user");
+                } else if (command.startsWith("DATA")) {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    while ((line = in.readLine()) != null && !line.equals(".")) {
+                        // discard message content
+                    }
+                    messages.incrementAndGet();
+                    reply(out, "250 OK");
+                } else {
+                    reply(out, "250 OK");
+                }
+            }
+        }
+
+        private void reply(PrintWriter out, String response) {
+            out.print(response + "\r\n");
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.chhotu.Learning_Management_System.service;
+
+import com.chhotu.Learning_Management_System.entity.*;
+import com.chhotu.Learning_Management_System.repository.AssignmentRepository;
+import com.chhotu.Learning_Management_System.repository.GradeExportRepository;
+import com.chhotu.Learning_Management_System.repository.QuizRepository;
+import com.chhotu.Learning_Management_System.service.impl.GradeExportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class GradeExportServiceTest {
+
+    @Mock
+    private GradeExportRepository gradeExportRepository;
+
+    @Mock
+    private QuizRepository quizRepository;
+
+    @Mock
+    private AssignmentRepository assignmentRepository;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpSession session;
+
+    private GradeExportServiceImpl gradeExportService;
+    private Users instructorUser;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        gradeExportService = new GradeExportServiceImpl(gradeExportRepository, quizRepository, assignmentRepository, new ObjectMapper());
+
+        instructorUser = new Users();
+        instructorUser.setUserId(5);
+        instructorUser.setUserTypeId(new UsersType(3, "Instructor", null));
+        Instructor instructor = new Instructor();
+        instructor.setUserAccountId(5);
+        Course course = new Course();
+        course.setInstructorId(instructor);
+        Quiz quiz = new Quiz();
+        quiz.setQuizId(9);
+        quiz.setCourse(course);
+        Assignment assignment = new Assignment();
+        assignment.setCourseID(course);
+
+        when(request.getSession()).thenReturn(session);
+        when(session.getAttribute("user")).thenReturn(instructorUser);
+        when(quizRepository.findById(9)).thenReturn(Optional.of(quiz));
+        when(assignmentRepository.findById(4)).thenReturn(Optional.of(assignment));
+    }
+
+    @Test
+    void quizGradesAreStreamedAsCsv_Test() throws Exception {
+        doAnswer(inv -> {
+            Consumer<Object[]> row = inv.getArgument(1);
+            row.accept(new Object[]{1, 20, "Ada", "Lovelace", 5});
+            row.accept(new Object[]{2, 21, "Smith, \"Jr\"", null, 3});
+            return null;
+        }).when(gradeExportRepository).forEachQuizGrade(eq(9), any());
+
+        GradeExportService.GradeExport export = gradeExportService.exportQuizGrades(9, null, request);
+
+        assertEquals("quiz-9-grades.csv", export.fileName());
+        assertEquals("gradingId,studentId,firstName,lastName,grade\r\n" +
+                "1,20,Ada,Lovelace,5\r\n" +
+                "2,21,\"Smith, \"\"Jr\"\"\",,3\r\n", render(export));
+    }
+
+    @Test
+    void csvCellsThatLookLikeFormulasAreEscaped_Test() throws Exception {
+        doAnswer(inv -> {
+            Consumer<Object[]> row = inv.getArgument(1);
+            row.accept(new Object[]{1, 20, "=HYPERLINK(\"http://x\")", "@SUM(A1)", -2});
+            row.accept(new Object[]{2, 21, "+1", "-1,2", 3});
+            return null;
+        }).when(gradeExportRepository).forEachQuizGrade(eq(9), any());
+
+        GradeExportService.GradeExport export = gradeExportService.exportQuizGrades(9, "csv", request);
+
+        assertEquals("gradingId,studentId,firstName,lastName,grade\r\n" +
+                "1,20,\"'=HYPERLINK(\"\"http://x\"\")\",'@SUM(A1),-2\r\n" +
+                "2,21,'+1,\"'-1,2\",3\r\n", render(export));
+    }
+
+    @Test
+    void submissionsAreStreamedAsJsonLines_Test() throws Exception {
+        doAnswer(inv -> {
+            Consumer<Object[]> row = inv.getArgument(1);
+            row.accept(new Object[]{7, 20, "Ada", "Lovelace", 9.5f, "Good", new Timestamp(0), "/files/7.pdf"});
+            row.accept(new Object[]{8, 21, "Alan", "Turing", null, null, null, null});
+            return null;
+        }).when(gradeExportRepository).forEachSubmission(eq(4), any());
+
+        GradeExportService.GradeExport export = gradeExportService.exportAssignmentSubmissions(4, "JSONL", request);
+
+        String[] lines = render(export).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("{\"submissionId\":7,\"studentId\":20,\"firstName\":\"Ada\",\"lastName\":\"Lovelace\",\"grade\":9.5," +
+                "\"feedback\":\"Good\",\"submittedAt\":\"1970-01-01T00:00:00Z\",\"filePath\":\"/files/7.pdf\"}", lines[0]);
+        assertTrue(lines[1].contains("\"grade\":null"));
+    }
+
+    @Test
+    void accessIsCheckedBeforeStreaming_Test() {
+        instructorUser.setUserId(6);
+
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> gradeExportService.exportQuizGrades(9, "csv", request));
+
+        assertEquals("Logged-in instructor does not have access for this quiz grades.", exception.getMessage());
+        verifyNoInteractions(gradeExportRepository);
+    }
+
+    @Test
+    void unsupportedFormatIsRejected_Test() {
+        assertThrows(IllegalArgumentException.class, () -> gradeExportService.exportAssignmentSubmissions(4, "xlsx", request));
+    }
+
+    private static String render(GradeExportService.GradeExport export) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        export.body().writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
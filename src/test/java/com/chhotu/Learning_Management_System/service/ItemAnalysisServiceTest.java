@@ -0,0 +1,112 @@
+package com.chhotu.Learning_Management_System.service;
+
+import com.chhotu.Learning_Management_System.dto.QuestionItemAnalysisDto;
+import com.chhotu.Learning_Management_System.entity.*;
+import com.chhotu.Learning_Management_System.entity.QuestionType.QuestionTypeEnum;
+import com.chhotu.Learning_Management_System.repository.AnswerBatchRepository;
+import com.chhotu.Learning_Management_System.repository.AnswerBatchRepository.AnswerRow;
+import com.chhotu.Learning_Management_System.repository.AnswerBatchRepository.ItemSums;
+import com.chhotu.Learning_Management_System.repository.AnswerBatchRepository.OptionPicks;
+import com.chhotu.Learning_Management_System.repository.QuizRepository;
+import com.chhotu.Learning_Management_System.service.grading.QuizScore;
+import com.chhotu.Learning_Management_System.service.impl.ItemAnalysisServiceImpl;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ItemAnalysisServiceTest {
+
+    @Mock
+    private AnswerBatchRepository answerBatchRepository;
+
+    @Mock
+    private QuizRepository quizRepository;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpSession session;
+
+    private ItemAnalysisServiceImpl itemAnalysisService;
+    private Users instructorUser;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        itemAnalysisService = new ItemAnalysisServiceImpl(answerBatchRepository, quizRepository);
+
+        instructorUser = new Users();
+        instructorUser.setUserId(5);
+        instructorUser.setUserTypeId(new UsersType(3, "Instructor", null));
+        Instructor instructor = new Instructor();
+        instructor.setUserAccountId(5);
+        Course course = new Course();
+        course.setInstructorId(instructor);
+        Quiz quiz = new Quiz();
+        quiz.setQuizId(9);
+        quiz.setCourse(course);
+
+        when(request.getSession()).thenReturn(session);
+        when(session.getAttribute("user")).thenReturn(instructorUser);
+        when(quizRepository.findById(9)).thenReturn(Optional.of(quiz));
+    }
+
+    @Test
+    void answerRowsCarryRestScoreAndMcqOption_Test() {
+        QuizScore score = new QuizScore(9, 1, List.of(
+                new QuizScore.QuestionResult(30, QuestionTypeEnum.MCQ, " B", "b", true),
+                new QuizScore.QuestionResult(31, QuestionTypeEnum.SHORT_ANSWER, "jvm", "jvm", false)));
+
+        List<AnswerRow> rows = ItemAnalysisServiceImpl.answerRows(20, score);
+
+        assertEquals(List.of(
+                new AnswerRow(9, 30, 20, " B", "b", true, 0),
+                new AnswerRow(9, 31, 20, "jvm", null, false, 1)), rows);
+    }
+
+    @Test
+    void itemAnalysisIsDerivedFromStoredSums_Test() {
+        // Four students: correct with rest scores 3 and 2, wrong with rest scores 1 and 0
+        when(answerBatchRepository.findItemSums(9)).thenReturn(List.of(
+                new ItemSums(30, "Pick B", 4, 2, 6, 14, 5),
+                new ItemSums(31, "Always right", 4, 4, 6, 14, 6)));
+        when(answerBatchRepository.findOptionPicks(9)).thenReturn(List.of(
+                new OptionPicks(30, "b", 2),
+                new OptionPicks(30, "a", 1),
+                new OptionPicks(30, "c", 1)));
+
+        List<QuestionItemAnalysisDto> analysis = itemAnalysisService.getItemAnalysis(9, request);
+
+        QuestionItemAnalysisDto first = analysis.get(0);
+        assertEquals(50.0, first.getPercentCorrect(), 1e-9);
+        // Point-biserial of x = (1, 1, 0, 0) against y = (3, 2, 1, 0)
+        assertEquals(2 / Math.sqrt(5), first.getDiscriminationIndex(), 1e-9);
+        assertEquals(List.of("b", "a", "c"), List.copyOf(first.getOptionCounts().keySet()));
+
+        QuestionItemAnalysisDto second = analysis.get(1);
+        assertEquals(100.0, second.getPercentCorrect(), 1e-9);
+        assertNull(second.getDiscriminationIndex());
+        assertEquals(Map.of(), second.getOptionCounts());
+    }
+
+    @Test
+    void studentCannotSeeItemAnalysis_Test() {
+        instructorUser.setUserTypeId(new UsersType(2, "Student", null));
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> itemAnalysisService.getItemAnalysis(9, request));
+
+        assertEquals("Logged-in user is not an instructor.", exception.getMessage());
+        verifyNoInteractions(answerBatchRepository);
+    }
+}
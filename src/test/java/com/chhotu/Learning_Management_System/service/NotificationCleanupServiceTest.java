@@ -0,0 +1,81 @@
+package com.chhotu.Learning_Management_System.service;
+
+import com.chhotu.Learning_Management_System.dto.NotificationCleanupReportDto;
+import com.chhotu.Learning_Management_System.repository.NotificationsMaintenanceRepository;
+import com.chhotu.Learning_Management_System.repository.NotificationsMaintenanceRepository.DuplicateGroup;
+import com.chhotu.Learning_Management_System.repository.NotificationsMaintenanceRepository.DuplicateScan;
+import com.chhotu.Learning_Management_System.service.impl.NotificationCleanupServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class NotificationCleanupServiceTest {
+
+    @Mock
+    private NotificationsMaintenanceRepository maintenanceRepository;
+
+    @Mock
+    private NotificationsService notificationsService;
+
+    private NotificationCleanupServiceImpl notificationCleanupService;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        notificationCleanupService = new NotificationCleanupServiceImpl(maintenanceRepository, notificationsService, 30, 100);
+    }
+
+    @Test
+    void cleanupCoalescesDuplicatesAndPurgesInBatches_Test() {
+        List<DuplicateGroup> groups = List.of(
+                new DuplicateGroup(2, null, 2, "Java", 40, 5),
+                new DuplicateGroup(3, null, 2, "Java", 41, 2));
+        // First slice ends with user 3; nobody after that has unread notifications
+        when(maintenanceRepository.findUnreadDuplicateGroups(0, 500)).thenReturn(new DuplicateScan(3, groups));
+        when(maintenanceRepository.findUnreadDuplicateGroups(3, 500)).thenReturn(null);
+        when(maintenanceRepository.coalesce(groups)).thenReturn(5);
+        when(maintenanceRepository.purgeReadBefore(any(Date.class), eq(100))).thenReturn(100, 100, 7);
+
+        NotificationCleanupReportDto report = notificationCleanupService.runCleanup();
+
+        assertEquals(2, report.getDigestsCreated());
+        assertEquals(5, report.getDuplicatesRemoved());
+        assertEquals(207, report.getReadPurged());
+        verify(maintenanceRepository, times(3)).purgeReadBefore(any(Date.class), eq(100));
+        verify(notificationsService).evictUnreadCounts(Set.of(2, 3));
+    }
+
+    @Test
+    void cappedRunResumesAfterLastUser_Test() {
+        // Every slice holds a user but no duplicates, so the run stops at its batch cap
+        when(maintenanceRepository.findUnreadDuplicateGroups(anyInt(), anyInt()))
+                .thenAnswer(invocation -> new DuplicateScan(invocation.<Integer>getArgument(0) + 1, List.of()));
+
+        notificationCleanupService.runCleanup();
+        notificationCleanupService.runCleanup();
+
+        verify(maintenanceRepository).findUnreadDuplicateGroups(0, 500);
+        verify(maintenanceRepository).findUnreadDuplicateGroups(200, 500);
+        verify(maintenanceRepository, never()).coalesce(anyList());
+    }
+
+    @Test
+    void cleanupWithNothingToDoRemovesNothing_Test() {
+        when(maintenanceRepository.findUnreadDuplicateGroups(anyInt(), anyInt())).thenReturn(null);
+        when(maintenanceRepository.purgeReadBefore(any(Date.class), anyInt())).thenReturn(0);
+
+        NotificationCleanupReportDto report = notificationCleanupService.runCleanup();
+
+        assertEquals(0, report.getDigestsCreated());
+        assertEquals(0, report.getReadPurged());
+        verify(maintenanceRepository, never()).coalesce(anyList());
+    }
+}
@@ -1,10 +1,20 @@
 package com.chhotu.Learning_Management_System.service;
 
+import com.chhotu.Learning_Management_System.dto.NotificationDto;
+import com.chhotu.Learning_Management_System.dto.NotificationPageDto;
+import com.chhotu.Learning_Management_System.entity.EmailOutbox;
+import com.chhotu.Learning_Management_System.entity.NotificationFanOut;
+import com.chhotu.Learning_Management_System.entity.NotificationTemplate;
 import com.chhotu.Learning_Management_System.entity.Notifications;
 import com.chhotu.Learning_Management_System.entity.Users;
 import com.chhotu.Learning_Management_System.entity.UsersType;
+import com.chhotu.Learning_Management_System.repository.EmailOutboxRepository;
+import com.chhotu.Learning_Management_System.repository.EnrollmentRepository;
+import com.chhotu.Learning_Management_System.repository.NotificationFanOutRepository;
+import com.chhotu.Learning_Management_System.repository.NotificationsBatchRepository;
 import com.chhotu.Learning_Management_System.repository.NotificationsRepository;
 import com.chhotu.Learning_Management_System.repository.UsersRepository;
+import com.chhotu.Learning_Management_System.service.impl.NotificationsServiceImpl;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,6 +23,10 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -27,11 +41,29 @@ class NotificationServiceTest {
     @Mock
     private UsersRepository usersRepository;
 
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private NotificationsBatchRepository notificationsBatchRepository;
+
+    @Mock
+    private TaskExecutor notificationExecutor;
+
+    @Mock
+    private NotificationStreamService notificationStreamService;
+
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Mock
+    private NotificationFanOutRepository notificationFanOutRepository;
+
     @Mock
     private HttpServletRequest request;
 
     @InjectMocks
-    private NotificationsService notificationsService;
+    private NotificationsServiceImpl notificationsService;
 
     private UsersType instructorType;
     private Users instructorUser;
@@ -55,6 +87,12 @@ class NotificationServiceTest {
 
         instructorType = new UsersType();
         instructorType.setUserTypeId(3);
+
+        when(notificationFanOutRepository.save(any(NotificationFanOut.class))).thenAnswer(invocation -> {
+            NotificationFanOut fanOut = invocation.getArgument(0);
+            fanOut.setFanOutId(31);
+            return fanOut;
+        });
     }
 
     @Test
@@ -67,7 +105,7 @@ class NotificationServiceTest {
         notification2.setRead(true);
 
         List<Notifications> notificationsList = List.of(notification1, notification2);
-        when(notificationsRepository.findAll()).thenReturn(notificationsList);
+        when(notificationsRepository.findAllByUser(2)).thenReturn(notificationsList);
 
         HttpSession mockSession = mock(HttpSession.class);
         when(request.getSession()).thenReturn(mockSession);
@@ -78,7 +116,8 @@ class NotificationServiceTest {
         assertEquals(2, result.size());
         assertTrue(result.contains("Message 1"));
         assertTrue(result.contains("Message 2"));
-        verify(notificationsRepository, times(2)).save(any(Notifications.class));
+        verify(notificationsRepository, times(1)).markReadUpTo(2, 1);
+        verify(notificationsRepository, never()).save(any(Notifications.class));
     }
 
     @Test
@@ -88,7 +127,7 @@ class NotificationServiceTest {
         Notifications notification = new Notifications(1, user, "Message", new Date());
         List<Notifications> notificationsList = List.of(notification);
 
-        when(notificationsRepository.findAll()).thenReturn(notificationsList);
+        when(notificationsRepository.findAllByUser(999)).thenReturn(notificationsList);
         HttpSession mockSession = mock(HttpSession.class);
         when(request.getSession()).thenReturn(mockSession);
         when(mockSession.getAttribute("user")).thenReturn(studentUser);
@@ -101,7 +140,7 @@ class NotificationServiceTest {
 //        List<String> result = notificationsService.getAllNotifications(999, request);
 //
         assertEquals("ID mismatch. Please provide the correct ID.", exception.getMessage());
-        verify(notificationsRepository, never()).save(any(Notifications.class));
+        verify(notificationsRepository, never()).markReadUpTo(anyInt(), anyInt());
     }
 
     @Test
@@ -110,11 +149,11 @@ class NotificationServiceTest {
         HttpSession mockSession = mock(HttpSession.class);
         when(request.getSession()).thenReturn(mockSession);
         when(mockSession.getAttribute("user")).thenReturn(studentUser);
-        when(notificationsRepository.findAll()).thenReturn(List.of());
+        when(notificationsRepository.findAllByUser(2)).thenReturn(List.of());
         List<String> result = notificationsService.getAllNotifications(2 ,request );
 
         assertTrue(result.isEmpty());
-        verify(notificationsRepository, never()).save(any(Notifications.class));
+        verify(notificationsRepository, never()).markReadUpTo(anyInt(), anyInt());
     }
 
     @Test
@@ -123,20 +162,18 @@ class NotificationServiceTest {
         Users user = new Users(2, "instructor@example.com", "password", new Date(), instructorType);
         Notifications notification1 = new Notifications(1, user, "Message 1", new Date());
         notification1.setRead(false);
-        Notifications notification2 = new Notifications(2, user, "Message 2", new Date());
-        notification2.setRead(true);
         HttpSession mockSession = mock(HttpSession.class);
         when(request.getSession()).thenReturn(mockSession);
         when(mockSession.getAttribute("user")).thenReturn(studentUser);
 
-        List<Notifications> notificationsList = List.of(notification1, notification2);
-        when(notificationsRepository.findAll()).thenReturn(notificationsList);
+        List<Notifications> notificationsList = List.of(notification1);
+        when(notificationsRepository.findUnreadByUser(2)).thenReturn(notificationsList);
 
         List<String> result = notificationsService.getAllUnreadNotifications(2, request);
 
         assertEquals(1, result.size());
         assertTrue(result.contains("Message 1"));
-        verify(notificationsRepository, times(1)).save(notification1);
+        verify(notificationsRepository, times(1)).markReadUpTo(2, 1);
     }
 
     @Test
@@ -150,7 +187,7 @@ class NotificationServiceTest {
         notification.setRead(false);
         List<Notifications> notificationsList = List.of(notification);
 
-        when(notificationsRepository.findAll()).thenReturn(notificationsList);
+        when(notificationsRepository.findUnreadByUser(999)).thenReturn(notificationsList);
 
         Exception exception = assertThrows(IllegalArgumentException.class, () -> {
             notificationsService.getAllUnreadNotifications(999, request);
@@ -160,7 +197,7 @@ class NotificationServiceTest {
 //        List<String> result = notificationsService.getAllNotifications(999, request);
 //
         assertEquals("ID mismatch. Please provide the correct ID.", exception.getMessage());
-        verify(notificationsRepository, never()).save(any(Notifications.class));
+        verify(notificationsRepository, never()).markReadUpTo(anyInt(), anyInt());
 
     }
 
@@ -168,21 +205,63 @@ class NotificationServiceTest {
 
     @Test
     void getAllUnreadNotificationsForUserWithNoUnreadNotifications_Test() {
-        Users user = new Users(2, "user1@example.com", "password", new Date(), instructorType);
-        Notifications notification1 = new Notifications(1, user, "Message", new Date());
-        notification1.setRead(true);
         HttpSession mockSession = mock(HttpSession.class);
         when(request.getSession()).thenReturn(mockSession);
         when(mockSession.getAttribute("user")).thenReturn(studentUser);
 
-
-        List<Notifications> notificationsList = List.of(notification1);
-
-        when(notificationsRepository.findAll()).thenReturn(notificationsList);
+        when(notificationsRepository.findUnreadByUser(2)).thenReturn(List.of());
         List<String> result = notificationsService.getAllUnreadNotifications(2,request);
 
         assertTrue(result.isEmpty());
-        verify(notificationsRepository, never()).save(any(Notifications.class));
+        verify(notificationsRepository, never()).markReadUpTo(anyInt(), anyInt());
+    }
+
+    @Test
+    void getInboxReturnsKeysetPage_Test() {
+        Users user = new Users(2, "user1@example.com", "password", new Date(), studentType);
+        Date sameSecond = new Date(1_700_000_000_000L);
+        Notifications newest = new Notifications(30, user, "Newest", new Date(1_700_000_060_000L));
+        Notifications middle = new Notifications(12, user, "Middle", sameSecond);
+        Notifications oldest = new Notifications(40, user, "Oldest", sameSecond);
+        HttpSession mockSession = mock(HttpSession.class);
+        when(request.getSession()).thenReturn(mockSession);
+        when(mockSession.getAttribute("user")).thenReturn(studentUser);
+        when(notificationsRepository.findInboxPage(eq(2), any(Date.class), eq(Integer.MAX_VALUE), any(Pageable.class)))
+                .thenReturn(List.of(newest, middle, oldest));
+
+        NotificationPageDto page = notificationsService.getInbox(2, false, null, 2, request);
+
+        assertEquals(2, page.getNotifications().size());
+        assertEquals("Newest", page.getNotifications().get(0).getMessage());
+        assertTrue(page.isHasMore());
+        verify(notificationsRepository, never()).markReadUpTo(anyInt(), anyInt());
+
+        // The next page resumes after the last row on both sort columns, not just its id
+        notificationsService.getInbox(2, false, page.getNextCursor(), 2, request);
+        verify(notificationsRepository).findInboxPage(eq(2), eq(sameSecond), eq(12), any(Pageable.class));
+    }
+
+    @Test
+    void getInboxUnreadOnlyUsesUnreadQuery_Test() {
+        HttpSession mockSession = mock(HttpSession.class);
+        when(request.getSession()).thenReturn(mockSession);
+        when(mockSession.getAttribute("user")).thenReturn(studentUser);
+
+        notificationsService.getInbox(2, true, null, null, request);
+
+        verify(notificationsRepository).findUnreadInboxPage(eq(2), any(Date.class), eq(Integer.MAX_VALUE), any(Pageable.class));
+        verify(notificationsRepository, never()).findInboxPage(anyInt(), any(), anyInt(), any());
+        assertThrows(IllegalArgumentException.class, () -> notificationsService.getInbox(2, true, "not a cursor", null, request));
+    }
+
+    @Test
+    void markReadUpToForValidUser_Test() {
+        HttpSession mockSession = mock(HttpSession.class);
+        when(request.getSession()).thenReturn(mockSession);
+        when(mockSession.getAttribute("user")).thenReturn(studentUser);
+        when(notificationsRepository.markReadUpTo(2, 50)).thenReturn(7);
+
+        assertEquals(7, notificationsService.markReadUpTo(2, 50, request));
     }
 
     @Test
@@ -190,6 +269,7 @@ class NotificationServiceTest {
 
         Users user = new Users(1, "instructor@example.com", "password", new Date(), instructorType);
         when(usersRepository.findById(1)).thenReturn(Optional.of(user));
+        when(notificationsRepository.save(any(Notifications.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         notificationsService.sendNotification("Message", 1);
 
@@ -200,6 +280,12 @@ class NotificationServiceTest {
         assertEquals("Message", savedNotification.getMessage());
         assertEquals(user, savedNotification.getUserId());
         assertFalse(savedNotification.isRead());
+        verify(notificationStreamService).publish(eq(1), any(NotificationDto.class));
+
+        ArgumentCaptor<EmailOutbox> emailCaptor = ArgumentCaptor.forClass(EmailOutbox.class);
+        verify(emailOutboxRepository).save(emailCaptor.capture());
+        assertEquals("instructor@example.com", emailCaptor.getValue().getRecipient());
+        assertEquals(EmailOutbox.Status.PENDING, emailCaptor.getValue().getStatus());
     }
 
     @Test
@@ -211,4 +297,151 @@ class NotificationServiceTest {
 
         verify(notificationsRepository, never()).save(any(Notifications.class));
     }
+
+    @Test
+    void notifyEnrolledStudentsBatchesDistinctRecipients_Test() {
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(notificationExecutor).execute(any(Runnable.class));
+        when(enrollmentRepository.findStudentIdsByCourseId(5)).thenReturn(List.of(2, 3, 2, 4));
+        when(notificationsBatchRepository.deliverFanOut(eq(31L), eq(NotificationTemplate.COURSE_UPDATED), eq("Java"),
+                anyString(), any(Date.class), eq(List.of(2, 3, 4))))
+                .thenReturn(List.of(101, 102, 103));
+
+        assertEquals(3, notificationsService.notifyEnrolledStudents(5, NotificationTemplate.COURSE_UPDATED, "Java"));
+
+        verify(notificationsRepository, never()).save(any(Notifications.class));
+        ArgumentCaptor<NotificationDto> captor = ArgumentCaptor.forClass(NotificationDto.class);
+        verify(notificationStreamService).publish(eq(4), captor.capture());
+        assertEquals(103, captor.getValue().getNotificationId());
+        assertEquals("Java course is updated", captor.getValue().getMessage());
+    }
+
+    @Test
+    void fanOutWaitsForCommit_Test() {
+        when(enrollmentRepository.findStudentIdsByCourseId(5)).thenReturn(List.of(2, 3));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertEquals(2, notificationsService.notifyEnrolledStudents(5, NotificationTemplate.COURSE_UPDATED, "Java"));
+            verifyNoInteractions(notificationExecutor);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(notificationExecutor).execute(any(Runnable.class));
+    }
+
+    @Test
+    void failedFanOutIsKeptAndRetried_Test() {
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(notificationExecutor).execute(any(Runnable.class));
+        when(notificationsBatchRepository.deliverFanOut(eq(31L), any(), any(), anyString(), any(Date.class), eq(List.of(2, 3))))
+                .thenThrow(new RuntimeException("connection reset"))
+                .thenReturn(List.of(101, 102));
+
+        assertEquals(2, notificationsService.fanOutNotification(NotificationTemplate.COURSE_UPDATED, List.of(2, 3), "Java"));
+
+        // Stored before the hand-off, so the failed attempt leaves it for the retry job
+        ArgumentCaptor<NotificationFanOut> stored = ArgumentCaptor.forClass(NotificationFanOut.class);
+        verify(notificationFanOutRepository).save(stored.capture());
+        assertEquals("2,3", stored.getValue().getRecipients());
+        verify(notificationFanOutRepository).recordFailure(eq(31L), any(Date.class), eq("connection reset"));
+        verify(notificationStreamService, never()).publish(anyInt(), any());
+
+        when(notificationFanOutRepository.findDue(any(Date.class), any(Pageable.class))).thenReturn(List.of(stored.getValue()));
+        notificationsService.retryPendingFanOuts();
+
+        verify(notificationStreamService).publish(eq(2), any(NotificationDto.class));
+        verify(notificationStreamService).publish(eq(3), any(NotificationDto.class));
+    }
+
+    @Test
+    void unreadCountLoadsOnceThenTracksWrites_Test() {
+        HttpSession mockSession = mock(HttpSession.class);
+        when(request.getSession()).thenReturn(mockSession);
+        when(mockSession.getAttribute("user")).thenReturn(studentUser);
+        when(notificationsRepository.countUnreadByUser(2)).thenReturn(4L);
+        when(usersRepository.findById(2)).thenReturn(Optional.of(studentUser));
+        when(notificationsRepository.save(any(Notifications.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(notificationsRepository.markReadUpTo(2, 50)).thenReturn(3);
+
+        assertEquals(4, notificationsService.getUnreadCount(2, request));
+        notificationsService.sendNotification("New", 2);
+        assertEquals(5, notificationsService.getUnreadCount(2, request));
+        notificationsService.markReadUpTo(2, 50, request);
+        assertEquals(2, notificationsService.getUnreadCount(2, request));
+
+        verify(notificationsRepository, times(1)).countUnreadByUser(2);
+    }
+
+    @Test
+    void unreadCountReadDuringWriteIsNotCached_Test() {
+        HttpSession mockSession = mock(HttpSession.class);
+        when(request.getSession()).thenReturn(mockSession);
+        when(mockSession.getAttribute("user")).thenReturn(studentUser);
+        when(usersRepository.findById(2)).thenReturn(Optional.of(studentUser));
+        when(notificationsRepository.save(any(Notifications.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(notificationsRepository.countUnreadByUser(2)).thenAnswer(invocation -> {
+            // Commits while the COUNT runs, so the loaded value may or may not include it
+            notificationsService.sendNotification("New", 2);
+            return 5L;
+        }).thenReturn(5L);
+
+        assertEquals(5, notificationsService.getUnreadCount(2, request));
+        assertEquals(5, notificationsService.getUnreadCount(2, request));
+        assertEquals(5, notificationsService.getUnreadCount(2, request));
+
+        verify(notificationsRepository, times(2)).countUnreadByUser(2);
+    }
+
+    @Test
+    void unreadCountChangesOnlyAfterCommit_Test() {
+        HttpSession mockSession = mock(HttpSession.class);
+        when(request.getSession()).thenReturn(mockSession);
+        when(mockSession.getAttribute("user")).thenReturn(studentUser);
+        when(notificationsRepository.countUnreadByUser(2)).thenReturn(4L);
+        when(notificationsRepository.markReadUpTo(2, 50)).thenReturn(3);
+        assertEquals(4, notificationsService.getUnreadCount(2, request));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            notificationsService.markReadUpTo(2, 50, request);
+            assertEquals(4, notificationsService.getUnreadCount(2, request));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1, notificationsService.getUnreadCount(2, request));
+        verify(notificationsRepository, times(1)).countUnreadByUser(2);
+    }
+
+    @Test
+    void templatedNotificationStoresParamsAndRendersOnRead_Test() {
+        HttpSession mockSession = mock(HttpSession.class);
+        when(request.getSession()).thenReturn(mockSession);
+        when(mockSession.getAttribute("user")).thenReturn(studentUser);
+        when(usersRepository.findById(2)).thenReturn(Optional.of(studentUser));
+        when(notificationsRepository.save(any(Notifications.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        notificationsService.sendNotification(NotificationTemplate.QUIZ_AVAILABLE, 2, 42, "Java Basics");
+
+        ArgumentCaptor<Notifications> captor = ArgumentCaptor.forClass(Notifications.class);
+        verify(notificationsRepository).save(captor.capture());
+        Notifications saved = captor.getValue();
+        assertNull(saved.getMessage());
+        assertEquals(NotificationTemplate.QUIZ_AVAILABLE.getId(), saved.getTemplateId());
+
+        when(notificationsRepository.findAllByUser(2)).thenReturn(List.of(saved));
+        assertEquals(List.of("A new quiz (ID: 42) is available for course: Java Basics"),
+                notificationsService.getAllNotifications(2, request));
+    }
 }
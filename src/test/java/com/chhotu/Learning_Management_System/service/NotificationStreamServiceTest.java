@@ -0,0 +1,119 @@
+package com.chhotu.Learning_Management_System.service;
+
+import com.chhotu.Learning_Management_System.dto.NotificationDto;
+import com.chhotu.Learning_Management_System.entity.Notifications;
+import com.chhotu.Learning_Management_System.repository.NotificationsRepository;
+import com.chhotu.Learning_Management_System.service.impl.NotificationStreamServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class NotificationStreamServiceTest {
+
+    @Mock
+    private NotificationsRepository notificationsRepository;
+
+    @InjectMocks
+    private NotificationStreamServiceImpl notificationStreamService;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void resumeWithinBufferDoesNotQueryDatabase_Test() {
+        when(notificationsRepository.findLatestIdByUser(2)).thenReturn(10);
+        notificationStreamService.subscribe(2, null);
+
+        notificationStreamService.publish(2, new NotificationDto(11, "First", new Date(), false));
+        notificationStreamService.publish(2, new NotificationDto(12, "Second", new Date(), false));
+
+        SseEmitter emitter = notificationStreamService.subscribe(2, 11);
+
+        assertNotNull(emitter);
+        verify(notificationsRepository, times(1)).findLatestIdByUser(2);
+        verify(notificationsRepository, never()).findByUserAfter(anyInt(), anyInt(), any(Pageable.class));
+    }
+
+    @Test
+    void resumeBeforeBufferFallsBackToDatabase_Test() {
+        when(notificationsRepository.findLatestIdByUser(2)).thenReturn(10);
+        when(notificationsRepository.findByUserAfter(eq(2), eq(5), any(Pageable.class))).thenReturn(List.of());
+
+        notificationStreamService.subscribe(2, 5);
+
+        verify(notificationsRepository).findByUserAfter(eq(2), eq(5), any(Pageable.class));
+    }
+
+    @Test
+    void replayFromDatabaseReadsEveryPage_Test() {
+        when(notificationsRepository.findLatestIdByUser(2)).thenReturn(200);
+        // One full page of the replay query, so the next page has to be read as well
+        int pageSize = 64;
+        List<Notifications> firstPage = new ArrayList<>();
+        for (int id = 6; id < 6 + pageSize; id++) {
+            firstPage.add(new Notifications(id, null, "Missed " + id, new Date()));
+        }
+        when(notificationsRepository.findByUserAfter(eq(2), eq(5), any(Pageable.class))).thenReturn(firstPage);
+        when(notificationsRepository.findByUserAfter(eq(2), eq(5 + pageSize), any(Pageable.class)))
+                .thenReturn(List.of(new Notifications(6 + pageSize, null, "Last", new Date())));
+
+        notificationStreamService.subscribe(2, 5);
+
+        verify(notificationsRepository, times(2)).findByUserAfter(eq(2), anyInt(), any(Pageable.class));
+    }
+
+    @Test
+    void publishWithoutSubscriberIsIgnored_Test() {
+        notificationStreamService.publish(3, new NotificationDto(1, "Nobody listening", new Date(), false));
+
+        verifyNoInteractions(notificationsRepository);
+    }
+
+    @Test
+    void publishDuringReplayIsNeitherLostNorRepeated_Test() {
+        List<Integer> sentIds = new ArrayList<>();
+        NotificationStreamServiceImpl service = new NotificationStreamServiceImpl(notificationsRepository) {
+            @Override
+            protected SseEmitter createEmitter() {
+                return new SseEmitter() {
+                    @Override
+                    public void send(SseEventBuilder builder) throws IOException {
+                        Matcher id = Pattern.compile("id:(\\d+)").matcher(builder.build().iterator().next().getData().toString());
+                        if (id.find()) {
+                            sentIds.add(Integer.parseInt(id.group(1)));
+                        }
+                    }
+                };
+            }
+        };
+        when(notificationsRepository.findLatestIdByUser(2)).thenReturn(10);
+        when(notificationsRepository.findByUserAfter(eq(2), eq(5), any(Pageable.class))).thenAnswer(invocation -> {
+            // Both arrive while the missed rows are being read; 7 is also part of the replay
+            service.publish(2, new NotificationDto(7, "Second", new Date(), false));
+            service.publish(2, new NotificationDto(8, "Third", new Date(), false));
+            return List.of(new Notifications(6, null, "First", new Date()),
+                    new Notifications(7, null, "Second", new Date()));
+        });
+
+        service.subscribe(2, 5);
+        service.publish(2, new NotificationDto(9, "Fourth", new Date(), false));
+
+        assertEquals(List.of(6, 7, 8, 9), sentIds);
+    }
+}
@@ -0,0 +1,119 @@
+package com.chhotu.Learning_Management_System.service;
+
+import com.chhotu.Learning_Management_System.dto.QuestionImportReportDto;
+import com.chhotu.Learning_Management_System.entity.Course;
+import com.chhotu.Learning_Management_System.entity.QuestionType;
+import com.chhotu.Learning_Management_System.entity.Users;
+import com.chhotu.Learning_Management_System.entity.UsersType;
+import com.chhotu.Learning_Management_System.repository.CourseRepository;
+import com.chhotu.Learning_Management_System.repository.QuestionImportRepository;
+import com.chhotu.Learning_Management_System.service.impl.QuestionImportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class QuestionImportServiceTest {
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private ReferenceDataService referenceDataService;
+
+    @Mock
+    private QuestionImportRepository questionImportRepository;
+
+    @Mock
+    private HttpServletRequest request;
+
+    private QuestionImportServiceImpl questionImportService;
+    private final List<QuestionImportRepository.Row> written = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        questionImportService = new QuestionImportServiceImpl(courseRepository, referenceDataService,
+                questionImportRepository, new ObjectMapper());
+
+        UsersType adminType = new UsersType();
+        adminType.setUserTypeId(1);
+        Users admin = new Users();
+        admin.setUserId(1);
+        admin.setUserTypeId(adminType);
+        HttpSession session = mock(HttpSession.class);
+        when(request.getSession()).thenReturn(session);
+        when(session.getAttribute("user")).thenReturn(admin);
+
+        when(courseRepository.findById(7)).thenReturn(Optional.of(new Course()));
+        QuestionType mcq = new QuestionType(1, QuestionType.QuestionTypeEnum.MCQ);
+        when(referenceDataService.getQuestionType(QuestionType.QuestionTypeEnum.MCQ)).thenReturn(mcq);
+        when(referenceDataService.findQuestionType(2)).thenReturn(Optional.of(new QuestionType(2, QuestionType.QuestionTypeEnum.TRUE_FALSE)));
+        when(referenceDataService.getQuestionType(QuestionType.QuestionTypeEnum.SHORT_ANSWER)).thenThrow(new IllegalStateException("missing"));
+        // The service reuses its batch list, so keep a copy of every batch written
+        when(questionImportRepository.insertBatch(anyInt(), anyList())).thenAnswer(inv -> {
+            List<QuestionImportRepository.Row> batch = inv.getArgument(1);
+            written.addAll(batch);
+            return batch.size();
+        });
+    }
+
+    @Test
+    void jsonlImportReportsBadLinesAndKeepsTheRest_Test() throws Exception {
+        String upload = String.join("\n",
+                "{\"questionText\":\"2 + 2?\",\"type\":\"MCQ\",\"options\":[\"3\",\"4\"],\"correctAnswer\":\"4\"}",
+                "",
+                "{\"questionText\":\"Sky is blue\",\"type\":2,\"correctAnswer\":\"true\"}",
+                "{\"questionText\":\"Broken\"",
+                "{\"questionText\":\"Essay\",\"type\":\"ESSAY\",\"correctAnswer\":\"x\"}");
+
+        QuestionImportReportDto report = questionImportService.importQuestionBank(7, "jsonl", new StringReader(upload), request);
+
+        assertEquals(4, report.getLinesRead());
+        assertEquals(2, report.getImported());
+        assertEquals(2, report.getRejected());
+        assertEquals(4, report.getErrors().get(0).getLine());
+        assertEquals(5, report.getErrors().get(1).getLine());
+        assertEquals("Unknown question type: ESSAY", report.getErrors().get(1).getMessage());
+
+        verify(questionImportRepository).insertBatch(eq(7), anyList());
+        assertEquals(1, written.get(0).typeId());
+        assertEquals("\"[\\\"3\\\",\\\"4\\\"]\"", written.get(0).options());
+        assertEquals(2, written.get(1).typeId());
+        assertNull(written.get(1).options());
+    }
+
+    @Test
+    void csvImportWritesInBatches_Test() throws Exception {
+        StringBuilder upload = new StringBuilder("questionText,type,options,correctAnswer\n");
+        for (int i = 0; i < 1200; i++) {
+            upload.append("\"Question ").append(i).append(", quoted \"\"part\"\"\",MCQ,\"[\"\"a\"\",\"\"b\"\"]\",a\n");
+        }
+
+        QuestionImportReportDto report = questionImportService.importQuestionBank(7, "csv", new StringReader(upload.toString()), request);
+
+        assertEquals(1200, report.getImported());
+        assertEquals(0, report.getRejected());
+        verify(questionImportRepository, times(3)).insertBatch(eq(7), anyList());
+        assertEquals("Question 5, quoted \"part\"", written.get(5).questionText());
+    }
+
+    @Test
+    void csvWithoutRequiredColumnsIsRejected_Test() {
+        assertThrows(IllegalArgumentException.class, () -> questionImportService.importQuestionBank(
+                7, "csv", new StringReader("text,answer\nfoo,bar\n"), request));
+        verifyNoInteractions(questionImportRepository);
+    }
+}
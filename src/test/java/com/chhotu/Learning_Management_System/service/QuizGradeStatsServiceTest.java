@@ -0,0 +1,152 @@
+package com.chhotu.Learning_Management_System.service;
+
+import com.chhotu.Learning_Management_System.dto.QuizGradeStatsDto;
+import com.chhotu.Learning_Management_System.entity.*;
+import com.chhotu.Learning_Management_System.repository.GradingRepository;
+import com.chhotu.Learning_Management_System.repository.QuizRepository;
+import com.chhotu.Learning_Management_System.service.impl.QuizGradeStatsServiceImpl;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class QuizGradeStatsServiceTest {
+
+    @Mock
+    private GradingRepository gradingRepository;
+
+    @Mock
+    private QuizRepository quizRepository;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpSession session;
+
+    private QuizGradeStatsServiceImpl quizGradeStatsService;
+    private Users instructorUser;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        quizGradeStatsService = new QuizGradeStatsServiceImpl(gradingRepository, quizRepository);
+
+        instructorUser = new Users();
+        instructorUser.setUserId(5);
+        instructorUser.setUserTypeId(new UsersType(3, "Instructor", null));
+        Instructor instructor = new Instructor();
+        instructor.setUserAccountId(5);
+        Course course = new Course();
+        course.setInstructorId(instructor);
+        Quiz quiz = new Quiz();
+        quiz.setQuizId(9);
+        quiz.setCourse(course);
+
+        when(request.getSession()).thenReturn(session);
+        when(session.getAttribute("user")).thenReturn(instructorUser);
+        when(quizRepository.findById(9)).thenReturn(Optional.of(quiz));
+    }
+
+    @Test
+    void statsAreRebuiltOnceAndThenUpdatedIncrementally_Test() {
+        when(gradingRepository.findGradeRowsByQuizId(9)).thenReturn(rows(1, 2, 2, 4, 3, 4));
+
+        QuizGradeStatsDto first = quizGradeStatsService.getStats(9, request);
+        assertEquals(3, first.getCount());
+        assertEquals(10.0 / 3, first.getMean(), 1e-9);
+        assertEquals(2, first.getMin());
+        assertEquals(4, first.getMax());
+
+        quizGradeStatsService.record(9, 4, 6);
+        QuizGradeStatsDto second = quizGradeStatsService.getStats(9, request);
+
+        assertEquals(4, second.getCount());
+        assertEquals(4.0, second.getMean(), 1e-9);
+        assertEquals(Math.sqrt(2.0), second.getStandardDeviation(), 1e-9);
+        assertEquals(6, second.getMax());
+        assertEquals(2L, second.getHistogram().get(4));
+        verify(gradingRepository, times(1)).findGradeRowsByQuizId(9);
+    }
+
+    @Test
+    void recordOfGradingAlreadyLoadedIsIgnored_Test() {
+        when(gradingRepository.findGradeRowsByQuizId(9)).thenReturn(rows(1, 5));
+        quizGradeStatsService.getStats(9, request);
+
+        quizGradeStatsService.record(9, 1, 5);
+
+        assertEquals(1, quizGradeStatsService.getStats(9, request).getCount());
+    }
+
+    @Test
+    void gradingsCommittedDuringRebuildAreCountedOnce_Test() {
+        when(gradingRepository.findGradeRowsByQuizId(9)).thenAnswer(invocation -> {
+            // Grading 2 committed before the query read it, grading 3 after
+            quizGradeStatsService.record(9, 2, 4);
+            quizGradeStatsService.record(9, 3, 6);
+            return rows(1, 2, 2, 4);
+        });
+
+        QuizGradeStatsDto stats = quizGradeStatsService.getStats(9, request);
+
+        assertEquals(3, stats.getCount());
+        assertEquals(4.0, stats.getMean(), 1e-9);
+        assertEquals(6, stats.getMax());
+    }
+
+    @Test
+    void percentilesComeFromHistogram_Test() {
+        // Grades 1..10, one submission each
+        List<Object[]> rows = new ArrayList<>();
+        for (int grade = 1; grade <= 10; grade++) {
+            rows.add(new Object[]{grade, grade});
+        }
+        when(gradingRepository.findGradeRowsByQuizId(9)).thenReturn(rows);
+
+        QuizGradeStatsDto stats = quizGradeStatsService.getStats(9, request);
+
+        assertEquals(3, stats.getP25());
+        assertEquals(5, stats.getMedian());
+        assertEquals(8, stats.getP75());
+        assertEquals(9, stats.getP90());
+    }
+
+    @Test
+    void emptyQuizHasNoPercentiles_Test() {
+        when(gradingRepository.findGradeRowsByQuizId(9)).thenReturn(List.of());
+
+        QuizGradeStatsDto stats = quizGradeStatsService.getStats(9, request);
+
+        assertEquals(0, stats.getCount());
+        assertNull(stats.getMedian());
+        assertTrue(stats.getHistogram().isEmpty());
+    }
+
+    @Test
+    void otherInstructorCannotSeeStats_Test() {
+        instructorUser.setUserId(6);
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> quizGradeStatsService.getStats(9, request));
+
+        assertEquals("Logged-in instructor does not have access for this quiz grades.", exception.getMessage());
+        verifyNoInteractions(gradingRepository);
+    }
+
+    private static List<Object[]> rows(int... idAndGrade) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < idAndGrade.length; i += 2) {
+            rows.add(new Object[]{idAndGrade[i], idAndGrade[i + 1]});
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,113 @@
+package com.chhotu.Learning_Management_System.service;
+
+import com.chhotu.Learning_Management_System.dto.GradingDto;
+import com.chhotu.Learning_Management_System.entity.QuestionType.QuestionTypeEnum;
+import com.chhotu.Learning_Management_System.repository.QuestionRepository;
+import com.chhotu.Learning_Management_System.service.grading.McqScorer;
+import com.chhotu.Learning_Management_System.service.grading.QuizGradingEngine;
+import com.chhotu.Learning_Management_System.service.grading.QuizScore;
+import com.chhotu.Learning_Management_System.service.grading.ShortAnswerScorer;
+import com.chhotu.Learning_Management_System.service.grading.TrueFalseScorer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class QuizGradingEngineTest {
+
+    @Mock
+    private QuestionRepository questionRepository;
+
+    private QuizGradingEngine quizGradingEngine;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        quizGradingEngine = new QuizGradingEngine(questionRepository,
+                List.of(new McqScorer(), new TrueFalseScorer(), new ShortAnswerScorer()));
+
+        when(questionRepository.findAnswerKeyRowsByQuizId(7)).thenReturn(List.of(
+                new Object[]{10, QuestionTypeEnum.MCQ, "B"},
+                new Object[]{11, QuestionTypeEnum.TRUE_FALSE, "true"},
+                new Object[]{12, QuestionTypeEnum.SHORT_ANSWER, "Java Virtual Machine"}));
+    }
+
+    @Test
+    void gradeMatchesAnswersByQuestionIdWithNormalisation_Test() {
+        GradingDto submission = new GradingDto();
+        submission.setQuizId(7);
+        submission.setAnswersByQuestion(Map.of(12, "  java virtual-machine. ", 10, "b", 11, "Yes"));
+
+        assertEquals(3, quizGradingEngine.grade(submission));
+    }
+
+    @Test
+    void gradeFallsBackToPositionalAnswers_Test() {
+        GradingDto submission = new GradingDto();
+        submission.setQuizId(7);
+        submission.setAnswers(List.of("B", "false"));
+
+        assertEquals(1, quizGradingEngine.grade(submission));
+    }
+
+    @Test
+    void scoreKeepsEveryQuestionInIdOrder_Test() {
+        GradingDto submission = new GradingDto();
+        submission.setQuizId(7);
+        submission.setAnswersByQuestion(Map.of(10, " C ", 11, "T"));
+
+        QuizScore score = quizGradingEngine.score(submission);
+
+        assertEquals(1, score.grade());
+        assertEquals(List.of(
+                new QuizScore.QuestionResult(10, QuestionTypeEnum.MCQ, " C ", "c", false),
+                new QuizScore.QuestionResult(11, QuestionTypeEnum.TRUE_FALSE, "T", "true", true),
+                new QuizScore.QuestionResult(12, QuestionTypeEnum.SHORT_ANSWER, null, null, false)), score.results());
+    }
+
+    @Test
+    void answerKeyIsLoadedOnceUntilEvicted_Test() {
+        GradingDto submission = new GradingDto();
+        submission.setQuizId(7);
+        submission.setAnswers(List.of("B", "true", "jvm"));
+
+        quizGradingEngine.grade(submission);
+        quizGradingEngine.grade(submission);
+        verify(questionRepository, times(1)).findAnswerKeyRowsByQuizId(7);
+
+        quizGradingEngine.evict(7);
+        quizGradingEngine.grade(submission);
+        verify(questionRepository, times(2)).findAnswerKeyRowsByQuizId(7);
+    }
+
+    @Test
+    void answerKeyIsEvictedOnlyAfterCommit_Test() {
+        GradingDto submission = new GradingDto();
+        submission.setQuizId(7);
+        submission.setAnswers(List.of("B", "true", "jvm"));
+        quizGradingEngine.grade(submission);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            quizGradingEngine.evict(7);
+            // A grader running before the commit still uses the cached key instead of caching the old answers again
+            quizGradingEngine.grade(submission);
+            verify(questionRepository, times(1)).findAnswerKeyRowsByQuizId(7);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        quizGradingEngine.grade(submission);
+        verify(questionRepository, times(2)).findAnswerKeyRowsByQuizId(7);
+    }
+}
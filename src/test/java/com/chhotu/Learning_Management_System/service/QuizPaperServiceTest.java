@@ -0,0 +1,105 @@
+package com.chhotu.Learning_Management_System.service;
+
+import com.chhotu.Learning_Management_System.repository.QuestionRepository;
+import com.chhotu.Learning_Management_System.service.impl.QuizPaperServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class QuizPaperServiceTest {
+
+    @Mock
+    private QuestionRepository questionRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private QuizPaperServiceImpl quizPaperService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        quizPaperService = new QuizPaperServiceImpl(questionRepository, objectMapper);
+    }
+
+    @Test
+    void paperEmbedsOptionsAndHasNoAnswers_Test() throws Exception {
+        when(questionRepository.findPaperRowsByQuizId(7)).thenReturn(rows(
+                new Object[]{10, "Pick one", 1, "[\"A\", \"B\"]", 3},
+                new Object[]{11, "JVM?", 3, null, 3}));
+
+        JsonNode paper = objectMapper.readTree(quizPaperService.getPaper(7));
+
+        assertEquals(2, paper.size());
+        assertEquals(10, paper.get(0).get("questionId").asInt());
+        assertTrue(paper.get(0).get("options").isArray());
+        assertEquals("B", paper.get(0).get("options").get(1).asText());
+        assertTrue(paper.get(1).get("options").isNull());
+        assertFalse(paper.get(0).has("correctAnswer"));
+    }
+
+    @Test
+    void concurrentRequestsRenderOnce_Test() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(questionRepository.findPaperRowsByQuizId(7)).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return rows(new Object[]{10, "Pick one", 1, "[]", 3});
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<byte[]>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> quizPaperService.getPaper(7)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            byte[] first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<byte[]> result : results) {
+                assertSame(first, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        verify(questionRepository, times(1)).findPaperRowsByQuizId(7);
+    }
+
+    @Test
+    void evictedPaperIsRenderedAgain_Test() {
+        when(questionRepository.findPaperRowsByQuizId(7)).thenReturn(rows(new Object[]{10, "Old", 1, "[]", 3}));
+        quizPaperService.getPaper(7);
+        quizPaperService.getPaper(7);
+
+        quizPaperService.evict(7);
+        quizPaperService.getPaper(7);
+
+        verify(questionRepository, times(2)).findPaperRowsByQuizId(7);
+    }
+
+    @Test
+    void failedRenderIsNotCached_Test() {
+        when(questionRepository.findPaperRowsByQuizId(7))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenReturn(rows(new Object[]{10, "Pick one", 1, "[]", 3}));
+
+        assertThrows(IllegalStateException.class, () -> quizPaperService.getPaper(7));
+        assertTrue(quizPaperService.getPaper(7).length > 0);
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
@@ -0,0 +1,121 @@
+package com.chhotu.Learning_Management_System.service;
+
+import com.chhotu.Learning_Management_System.entity.Course;
+import com.chhotu.Learning_Management_System.entity.Instructor;
+import com.chhotu.Learning_Management_System.entity.Quiz;
+import com.chhotu.Learning_Management_System.entity.Users;
+import com.chhotu.Learning_Management_System.entity.UsersType;
+import com.chhotu.Learning_Management_System.repository.CourseRepository;
+import com.chhotu.Learning_Management_System.repository.QuestionRepository;
+import com.chhotu.Learning_Management_System.repository.QuizRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.mockito.ArgumentCaptor;
+import com.chhotu.Learning_Management_System.service.impl.QuizServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class QuizQuestionSelectionTest {
+
+    @Mock
+    private QuestionRepository questionRepository;
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private QuizRepository quizRepository;
+
+    @Mock
+    private NotificationsService notificationsService;
+
+    @Mock
+    private QuizScheduleService quizScheduleService;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @InjectMocks
+    private QuizServiceImpl quizService;
+
+    private Course course;
+    private Quiz quiz;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        course = new Course();
+        course.setCourseId(1);
+        quiz = new Quiz();
+        quiz.setQuizId(9);
+        quiz.setQuestionCount(5);
+        when(questionRepository.countByCourseIdAndQuestionType(1, 1)).thenReturn(20L);
+    }
+
+    @Test
+    void questionsLostToConcurrentQuizAreReplaced_Test() throws Exception {
+        when(questionRepository.sampleUnassignedQuestionIds(1, 1, 15))
+                .thenReturn(List.of(1, 2, 3, 4, 5, 6, 7));
+        // Question 2 was claimed by another quiz in the meantime
+        when(questionRepository.claimQuestion(anyInt(), eq(quiz))).thenReturn(1);
+        when(questionRepository.claimQuestion(2, quiz)).thenReturn(0);
+
+        quizService.generateQuestions(quiz, 1, course);
+
+        verify(questionRepository, times(6)).claimQuestion(anyInt(), eq(quiz));
+        verify(questionRepository, never()).claimQuestion(7, quiz);
+        verify(questionRepository, never()).findQuestionsByCourseIdAndQuestionType(anyInt(), anyInt());
+    }
+
+    @Test
+    void notEnoughUnassignedQuestionsFails_Test() {
+        when(questionRepository.sampleUnassignedQuestionIds(eq(1), eq(1), anyInt())).thenReturn(List.of(1, 2), List.of());
+        when(questionRepository.claimQuestion(anyInt(), eq(quiz))).thenReturn(1);
+        when(questionRepository.countUnassignedByCourseIdAndQuestionType(1, 1)).thenReturn(0L);
+
+        Exception exception = assertThrows(Exception.class, () -> quizService.generateQuestions(quiz, 1, course));
+
+        assertTrue(exception.getMessage().startsWith("No enough unassigned questions to create new quiz!"));
+    }
+
+    @Test
+    void createNamesQuizFromCourseSequence_Test() throws Exception {
+        UsersType instructorType = new UsersType();
+        instructorType.setUserTypeId(3);
+        Users instructorUser = new Users();
+        instructorUser.setUserId(4);
+        instructorUser.setUserTypeId(instructorType);
+        course.setInstructorId(new Instructor());
+        course.getInstructorId().setUserAccountId(4);
+
+        HttpSession session = mock(HttpSession.class);
+        when(request.getSession()).thenReturn(session);
+        when(session.getAttribute("user")).thenReturn(instructorUser);
+        when(courseRepository.findById(1)).thenReturn(Optional.of(course));
+        when(courseRepository.findQuizSequence(1)).thenReturn(8);
+        long now = System.currentTimeMillis();
+        when(quizScheduleService.windowOf(any(Quiz.class)))
+                .thenReturn(new QuizScheduleService.QuizWindow(0, 1, now, now + 15 * 60 * 1000));
+        when(questionRepository.sampleUnassignedQuestionIds(eq(1), eq(1), anyInt())).thenReturn(List.of(1, 2, 3, 4, 5));
+        when(questionRepository.claimQuestion(anyInt(), any(Quiz.class))).thenReturn(1);
+
+        quizService.Create(1, 1, request);
+
+        ArgumentCaptor<Quiz> captor = ArgumentCaptor.forClass(Quiz.class);
+        verify(quizRepository).save(captor.capture());
+        assertEquals("quiz8", captor.getValue().getTitle());
+        verify(courseRepository).incrementQuizSequence(1);
+        verify(quizRepository, never()).findAll();
+        verify(quizScheduleService).register(captor.getValue());
+    }
+}
@@ -0,0 +1,138 @@
+package com.chhotu.Learning_Management_System.service;
+
+import com.chhotu.Learning_Management_System.entity.Course;
+import com.chhotu.Learning_Management_System.entity.Quiz;
+import com.chhotu.Learning_Management_System.repository.QuizRepository;
+import com.chhotu.Learning_Management_System.service.impl.QuizScheduleServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class QuizScheduleServiceTest {
+
+    private static final long MINUTE = 60 * 1000;
+
+    @Mock
+    private QuizRepository quizRepository;
+
+    private SteppingClock clock;
+    private QuizScheduleServiceImpl quizScheduleService;
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        clock = new SteppingClock(System.currentTimeMillis());
+        quizScheduleService = new QuizScheduleServiceImpl(quizRepository, clock, 15);
+        course = new Course();
+        course.setCourseId(4);
+    }
+
+    @Test
+    void openQuizzesAreListedSoonestToCloseFirst_Test() {
+        long now = clock.millis();
+        quizScheduleService.register(quiz(1, now - MINUTE, now + 10 * MINUTE));
+        quizScheduleService.register(quiz(2, now - MINUTE, now + 5 * MINUTE));
+        quizScheduleService.register(quiz(3, now + 60 * MINUTE, now + 70 * MINUTE));
+        quizScheduleService.register(quiz(4, now - 10 * MINUTE, now - MINUTE));
+
+        List<Integer> open = quizScheduleService.getOpenQuizzes(4).stream()
+                .map(QuizScheduleService.QuizWindow::quizId).toList();
+
+        assertEquals(List.of(2, 1), open);
+        assertTrue(quizScheduleService.getOpenQuizzes(5).isEmpty());
+        verifyNoInteractions(quizRepository);
+    }
+
+    @Test
+    void tickOpensAndClosesQuizzes_Test() {
+        long now = clock.millis();
+        quizScheduleService.register(quiz(1, now - MINUTE, now + 50));
+        quizScheduleService.register(quiz(2, now + 50, now + 10 * MINUTE));
+        assertEquals(1, quizScheduleService.getOpenQuizzes(4).get(0).quizId());
+
+        clock.advance(100);
+        quizScheduleService.tick();
+
+        List<QuizScheduleService.QuizWindow> open = quizScheduleService.getOpenQuizzes(4);
+        assertEquals(1, open.size());
+        assertEquals(2, open.get(0).quizId());
+    }
+
+    @Test
+    void legacyQuizUsesCreationDatePlusDefaultDuration_Test() {
+        long created = clock.millis() - 5 * MINUTE;
+        when(quizRepository.findScheduleRowsNotClosedBy(any(Date.class), any(Date.class)))
+                .thenReturn(List.<Object[]>of(new Object[]{7, 4, null, null, new Date(created)}));
+
+        quizScheduleService.resync();
+
+        QuizScheduleService.QuizWindow window = quizScheduleService.getOpenQuizzes(4).get(0);
+        assertEquals(7, window.quizId());
+        assertEquals(created + 15 * MINUTE, window.closesAt());
+    }
+
+    @Test
+    void reschedulingReplacesTheOldWindow_Test() {
+        long now = clock.millis();
+        quizScheduleService.register(quiz(1, now - MINUTE, now + 10 * MINUTE));
+        quizScheduleService.register(quiz(1, now + 30 * MINUTE, now + 40 * MINUTE));
+
+        assertTrue(quizScheduleService.getOpenQuizzes(4).isEmpty());
+    }
+
+    private Quiz quiz(int id, long opensAt, long closesAt) {
+        Quiz quiz = new Quiz();
+        quiz.setQuizId(id);
+        quiz.setCourse(course);
+        quiz.setCreationDate(new Date(opensAt));
+        quiz.setOpensAt(new Date(opensAt));
+        quiz.setClosesAt(new Date(closesAt));
+        return quiz;
+    }
+
+    private static final class SteppingClock extends Clock {
+
+        private long millis;
+
+        private SteppingClock(long millis) {
+            this.millis = millis;
+        }
+
+        private void advance(long ms) {
+            millis += ms;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -531,10 +531,13 @@ public class QuizServiceTest {
         when(mockSession.getAttribute("user")).thenReturn(instructorUser);
         when(quizRepository.existsById(1)).thenReturn(true);
         when(quizRepository.findById(1)).thenReturn(Optional.of(quiz));
-        when(gradingRepository.findAllByQuizId(quiz)).thenReturn(List.of(grading));
+        List<Object[]> gradeRows = new ArrayList<>();
+        gradeRows.add(new Object[]{2, 10});
+        when(gradingRepository.findStudentGradeRowsByQuizId(1)).thenReturn(gradeRows);
 
         List <String> quizGrades = quizService.quizGrades(1, request);
 
         assertEquals(1, quizGrades.size());
+        assertEquals("(ID)2: (Grade)10", quizGrades.get(0));
     }
 }
@@ -0,0 +1,227 @@
+package com.chhotu.Learning_Management_System.service;
+
+import com.chhotu.Learning_Management_System.dto.GradingDto;
+import com.chhotu.Learning_Management_System.dto.QuizSubmissionDto;
+import com.chhotu.Learning_Management_System.entity.NotificationTemplate;
+import com.chhotu.Learning_Management_System.entity.QuestionType.QuestionTypeEnum;
+import com.chhotu.Learning_Management_System.entity.Quiz;
+import com.chhotu.Learning_Management_System.entity.QuizSubmission;
+import com.chhotu.Learning_Management_System.entity.Users;
+import com.chhotu.Learning_Management_System.entity.UsersType;
+import com.chhotu.Learning_Management_System.repository.AnswerBatchRepository;
+import com.chhotu.Learning_Management_System.repository.QuizRepository;
+import com.chhotu.Learning_Management_System.repository.QuizSubmissionBatchRepository;
+import com.chhotu.Learning_Management_System.repository.QuizSubmissionRepository;
+import com.chhotu.Learning_Management_System.service.grading.QuizGradingEngine;
+import com.chhotu.Learning_Management_System.service.grading.QuizScore;
+import com.chhotu.Learning_Management_System.service.impl.QuizSubmissionServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Clock;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class QuizSubmissionServiceTest {
+
+    @Mock
+    private QuizSubmissionRepository quizSubmissionRepository;
+
+    @Mock
+    private QuizSubmissionBatchRepository quizSubmissionBatchRepository;
+
+    @Mock
+    private QuizRepository quizRepository;
+
+    @Mock
+    private QuizScheduleService quizScheduleService;
+
+    @Mock
+    private QuizGradingEngine quizGradingEngine;
+
+    @Mock
+    private NotificationsService notificationsService;
+
+    @Mock
+    private QuizGradeStatsService quizGradeStatsService;
+
+    @Mock
+    private HttpServletRequest request;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private QuizSubmissionServiceImpl quizSubmissionService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        quizSubmissionService = new QuizSubmissionServiceImpl(quizSubmissionRepository, quizSubmissionBatchRepository, quizRepository,
+                quizScheduleService, quizGradingEngine, notificationsService, quizGradeStatsService, objectMapper, new SyncTaskExecutor(),
+                Clock.systemUTC(), 1, 100, 10);
+
+        Users student = new Users();
+        student.setUserId(20);
+        student.setUserTypeId(new UsersType(2, "Student", null));
+        HttpSession session = mock(HttpSession.class);
+        when(request.getSession()).thenReturn(session);
+        when(session.getAttribute("user")).thenReturn(student);
+
+        long now = System.currentTimeMillis();
+        when(quizScheduleService.findTrackedWindow(9))
+                .thenReturn(new QuizScheduleService.QuizWindow(9, 3, now - 60_000, now + 60_000));
+    }
+
+    @Test
+    void submitStoresAnswersWithoutGrading_Test() {
+        when(quizSubmissionRepository.save(any(QuizSubmission.class))).thenAnswer(inv -> {
+            QuizSubmission submission = inv.getArgument(0);
+            submission.setSubmissionId(77);
+            return submission;
+        });
+
+        QuizSubmissionDto result = quizSubmissionService.submit(answers(), "attempt-1", request);
+
+        assertEquals(77, result.getSubmissionId());
+        assertEquals("PENDING", result.getStatus());
+        verify(quizSubmissionRepository).save(argThat(s -> s.getStudentId() == 20 && s.getCourseId() == 3
+                && s.getIdempotencyKey().equals("attempt-1")));
+        verifyNoInteractions(quizGradingEngine, quizSubmissionBatchRepository, notificationsService);
+    }
+
+    @Test
+    void retryWithSameKeyReturnsOriginalSubmission_Test() {
+        QuizSubmission original = new QuizSubmission(9, 3, 20, "attempt-1", "{}", new Date());
+        original.setSubmissionId(77);
+        original.setStatus(QuizSubmission.Status.GRADED);
+        original.setGrade(4);
+        when(quizSubmissionRepository.save(any(QuizSubmission.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(quizSubmissionRepository.findByQuizIdAndStudentId(9, 20)).thenReturn(Optional.of(original));
+
+        QuizSubmissionDto result = quizSubmissionService.submit(answers(), "attempt-1", request);
+        assertEquals(77, result.getSubmissionId());
+        assertEquals(4, result.getGrade());
+
+        assertThrows(IllegalArgumentException.class, () -> quizSubmissionService.submit(answers(), "attempt-2", request));
+    }
+
+    @Test
+    void closedQuizIsRejectedWithoutDatabaseWrite_Test() {
+        GradingDto late = answers();
+        late.setQuizId(10);
+        when(quizSubmissionRepository.findByQuizIdAndStudentId(10, 20)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> quizSubmissionService.submit(late, null, request));
+        verify(quizSubmissionRepository, never()).save(any());
+    }
+
+    @Test
+    void quizMissingFromScheduleIsCheckedAgainstDatabase_Test() {
+        // Created on another instance, so this one's schedule does not hold it yet
+        GradingDto answers = answers();
+        answers.setQuizId(11);
+        Quiz quiz = new Quiz();
+        quiz.setQuizId(11);
+        long now = System.currentTimeMillis();
+        when(quizRepository.findById(11)).thenReturn(Optional.of(quiz));
+        when(quizScheduleService.windowOf(quiz)).thenReturn(new QuizScheduleService.QuizWindow(11, 3, now - 60_000, now + 60_000));
+        when(quizSubmissionRepository.save(any(QuizSubmission.class))).thenAnswer(inv -> {
+            QuizSubmission saved = inv.getArgument(0);
+            saved.setSubmissionId(78);
+            return saved;
+        });
+
+        QuizSubmissionDto result = quizSubmissionService.submit(answers, null, request);
+
+        assertEquals(78, result.getSubmissionId());
+        verify(quizSubmissionRepository).save(argThat(s -> s.getQuizId() == 11 && s.getCourseId() == 3));
+    }
+
+    @Test
+    void gradeBatchStoresGradesAndRejectionsTogether_Test() throws Exception {
+        String payload = objectMapper.writeValueAsString(answers());
+        QuizSubmission enrolled = submission(1, 20, payload);
+        QuizSubmission notEnrolled = submission(2, 21, payload);
+        QuizSubmission duplicate = submission(3, 22, payload);
+        when(quizSubmissionRepository.findAllById(List.of(1, 2, 3))).thenReturn(List.of(enrolled, notEnrolled, duplicate));
+        when(quizSubmissionBatchRepository.findEnrolledStudentIds(eq(3), anyCollection())).thenReturn(Set.of(20, 22));
+        when(quizSubmissionBatchRepository.findGradedStudentIds(eq(9), anyCollection())).thenReturn(Set.of(22));
+        when(quizGradingEngine.score(any(GradingDto.class))).thenReturn(new QuizScore(9, 1, List.of(
+                new QuizScore.QuestionResult(30, QuestionTypeEnum.MCQ, "B", "b", true),
+                new QuizScore.QuestionResult(31, QuestionTypeEnum.TRUE_FALSE, null, null, false))));
+        when(quizSubmissionBatchRepository.complete(anyList(), anyList(), anyList(), any(Date.class)))
+                .thenReturn(new QuizSubmissionBatchRepository.Completion(List.of(enrolled), List.of(500)));
+
+        quizSubmissionService.gradeBatch(List.of(1, 2, 3));
+
+        assertEquals(1, enrolled.getGrade());
+        assertEquals("You are not enrolled in this course.", notEnrolled.getError());
+        assertEquals("You have submitted a response earlier!", duplicate.getError());
+        verify(quizSubmissionBatchRepository).complete(eq(List.of(enrolled)), eq(List.of(notEnrolled, duplicate)), eq(List.of(
+                new AnswerBatchRepository.AnswerRow(9, 30, 20, "B", "b", true, 0),
+                new AnswerBatchRepository.AnswerRow(9, 31, 20, null, null, false, 1))), any(Date.class));
+        verify(notificationsService).fanOutNotification(NotificationTemplate.QUIZ_GRADED, List.of(20), 9);
+        verify(quizGradeStatsService).record(9, 500, 1);
+    }
+
+    @Test
+    void keyUsedForAnotherQuizIsRejected_Test() {
+        when(quizSubmissionRepository.save(any(QuizSubmission.class))).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(quizSubmissionRepository.findByQuizIdAndStudentId(9, 20)).thenReturn(Optional.empty());
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> quizSubmissionService.submit(answers(), "attempt-1", request));
+        assertEquals("This idempotency key was already used for another quiz.", e.getMessage());
+    }
+
+    @Test
+    void failedBatchIsStoredOneSubmissionAtATime_Test() throws Exception {
+        String payload = objectMapper.writeValueAsString(answers());
+        QuizSubmission good = submission(1, 20, payload);
+        QuizSubmission gradedElsewhere = submission(2, 21, payload);
+        when(quizSubmissionRepository.findAllById(List.of(1, 2))).thenReturn(List.of(good, gradedElsewhere));
+        when(quizSubmissionBatchRepository.findEnrolledStudentIds(eq(3), anyCollection())).thenReturn(Set.of(20, 21));
+        when(quizSubmissionBatchRepository.findGradedStudentIds(eq(9), anyCollection())).thenReturn(Set.of());
+        when(quizGradingEngine.score(any(GradingDto.class))).thenReturn(new QuizScore(9, 2, List.of()));
+        when(quizSubmissionBatchRepository.complete(eq(List.of(good, gradedElsewhere)), anyList(), anyList(), any(Date.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_grading_quiz_student"));
+        when(quizSubmissionBatchRepository.complete(eq(List.of(good)), anyList(), anyList(), any(Date.class)))
+                .thenReturn(new QuizSubmissionBatchRepository.Completion(List.of(good), List.of(500)));
+        when(quizSubmissionBatchRepository.complete(eq(List.of(gradedElsewhere)), anyList(), anyList(), any(Date.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_grading_quiz_student"));
+        when(quizSubmissionBatchRepository.complete(eq(List.of()), eq(List.of(gradedElsewhere)), anyList(), any(Date.class)))
+                .thenReturn(new QuizSubmissionBatchRepository.Completion(List.of(), List.of()));
+
+        quizSubmissionService.gradeBatch(List.of(1, 2));
+
+        assertNull(gradedElsewhere.getGrade());
+        assertEquals("You have submitted a response earlier!", gradedElsewhere.getError());
+        verify(quizSubmissionBatchRepository).complete(eq(List.of()), eq(List.of(gradedElsewhere)), anyList(), any(Date.class));
+        verify(quizGradeStatsService).record(9, 500, 2);
+        verify(notificationsService).fanOutNotification(NotificationTemplate.QUIZ_GRADED, List.of(20), 9);
+    }
+
+    private GradingDto answers() {
+        GradingDto dto = new GradingDto();
+        dto.setQuizId(9);
+        dto.setAnswers(List.of("A", "true"));
+        return dto;
+    }
+
+    private QuizSubmission submission(int id, int studentId, String payload) {
+        QuizSubmission submission = new QuizSubmission(9, 3, studentId, "quiz-9", payload, new Date());
+        submission.setSubmissionId(id);
+        return submission;
+    }
+}
@@ -0,0 +1,86 @@
+package com.chhotu.Learning_Management_System.service;
+
+import com.chhotu.Learning_Management_System.entity.QuestionType;
+import com.chhotu.Learning_Management_System.entity.UserRole;
+import com.chhotu.Learning_Management_System.entity.Users;
+import com.chhotu.Learning_Management_System.entity.UsersType;
+import com.chhotu.Learning_Management_System.repository.QuestionTypeRepository;
+import com.chhotu.Learning_Management_System.repository.UsersTypeRepository;
+import com.chhotu.Learning_Management_System.service.impl.ReferenceDataServiceImpl;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReferenceDataServiceTest {
+
+    @Mock
+    private UsersTypeRepository usersTypeRepository;
+
+    @Mock
+    private QuestionTypeRepository questionTypeRepository;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @InjectMocks
+    private ReferenceDataServiceImpl referenceDataService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(usersTypeRepository.findAll()).thenReturn(List.of(
+                new UsersType(1, "Admin", null),
+                new UsersType(2, "Student", null),
+                new UsersType(3, "Instructor", null)));
+        when(questionTypeRepository.findAll()).thenReturn(List.of(
+                new QuestionType(1, QuestionType.QuestionTypeEnum.MCQ),
+                new QuestionType(2, QuestionType.QuestionTypeEnum.TRUE_FALSE)));
+    }
+
+    @Test
+    void lookupsAreServedFromOneLoad_Test() {
+        assertEquals("Instructor", referenceDataService.getUsersType(UserRole.INSTRUCTOR).getUserTypeName());
+        assertEquals(QuestionType.QuestionTypeEnum.TRUE_FALSE, referenceDataService.findQuestionType(2).orElseThrow().getTypeName());
+        assertTrue(referenceDataService.findUsersType(9).isEmpty());
+        assertThrows(IllegalStateException.class,
+                () -> referenceDataService.getQuestionType(QuestionType.QuestionTypeEnum.SHORT_ANSWER));
+
+        verify(usersTypeRepository, times(1)).findAll();
+        verify(questionTypeRepository, times(1)).findAll();
+        verify(questionTypeRepository, never()).findById(anyInt());
+    }
+
+    @Test
+    void reloadSwapsInNewRows_Test() {
+        referenceDataService.reload();
+        when(questionTypeRepository.findAll()).thenReturn(List.of(
+                new QuestionType(1, QuestionType.QuestionTypeEnum.MCQ),
+                new QuestionType(2, QuestionType.QuestionTypeEnum.TRUE_FALSE),
+                new QuestionType(3, QuestionType.QuestionTypeEnum.SHORT_ANSWER)));
+
+        assertTrue(referenceDataService.findQuestionType(3).isEmpty());
+        referenceDataService.reload();
+        assertEquals(3, referenceDataService.getQuestionType(QuestionType.QuestionTypeEnum.SHORT_ANSWER).getTypeId());
+    }
+
+    @Test
+    void reloadRequiresAdmin_Test() {
+        HttpSession session = mock(HttpSession.class);
+        Users student = new Users();
+        student.setUserTypeId(new UsersType(2, "Student", null));
+        when(request.getSession()).thenReturn(session);
+        when(session.getAttribute("user")).thenReturn(student);
+
+        assertThrows(IllegalArgumentException.class, () -> referenceDataService.reload(request));
+        verify(usersTypeRepository, never()).findAll();
+    }
+}
@@ -0,0 +1,172 @@
+package com.chhotu.Learning_Management_System.service;
+
+import com.chhotu.Learning_Management_System.dto.SearchHitDto;
+import com.chhotu.Learning_Management_System.entity.Course;
+import com.chhotu.Learning_Management_System.entity.Lesson;
+import com.chhotu.Learning_Management_System.entity.Users;
+import com.chhotu.Learning_Management_System.entity.UsersType;
+import com.chhotu.Learning_Management_System.repository.CourseRepository;
+import com.chhotu.Learning_Management_System.repository.EnrollmentRepository;
+import com.chhotu.Learning_Management_System.repository.LessonRepository;
+import com.chhotu.Learning_Management_System.service.impl.SearchIndexServiceImpl;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SearchIndexServiceTest {
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private LessonRepository lessonRepository;
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpSession session;
+
+    private SearchIndexServiceImpl searchIndexService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        searchIndexService = new SearchIndexServiceImpl(courseRepository, lessonRepository, enrollmentRepository);
+
+        Users user = new Users();
+        user.setUserId(20);
+        user.setUserTypeId(new UsersType(2, "Student", null));
+        when(request.getSession()).thenReturn(session);
+        when(session.getAttribute("user")).thenReturn(user);
+        when(enrollmentRepository.findCourseIdsByStudentId(20)).thenReturn(List.of(1, 2));
+
+        when(courseRepository.findSearchRows()).thenReturn(rows(
+                new Object[]{1, "Java Basics", "Variables, loops and classes"},
+                new Object[]{2, "Café Cooking", "French pastry for beginners"}));
+        when(lessonRepository.findSearchRows()).thenReturn(rows(
+                new Object[]{10, 1, "Generics", "Type parameters", "Bounded wildcards in Java collections"},
+                new Object[]{11, 1, "Streams", "Functional pipelines", "Collectors and lambdas"},
+                new Object[]{20, 2, "Croissants", "Laminated dough", "Butter and patience"}));
+        searchIndexService.rebuild();
+    }
+
+    @Test
+    void nameMatchesRankAboveContentMatches_Test() {
+        List<SearchHitDto> hits = searchIndexService.search("java", null, request);
+
+        assertEquals(List.of("COURSE:1", "LESSON:10"), keys(hits));
+        assertEquals("Java Basics", hits.get(0).getTitle());
+        assertEquals(1, hits.get(1).getCourseId());
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+    }
+
+    @Test
+    void everyWordMustMatchAndMayBeAPrefix_Test() {
+        assertEquals(List.of("LESSON:10"), keys(searchIndexService.search("java collect", null, request)));
+        assertEquals(List.of("LESSON:10", "LESSON:11"), keys(searchIndexService.search("Collect", null, request)));
+        assertEquals(List.of(), keys(searchIndexService.search("java pastry", null, request)));
+    }
+
+    @Test
+    void accentsCaseAndStopWordsAreIgnored_Test() {
+        assertEquals(List.of("COURSE:2"), keys(searchIndexService.search("the CAFE", null, request)));
+        assertEquals(List.of(), searchIndexService.search("the and of", null, request));
+    }
+
+    @Test
+    void updatesAndDeletesApplyIncrementally_Test() {
+        Course course = new Course();
+        course.setCourseId(1);
+        Lesson lesson = new Lesson(11, course, "Records", "Immutable data carriers", 2, "1234", "Compact constructors", null);
+
+        searchIndexService.indexLesson(lesson);
+
+        assertEquals(List.of(), searchIndexService.search("lambdas", null, request));
+        assertEquals(List.of("LESSON:11"), keys(searchIndexService.search("record", null, request)));
+
+        searchIndexService.removeCourse(1);
+
+        assertEquals(List.of(), searchIndexService.search("record", null, request));
+        assertEquals(List.of(), searchIndexService.search("java", null, request));
+        assertEquals(List.of("LESSON:20"), keys(searchIndexService.search("butter", null, request)));
+    }
+
+    @Test
+    void changesBecomeSearchableOnlyAfterCommit_Test() {
+        Course course = new Course();
+        course.setCourseId(3);
+        course.setCourseName("Kotlin Coroutines");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            searchIndexService.indexCourse(course);
+            assertEquals(List.of(), searchIndexService.search("kotlin", null, request));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of("COURSE:3"), keys(searchIndexService.search("kotlin", null, request)));
+    }
+
+    @Test
+    void lessonsOnlyShowForEnrolledOrOwnedCourses_Test() {
+        when(enrollmentRepository.findCourseIdsByStudentId(20)).thenReturn(List.of(1));
+
+        assertEquals(List.of("COURSE:1", "LESSON:10"), keys(searchIndexService.search("java", null, request)));
+        assertEquals(List.of("COURSE:2"), keys(searchIndexService.search("cafe", null, request)));
+        assertEquals(List.of(), searchIndexService.search("butter", null, request));
+
+        Users instructor = new Users();
+        instructor.setUserId(30);
+        instructor.setUserTypeId(new UsersType(3, "Instructor", null));
+        when(session.getAttribute("user")).thenReturn(instructor);
+        when(courseRepository.findCourseIdsByInstructorId(30)).thenReturn(List.of(2));
+
+        assertEquals(List.of("COURSE:1"), keys(searchIndexService.search("java", null, request)));
+        assertEquals(List.of("LESSON:20"), keys(searchIndexService.search("butter", null, request)));
+
+        Users admin = new Users();
+        admin.setUserId(40);
+        admin.setUserTypeId(new UsersType(1, "Admin", null));
+        when(session.getAttribute("user")).thenReturn(admin);
+
+        assertEquals(List.of("COURSE:1", "LESSON:10"), keys(searchIndexService.search("java", null, request)));
+        assertEquals(List.of("LESSON:20"), keys(searchIndexService.search("butter", null, request)));
+    }
+
+    @Test
+    void searchRequiresLoginAndQuery_Test() {
+        assertThrows(IllegalArgumentException.class, () -> searchIndexService.search(" ", null, request));
+
+        when(session.getAttribute("user")).thenReturn(null);
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> searchIndexService.search("java", null, request));
+
+        assertEquals("No user is logged in.", exception.getMessage());
+    }
+
+    private static List<String> keys(List<SearchHitDto> hits) {
+        return hits.stream().map(hit -> hit.getType() + ":" + hit.getId()).toList();
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
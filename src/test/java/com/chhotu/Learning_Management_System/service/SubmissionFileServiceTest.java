@@ -0,0 +1,254 @@
+package com.chhotu.Learning_Management_System.service;
+
+import com.chhotu.Learning_Management_System.dto.StartUploadDto;
+import com.chhotu.Learning_Management_System.dto.UploadStatusDto;
+import com.chhotu.Learning_Management_System.entity.*;
+import com.chhotu.Learning_Management_System.repository.AssignmentRepository;
+import com.chhotu.Learning_Management_System.repository.EnrollmentRepository;
+import com.chhotu.Learning_Management_System.repository.SubmissionRepository;
+import com.chhotu.Learning_Management_System.repository.SubmissionUploadRepository;
+import com.chhotu.Learning_Management_System.service.impl.SubmissionFileServiceImpl;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SubmissionFileServiceTest {
+
+    private static final String HELLO_SHA256 = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @Mock
+    private SubmissionUploadRepository uploadRepository;
+
+    @Mock
+    private SubmissionRepository submissionRepository;
+
+    @Mock
+    private AssignmentRepository assignmentRepository;
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpSession session;
+
+    @TempDir
+    Path root;
+
+    private SubmissionFileServiceImpl submissionFileService;
+    private final Map<String, SubmissionUpload> uploads = new HashMap<>();
+    private Users studentUser;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        submissionFileService = new SubmissionFileServiceImpl(uploadRepository, submissionRepository,
+                assignmentRepository, enrollmentRepository, root.toString(), 1024, 48);
+
+        studentUser = new Users();
+        studentUser.setUserId(20);
+        studentUser.setUserTypeId(new UsersType(2, "Student", null));
+        Course course = new Course();
+        course.setCourseId(3);
+        Assignment assignment = new Assignment();
+        assignment.setAssignmentId(4);
+        assignment.setCourseID(course);
+
+        when(request.getSession()).thenReturn(session);
+        when(session.getAttribute("user")).thenReturn(studentUser);
+        when(assignmentRepository.findById(4)).thenReturn(Optional.of(assignment));
+        when(enrollmentRepository.existsByStudentUserAccountIdAndCourseCourseId(20, 3)).thenReturn(true);
+        when(submissionRepository.existsByAssignmentAndStudent(4, 20)).thenReturn(true);
+        when(uploadRepository.save(any())).thenAnswer(inv -> {
+            SubmissionUpload upload = inv.getArgument(0);
+            uploads.put(upload.getUploadId(), upload);
+            return upload;
+        });
+        when(uploadRepository.findById(anyString())).thenAnswer(inv -> Optional.ofNullable(uploads.get(inv.<String>getArgument(0))));
+    }
+
+    @Test
+    void interruptedUploadResumesAndIsStoredBySha256_Test() {
+        UploadStatusDto started = submissionFileService.startUpload(new StartUploadDto(4, "hello.txt", 5), request);
+        submissionFileService.writeChunk(started.getUploadId(), 0, bytes("he"), request);
+
+        // The client lost its upload id; starting the same file again hands back the same upload
+        when(uploadRepository.findByAssignmentIdAndStudentId(4, 20)).thenReturn(Optional.of(uploads.get(started.getUploadId())));
+        UploadStatusDto resumed = submissionFileService.startUpload(new StartUploadDto(4, "hello.txt", 5), request);
+        assertEquals(started.getUploadId(), resumed.getUploadId());
+        assertEquals(2, resumed.getReceivedBytes());
+
+        submissionFileService.writeChunk(started.getUploadId(), 2, bytes("llo"), request);
+        Submission submission = new Submission();
+        when(submissionRepository.findByAssignmentAndStudent(4, 20)).thenReturn(Optional.of(submission));
+
+        UploadStatusDto completed = submissionFileService.completeUpload(started.getUploadId(), HELLO_SHA256.toUpperCase(), request);
+
+        Path object = root.resolve("objects").resolve("2c").resolve(HELLO_SHA256);
+        assertEquals(HELLO_SHA256, completed.getSha256());
+        assertEquals(object.toString(), submission.getFilePath());
+        assertTrue(Files.exists(object));
+        assertFalse(Files.exists(root.resolve("incoming").resolve(started.getUploadId() + ".part")));
+        verify(uploadRepository).delete(uploads.get(started.getUploadId()));
+    }
+
+    @Test
+    void identicalUploadReusesStoredObject_Test() throws Exception {
+        Path object = root.resolve("objects").resolve("2c").resolve(HELLO_SHA256);
+        Files.createDirectories(object.getParent());
+        Files.writeString(object, "hello");
+        Submission submission = new Submission();
+        when(submissionRepository.findByAssignmentAndStudent(4, 20)).thenReturn(Optional.of(submission));
+
+        UploadStatusDto started = submissionFileService.startUpload(new StartUploadDto(4, "copy.txt", 5), request);
+        submissionFileService.writeChunk(started.getUploadId(), 0, bytes("hello"), request);
+        submissionFileService.completeUpload(started.getUploadId(), null, request);
+
+        assertEquals(object.toString(), submission.getFilePath());
+        try (var stored = Files.list(object.getParent())) {
+            assertEquals(1, stored.count());
+        }
+        assertFalse(Files.exists(root.resolve("incoming").resolve(started.getUploadId() + ".part")));
+    }
+
+    @Test
+    void replacedObjectIsRemovedOnceNoSubmissionUsesIt_Test() throws Exception {
+        Path replaced = root.resolve("objects").resolve("ab").resolve("ab" + HELLO_SHA256.substring(2));
+        Files.createDirectories(replaced.getParent());
+        Files.writeString(replaced, "first");
+        Files.setLastModifiedTime(replaced, FileTime.fromMillis(System.currentTimeMillis() - 3_600_000L));
+        Submission submission = new Submission();
+        submission.setFilePath(replaced.toString());
+        when(submissionRepository.findByAssignmentAndStudent(4, 20)).thenReturn(Optional.of(submission));
+
+        UploadStatusDto started = submissionFileService.startUpload(new StartUploadDto(4, "hello.txt", 5), request);
+        submissionFileService.writeChunk(started.getUploadId(), 0, bytes("hello"), request);
+        submissionFileService.completeUpload(started.getUploadId(), null, request);
+        submissionFileService.removeAbandonedUploads();
+
+        assertFalse(Files.exists(replaced));
+        assertTrue(Files.exists(root.resolve("objects").resolve("2c").resolve(HELLO_SHA256)));
+    }
+
+    @Test
+    void replacedObjectStillReferencedIsKept_Test() throws Exception {
+        Path replaced = root.resolve("objects").resolve("ab").resolve("ab" + HELLO_SHA256.substring(2));
+        Files.createDirectories(replaced.getParent());
+        Files.writeString(replaced, "first");
+        Files.setLastModifiedTime(replaced, FileTime.fromMillis(System.currentTimeMillis() - 3_600_000L));
+        Submission submission = new Submission();
+        submission.setFilePath(replaced.toString());
+        when(submissionRepository.findByAssignmentAndStudent(4, 20)).thenReturn(Optional.of(submission));
+        // Another student submitted the same file
+        when(submissionRepository.existsByFilePath(replaced.toString())).thenReturn(true);
+
+        UploadStatusDto started = submissionFileService.startUpload(new StartUploadDto(4, "hello.txt", 5), request);
+        submissionFileService.writeChunk(started.getUploadId(), 0, bytes("hello"), request);
+        submissionFileService.completeUpload(started.getUploadId(), null, request);
+        submissionFileService.removeAbandonedUploads();
+
+        assertTrue(Files.exists(replaced));
+    }
+
+    @Test
+    void uploadsExpireByLastActivity_Test() {
+        UploadStatusDto started = submissionFileService.startUpload(new StartUploadDto(4, "hello.txt", 5), request);
+        submissionFileService.writeChunk(started.getUploadId(), 0, bytes("he"), request);
+        when(uploadRepository.findInactiveSince(any())).thenReturn(List.of());
+
+        submissionFileService.removeAbandonedUploads();
+
+        verify(uploadRepository).recordActivity(eq(started.getUploadId()), any());
+        verify(uploadRepository).findInactiveSince(any());
+        assertTrue(Files.exists(root.resolve("incoming").resolve(started.getUploadId() + ".part")));
+    }
+
+    @Test
+    void completingAnUploadTwiceConcurrentlyIsRejected_Test() throws Exception {
+        UploadStatusDto started = submissionFileService.startUpload(new StartUploadDto(4, "hello.txt", 5), request);
+        submissionFileService.writeChunk(started.getUploadId(), 0, bytes("hello"), request);
+        // The other request already moved the part file
+        Files.delete(root.resolve("incoming").resolve(started.getUploadId() + ".part"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> submissionFileService.completeUpload(started.getUploadId(), null, request));
+    }
+
+    @Test
+    void chunkAtWrongOffsetIsRejected_Test() {
+        UploadStatusDto started = submissionFileService.startUpload(new StartUploadDto(4, "hello.txt", 5), request);
+        submissionFileService.writeChunk(started.getUploadId(), 0, bytes("he"), request);
+
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> submissionFileService.writeChunk(started.getUploadId(), 4, bytes("o"), request));
+
+        assertEquals("Chunk must start at offset 2", exception.getMessage());
+    }
+
+    @Test
+    void chunkPastDeclaredSizeIsRolledBack_Test() {
+        UploadStatusDto started = submissionFileService.startUpload(new StartUploadDto(4, "hello.txt", 5), request);
+        submissionFileService.writeChunk(started.getUploadId(), 0, bytes("he"), request);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> submissionFileService.writeChunk(started.getUploadId(), 2, bytes("llo world"), request));
+
+        assertEquals(2, submissionFileService.getUploadStatus(started.getUploadId(), request).getReceivedBytes());
+    }
+
+    @Test
+    void checksumMismatchRequiresUploadingAgain_Test() {
+        UploadStatusDto started = submissionFileService.startUpload(new StartUploadDto(4, "hello.txt", 5), request);
+        submissionFileService.writeChunk(started.getUploadId(), 0, bytes("hellO"), request);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> submissionFileService.completeUpload(started.getUploadId(), HELLO_SHA256, request));
+
+        assertEquals(0, submissionFileService.getUploadStatus(started.getUploadId(), request).getReceivedBytes());
+        verify(submissionRepository, never()).save(any());
+    }
+
+    @Test
+    void otherStudentsCannotWriteToAnUpload_Test() {
+        UploadStatusDto started = submissionFileService.startUpload(new StartUploadDto(4, "hello.txt", 5), request);
+        studentUser.setUserId(21);
+
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> submissionFileService.writeChunk(started.getUploadId(), 0, bytes("hello"), request));
+
+        assertEquals("Upload not found", exception.getMessage());
+        assertFalse(Files.exists(Paths.get(root.toString(), "incoming", started.getUploadId() + ".part")));
+    }
+
+    @Test
+    void fileLargerThanLimitIsRefused_Test() {
+        assertThrows(IllegalArgumentException.class,
+                () -> submissionFileService.startUpload(new StartUploadDto(4, "big.zip", 2048), request));
+        verifyNoInteractions(uploadRepository);
+    }
+
+    private static ByteArrayInputStream bytes(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII));
+    }
+}